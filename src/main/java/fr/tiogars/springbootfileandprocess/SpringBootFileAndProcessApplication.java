@@ -2,12 +2,14 @@ package fr.tiogars.springbootfileandprocess;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for Spring Boot File And Process.
  * This class bootstraps the Spring Boot application.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringBootFileAndProcessApplication {
 
   /**
@@ -0,0 +1,741 @@
+package fr.tiogars.springbootfileandprocess.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for file operations, bound from the
+ * {@code file.*} keys of the application configuration.
+ */
+@ConfigurationProperties(prefix = "file")
+public class FileProperties {
+
+    /**
+     * Settings of directory listings.
+     */
+    private final Listing listing = new Listing();
+
+    /**
+     * Settings of recursive walks.
+     */
+    private final Walk walk = new Walk();
+
+    /**
+     * Settings of the directory listing cache.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Settings of disk usage computations.
+     */
+    private final Usage usage = new Usage();
+
+    /**
+     * Settings of the file metadata index.
+     */
+    private final Index index = new Index();
+
+    /**
+     * Settings of file tails.
+     */
+    private final Tail tail = new Tail();
+
+    /**
+     * Settings of content hashing.
+     */
+    private final Hash hash = new Hash();
+
+    /**
+     * Default constructor.
+     */
+    public FileProperties() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the settings of directory listings.
+     *
+     * @return the listing settings
+     */
+    public Listing getListing() {
+        return listing;
+    }
+
+    /**
+     * Gets the settings of recursive walks.
+     *
+     * @return the walk settings
+     */
+    public Walk getWalk() {
+        return walk;
+    }
+
+    /**
+     * Gets the settings of the directory listing cache.
+     *
+     * @return the cache settings
+     */
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the settings of disk usage computations.
+     *
+     * @return the usage settings
+     */
+    public Usage getUsage() {
+        return usage;
+    }
+
+    /**
+     * Gets the settings of the file metadata index.
+     *
+     * @return the index settings
+     */
+    public Index getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the settings of file tails.
+     *
+     * @return the tail settings
+     */
+    public Tail getTail() {
+        return tail;
+    }
+
+    /**
+     * Gets the settings of content hashing.
+     *
+     * @return the hash settings
+     */
+    public Hash getHash() {
+        return hash;
+    }
+
+    /**
+     * Settings of directory listings.
+     */
+    public static class Listing {
+
+        /**
+         * Maximum number of entries per page; larger limits are lowered to it.
+         */
+        private int maxLimit = 10000;
+
+        /**
+         * Duration beyond which a listing is logged as slow, zero to never
+         * log.
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Default constructor.
+         */
+        public Listing() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of entries per page.
+         *
+         * @return the maximum page size
+         */
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        /**
+         * Sets the maximum number of entries per page.
+         *
+         * @param maxLimitParam the maximum page size
+         */
+        public void setMaxLimit(final int maxLimitParam) {
+            this.maxLimit = maxLimitParam;
+        }
+
+        /**
+         * Gets the duration beyond which a listing is logged as slow.
+         *
+         * @return the slow listing threshold, zero to never log
+         */
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        /**
+         * Sets the duration beyond which a listing is logged as slow.
+         *
+         * @param slowThresholdParam the slow listing threshold, zero to never log
+         */
+        public void setSlowThreshold(final Duration slowThresholdParam) {
+            this.slowThreshold = slowThresholdParam;
+        }
+    }
+
+    /**
+     * Settings of recursive walks.
+     */
+    public static class Walk {
+
+        /**
+         * Maximum number of directories read at once by a walk.
+         */
+        private int parallelism = 8;
+
+        /**
+         * Maximum number of entries found and not yet sent to the client.
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * Default constructor.
+         */
+        public Walk() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of directories read at once.
+         *
+         * @return the parallelism of a walk
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the maximum number of directories read at once.
+         *
+         * @param parallelismParam the parallelism of a walk
+         */
+        public void setParallelism(final int parallelismParam) {
+            this.parallelism = parallelismParam;
+        }
+
+        /**
+         * Gets the maximum number of entries waiting for the client.
+         *
+         * @return the buffer size of a walk
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Sets the maximum number of entries waiting for the client.
+         *
+         * @param bufferSizeParam the buffer size of a walk
+         */
+        public void setBufferSize(final int bufferSizeParam) {
+            this.bufferSize = bufferSizeParam;
+        }
+    }
+
+    /**
+     * Settings of the directory listing cache.
+     */
+    public static class Cache {
+
+        /**
+         * Whether listings are cached.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of directories cached and watched.
+         */
+        private int maxDirectories = 64;
+
+        /**
+         * Maximum number of entries of a cached directory.
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * Default constructor.
+         */
+        public Cache() {
+            // Default constructor
+        }
+
+        /**
+         * Tells whether listings are cached.
+         *
+         * @return true if listings are cached
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether listings are cached.
+         *
+         * @param enabledParam true to cache listings
+         */
+        public void setEnabled(final boolean enabledParam) {
+            this.enabled = enabledParam;
+        }
+
+        /**
+         * Gets the maximum number of directories cached and watched.
+         *
+         * @return the maximum number of directories
+         */
+        public int getMaxDirectories() {
+            return maxDirectories;
+        }
+
+        /**
+         * Sets the maximum number of directories cached and watched.
+         *
+         * @param maxDirectoriesParam the maximum number of directories
+         */
+        public void setMaxDirectories(final int maxDirectoriesParam) {
+            this.maxDirectories = maxDirectoriesParam;
+        }
+
+        /**
+         * Gets the maximum number of entries of a cached directory.
+         *
+         * @return the maximum number of entries
+         */
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        /**
+         * Sets the maximum number of entries of a cached directory.
+         *
+         * @param maxEntriesParam the maximum number of entries
+         */
+        public void setMaxEntries(final int maxEntriesParam) {
+            this.maxEntries = maxEntriesParam;
+        }
+    }
+
+    /**
+     * Settings of disk usage computations.
+     */
+    public static class Usage {
+
+        /**
+         * Maximum number of directories read at once.
+         */
+        private int parallelism = 8;
+
+        /**
+         * Maximum number of directory subtotals remembered.
+         */
+        private int maxDirectories = 100000;
+
+        /**
+         * How long a remembered subtotal is trusted while its directory is unchanged.
+         */
+        private Duration maxAge = Duration.ofMinutes(5);
+
+        /**
+         * Default constructor.
+         */
+        public Usage() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of directories read at once.
+         *
+         * @return the parallelism of a computation
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the maximum number of directories read at once.
+         *
+         * @param parallelismParam the parallelism of a computation
+         */
+        public void setParallelism(final int parallelismParam) {
+            this.parallelism = parallelismParam;
+        }
+
+        /**
+         * Gets the maximum number of directory subtotals remembered.
+         *
+         * @return the maximum number of directories
+         */
+        public int getMaxDirectories() {
+            return maxDirectories;
+        }
+
+        /**
+         * Sets the maximum number of directory subtotals remembered.
+         *
+         * @param maxDirectoriesParam the maximum number of directories
+         */
+        public void setMaxDirectories(final int maxDirectoriesParam) {
+            this.maxDirectories = maxDirectoriesParam;
+        }
+
+        /**
+         * Gets how long a remembered subtotal is trusted.
+         *
+         * @return the maximum age of a subtotal
+         */
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        /**
+         * Sets how long a remembered subtotal is trusted.
+         *
+         * @param maxAgeParam the maximum age of a subtotal
+         */
+        public void setMaxAge(final Duration maxAgeParam) {
+            this.maxAge = maxAgeParam;
+        }
+    }
+
+    /**
+     * Settings of the file metadata index.
+     */
+    public static class Index {
+
+        /**
+         * The directory trees indexed, none disabling the index.
+         */
+        private List<String> roots = new ArrayList<>();
+
+        /**
+         * The file the index is persisted to.
+         */
+        private String location = "data/file-index.bin";
+
+        /**
+         * How often the indexed trees are crawled again, zero for never.
+         */
+        private Duration rescanInterval = Duration.ofHours(1);
+
+        /**
+         * Maximum number of directories watched for changes.
+         */
+        private int maxWatchedDirectories = 8192;
+
+        /**
+         * Number of changes after which they are merged into the index.
+         */
+        private int compactThreshold = 10000;
+
+        /**
+         * Maximum number of results of a search.
+         */
+        private int maxResults = 1000;
+
+        /**
+         * Default constructor.
+         */
+        public Index() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the directory trees indexed.
+         *
+         * @return the indexed directory trees
+         */
+        public List<String> getRoots() {
+            return roots;
+        }
+
+        /**
+         * Sets the directory trees indexed.
+         *
+         * @param rootsParam the directory trees to index
+         */
+        public void setRoots(final List<String> rootsParam) {
+            this.roots = rootsParam;
+        }
+
+        /**
+         * Gets the file the index is persisted to.
+         *
+         * @return the index file
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * Sets the file the index is persisted to.
+         *
+         * @param locationParam the index file
+         */
+        public void setLocation(final String locationParam) {
+            this.location = locationParam;
+        }
+
+        /**
+         * Gets how often the indexed trees are crawled again.
+         *
+         * @return the interval between crawls
+         */
+        public Duration getRescanInterval() {
+            return rescanInterval;
+        }
+
+        /**
+         * Sets how often the indexed trees are crawled again.
+         *
+         * @param rescanIntervalParam the interval between crawls
+         */
+        public void setRescanInterval(final Duration rescanIntervalParam) {
+            this.rescanInterval = rescanIntervalParam;
+        }
+
+        /**
+         * Gets the maximum number of directories watched for changes.
+         *
+         * @return the maximum number of watched directories
+         */
+        public int getMaxWatchedDirectories() {
+            return maxWatchedDirectories;
+        }
+
+        /**
+         * Sets the maximum number of directories watched for changes.
+         *
+         * @param maxWatchedDirectoriesParam the maximum number of watched directories
+         */
+        public void setMaxWatchedDirectories(final int maxWatchedDirectoriesParam) {
+            this.maxWatchedDirectories = maxWatchedDirectoriesParam;
+        }
+
+        /**
+         * Gets the number of changes after which they are merged into the index.
+         *
+         * @return the number of changes merged at once
+         */
+        public int getCompactThreshold() {
+            return compactThreshold;
+        }
+
+        /**
+         * Sets the number of changes after which they are merged into the index.
+         *
+         * @param compactThresholdParam the number of changes merged at once
+         */
+        public void setCompactThreshold(final int compactThresholdParam) {
+            this.compactThreshold = compactThresholdParam;
+        }
+
+        /**
+         * Gets the maximum number of results of a search.
+         *
+         * @return the maximum number of results
+         */
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        /**
+         * Sets the maximum number of results of a search.
+         *
+         * @param maxResultsParam the maximum number of results
+         */
+        public void setMaxResults(final int maxResultsParam) {
+            this.maxResults = maxResultsParam;
+        }
+    }
+
+    /**
+     * Settings of file tails.
+     */
+    public static class Tail {
+
+        /**
+         * Maximum number of lines returned by a tail.
+         */
+        private int maxLines = 10000;
+
+        /**
+         * Maximum length of a line, in bytes, beyond which it is split.
+         */
+        private int maxLineLength = 65536;
+
+        /**
+         * Interval between two checks of a followed file.
+         */
+        private Duration pollInterval = Duration.ofMillis(250);
+
+        /**
+         * Maximum duration of a follow.
+         */
+        private Duration maxFollow = Duration.ofHours(1);
+
+        /**
+         * Default constructor.
+         */
+        public Tail() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of lines returned by a tail.
+         *
+         * @return the maximum number of lines
+         */
+        public int getMaxLines() {
+            return maxLines;
+        }
+
+        /**
+         * Sets the maximum number of lines returned by a tail.
+         *
+         * @param maxLinesParam the maximum number of lines
+         */
+        public void setMaxLines(final int maxLinesParam) {
+            this.maxLines = maxLinesParam;
+        }
+
+        /**
+         * Gets the maximum length of a line, beyond which it is split.
+         *
+         * @return the maximum length of a line, in bytes
+         */
+        public int getMaxLineLength() {
+            return maxLineLength;
+        }
+
+        /**
+         * Sets the maximum length of a line, beyond which it is split.
+         *
+         * @param maxLineLengthParam the maximum length of a line, in bytes
+         */
+        public void setMaxLineLength(final int maxLineLengthParam) {
+            this.maxLineLength = maxLineLengthParam;
+        }
+
+        /**
+         * Gets the interval between two checks of a followed file.
+         *
+         * @return the poll interval
+         */
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        /**
+         * Sets the interval between two checks of a followed file.
+         *
+         * @param pollIntervalParam the poll interval
+         */
+        public void setPollInterval(final Duration pollIntervalParam) {
+            this.pollInterval = pollIntervalParam;
+        }
+
+        /**
+         * Gets the maximum duration of a follow.
+         *
+         * @return the maximum duration of a follow
+         */
+        public Duration getMaxFollow() {
+            return maxFollow;
+        }
+
+        /**
+         * Sets the maximum duration of a follow.
+         *
+         * @param maxFollowParam the maximum duration of a follow
+         */
+        public void setMaxFollow(final Duration maxFollowParam) {
+            this.maxFollow = maxFollowParam;
+        }
+    }
+
+    /**
+     * Settings of content hashing.
+     */
+    public static class Hash {
+
+        /**
+         * Number of threads hashing files, shared by all requests.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Size of the read buffer of each hashing thread, in bytes.
+         */
+        private int bufferSize = 1 << 20;
+
+        /**
+         * Maximum number of digests remembered.
+         */
+        private int cacheSize = 100000;
+
+        /**
+         * Default constructor.
+         */
+        public Hash() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the number of threads hashing files.
+         *
+         * @return the parallelism of hashing
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the number of threads hashing files.
+         *
+         * @param parallelismParam the parallelism of hashing
+         */
+        public void setParallelism(final int parallelismParam) {
+            this.parallelism = parallelismParam;
+        }
+
+        /**
+         * Gets the size of the read buffer of each hashing thread.
+         *
+         * @return the buffer size, in bytes
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Sets the size of the read buffer of each hashing thread.
+         *
+         * @param bufferSizeParam the buffer size, in bytes
+         */
+        public void setBufferSize(final int bufferSizeParam) {
+            this.bufferSize = bufferSizeParam;
+        }
+
+        /**
+         * Gets the maximum number of digests remembered.
+         *
+         * @return the maximum number of cached digests
+         */
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        /**
+         * Sets the maximum number of digests remembered.
+         *
+         * @param cacheSizeParam the maximum number of cached digests
+         */
+        public void setCacheSize(final int cacheSizeParam) {
+            this.cacheSize = cacheSizeParam;
+        }
+    }
+}
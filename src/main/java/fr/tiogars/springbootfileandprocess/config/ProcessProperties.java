@@ -0,0 +1,780 @@
+package fr.tiogars.springbootfileandprocess.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for process execution, bound from the
+ * {@code process.*} keys of the application configuration.
+ */
+@ConfigurationProperties(prefix = "process")
+public class ProcessProperties {
+
+    /**
+     * Settings of the asynchronous job executor.
+     */
+    private final Jobs jobs = new Jobs();
+
+    /**
+     * Settings of the output capture of synchronous executions.
+     */
+    private final Capture capture = new Capture();
+
+    /**
+     * Settings of the process execution model.
+     */
+    private final Execution execution = new Execution();
+
+    /**
+     * Settings of the result cache of cacheable commands.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Settings of the batch executor.
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * Settings of the per working directory and per command limits.
+     */
+    private final Scheduling scheduling = new Scheduling();
+
+    /**
+     * Settings of the process execution metrics.
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Default constructor.
+     */
+    public ProcessProperties() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the settings of the asynchronous job executor.
+     *
+     * @return the job settings
+     */
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Gets the settings of the output capture.
+     *
+     * @return the capture settings
+     */
+    public Capture getCapture() {
+        return capture;
+    }
+
+    /**
+     * Gets the settings of the process execution model.
+     *
+     * @return the execution settings
+     */
+    public Execution getExecution() {
+        return execution;
+    }
+
+    /**
+     * Gets the settings of the result cache.
+     *
+     * @return the cache settings
+     */
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the settings of the batch executor.
+     *
+     * @return the batch settings
+     */
+    public Batch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Gets the settings of the per working directory and per command limits.
+     *
+     * @return the scheduling settings
+     */
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
+
+    /**
+     * Gets the settings of the process execution metrics.
+     *
+     * @return the metrics settings
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Settings of the asynchronous job executor.
+     */
+    public static class Jobs {
+
+        /**
+         * Number of worker threads running jobs concurrently.
+         */
+        private int poolSize = 4;
+
+        /**
+         * Maximum number of jobs waiting for a worker before submissions are
+         * rejected.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * How long a finished job stays available for polling.
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        /**
+         * Default constructor.
+         */
+        public Jobs() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the number of worker threads.
+         *
+         * @return the number of worker threads
+         */
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * Sets the number of worker threads.
+         *
+         * @param poolSizeParam the number of worker threads
+         */
+        public void setPoolSize(final int poolSizeParam) {
+            this.poolSize = poolSizeParam;
+        }
+
+        /**
+         * Gets the maximum number of queued jobs.
+         *
+         * @return the maximum number of queued jobs
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the maximum number of queued jobs.
+         *
+         * @param queueCapacityParam the maximum number of queued jobs
+         */
+        public void setQueueCapacity(final int queueCapacityParam) {
+            this.queueCapacity = queueCapacityParam;
+        }
+
+        /**
+         * Gets how long a finished job stays available.
+         *
+         * @return the retention of finished jobs
+         */
+        public Duration getRetention() {
+            return retention;
+        }
+
+        /**
+         * Sets how long a finished job stays available.
+         *
+         * @param retentionParam the retention of finished jobs
+         */
+        public void setRetention(final Duration retentionParam) {
+            this.retention = retentionParam;
+        }
+    }
+
+    /**
+     * Settings of the output capture of synchronous executions.
+     */
+    public static class Capture {
+
+        /**
+         * Whether the output is bounded; when false the whole output is kept.
+         */
+        private boolean bounded;
+
+        /**
+         * Number of lines kept from the start of the output.
+         */
+        private int headLines = 1000;
+
+        /**
+         * Number of lines kept from the end of the output.
+         */
+        private int tailLines = 1000;
+
+        /**
+         * Maximum number of characters kept per line.
+         */
+        private int maxLineLength = 8192;
+
+        /**
+         * Maximum number of bytes kept per stream when stdout and stderr are
+         * captured separately.
+         */
+        private DataSize maxStreamBytes = DataSize.ofMegabytes(16);
+
+        /**
+         * Default constructor.
+         */
+        public Capture() {
+            // Default constructor
+        }
+
+        /**
+         * Tells whether the output is bounded.
+         *
+         * @return true if only the head and tail of the output are kept
+         */
+        public boolean isBounded() {
+            return bounded;
+        }
+
+        /**
+         * Sets whether the output is bounded.
+         *
+         * @param boundedParam true to keep only the head and tail of the output
+         */
+        public void setBounded(final boolean boundedParam) {
+            this.bounded = boundedParam;
+        }
+
+        /**
+         * Gets the number of lines kept from the start of the output.
+         *
+         * @return the number of head lines
+         */
+        public int getHeadLines() {
+            return headLines;
+        }
+
+        /**
+         * Sets the number of lines kept from the start of the output.
+         *
+         * @param headLinesParam the number of head lines
+         */
+        public void setHeadLines(final int headLinesParam) {
+            this.headLines = headLinesParam;
+        }
+
+        /**
+         * Gets the number of lines kept from the end of the output.
+         *
+         * @return the number of tail lines
+         */
+        public int getTailLines() {
+            return tailLines;
+        }
+
+        /**
+         * Sets the number of lines kept from the end of the output.
+         *
+         * @param tailLinesParam the number of tail lines
+         */
+        public void setTailLines(final int tailLinesParam) {
+            this.tailLines = tailLinesParam;
+        }
+
+        /**
+         * Gets the maximum number of characters kept per line.
+         *
+         * @return the maximum line length
+         */
+        public int getMaxLineLength() {
+            return maxLineLength;
+        }
+
+        /**
+         * Sets the maximum number of characters kept per line.
+         *
+         * @param maxLineLengthParam the maximum line length
+         */
+        public void setMaxLineLength(final int maxLineLengthParam) {
+            this.maxLineLength = maxLineLengthParam;
+        }
+
+        /**
+         * Gets the maximum number of bytes kept per separately captured stream.
+         *
+         * @return the maximum number of bytes per stream
+         */
+        public DataSize getMaxStreamBytes() {
+            return maxStreamBytes;
+        }
+
+        /**
+         * Sets the maximum number of bytes kept per separately captured stream.
+         *
+         * @param maxStreamBytesParam the maximum number of bytes per stream
+         */
+        public void setMaxStreamBytes(final DataSize maxStreamBytesParam) {
+            this.maxStreamBytes = maxStreamBytesParam;
+        }
+    }
+
+    /**
+     * Settings of the process execution model.
+     */
+    public static class Execution {
+
+        /**
+         * Whether output pumps run on virtual threads.
+         */
+        private boolean virtualThreads;
+
+        /**
+         * Maximum number of live child processes, 0 for no limit.
+         */
+        private int maxConcurrentProcesses;
+
+        /**
+         * Timeout of commands that do not set their own, zero for none.
+         */
+        private Duration defaultTimeout = Duration.ZERO;
+
+        /**
+         * Whether identical concurrent executions share one process even
+         * when not flagged cacheable.
+         */
+        private boolean coalesceAll;
+
+        /**
+         * How long a streamed command may stay silent before a comment is
+         * sent to check the client is still there.
+         */
+        private Duration streamHeartbeat = Duration.ofSeconds(15);
+
+        /**
+         * Default constructor.
+         */
+        public Execution() {
+            // Default constructor
+        }
+
+        /**
+         * Tells whether output pumps run on virtual threads.
+         *
+         * @return true if output pumps run on virtual threads
+         */
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        /**
+         * Sets whether output pumps run on virtual threads.
+         *
+         * @param virtualThreadsParam true to run output pumps on virtual threads
+         */
+        public void setVirtualThreads(final boolean virtualThreadsParam) {
+            this.virtualThreads = virtualThreadsParam;
+        }
+
+        /**
+         * Gets the maximum number of live child processes.
+         *
+         * @return the maximum number of processes, 0 for no limit
+         */
+        public int getMaxConcurrentProcesses() {
+            return maxConcurrentProcesses;
+        }
+
+        /**
+         * Sets the maximum number of live child processes.
+         *
+         * @param maxConcurrentProcessesParam the maximum number of processes, 0 for no limit
+         */
+        public void setMaxConcurrentProcesses(final int maxConcurrentProcessesParam) {
+            this.maxConcurrentProcesses = maxConcurrentProcessesParam;
+        }
+
+        /**
+         * Gets the timeout of commands that do not set their own.
+         *
+         * @return the default timeout, zero for none
+         */
+        public Duration getDefaultTimeout() {
+            return defaultTimeout;
+        }
+
+        /**
+         * Sets the timeout of commands that do not set their own.
+         *
+         * @param defaultTimeoutParam the default timeout, zero for none
+         */
+        public void setDefaultTimeout(final Duration defaultTimeoutParam) {
+            this.defaultTimeout = defaultTimeoutParam;
+        }
+
+        /**
+         * Tells whether all identical concurrent executions are coalesced.
+         *
+         * @return true if commands not flagged cacheable are coalesced too
+         */
+        public boolean isCoalesceAll() {
+            return coalesceAll;
+        }
+
+        /**
+         * Sets whether all identical concurrent executions are coalesced.
+         *
+         * @param coalesceAllParam true to coalesce commands not flagged cacheable too
+         */
+        public void setCoalesceAll(final boolean coalesceAllParam) {
+            this.coalesceAll = coalesceAllParam;
+        }
+
+        /**
+         * Gets how long a streamed command may stay silent before its client
+         * is checked.
+         *
+         * @return the heartbeat interval of streamed commands
+         */
+        public Duration getStreamHeartbeat() {
+            return streamHeartbeat;
+        }
+
+        /**
+         * Sets how long a streamed command may stay silent before its client
+         * is checked.
+         *
+         * @param streamHeartbeatParam the heartbeat interval of streamed commands
+         */
+        public void setStreamHeartbeat(final Duration streamHeartbeatParam) {
+            this.streamHeartbeat = streamHeartbeatParam;
+        }
+    }
+
+    /**
+     * Settings of the result cache of cacheable commands.
+     */
+    public static class Cache {
+
+        /**
+         * How long a result stays cached.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of cached results, 0 to disable the cache.
+         */
+        private int maxEntries = 256;
+
+        /**
+         * Whether the modification time of the working directory is part of
+         * the cache key.
+         */
+        private boolean fingerprintWorkingDirectory = true;
+
+        /**
+         * Default constructor.
+         */
+        public Cache() {
+            // Default constructor
+        }
+
+        /**
+         * Gets how long a result stays cached.
+         *
+         * @return the time to live of cached results
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        /**
+         * Sets how long a result stays cached.
+         *
+         * @param ttlParam the time to live of cached results
+         */
+        public void setTtl(final Duration ttlParam) {
+            this.ttl = ttlParam;
+        }
+
+        /**
+         * Gets the maximum number of cached results.
+         *
+         * @return the maximum number of cached results, 0 when disabled
+         */
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        /**
+         * Sets the maximum number of cached results.
+         *
+         * @param maxEntriesParam the maximum number of cached results, 0 to disable
+         */
+        public void setMaxEntries(final int maxEntriesParam) {
+            this.maxEntries = maxEntriesParam;
+        }
+
+        /**
+         * Tells whether the working directory modification time is part of
+         * the cache key.
+         *
+         * @return true if the working directory is fingerprinted
+         */
+        public boolean isFingerprintWorkingDirectory() {
+            return fingerprintWorkingDirectory;
+        }
+
+        /**
+         * Sets whether the working directory modification time is part of
+         * the cache key.
+         *
+         * @param fingerprintWorkingDirectoryParam true to fingerprint the working directory
+         */
+        public void setFingerprintWorkingDirectory(final boolean fingerprintWorkingDirectoryParam) {
+            this.fingerprintWorkingDirectory = fingerprintWorkingDirectoryParam;
+        }
+    }
+
+    /**
+     * Settings of the batch executor.
+     */
+    public static class Batch {
+
+        /**
+         * Number of batch commands running concurrently, across all batches.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Maximum number of commands per batch.
+         */
+        private int maxCommands = 100;
+
+        /**
+         * Default constructor.
+         */
+        public Batch() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the number of batch commands running concurrently.
+         *
+         * @return the number of concurrent batch commands
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the number of batch commands running concurrently.
+         *
+         * @param parallelismParam the number of concurrent batch commands
+         */
+        public void setParallelism(final int parallelismParam) {
+            this.parallelism = parallelismParam;
+        }
+
+        /**
+         * Gets the maximum number of commands per batch.
+         *
+         * @return the maximum number of commands per batch
+         */
+        public int getMaxCommands() {
+            return maxCommands;
+        }
+
+        /**
+         * Sets the maximum number of commands per batch.
+         *
+         * @param maxCommandsParam the maximum number of commands per batch
+         */
+        public void setMaxCommands(final int maxCommandsParam) {
+            this.maxCommands = maxCommandsParam;
+        }
+    }
+
+    /**
+     * Settings of the per working directory and per command limits.
+     */
+    public static class Scheduling {
+
+        /**
+         * Maximum number of executions running at once in the same working
+         * directory, 0 for no limit.
+         */
+        private int maxPerWorkingDirectory;
+
+        /**
+         * Maximum number of executions running at once with the same command,
+         * 0 for no limit.
+         */
+        private int maxPerCommand;
+
+        /**
+         * Limits of specific commands, overriding {@code maxPerCommand}.
+         */
+        private Map<String, Integer> commandLimits = new HashMap<>();
+
+        /**
+         * Default constructor.
+         */
+        public Scheduling() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of executions per working directory.
+         *
+         * @return the limit per working directory, 0 for none
+         */
+        public int getMaxPerWorkingDirectory() {
+            return maxPerWorkingDirectory;
+        }
+
+        /**
+         * Sets the maximum number of executions per working directory.
+         *
+         * @param maxPerWorkingDirectoryParam the limit per working directory, 0 for none
+         */
+        public void setMaxPerWorkingDirectory(final int maxPerWorkingDirectoryParam) {
+            this.maxPerWorkingDirectory = maxPerWorkingDirectoryParam;
+        }
+
+        /**
+         * Gets the maximum number of executions per command.
+         *
+         * @return the limit per command, 0 for none
+         */
+        public int getMaxPerCommand() {
+            return maxPerCommand;
+        }
+
+        /**
+         * Sets the maximum number of executions per command.
+         *
+         * @param maxPerCommandParam the limit per command, 0 for none
+         */
+        public void setMaxPerCommand(final int maxPerCommandParam) {
+            this.maxPerCommand = maxPerCommandParam;
+        }
+
+        /**
+         * Gets the limits of specific commands.
+         *
+         * @return the limits by command
+         */
+        public Map<String, Integer> getCommandLimits() {
+            return commandLimits;
+        }
+
+        /**
+         * Sets the limits of specific commands.
+         *
+         * @param commandLimitsParam the limits by command
+         */
+        public void setCommandLimits(final Map<String, Integer> commandLimitsParam) {
+            this.commandLimits = commandLimitsParam;
+        }
+    }
+
+    /**
+     * Settings of the process execution metrics.
+     */
+    public static class Metrics {
+
+        /**
+         * Maximum number of distinct {@code command} tag values, further
+         * commands being tagged {@code other}.
+         */
+        private int maxCommandTags = 50;
+
+        /**
+         * Commands tagged by name, the others being tagged {@code other};
+         * empty to tag the first {@code maxCommandTags} commands seen.
+         */
+        private List<String> commands = new ArrayList<>();
+
+        /**
+         * Whether timers and distribution summaries publish percentile
+         * histograms.
+         */
+        private boolean histograms = true;
+
+        /**
+         * Default constructor.
+         */
+        public Metrics() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of distinct command tag values.
+         *
+         * @return the maximum number of tagged commands
+         */
+        public int getMaxCommandTags() {
+            return maxCommandTags;
+        }
+
+        /**
+         * Sets the maximum number of distinct command tag values.
+         *
+         * @param maxCommandTagsParam the maximum number of tagged commands
+         */
+        public void setMaxCommandTags(final int maxCommandTagsParam) {
+            this.maxCommandTags = maxCommandTagsParam;
+        }
+
+        /**
+         * Gets the commands tagged by name.
+         *
+         * @return the tagged commands, empty for the first ones seen
+         */
+        public List<String> getCommands() {
+            return commands;
+        }
+
+        /**
+         * Sets the commands tagged by name.
+         *
+         * @param commandsParam the tagged commands, empty for the first ones seen
+         */
+        public void setCommands(final List<String> commandsParam) {
+            this.commands = commandsParam;
+        }
+
+        /**
+         * Tells whether percentile histograms are published.
+         *
+         * @return true if timers and summaries publish histograms
+         */
+        public boolean isHistograms() {
+            return histograms;
+        }
+
+        /**
+         * Sets whether percentile histograms are published.
+         *
+         * @param histogramsParam true to publish histograms
+         */
+        public void setHistograms(final boolean histogramsParam) {
+            this.histograms = histogramsParam;
+        }
+    }
+}
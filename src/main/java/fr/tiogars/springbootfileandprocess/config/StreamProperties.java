@@ -0,0 +1,95 @@
+package fr.tiogars.springbootfileandprocess.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for long-lived streamed responses, bound from the
+ * {@code stream.*} keys of the application configuration.
+ */
+@ConfigurationProperties(prefix = "stream")
+public class StreamProperties {
+
+    /**
+     * Settings of the Server-Sent Event streams.
+     */
+    private final Events events = new Events();
+
+    /**
+     * Default constructor.
+     */
+    public StreamProperties() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the settings of the Server-Sent Event streams.
+     *
+     * @return the event stream settings
+     */
+    public Events getEvents() {
+        return events;
+    }
+
+    /**
+     * Settings of the Server-Sent Event streams, which run on their own
+     * threads rather than on the shared asynchronous request executor.
+     */
+    public static class Events {
+
+        /**
+         * Maximum number of event streams open at once.
+         */
+        private int maxConcurrent = 32;
+
+        /**
+         * Time granted to a stream beyond the duration of its work, to send
+         * its last events, before it is cut.
+         */
+        private Duration timeoutMargin = Duration.ofMinutes(1);
+
+        /**
+         * Default constructor.
+         */
+        public Events() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the maximum number of event streams open at once.
+         *
+         * @return the maximum number of streams
+         */
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        /**
+         * Sets the maximum number of event streams open at once.
+         *
+         * @param maxConcurrentParam the maximum number of streams
+         */
+        public void setMaxConcurrent(final int maxConcurrentParam) {
+            this.maxConcurrent = maxConcurrentParam;
+        }
+
+        /**
+         * Gets the time granted to a stream beyond the duration of its work.
+         *
+         * @return the timeout margin
+         */
+        public Duration getTimeoutMargin() {
+            return timeoutMargin;
+        }
+
+        /**
+         * Sets the time granted to a stream beyond the duration of its work.
+         *
+         * @param timeoutMarginParam the timeout margin
+         */
+        public void setTimeoutMargin(final Duration timeoutMarginParam) {
+            this.timeoutMargin = timeoutMarginParam;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package fr.tiogars.springbootfileandprocess.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for system information, bound from the
+ * {@code system.*} keys of the application configuration.
+ */
+@ConfigurationProperties(prefix = "system")
+public class SystemProperties {
+
+    /**
+     * Settings of the system information snapshot.
+     */
+    private final Info info = new Info();
+
+    /**
+     * Default constructor.
+     */
+    public SystemProperties() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the settings of the system information snapshot.
+     *
+     * @return the snapshot settings
+     */
+    public Info getInfo() {
+        return info;
+    }
+
+    /**
+     * Settings of the system information snapshot.
+     */
+    public static class Info {
+
+        /**
+         * Interval between two samplings of the system.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(5);
+
+        /**
+         * Paths whose file store capacity is reported.
+         */
+        private List<String> diskPaths = new ArrayList<>(List.of("/"));
+
+        /**
+         * Default constructor.
+         */
+        public Info() {
+            // Default constructor
+        }
+
+        /**
+         * Gets the interval between two samplings of the system.
+         *
+         * @return the refresh interval
+         */
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        /**
+         * Sets the interval between two samplings of the system.
+         *
+         * @param refreshIntervalParam the refresh interval
+         */
+        public void setRefreshInterval(final Duration refreshIntervalParam) {
+            this.refreshInterval = refreshIntervalParam;
+        }
+
+        /**
+         * Gets the paths whose file store capacity is reported.
+         *
+         * @return the disk paths
+         */
+        public List<String> getDiskPaths() {
+            return diskPaths;
+        }
+
+        /**
+         * Sets the paths whose file store capacity is reported.
+         *
+         * @param diskPathsParam the disk paths
+         */
+        public void setDiskPaths(final List<String> diskPathsParam) {
+            this.diskPaths = diskPathsParam;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Fournit des informations sur le package
+ * fr.tiogars.springbootfileandprocess.config.
+ */
+package fr.tiogars.springbootfileandprocess.config;
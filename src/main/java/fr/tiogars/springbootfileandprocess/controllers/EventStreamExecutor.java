@@ -0,0 +1,166 @@
+package fr.tiogars.springbootfileandprocess.controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import fr.tiogars.springbootfileandprocess.config.StreamProperties;
+
+/**
+ * Runs Server-Sent Event streams, which may stay open for as long as a
+ * command runs or a file is followed, on threads of their own.
+ * <p>
+ * A {@code StreamingResponseBody} would hold a thread of the shared
+ * asynchronous request executor for the whole stream, so a few long streams
+ * would starve the short ones, such as streamed listings and downloads.
+ * Streams are instead written to a {@link ResponseBodyEmitter} from a
+ * bounded pool; when all its threads are busy, further streams are refused
+ * with 429 Too Many Requests rather than queued. Each stream gets its own
+ * timeout, derived from the duration of its work, after which its thread is
+ * interrupted.
+ * </p>
+ */
+@Component
+public class EventStreamExecutor implements DisposableBean {
+
+    /**
+     * Logger for EventStreamExecutor.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            EventStreamExecutor.class);
+
+    /**
+     * The threads writing the streams.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Time granted to a stream beyond the duration of its work.
+     */
+    private final Duration timeoutMargin;
+
+    /**
+     * Constructor for EventStreamExecutor.
+     *
+     * @param streamPropertiesParam the stream configuration
+     */
+    public EventStreamExecutor(final StreamProperties streamPropertiesParam) {
+        StreamProperties.Events settings = streamPropertiesParam.getEvents();
+        this.executor = new ThreadPoolExecutor(0, settings.getMaxConcurrent(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), Thread.ofPlatform().name("event-stream-", 0).daemon().factory());
+        this.timeoutMargin = settings.getTimeoutMargin();
+    }
+
+    /**
+     * Interrupts the streams still open.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a stream of events.
+     *
+     * @param durationParam how long the work of the stream may last, zero for no limit
+     * @param streamParam   the work writing the events
+     * @return the event stream, or 429 if too many streams are open
+     */
+    public ResponseEntity<ResponseBodyEmitter> stream(final Duration durationParam, final EventStream streamParam) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(durationParam.isZero()
+                ? -1L : durationParam.plus(timeoutMargin).toMillis());
+        Future<?> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    ServerSentEventWriter events = new ServerSentEventWriter(new EmitterOutputStream(emitter));
+                    streamParam.write(events);
+                    events.flush();
+                    emitter.complete();
+                } catch (IOException e) {
+                    logger.debug("Event stream closed: {}", e.getMessage());
+                    emitter.completeWithError(e);
+                } catch (RuntimeException e) {
+                    logger.warn("Event stream failed", e);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        emitter.onTimeout(() -> future.cancel(true));
+        emitter.onError(error -> future.cancel(true));
+        emitter.onCompletion(() -> future.cancel(true));
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
+    /**
+     * Work writing the events of a stream.
+     */
+    @FunctionalInterface
+    public interface EventStream {
+
+        /**
+         * Writes the events; they are pushed to the client on each flush.
+         *
+         * @param eventsParam the writer of the events
+         * @throws IOException if the client is gone
+         */
+        void write(ServerSentEventWriter eventsParam) throws IOException;
+    }
+
+    /**
+     * Output stream sending each block written to it through an emitter.
+     * The event writer buffers events, so a block is a batch of events.
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+
+        /**
+         * The emitter of the response.
+         */
+        private final ResponseBodyEmitter emitter;
+
+        /**
+         * Constructs an emitter output stream.
+         *
+         * @param emitterParam the emitter of the response
+         */
+        EmitterOutputStream(final ResponseBodyEmitter emitterParam) {
+            this.emitter = emitterParam;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            emitter.send(new byte[] { (byte) b }, MediaType.TEXT_EVENT_STREAM);
+        }
+
+        @Override
+        public void write(final byte[] bufferParam, final int offsetParam, final int lengthParam)
+                throws IOException {
+            if (lengthParam > 0) {
+                emitter.send(Arrays.copyOfRange(bufferParam, offsetParam, offsetParam + lengthParam),
+                        MediaType.TEXT_EVENT_STREAM);
+            }
+        }
+    }
+}
@@ -1,16 +1,65 @@
 package fr.tiogars.springbootfileandprocess.controllers;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import fr.tiogars.springbootfileandprocess.models.FileListQuery;
+import fr.tiogars.springbootfileandprocess.models.FileSearchQuery;
+import fr.tiogars.springbootfileandprocess.models.FileSort;
+import fr.tiogars.springbootfileandprocess.models.HashAlgorithm;
+import fr.tiogars.springbootfileandprocess.models.SymlinkPolicy;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.services.DiskUsageReport;
+import fr.tiogars.springbootfileandprocess.services.DiskUsageService;
+import fr.tiogars.springbootfileandprocess.services.FileDigest;
+import fr.tiogars.springbootfileandprocess.services.FileHashService;
+import fr.tiogars.springbootfileandprocess.services.FileIndexService;
 import fr.tiogars.springbootfileandprocess.services.FileInfo;
+import fr.tiogars.springbootfileandprocess.services.FileListPage;
+import fr.tiogars.springbootfileandprocess.services.FileSearchResult;
 import fr.tiogars.springbootfileandprocess.services.FileService;
+import fr.tiogars.springbootfileandprocess.services.FileTailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
 
 /**
  * Controller for managing files.
@@ -21,29 +70,710 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "File Management", description = "Operations related to file management")
 public class FileController {
 
+    /**
+     * Minimum size of a content handed to the container for a zero-copy
+     * transfer, below which copying is as fast. Tomcat's default servlet
+     * uses the same threshold.
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /**
+     * Request attribute set by containers supporting zero-copy transfers.
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * Request attribute naming the file to send.
+     */
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    /**
+     * Request attribute holding the first byte of the file to send.
+     */
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    /**
+     * Request attribute holding the byte after the last one to send.
+     */
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Logger for FileController.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            FileController.class);
+
     /**
      * The file service for managing files.
      */
     private FileService fileService;
 
+    /**
+     * The service computing disk usage.
+     */
+    private DiskUsageService diskUsageService;
+
+    /**
+     * The service searching the file metadata index.
+     */
+    private FileIndexService fileIndexService;
+
+    /**
+     * The service reading the end of files.
+     */
+    private FileTailService fileTailService;
+
+    /**
+     * The service computing digests of file contents.
+     */
+    private FileHashService fileHashService;
+
+    /**
+     * The executor of the event streams.
+     */
+    private EventStreamExecutor eventStreamExecutor;
+
+    /**
+     * The mapper writing streamed listings.
+     */
+    private JsonMapper jsonMapper;
+
+    /**
+     * The writer of newline-delimited JSON listings.
+     */
+    private ObjectWriter lineWriter;
+
+    /**
+     * The writer of newline-delimited JSON manifests.
+     */
+    private ObjectWriter digestWriter;
+
     /**
      * Constructor for FileController.
      *
-     * @param fileServiceParam the file service to use
+     * @param fileServiceParam          the file service to use
+     * @param diskUsageServiceParam     the service computing disk usage
+     * @param fileIndexServiceParam     the service searching the file metadata index
+     * @param fileTailServiceParam      the service reading the end of files
+     * @param fileHashServiceParam      the service computing digests of file contents
+     * @param eventStreamExecutorParam  the executor of the event streams
+     * @param jsonMapperParam           the mapper writing streamed listings
      */
-    public FileController(final FileService fileServiceParam) {
+    public FileController(final FileService fileServiceParam, final DiskUsageService diskUsageServiceParam,
+            final FileIndexService fileIndexServiceParam, final FileTailService fileTailServiceParam,
+            final FileHashService fileHashServiceParam, final EventStreamExecutor eventStreamExecutorParam,
+            final JsonMapper jsonMapperParam) {
         this.fileService = fileServiceParam;
+        this.diskUsageService = diskUsageServiceParam;
+        this.fileIndexService = fileIndexServiceParam;
+        this.fileTailService = fileTailServiceParam;
+        this.fileHashService = fileHashServiceParam;
+        this.eventStreamExecutor = eventStreamExecutorParam;
+        this.jsonMapper = jsonMapperParam;
+        this.lineWriter = jsonMapperParam.writerFor(FileInfo.class)
+                .withRootValueSeparator("\n")
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        this.digestWriter = jsonMapperParam.writerFor(FileDigest.class)
+                .withRootValueSeparator("\n")
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
     }
 
     /**
-     * Lists files in a directory.
+     * Lists files in a directory. Without parameters other than the
+     * directory, the whole directory is returned in its natural order. With
+     * a {@code limit}, entries are sorted and returned one page at a time:
+     * when more entries follow, the response carries a {@code Link} header
+     * with {@code rel="next"} and an {@code X-Next-Cursor} header holding the
+     * cursor of the next page.
      *
      * @param directoryParam the directory to list files from
+     * @param glob           the glob the entry names must match
+     * @param sort           the sort key, by name when paging without one
+     * @param direction      the sort direction, {@code asc} or {@code desc}
+     * @param limit          the maximum number of entries of the page
+     * @param cursor         the cursor of the next page, from the previous response
      * @return a list of file information objects
      */
-    @Operation(summary = "List files in a directory", description = "Retrieves a list of files in the specified directory")
+    @Operation(summary = "List files in a directory", description = "Retrieves a list of files in the specified directory, optionally filtered, sorted and paged")
     @GetMapping("/list")
-    public List<FileInfo> listFiles(final String directoryParam) {
-        return fileService.listFiles(directoryParam);
+    public ResponseEntity<List<FileInfo>> listFiles(final String directoryParam,
+            final @RequestParam(name = "glob", required = false) String glob,
+            final @RequestParam(name = "sort", required = false) String sort,
+            final @RequestParam(name = "direction", defaultValue = "asc") String direction,
+            final @RequestParam(name = "limit", defaultValue = "0") int limit,
+            final @RequestParam(name = "cursor", required = false) String cursor) {
+        if (directoryParam == null || directoryParam.isBlank() || limit < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        FileListQuery query = new FileListQuery(directoryParam);
+        query.setGlob(glob);
+        query.setDescending("desc".equalsIgnoreCase(direction));
+        query.setLimit(limit);
+        query.setCursor(cursor);
+        try {
+            if (sort != null && !sort.isEmpty()) {
+                query.setSort(FileSort.fromValue(sort));
+            }
+            FileListPage page = fileService.listFiles(query);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("cursor", page.getNextCursor()).build().toUri();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                        .header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getEntries());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+    }
+
+    /**
+     * Streams the files of a directory as newline-delimited JSON, one
+     * {@code FileInfo} per line, written as the directory is read.
+     *
+     * @param directoryParam the directory to list files from
+     * @param glob           the glob the entry names must match
+     * @return the streamed listing
+     */
+    @Operation(summary = "Stream the files of a directory as NDJSON", description = "Writes one file information object per line as the directory is read, in constant memory")
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFilesAsLines(final String directoryParam,
+            final @RequestParam(name = "glob", required = false) String glob) {
+        return stream(directoryParam, () -> fileService.streamFiles(directoryParam, glob),
+                MediaType.APPLICATION_NDJSON, this::writeLines);
+    }
+
+    /**
+     * Streams the files of a directory as a JSON array written as the
+     * directory is read, for clients expecting the regular listing format.
+     *
+     * @param directoryParam the directory to list files from
+     * @param glob           the glob the entry names must match
+     * @return the streamed listing
+     */
+    @Operation(summary = "Stream the files of a directory as a JSON array", description = "Writes the file information array as the directory is read, in constant memory")
+    @GetMapping(value = "/list", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFilesAsArray(final String directoryParam,
+            final @RequestParam(name = "glob", required = false) String glob) {
+        return stream(directoryParam, () -> fileService.streamFiles(directoryParam, glob),
+                MediaType.APPLICATION_JSON, (files, outputStream) -> {
+            try (JsonGenerator generator = jsonMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                files.forEach(generator::writePOJO);
+                generator.writeEndArray();
+            }
+        });
+    }
+
+    /**
+     * Walks a directory tree and streams its entries as newline-delimited
+     * JSON as they are found. Directories are read in parallel, so entries
+     * come in no particular order.
+     *
+     * @param directoryParam the root directory of the walk
+     * @param maxDepth       the maximum depth of the entries, 1 for the children of the root
+     * @param include        the glob the paths relative to the root must match
+     * @param exclude        the glob of the relative paths neither reported nor walked into
+     * @param symlinks       {@code skip}, {@code list} or {@code follow} symbolic links
+     * @return the streamed entries
+     */
+    @Operation(summary = "Walk a directory tree", description = "Streams the entries of a directory tree as NDJSON, reading directories in parallel")
+    @GetMapping(value = "/walk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> walk(final String directoryParam,
+            final @RequestParam(name = "maxDepth", defaultValue = "2147483647") int maxDepth,
+            final @RequestParam(name = "include", required = false) String include,
+            final @RequestParam(name = "exclude", required = false) String exclude,
+            final @RequestParam(name = "symlinks", defaultValue = "list") String symlinks) {
+        if (maxDepth < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stream(directoryParam, () -> {
+            WalkQuery query = new WalkQuery(directoryParam);
+            query.setMaxDepth(maxDepth);
+            query.setInclude(include);
+            query.setExclude(exclude);
+            query.setSymlinks(SymlinkPolicy.valueOf(symlinks.toUpperCase(Locale.ROOT)));
+            return fileService.walk(query);
+        }, MediaType.APPLICATION_NDJSON, this::writeLines);
+    }
+
+    /**
+     * Serves the content of a file. A single byte range may be requested
+     * with a {@code Range} header, answered with {@code 206 Partial Content},
+     * or {@code 416} if it lies beyond the end of the file; malformed headers
+     * and requests for several ranges get the whole file. The {@code ETag} is
+     * derived from the size and modification time, so a matching
+     * {@code If-None-Match} is answered with {@code 304 Not Modified} without
+     * opening the file. On containers supporting it, large contents are
+     * handed to the container for a zero-copy {@code sendfile}; otherwise they
+     * are copied from a file channel to the response.
+     *
+     * @param pathParam  the path of the file
+     * @param range      the requested byte range
+     * @param webRequest the request
+     * @return the content of the file
+     */
+    @Operation(summary = "Download a file", description = "Streams the content of a file, supporting byte ranges and conditional requests")
+    @GetMapping("/content")
+    public ResponseEntity<StreamingResponseBody> content(final String pathParam,
+            final @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+            final ServletWebRequest webRequest) {
+        if (pathParam == null || pathParam.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        FileInfo file;
+        try {
+            file = fileService.getFile(pathParam);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+        if (!file.isFile()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String eTag = "\"" + Long.toHexString(file.getSize()) + "-" + Long.toHexString(file.getLastModified()) + "\"";
+        if (webRequest.checkNotModified(eTag, file.getLastModified())) {
+            return null;
+        }
+
+        long length = file.getSize();
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null && isRangeCurrent(webRequest, eTag, file.getLastModified())) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length).build();
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+            }
+        }
+
+        FileChannel channel;
+        try {
+            channel = fileService.openContent(file.getPath());
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(MediaTypeFactory.getMediaType(file.getName()).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .contentLength(end - start + 1)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        if (webRequest.getHttpMethod() == HttpMethod.HEAD
+                || sendfile(webRequest.getRequest(), file.getPath(), start, end + 1)) {
+            closeQuietly(channel);
+            return response.build();
+        }
+        long position = start;
+        long count = end - start + 1;
+        return response.body(outputStream -> {
+            try (channel) {
+                WritableByteChannel target = Channels.newChannel(outputStream);
+                long offset = position;
+                long remaining = count;
+                while (remaining > 0) {
+                    long transferred = channel.transferTo(offset, remaining, target);
+                    if (transferred <= 0) {
+                        throw new EOFException("File truncated while being sent: " + file.getPath());
+                    }
+                    offset += transferred;
+                    remaining -= transferred;
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes the total size, file count and subdirectory count of a
+     * directory tree, broken down by child directory. Directories unchanged
+     * since a previous computation are not read again unless
+     * {@code refresh} is set.
+     *
+     * @param directoryParam the root directory of the tree
+     * @param refresh        true to read every directory again
+     * @return the usage of the tree
+     */
+    @Operation(summary = "Compute the disk usage of a directory tree", description = "Sums the sizes of the files of a directory tree in parallel, only reading again the directories changed since the previous computation")
+    @GetMapping("/usage")
+    public ResponseEntity<DiskUsageReport> usage(final String directoryParam,
+            final @RequestParam(name = "refresh", defaultValue = "false") boolean refresh) {
+        if (directoryParam == null || directoryParam.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(diskUsageService.usage(directoryParam, refresh));
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+    }
+
+    /**
+     * Reads the last lines of a file, reading it backwards from its end
+     * rather than scanning it.
+     *
+     * @param pathParam the path of the file
+     * @param lines     the number of lines
+     * @return the last lines of the file
+     */
+    @Operation(summary = "Read the last lines of a file", description = "Returns the last lines of a file, such as a log, without reading the whole file")
+    @GetMapping("/tail")
+    public ResponseEntity<List<String>> tail(final String pathParam,
+            final @RequestParam(name = "lines", defaultValue = "10") int lines) {
+        if (pathParam == null || pathParam.isBlank() || lines < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(fileTailService.tail(pathParam, lines));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+    }
+
+    /**
+     * Follows a file as Server-Sent Events. The last lines, then each line
+     * appended to the file, are sent as {@code output} events. A
+     * {@code rotated} event tells that the file was rotated or truncated and
+     * is followed from its start; the stream ends with a {@code timeout}
+     * event once the maximum follow duration elapsed, or with an
+     * {@code error} event if the file can no longer be read. Follows run on
+     * the threads of the event stream executor, so that they cannot hold up
+     * the other streamed responses.
+     *
+     * @param pathParam the path of the file
+     * @param lines     the number of lines sent before following
+     * @return the event stream, or 429 if too many streams are open
+     */
+    @Operation(summary = "Follow a file", description = "Streams the last lines of a file, then the lines appended to it, as Server-Sent Events")
+    @GetMapping(value = "/tail", params = "follow=true", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> follow(final String pathParam,
+            final @RequestParam(name = "lines", defaultValue = "10") int lines) {
+        if (pathParam == null || pathParam.isBlank() || lines < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (!fileService.getFile(pathParam).isFile()) {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+        return eventStreamExecutor.stream(fileTailService.getMaxFollow(), events -> {
+            try {
+                fileTailService.follow(pathParam, lines, events);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                events.event("error", "Interrupted");
+            } catch (IOException | IllegalArgumentException e) {
+                events.event("error", String.valueOf(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Computes the digest of a file. Digests are remembered until the size
+     * or modification time of the file changes. Requests also giving a
+     * directory match neither this handler nor the manifest, and get 400.
+     *
+     * @param pathParam the path of the file
+     * @param algorithm {@code sha-256}, {@code sha-512}, {@code sha-1}, {@code md5} or {@code crc32c}
+     * @return the digest of the file
+     */
+    @Operation(summary = "Hash a file", description = "Computes the digest of a file, served from a cache while the file is unchanged")
+    @GetMapping(value = "/hash", params = { "pathParam", "!directoryParam" })
+    public ResponseEntity<FileDigest> hash(final String pathParam,
+            final @RequestParam(name = "algorithm", defaultValue = "sha-256") String algorithm) {
+        if (pathParam.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(fileHashService.hash(pathParam, HashAlgorithm.fromValue(algorithm)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+    }
+
+    /**
+     * Computes the digests of the regular files of a directory tree, in
+     * parallel, and streams them as newline-delimited JSON as they are
+     * computed. Files that cannot be read are reported with an
+     * {@code error} instead of a {@code digest}.
+     *
+     * @param directoryParam the root directory of the tree
+     * @param algorithm      {@code sha-256}, {@code sha-512}, {@code sha-1}, {@code md5} or {@code crc32c}
+     * @param maxDepth       the maximum depth of the files, 1 for the children of the root
+     * @param include        the glob the paths relative to the root must match
+     * @param exclude        the glob of the relative paths neither hashed nor walked into
+     * @return the streamed manifest
+     */
+    @Operation(summary = "Hash a directory tree", description = "Streams the digests of the files of a directory tree as NDJSON, computing them in parallel")
+    @GetMapping(value = "/hash", params = { "directoryParam", "!pathParam" }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> manifest(final String directoryParam,
+            final @RequestParam(name = "algorithm", defaultValue = "sha-256") String algorithm,
+            final @RequestParam(name = "maxDepth", defaultValue = "2147483647") int maxDepth,
+            final @RequestParam(name = "include", required = false) String include,
+            final @RequestParam(name = "exclude", required = false) String exclude) {
+        if (maxDepth < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stream(directoryParam, () -> {
+            WalkQuery query = new WalkQuery(directoryParam);
+            query.setMaxDepth(maxDepth);
+            query.setInclude(include);
+            query.setExclude(exclude);
+            return fileHashService.manifest(query, HashAlgorithm.fromValue(algorithm));
+        }, MediaType.APPLICATION_NDJSON, this::writeDigests);
+    }
+
+    /**
+     * Searches the indexed directory trees by name, size and modification
+     * time without touching the file system. Results are sorted by name then
+     * path; {@code truncated} tells that more entries matched than the
+     * limit, and {@code ready} is false until the trees were crawled once.
+     *
+     * @param name           the glob the entry names must match
+     * @param prefix         the prefix the entry names must start with
+     * @param under          the directory the entries must lie in, at any depth
+     * @param minSize        the minimum size, in bytes
+     * @param maxSize        the maximum size, in bytes
+     * @param modifiedAfter  the earliest modification time, inclusive, in milliseconds since the epoch
+     * @param modifiedBefore the latest modification time, exclusive, in milliseconds since the epoch
+     * @param limit          the maximum number of entries, the configured maximum when 0
+     * @return the matching entries
+     */
+    @Operation(summary = "Search the file index", description = "Searches the metadata index of the configured directory trees by name, size and modification time")
+    @GetMapping("/search")
+    public ResponseEntity<FileSearchResult> search(
+            final @RequestParam(name = "name", required = false) String name,
+            final @RequestParam(name = "prefix", required = false) String prefix,
+            final @RequestParam(name = "under", required = false) String under,
+            final @RequestParam(name = "minSize", required = false) Long minSize,
+            final @RequestParam(name = "maxSize", required = false) Long maxSize,
+            final @RequestParam(name = "modifiedAfter", required = false) Long modifiedAfter,
+            final @RequestParam(name = "modifiedBefore", required = false) Long modifiedBefore,
+            final @RequestParam(name = "limit", defaultValue = "0") int limit) {
+        if (!fileIndexService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (limit < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        FileSearchQuery query = new FileSearchQuery();
+        query.setName(name);
+        query.setPrefix(prefix);
+        query.setUnder(under);
+        query.setMinSize(minSize);
+        query.setMaxSize(maxSize);
+        query.setModifiedAfter(modifiedAfter);
+        query.setModifiedBefore(modifiedBefore);
+        query.setLimit(limit);
+        try {
+            return ResponseEntity.ok(fileIndexService.search(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Writes file information objects as newline-delimited JSON.
+     *
+     * @param files        the file information objects
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    private void writeLines(final Stream<FileInfo> files, final OutputStream outputStream) throws IOException {
+        try (SequenceWriter lines = lineWriter.writeValues(outputStream)) {
+            files.forEach(lines::write);
+        }
+        outputStream.write('\n');
+    }
+
+    /**
+     * Writes file digests as newline-delimited JSON, pushing each one to the
+     * client as soon as it is computed.
+     *
+     * @param digests      the file digests
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    private void writeDigests(final Stream<FileDigest> digests, final OutputStream outputStream)
+            throws IOException {
+        try (SequenceWriter lines = digestWriter.writeValues(outputStream)) {
+            digests.forEach(digest -> {
+                lines.write(digest);
+                lines.flush();
+            });
+        }
+        outputStream.write('\n');
+    }
+
+    /**
+     * Opens a listing, of files or of their digests, and streams it with the
+     * given writer. The listing is
+     * opened before the response is committed, so that errors opening the
+     * directory are still reported with their status.
+     *
+     * @param directoryParam the directory to list files from
+     * @param source         the opener of the listing
+     * @param mediaType      the media type of the response
+     * @param writer         the writer of the listing
+     * @return the streamed listing
+     */
+    private <T> ResponseEntity<StreamingResponseBody> stream(final String directoryParam,
+            final ListingSource<T> source, final MediaType mediaType, final ListingWriter<T> writer) {
+        if (directoryParam == null || directoryParam.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Stream<T> files;
+        try {
+            files = source.open();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(statusOf(e)).build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (files) {
+                writer.write(files, outputStream);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    /**
+     * Opens a streamed directory listing.
+     *
+     * @param <T> the type of the listed items
+     */
+    @FunctionalInterface
+    private interface ListingSource<T> {
+
+        /**
+         * Opens the listing.
+         *
+         * @return the files, read lazily
+         * @throws IOException if the directory cannot be opened
+         */
+        Stream<T> open() throws IOException;
+    }
+
+    /**
+     * Writes a streamed directory listing to the response.
+     *
+     * @param <T> the type of the listed items
+     */
+    @FunctionalInterface
+    private interface ListingWriter<T> {
+
+        /**
+         * Writes the listing.
+         *
+         * @param files        the files of the directory, read lazily
+         * @param outputStream the response body
+         * @throws IOException if the response cannot be written
+         */
+        void write(Stream<T> files, OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Tells whether the {@code Range} header applies, which is the case
+     * unless an {@code If-Range} header names another version of the file.
+     *
+     * @param webRequest   the request
+     * @param eTag         the entity tag of the file
+     * @param lastModified the last modification time of the file, in milliseconds
+     * @return true if the range is to be served
+     */
+    private static boolean isRangeCurrent(final ServletWebRequest webRequest, final String eTag,
+            final long lastModified) {
+        String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return webRequest.getRequest().getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hands a byte range of a file to the container for a zero-copy
+     * transfer, when the container supports it and the range is large
+     * enough for it to pay off.
+     *
+     * @param request the request
+     * @param path    the path of the file
+     * @param start   the first byte to send
+     * @param end     the byte after the last one to send
+     * @return true if the container sends the content
+     */
+    private static boolean sendfile(final HttpServletRequest request, final String path, final long start,
+            final long end) {
+        if (end - start < SENDFILE_MIN_SIZE || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME, Path.of(path).toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return true;
+    }
+
+    /**
+     * Closes a channel which is no longer needed.
+     *
+     * @param channel the channel
+     */
+    private void closeQuietly(final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Cannot close file channel: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Maps a file system error to the HTTP status reported to the client.
+     *
+     * @param exception the file system error
+     * @return the corresponding HTTP status
+     */
+    private static HttpStatus statusOf(final IOException exception) {
+        if (exception instanceof NoSuchFileException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (exception instanceof NotDirectoryException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (exception instanceof AccessDeniedException) {
+            return HttpStatus.FORBIDDEN;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
     }
 }
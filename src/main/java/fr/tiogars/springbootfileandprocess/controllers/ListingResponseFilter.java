@@ -0,0 +1,189 @@
+package fr.tiogars.springbootfileandprocess.controllers;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import fr.tiogars.springbootfileandprocess.services.FileListingMetrics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Measures the size of the responses of {@code /file/list}, whether the
+ * listing is returned whole or streamed, by counting the bytes written to
+ * the response body. Streamed listings are recorded once the asynchronous
+ * request completes.
+ */
+@Component
+public class ListingResponseFilter extends OncePerRequestFilter {
+
+    /**
+     * The path of the listing endpoint.
+     */
+    private static final String LISTING_PATH = "/file/list";
+
+    /**
+     * The metrics of directory listings.
+     */
+    private final FileListingMetrics listingMetrics;
+
+    /**
+     * Constructor for ListingResponseFilter.
+     *
+     * @param listingMetricsParam the metrics of directory listings
+     */
+    public ListingResponseFilter(final FileListingMetrics listingMetricsParam) {
+        this.listingMetrics = listingMetricsParam;
+    }
+
+    /**
+     * Filters only the listing endpoint.
+     *
+     * @param request the request
+     * @return true for the other endpoints
+     */
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !LISTING_PATH.equals(request.getServletPath());
+    }
+
+    /**
+     * Counts the bytes of the response body, and records them once the
+     * response is complete.
+     *
+     * @param request     the request
+     * @param response    the response
+     * @param filterChain the rest of the chain
+     * @throws ServletException if the request fails
+     * @throws IOException      if the response cannot be written
+     */
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(final AsyncEvent event) {
+                        listingMetrics.recordResponse(counting.bytes);
+                    }
+
+                    @Override
+                    public void onTimeout(final AsyncEvent event) {
+                        // Recorded on completion
+                    }
+
+                    @Override
+                    public void onError(final AsyncEvent event) {
+                        // Recorded on completion
+                    }
+
+                    @Override
+                    public void onStartAsync(final AsyncEvent event) {
+                        // Nothing to record
+                    }
+                });
+            } else {
+                listingMetrics.recordResponse(counting.bytes);
+            }
+        }
+    }
+
+    /**
+     * Response counting the bytes written to its output stream.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        /**
+         * The bytes written, by the request thread and then, for streamed
+         * listings, by the asynchronous writer.
+         */
+        private volatile long bytes;
+
+        /**
+         * The counting output stream, created on first use.
+         */
+        private ServletOutputStream outputStream;
+
+        /**
+         * Constructs a counting response.
+         *
+         * @param responseParam the response to count
+         */
+        CountingResponse(final HttpServletResponse responseParam) {
+            super(responseParam);
+        }
+
+        @Override
+        public synchronized ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        /**
+         * Output stream counting the bytes written through it.
+         */
+        private final class CountingOutputStream extends ServletOutputStream {
+
+            /**
+             * The response output stream.
+             */
+            private final ServletOutputStream delegate;
+
+            /**
+             * Constructs a counting stream.
+             *
+             * @param delegateParam the response output stream
+             */
+            CountingOutputStream(final ServletOutputStream delegateParam) {
+                this.delegate = delegateParam;
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+                delegate.write(b);
+                bytes++;
+            }
+
+            @Override
+            public void write(final byte[] bufferParam, final int offsetParam, final int lengthParam)
+                    throws IOException {
+                delegate.write(bufferParam, offsetParam, lengthParam);
+                bytes += lengthParam;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListenerParam) {
+                delegate.setWriteListener(writeListenerParam);
+            }
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package fr.tiogars.springbootfileandprocess.controllers;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import fr.tiogars.springbootfileandprocess.models.BatchCommand;
+import fr.tiogars.springbootfileandprocess.models.BatchResult;
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessJob;
+import fr.tiogars.springbootfileandprocess.services.ProcessBatchService;
+import fr.tiogars.springbootfileandprocess.services.ProcessJobService;
 import fr.tiogars.springbootfileandprocess.services.ProcessService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,13 +45,37 @@ public class ProcessController {
      */
     private final ProcessService processService;
 
+    /**
+     * The job service for executing commands asynchronously.
+     */
+    private final ProcessJobService processJobService;
+
+    /**
+     * The batch service for executing interdependent commands.
+     */
+    private final ProcessBatchService processBatchService;
+
+    /**
+     * The executor of the event streams.
+     */
+    private final EventStreamExecutor eventStreamExecutor;
+
     /**
      * Constructor for ProcessController.
      *
-     * @param processServiceParam the process service
+     * @param processServiceParam      the process service
+     * @param processJobServiceParam   the process job service
+     * @param processBatchServiceParam the process batch service
+     * @param eventStreamExecutorParam the executor of the event streams
      */
-    public ProcessController(final ProcessService processServiceParam) {
+    public ProcessController(final ProcessService processServiceParam,
+            final ProcessJobService processJobServiceParam,
+            final ProcessBatchService processBatchServiceParam,
+            final EventStreamExecutor eventStreamExecutorParam) {
         this.processService = processServiceParam;
+        this.processJobService = processJobServiceParam;
+        this.processBatchService = processBatchServiceParam;
+        this.eventStreamExecutor = eventStreamExecutorParam;
     }
 
     /**
@@ -57,4 +97,114 @@ public class ProcessController {
             return ResponseEntity.internalServerError().body(new CommandResult(-1, java.util.Arrays.asList("Error", e.getMessage())));
         }
     }
+
+    /**
+     * Execute a batch of commands in one request. Independent commands run in
+     * parallel; a command starts once all the commands it depends on
+     * succeeded, and is skipped if one of them did not.
+     *
+     * @param commands the commands of the batch
+     * @return the outcome of each command, 400 with the reason if the batch is
+     *         invalid, or 500 with the reason if it could not complete
+     */
+    @Operation(summary = "Execute a batch of commands with dependencies")
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> executeBatch(
+        final @RequestBody(required = false) List<BatchCommand> commands
+    ) {
+        try {
+            return ResponseEntity.ok(processBatchService.execute(commands));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new BatchResult(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.internalServerError().body(new BatchResult(e.getMessage() + ": "
+                    + (e.getCause() == null ? "unknown cause" : e.getCause().getMessage())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.internalServerError().body(new BatchResult("Interrupted"));
+        }
+    }
+
+    /**
+     * Execute a command and stream its output as Server-Sent Events.
+     * <p>
+     * Each output line is sent as an {@code output} event while the command
+     * runs; the stream ends with an {@code exit} event carrying the exit
+     * code, preceded by a {@code timeout} event if the command was killed on
+     * timeout, or with an {@code error} event if the command could not run.
+     * </p>
+     * <p>
+     * Streams run on the threads of the event stream executor, and are cut
+     * once the timeout of the command, plus a margin, elapsed; commands
+     * without a timeout are streamed for as long as they run. Silent
+     * commands send comments periodically, and are destroyed once their
+     * client is gone.
+     * </p>
+     *
+     * @param command the command to execute
+     * @return the event stream, or 429 if too many streams are open
+     */
+    @Operation(summary = "Execute a command and stream its output")
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamCommand(
+        final @RequestBody ExecutableCommand command
+    ) {
+        return eventStreamExecutor.stream(processService.getTimeout(command), events -> {
+            try {
+                int exitCode = processService.executeAndStream(command, events);
+                events.event("exit", String.valueOf(exitCode));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                events.event("error", "Interrupted");
+            } catch (IOException e) {
+                events.event("error", String.valueOf(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Submit a command for asynchronous execution.
+     *
+     * @param command the command to execute
+     * @return the queued job, or 429 when the job queue is full
+     */
+    @Operation(summary = "Submit a command as an asynchronous job")
+    @PostMapping("/jobs")
+    public ResponseEntity<ProcessJob> submitJob(
+        final @RequestBody ExecutableCommand command
+    ) {
+        try {
+            ProcessJob job = processJobService.submit(command);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}").buildAndExpand(job.getId()).toUri();
+            return ResponseEntity.accepted().location(location).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    /**
+     * Get the state of a job.
+     *
+     * @param id the job identifier
+     * @return the job, or 404 if unknown
+     */
+    @Operation(summary = "Get the state of an asynchronous job")
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ProcessJob> getJob(final @PathVariable("id") String id) {
+        return ResponseEntity.of(processJobService.getJob(id));
+    }
+
+    /**
+     * Cancel a job, killing its process if it is running.
+     *
+     * @param id the job identifier
+     * @return the job in its resulting state, or 404 if unknown
+     */
+    @Operation(summary = "Cancel an asynchronous job")
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ProcessJob> cancelJob(final @PathVariable("id") String id) {
+        return ResponseEntity.of(processJobService.cancel(id));
+    }
 }
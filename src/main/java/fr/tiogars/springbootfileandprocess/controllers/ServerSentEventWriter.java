@@ -0,0 +1,120 @@
+package fr.tiogars.springbootfileandprocess.controllers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import fr.tiogars.springbootfileandprocess.models.FileTailHandler;
+
+/**
+ * Writes command output or followed file lines to a response as Server-Sent
+ * Events.
+ * <p>
+ * Each output line becomes an {@code output} event, and a command killed on
+ * timeout, or a follow reaching its maximum duration, is reported by a
+ * {@code timeout} event. A rotated file is reported by a {@code rotated}
+ * event, and idle follows send comments so that gone clients are detected.
+ * Events are accumulated in a fixed-size buffer and only pushed to the
+ * client on {@link #flush()}, so a chatty command costs one network write
+ * per batch instead of one per line.
+ * </p>
+ */
+public class ServerSentEventWriter implements FileTailHandler {
+
+    /**
+     * Size of the write buffer, in characters.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The buffered writer over the response stream.
+     */
+    private final Writer writer;
+
+    /**
+     * Constructor for ServerSentEventWriter.
+     *
+     * @param outputStreamParam the response stream
+     */
+    public ServerSentEventWriter(final OutputStream outputStreamParam) {
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(outputStreamParam, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Writes an output line as an {@code output} event.
+     *
+     * @param lineParam the output line
+     * @throws IOException if the client is gone
+     */
+    @Override
+    public void onLine(final String lineParam) throws IOException {
+        writer.write("event: output\ndata: ");
+        writer.write(lineParam);
+        writer.write("\n\n");
+    }
+
+    /**
+     * Writes a {@code timeout} event.
+     *
+     * @throws IOException if the client is gone
+     */
+    @Override
+    public void onTimeout() throws IOException {
+        writer.write("event: timeout\ndata: \n\n");
+    }
+
+    /**
+     * Writes a {@code rotated} event.
+     *
+     * @throws IOException if the client is gone
+     */
+    @Override
+    public void onRotated() throws IOException {
+        writer.write("event: rotated\ndata: \n\n");
+    }
+
+    /**
+     * Sends a comment to the client, failing if it is gone.
+     *
+     * @throws IOException if the client is gone
+     */
+    @Override
+    public void onIdle() throws IOException {
+        writer.write(":\n\n");
+        writer.flush();
+    }
+
+    /**
+     * Pushes the buffered events to the client.
+     *
+     * @throws IOException if the client is gone
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Writes an event, splitting multi-line payloads into several
+     * {@code data} fields as the protocol requires.
+     *
+     * @param nameParam the event name
+     * @param dataParam the event payload
+     * @throws IOException if the client is gone
+     */
+    public void event(final String nameParam, final String dataParam) throws IOException {
+        writer.write("event: ");
+        writer.write(nameParam);
+        writer.write('\n');
+        for (String line : dataParam.split("\\R", -1)) {
+            writer.write("data: ");
+            writer.write(line);
+            writer.write('\n');
+        }
+        writer.write('\n');
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
 import fr.tiogars.springbootfileandprocess.services.SystemService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -55,4 +56,16 @@ public class SystemController {
 
         return new ResponseEntity<String>(hostName, HttpStatus.OK);
     }
+
+    /**
+     * Get the latest snapshot of the system information.
+     * @return The system information.
+     */
+    @Operation(summary = "Get system information", description = "Returns the latest snapshot of the host name, "
+            + "uptime, CPU load, memory, disk capacity, and threads, file descriptors and heap of the JVM, "
+            + "sampled in the background at the interval of system.info.refresh-interval")
+    @GetMapping("/info")
+    public ResponseEntity<SystemInfo> getSystemInfo() {
+        return new ResponseEntity<SystemInfo>(systemService.getInfo(), HttpStatus.OK);
+    }
 }
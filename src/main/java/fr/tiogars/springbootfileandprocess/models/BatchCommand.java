@@ -0,0 +1,107 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Represents a command of a batch, with the commands it depends on.
+ */
+public class BatchCommand {
+
+    /**
+     * The identifier of the command within the batch.
+     */
+    @Schema(example = "compile")
+    private String id;
+
+    /**
+     * The command to execute.
+     */
+    private ExecutableCommand command;
+
+    /**
+     * The identifiers of the commands that must complete successfully before
+     * this one starts.
+     */
+    @Schema(example = "[\"clean\"]")
+    private List<String> dependsOn;
+
+    /**
+     * Default constructor.
+     */
+    public BatchCommand() {
+        this.id = "";
+        this.command = new ExecutableCommand();
+        this.dependsOn = new ArrayList<>();
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param idParam        the identifier of the command within the batch
+     * @param commandParam   the command to execute
+     * @param dependsOnParam the identifiers of the commands it depends on
+     */
+    public BatchCommand(final String idParam, final ExecutableCommand commandParam,
+            final List<String> dependsOnParam) {
+        this.id = idParam;
+        this.command = commandParam;
+        this.dependsOn = dependsOnParam;
+    }
+
+    /**
+     * Gets the identifier of the command within the batch.
+     *
+     * @return the command identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the identifier of the command within the batch.
+     *
+     * @param idParam the command identifier
+     */
+    public void setId(final String idParam) {
+        this.id = idParam;
+    }
+
+    /**
+     * Gets the command to execute.
+     *
+     * @return the command
+     */
+    public ExecutableCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Sets the command to execute.
+     *
+     * @param commandParam the command
+     */
+    public void setCommand(final ExecutableCommand commandParam) {
+        this.command = commandParam;
+    }
+
+    /**
+     * Gets the identifiers of the commands this one depends on.
+     *
+     * @return the dependency identifiers
+     */
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    /**
+     * Sets the identifiers of the commands this one depends on.
+     *
+     * @param dependsOnParam the dependency identifiers
+     */
+    public void setDependsOn(final List<String> dependsOnParam) {
+        this.dependsOn = dependsOnParam;
+    }
+}
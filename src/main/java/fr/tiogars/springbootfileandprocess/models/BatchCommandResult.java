@@ -0,0 +1,141 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.time.Instant;
+
+/**
+ * Represents the outcome of one command of a batch.
+ */
+public class BatchCommandResult {
+
+    /**
+     * The identifier of the command within the batch.
+     */
+    private final String id;
+
+    /**
+     * The final status of the command.
+     */
+    private final JobStatus status;
+
+    /**
+     * The instant the command started, or null if it never ran.
+     */
+    private final Instant startedAt;
+
+    /**
+     * The offset of the start from the start of the batch, in milliseconds.
+     */
+    private final long startOffsetMillis;
+
+    /**
+     * The execution time of the command, in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * The result of the command, or null if it did not run to completion.
+     */
+    private final CommandResult result;
+
+    /**
+     * The error message when the command failed or was skipped.
+     */
+    private final String error;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param idParam                the identifier of the command within the batch
+     * @param statusParam            the final status of the command
+     * @param startedAtParam         the instant the command started, or null
+     * @param startOffsetMillisParam the offset of the start from the start of the batch
+     * @param durationMillisParam    the execution time of the command
+     * @param resultParam            the result of the command, or null
+     * @param errorParam             the error message, or null
+     */
+    public BatchCommandResult(final String idParam, final JobStatus statusParam, final Instant startedAtParam,
+            final long startOffsetMillisParam, final long durationMillisParam, final CommandResult resultParam,
+            final String errorParam) {
+        this.id = idParam;
+        this.status = statusParam;
+        this.startedAt = startedAtParam;
+        this.startOffsetMillis = startOffsetMillisParam;
+        this.durationMillis = durationMillisParam;
+        this.result = resultParam;
+        this.error = errorParam;
+    }
+
+    /**
+     * Gets the identifier of the command within the batch.
+     *
+     * @return the command identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the final status of the command: {@code COMPLETED},
+     * {@code TIMED_OUT}, {@code FAILED}, or {@code CANCELLED} when skipped
+     * because a dependency did not succeed.
+     *
+     * @return the command status
+     */
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the instant the command started.
+     *
+     * @return the start instant, or null if the command never ran
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Gets the offset of the start from the start of the batch.
+     *
+     * @return the start offset in milliseconds
+     */
+    public long getStartOffsetMillis() {
+        return startOffsetMillis;
+    }
+
+    /**
+     * Gets the execution time of the command.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Gets the result of the command.
+     *
+     * @return the command result, or null
+     */
+    public CommandResult getResult() {
+        return result;
+    }
+
+    /**
+     * Gets the error message of a failed or skipped command.
+     *
+     * @return the error message, or null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Tells whether the command succeeded, so that its dependents may run.
+     *
+     * @return true if the command completed with exit code 0
+     */
+    public boolean isSucceeded() {
+        return status == JobStatus.COMPLETED && result != null && result.getExitCode() == 0;
+    }
+}
@@ -0,0 +1,90 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.util.List;
+
+/**
+ * Represents the aggregated outcome of a batch of commands.
+ */
+public class BatchResult {
+
+    /**
+     * The wall-clock time of the whole batch, in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * Whether every command of the batch succeeded.
+     */
+    private final boolean succeeded;
+
+    /**
+     * The outcome of each command, in request order.
+     */
+    private final List<BatchCommandResult> results;
+
+    /**
+     * Why the batch could not run, null if it ran.
+     */
+    private final String error;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param durationMillisParam the wall-clock time of the whole batch
+     * @param resultsParam        the outcome of each command, in request order
+     */
+    public BatchResult(final long durationMillisParam, final List<BatchCommandResult> resultsParam) {
+        this.durationMillis = durationMillisParam;
+        this.results = resultsParam;
+        this.succeeded = resultsParam.stream().allMatch(BatchCommandResult::isSucceeded);
+        this.error = null;
+    }
+
+    /**
+     * Constructs the outcome of a batch that could not run.
+     *
+     * @param errorParam why the batch could not run
+     */
+    public BatchResult(final String errorParam) {
+        this.durationMillis = 0;
+        this.results = List.of();
+        this.succeeded = false;
+        this.error = errorParam;
+    }
+
+    /**
+     * Gets the wall-clock time of the whole batch.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Tells whether every command of the batch succeeded.
+     *
+     * @return true if all commands completed with exit code 0
+     */
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Gets the outcome of each command.
+     *
+     * @return the command outcomes, in request order
+     */
+    public List<BatchCommandResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets why the batch could not run.
+     *
+     * @return the error message, null if the batch ran
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -18,14 +18,84 @@ public class CommandResult {
     private List<String> output;
 
     /**
-     * Constructs a CommandResult with the given exit code and output.
+     * The total number of lines produced by the command.
+     */
+    private long totalLines;
+
+    /**
+     * The total number of bytes produced by the command.
+     */
+    private long totalBytes;
+
+    /**
+     * Whether the output only holds part of what the command produced.
+     */
+    private boolean truncated;
+
+    /**
+     * Whether the command was destroyed because it exceeded its timeout.
+     */
+    private boolean timedOut;
+
+    /**
+     * The chunks read from stdout, when streams are captured separately.
+     */
+    private List<OutputChunk> stdout;
+
+    /**
+     * The chunks read from stderr, when streams are captured separately.
+     */
+    private List<OutputChunk> stderr;
+
+    /**
+     * Constructs a CommandResult with the given exit code and complete output.
      * 
      * @param exitCodeParam the exit code of the command
      * @param outputParam   the output of the command
      */
     public CommandResult(final int exitCodeParam, final List<String> outputParam) {
+        this(exitCodeParam, outputParam, outputParam == null ? 0 : outputParam.size(), 0, false, false);
+    }
+
+    /**
+     * Constructs a CommandResult with the given exit code, retained output
+     * and output statistics.
+     * 
+     * @param exitCodeParam   the exit code of the command
+     * @param outputParam     the retained output of the command
+     * @param totalLinesParam the total number of lines produced
+     * @param totalBytesParam the total number of bytes produced
+     * @param truncatedParam  whether part of the output was dropped
+     * @param timedOutParam   whether the command was killed on timeout
+     */
+    public CommandResult(final int exitCodeParam, final List<String> outputParam, final long totalLinesParam,
+            final long totalBytesParam, final boolean truncatedParam, final boolean timedOutParam) {
         this.exitCode = exitCodeParam;
         this.output = outputParam;
+        this.totalLines = totalLinesParam;
+        this.totalBytes = totalBytesParam;
+        this.truncated = truncatedParam;
+        this.timedOut = timedOutParam;
+    }
+
+    /**
+     * Constructs a CommandResult from separately captured stdout and stderr.
+     * The line-based output is then empty.
+     * 
+     * @param exitCodeParam   the exit code of the command
+     * @param stdoutParam     the chunks read from stdout
+     * @param stderrParam     the chunks read from stderr
+     * @param totalLinesParam the total number of lines produced on both streams
+     * @param totalBytesParam the total number of bytes produced on both streams
+     * @param truncatedParam  whether part of the output was dropped
+     * @param timedOutParam   whether the command was killed on timeout
+     */
+    public CommandResult(final int exitCodeParam, final List<OutputChunk> stdoutParam,
+            final List<OutputChunk> stderrParam, final long totalLinesParam, final long totalBytesParam,
+            final boolean truncatedParam, final boolean timedOutParam) {
+        this(exitCodeParam, List.of(), totalLinesParam, totalBytesParam, truncatedParam, timedOutParam);
+        this.stdout = stdoutParam;
+        this.stderr = stderrParam;
     }
 
     /**
@@ -45,4 +115,61 @@ public class CommandResult {
     public List<String> getOutput() {
         return output;
     }
+
+    /**
+     * Returns the total number of lines produced by the command.
+     * 
+     * @return the total number of lines
+     */
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    /**
+     * Returns the total number of bytes produced by the command, or 0 when
+     * it was not measured.
+     * 
+     * @return the total number of bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns whether the output only holds part of what the command
+     * produced.
+     * 
+     * @return true if lines or characters were dropped
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns whether the command was destroyed because it exceeded its
+     * timeout; the exit code is then the one of the killed process.
+     * 
+     * @return true if the command timed out
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Returns the chunks read from stdout.
+     * 
+     * @return the stdout chunks, or null unless streams were captured separately
+     */
+    public List<OutputChunk> getStdout() {
+        return stdout;
+    }
+
+    /**
+     * Returns the chunks read from stderr.
+     * 
+     * @return the stderr chunks, or null unless streams were captured separately
+     */
+    public List<OutputChunk> getStderr() {
+        return stderr;
+    }
 }
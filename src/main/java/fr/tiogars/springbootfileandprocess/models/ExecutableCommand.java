@@ -37,6 +37,27 @@ public class ExecutableCommand {
     @Schema(example = "[\"site\"]")
     private String[] arguments;
 
+    /**
+     * The maximum execution time in milliseconds, after which the command and
+     * its child processes are killed. 0 uses the configured default timeout.
+     */
+    @Schema(example = "600000")
+    private long timeoutMillis;
+
+    /**
+     * Whether stdout and stderr are captured separately as timestamped
+     * chunks instead of being merged into output lines.
+     */
+    @Schema(example = "false")
+    private boolean separateStreams;
+
+    /**
+     * Whether the command is read-only, so that its result may be served
+     * from the cache.
+     */
+    @Schema(example = "false")
+    private boolean cacheable;
+
     /**
      * Default constructor.
      */
@@ -134,4 +155,58 @@ public class ExecutableCommand {
     public void setCommandPath(final String commandPathParam) {
         this.commandPath = commandPathParam;
     }
+
+    /**
+     * Gets the maximum execution time in milliseconds.
+     * 
+     * @return the timeout, 0 for the configured default
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Sets the maximum execution time in milliseconds.
+     * 
+     * @param timeoutMillisParam the timeout, 0 for the configured default
+     */
+    public void setTimeoutMillis(final long timeoutMillisParam) {
+        this.timeoutMillis = timeoutMillisParam;
+    }
+
+    /**
+     * Tells whether stdout and stderr are captured separately.
+     * 
+     * @return true to capture timestamped chunks per stream
+     */
+    public boolean isSeparateStreams() {
+        return separateStreams;
+    }
+
+    /**
+     * Sets whether stdout and stderr are captured separately.
+     * 
+     * @param separateStreamsParam true to capture timestamped chunks per stream
+     */
+    public void setSeparateStreams(final boolean separateStreamsParam) {
+        this.separateStreams = separateStreamsParam;
+    }
+
+    /**
+     * Tells whether the result may be served from the cache.
+     * 
+     * @return true if the command is read-only and cacheable
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Sets whether the result may be served from the cache.
+     * 
+     * @param cacheableParam true if the command is read-only and cacheable
+     */
+    public void setCacheable(final boolean cacheableParam) {
+        this.cacheable = cacheableParam;
+    }
 }
@@ -0,0 +1,162 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * Represents a request for a page of a directory listing.
+ */
+public class FileListQuery {
+
+    /**
+     * The directory to list.
+     */
+    private String directory;
+
+    /**
+     * The glob the entry names must match, or null for all entries.
+     */
+    private String glob;
+
+    /**
+     * The sort key, or null to keep the directory order when not paging.
+     */
+    private FileSort sort;
+
+    /**
+     * Whether the sort is descending.
+     */
+    private boolean descending;
+
+    /**
+     * The maximum number of entries of the page, 0 for all entries.
+     */
+    private int limit;
+
+    /**
+     * The continuation token returned with the previous page, or null for
+     * the first page.
+     */
+    private String cursor;
+
+    /**
+     * Default constructor.
+     */
+    public FileListQuery() {
+        // Default constructor
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param directoryParam the directory to list
+     */
+    public FileListQuery(final String directoryParam) {
+        this.directory = directoryParam;
+    }
+
+    /**
+     * Gets the directory to list.
+     *
+     * @return the directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the directory to list.
+     *
+     * @param directoryParam the directory
+     */
+    public void setDirectory(final String directoryParam) {
+        this.directory = directoryParam;
+    }
+
+    /**
+     * Gets the glob the entry names must match.
+     *
+     * @return the glob, or null for all entries
+     */
+    public String getGlob() {
+        return glob;
+    }
+
+    /**
+     * Sets the glob the entry names must match.
+     *
+     * @param globParam the glob, or null for all entries
+     */
+    public void setGlob(final String globParam) {
+        this.glob = globParam;
+    }
+
+    /**
+     * Gets the sort key.
+     *
+     * @return the sort key, or null for the directory order
+     */
+    public FileSort getSort() {
+        return sort;
+    }
+
+    /**
+     * Sets the sort key.
+     *
+     * @param sortParam the sort key, or null for the directory order
+     */
+    public void setSort(final FileSort sortParam) {
+        this.sort = sortParam;
+    }
+
+    /**
+     * Tells whether the sort is descending.
+     *
+     * @return true for a descending sort
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Sets whether the sort is descending.
+     *
+     * @param descendingParam true for a descending sort
+     */
+    public void setDescending(final boolean descendingParam) {
+        this.descending = descendingParam;
+    }
+
+    /**
+     * Gets the maximum number of entries of the page.
+     *
+     * @return the page size, 0 for all entries
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of entries of the page.
+     *
+     * @param limitParam the page size, 0 for all entries
+     */
+    public void setLimit(final int limitParam) {
+        this.limit = limitParam;
+    }
+
+    /**
+     * Gets the continuation token of the previous page.
+     *
+     * @return the cursor, or null for the first page
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Sets the continuation token of the previous page.
+     *
+     * @param cursorParam the cursor, or null for the first page
+     */
+    public void setCursor(final String cursorParam) {
+        this.cursor = cursorParam;
+    }
+}
@@ -0,0 +1,199 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * Represents a search of the file metadata index. Unset criteria match all
+ * entries.
+ */
+public class FileSearchQuery {
+
+    /**
+     * The glob the entry names must match, or null for all names.
+     */
+    private String name;
+
+    /**
+     * The prefix the entry names must start with, or null for all names.
+     */
+    private String prefix;
+
+    /**
+     * The directory the entries must be in, at any depth, or null for all indexed trees.
+     */
+    private String under;
+
+    /**
+     * The minimum size of the entries in bytes, or null.
+     */
+    private Long minSize;
+
+    /**
+     * The maximum size of the entries in bytes, or null.
+     */
+    private Long maxSize;
+
+    /**
+     * The time the entries must have been modified at or after, in milliseconds since the epoch, or null.
+     */
+    private Long modifiedAfter;
+
+    /**
+     * The time the entries must have been modified before, in milliseconds since the epoch, or null.
+     */
+    private Long modifiedBefore;
+
+    /**
+     * The maximum number of results, 0 for the configured maximum.
+     */
+    private int limit;
+
+    /**
+     * Default constructor.
+     */
+    public FileSearchQuery() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the glob of the names.
+     *
+     * @return the name glob
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the glob of the names.
+     *
+     * @param nameParam the name glob
+     */
+    public void setName(final String nameParam) {
+        this.name = nameParam;
+    }
+
+    /**
+     * Gets the prefix of the names.
+     *
+     * @return the name prefix
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Sets the prefix of the names.
+     *
+     * @param prefixParam the name prefix
+     */
+    public void setPrefix(final String prefixParam) {
+        this.prefix = prefixParam;
+    }
+
+    /**
+     * Gets the directory the entries must be in.
+     *
+     * @return the directory
+     */
+    public String getUnder() {
+        return under;
+    }
+
+    /**
+     * Sets the directory the entries must be in.
+     *
+     * @param underParam the directory
+     */
+    public void setUnder(final String underParam) {
+        this.under = underParam;
+    }
+
+    /**
+     * Gets the minimum size.
+     *
+     * @return the minimum size in bytes
+     */
+    public Long getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Sets the minimum size.
+     *
+     * @param minSizeParam the minimum size in bytes
+     */
+    public void setMinSize(final Long minSizeParam) {
+        this.minSize = minSizeParam;
+    }
+
+    /**
+     * Gets the maximum size.
+     *
+     * @return the maximum size in bytes
+     */
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum size.
+     *
+     * @param maxSizeParam the maximum size in bytes
+     */
+    public void setMaxSize(final Long maxSizeParam) {
+        this.maxSize = maxSizeParam;
+    }
+
+    /**
+     * Gets the earliest modification time.
+     *
+     * @return the earliest modification time
+     */
+    public Long getModifiedAfter() {
+        return modifiedAfter;
+    }
+
+    /**
+     * Sets the earliest modification time.
+     *
+     * @param modifiedAfterParam the earliest modification time
+     */
+    public void setModifiedAfter(final Long modifiedAfterParam) {
+        this.modifiedAfter = modifiedAfterParam;
+    }
+
+    /**
+     * Gets the time the entries must have been modified before.
+     *
+     * @return the exclusive latest modification time
+     */
+    public Long getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    /**
+     * Sets the time the entries must have been modified before.
+     *
+     * @param modifiedBeforeParam the exclusive latest modification time
+     */
+    public void setModifiedBefore(final Long modifiedBeforeParam) {
+        this.modifiedBefore = modifiedBeforeParam;
+    }
+
+    /**
+     * Gets the maximum number of results.
+     *
+     * @return the maximum number of results
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of results.
+     *
+     * @param limitParam the maximum number of results
+     */
+    public void setLimit(final int limitParam) {
+        this.limit = limitParam;
+    }
+}
@@ -0,0 +1,42 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * Sort keys of directory listings. Entries with equal keys are ordered by
+ * name, so that every sort is a total order usable for paging.
+ */
+public enum FileSort {
+
+    /**
+     * By name.
+     */
+    NAME,
+
+    /**
+     * By size in bytes.
+     */
+    SIZE,
+
+    /**
+     * By last modification time.
+     */
+    LAST_MODIFIED;
+
+    /**
+     * Parses a sort key, ignoring case, underscores and hyphens, so that
+     * {@code lastModified}, {@code last-modified} and {@code LAST_MODIFIED}
+     * are all accepted.
+     *
+     * @param valueParam the sort key
+     * @return the sort
+     * @throws IllegalArgumentException if the sort key is unknown
+     */
+    public static FileSort fromValue(final String valueParam) {
+        String canonical = valueParam.replace("_", "").replace("-", "");
+        for (FileSort sort : values()) {
+            if (sort.name().replace("_", "").equalsIgnoreCase(canonical)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort " + valueParam);
+    }
+}
@@ -0,0 +1,22 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.io.IOException;
+
+/**
+ * Receives the lines appended to a followed file. Lines are passed to
+ * {@link #onLine(String)}, and {@link #flush()} is called once no further
+ * line is immediately available; {@link #onTimeout()} is called when the
+ * follow ends after its maximum duration.
+ */
+public interface FileTailHandler extends ProcessOutputHandler {
+
+    /**
+     * Called when the file was rotated or truncated, before the lines read
+     * from its new content.
+     *
+     * @throws IOException if the notification cannot be forwarded
+     */
+    default void onRotated() throws IOException {
+        // Nothing to do by default
+    }
+}
@@ -0,0 +1,89 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.util.Locale;
+
+/**
+ * Algorithms computing the digest of a file content.
+ */
+public enum HashAlgorithm {
+
+    /**
+     * SHA-256, the default.
+     */
+    SHA_256("SHA-256"),
+
+    /**
+     * SHA-512, faster than SHA-256 on 64-bit processors without SHA
+     * extensions.
+     */
+    SHA_512("SHA-512"),
+
+    /**
+     * SHA-1, for comparison with legacy checksums only.
+     */
+    SHA_1("SHA-1"),
+
+    /**
+     * MD5, for comparison with legacy checksums only.
+     */
+    MD5("MD5"),
+
+    /**
+     * CRC-32C, a non-cryptographic checksum computed at memory speed, to
+     * detect corruption rather than tampering.
+     */
+    CRC32C(null);
+
+    /**
+     * The name of the {@link java.security.MessageDigest} algorithm, null
+     * for checksums.
+     */
+    private final String messageDigest;
+
+    /**
+     * Constructor for HashAlgorithm.
+     *
+     * @param messageDigestParam the name of the message digest algorithm, null for checksums
+     */
+    HashAlgorithm(final String messageDigestParam) {
+        this.messageDigest = messageDigestParam;
+    }
+
+    /**
+     * Gets the name of the {@link java.security.MessageDigest} algorithm.
+     *
+     * @return the name of the message digest algorithm, null for checksums
+     */
+    public String getMessageDigest() {
+        return messageDigest;
+    }
+
+    /**
+     * Gets the name of the algorithm as reported to clients, such as
+     * {@code sha-256}.
+     *
+     * @return the lower-case name of the algorithm
+     */
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Parses an algorithm name, ignoring case, underscores and hyphens, so
+     * that {@code sha256}, {@code SHA-256} and {@code SHA_256} are all
+     * accepted.
+     *
+     * @param valueParam the algorithm name
+     * @return the algorithm
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public static HashAlgorithm fromValue(final String valueParam) {
+        String canonical = valueParam.replace("_", "").replace("-", "");
+        for (HashAlgorithm algorithm : values()) {
+            if (algorithm.name().replace("_", "").equalsIgnoreCase(canonical)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown hash algorithm " + valueParam);
+    }
+}
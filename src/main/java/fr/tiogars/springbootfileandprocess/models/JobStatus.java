@@ -0,0 +1,46 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * Lifecycle states of an asynchronous process job.
+ */
+public enum JobStatus {
+
+    /**
+     * The job is waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * The command is being executed.
+     */
+    RUNNING,
+
+    /**
+     * The command ran to completion, whatever its exit code.
+     */
+    COMPLETED,
+
+    /**
+     * The command was killed because it exceeded its timeout.
+     */
+    TIMED_OUT,
+
+    /**
+     * The command could not be executed.
+     */
+    FAILED,
+
+    /**
+     * The job was cancelled before it finished.
+     */
+    CANCELLED;
+
+    /**
+     * Tells whether the status is final.
+     *
+     * @return true if the job will not change state anymore
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == TIMED_OUT || this == FAILED || this == CANCELLED;
+    }
+}
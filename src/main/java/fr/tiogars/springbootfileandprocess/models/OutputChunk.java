@@ -0,0 +1,63 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * A piece of output read from one stream of a command.
+ */
+public class OutputChunk {
+
+    /**
+     * The stream the chunk was read from, "stdout" or "stderr".
+     */
+    private final String stream;
+
+    /**
+     * Monotonic time the chunk was read, in nanoseconds since the process
+     * started.
+     */
+    private final long timestampNanos;
+
+    /**
+     * The text of the chunk, which may contain several or partial lines.
+     */
+    private final String text;
+
+    /**
+     * Constructs an OutputChunk.
+     *
+     * @param streamParam         the stream the chunk was read from
+     * @param timestampNanosParam the read time, in nanoseconds since the process started
+     * @param textParam           the text of the chunk
+     */
+    public OutputChunk(final String streamParam, final long timestampNanosParam, final String textParam) {
+        this.stream = streamParam;
+        this.timestampNanos = timestampNanosParam;
+        this.text = textParam;
+    }
+
+    /**
+     * Gets the stream the chunk was read from.
+     *
+     * @return "stdout" or "stderr"
+     */
+    public String getStream() {
+        return stream;
+    }
+
+    /**
+     * Gets the monotonic read time of the chunk.
+     *
+     * @return the read time, in nanoseconds since the process started
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Gets the text of the chunk.
+     *
+     * @return the text of the chunk
+     */
+    public String getText() {
+        return text;
+    }
+}
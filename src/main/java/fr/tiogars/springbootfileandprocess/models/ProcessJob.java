@@ -0,0 +1,180 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.time.Instant;
+
+/**
+ * Represents a command submitted for asynchronous execution.
+ */
+public class ProcessJob {
+
+    /**
+     * The unique identifier of the job.
+     */
+    private final String id;
+
+    /**
+     * The command executed by the job.
+     */
+    private final ExecutableCommand command;
+
+    /**
+     * The instant the job was submitted.
+     */
+    private final Instant submittedAt;
+
+    /**
+     * The current status of the job.
+     */
+    private volatile JobStatus status;
+
+    /**
+     * The instant the command started, or null while queued.
+     */
+    private volatile Instant startedAt;
+
+    /**
+     * The instant the job reached a terminal status, or null.
+     */
+    private volatile Instant finishedAt;
+
+    /**
+     * The result of the command, available once completed.
+     */
+    private volatile CommandResult result;
+
+    /**
+     * The error message when the job failed.
+     */
+    private volatile String error;
+
+    /**
+     * Constructs a queued job.
+     *
+     * @param idParam          the unique identifier of the job
+     * @param commandParam     the command executed by the job
+     * @param submittedAtParam the instant the job was submitted
+     */
+    public ProcessJob(final String idParam, final ExecutableCommand commandParam, final Instant submittedAtParam) {
+        this.id = idParam;
+        this.command = commandParam;
+        this.submittedAt = submittedAtParam;
+        this.status = JobStatus.QUEUED;
+    }
+
+    /**
+     * Gets the unique identifier of the job.
+     *
+     * @return the job identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the command executed by the job.
+     *
+     * @return the command
+     */
+    public ExecutableCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the instant the job was submitted.
+     *
+     * @return the submission instant
+     */
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Gets the current status of the job.
+     *
+     * @return the job status
+     */
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the current status of the job.
+     *
+     * @param statusParam the job status
+     */
+    public void setStatus(final JobStatus statusParam) {
+        this.status = statusParam;
+    }
+
+    /**
+     * Gets the instant the command started.
+     *
+     * @return the start instant, or null while queued
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the instant the command started.
+     *
+     * @param startedAtParam the start instant
+     */
+    public void setStartedAt(final Instant startedAtParam) {
+        this.startedAt = startedAtParam;
+    }
+
+    /**
+     * Gets the instant the job reached a terminal status.
+     *
+     * @return the finish instant, or null
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Sets the instant the job reached a terminal status.
+     *
+     * @param finishedAtParam the finish instant
+     */
+    public void setFinishedAt(final Instant finishedAtParam) {
+        this.finishedAt = finishedAtParam;
+    }
+
+    /**
+     * Gets the result of the command.
+     *
+     * @return the command result, or null until completed
+     */
+    public CommandResult getResult() {
+        return result;
+    }
+
+    /**
+     * Sets the result of the command.
+     *
+     * @param resultParam the command result
+     */
+    public void setResult(final CommandResult resultParam) {
+        this.result = resultParam;
+    }
+
+    /**
+     * Gets the error message of a failed job.
+     *
+     * @return the error message, or null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the error message of a failed job.
+     *
+     * @param errorParam the error message
+     */
+    public void setError(final String errorParam) {
+        this.error = errorParam;
+    }
+}
@@ -0,0 +1,46 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.io.IOException;
+
+/**
+ * Receives the output of a command while it is running.
+ */
+public interface ProcessOutputHandler {
+
+    /**
+     * Called for each line of output, without its line terminator.
+     *
+     * @param lineParam the output line
+     * @throws IOException if the line cannot be forwarded
+     */
+    void onLine(String lineParam) throws IOException;
+
+    /**
+     * Called when no further output is immediately available, so that
+     * buffered lines can be pushed to the consumer in one batch.
+     *
+     * @throws IOException if the buffered lines cannot be forwarded
+     */
+    void flush() throws IOException;
+
+    /**
+     * Called once the output is complete when the command was destroyed
+     * because it exceeded its timeout.
+     *
+     * @throws IOException if the notification cannot be forwarded
+     */
+    default void onTimeout() throws IOException {
+        // Nothing to do by default
+    }
+
+    /**
+     * Called periodically while no output is produced, so that a consumer
+     * which is gone can be detected. It may be called from another thread,
+     * but never concurrently with the other methods.
+     *
+     * @throws IOException if the consumer is gone
+     */
+    default void onIdle() throws IOException {
+        // Nothing to do by default
+    }
+}
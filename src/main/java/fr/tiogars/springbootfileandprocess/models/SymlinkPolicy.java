@@ -0,0 +1,23 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * How a directory walk handles symbolic links.
+ */
+public enum SymlinkPolicy {
+
+    /**
+     * Links are left out of the results.
+     */
+    SKIP,
+
+    /**
+     * Links are reported with their own attributes but not followed.
+     */
+    LIST,
+
+    /**
+     * Links are reported with the attributes of their target, and links to
+     * directories are walked into, each directory being visited once.
+     */
+    FOLLOW
+}
@@ -0,0 +1,74 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of the state of the system and of the JVM, as sampled
+ * at a point in time. Values that cannot be read on the current platform are
+ * reported as -1.
+ *
+ * @param hostName      the host name
+ * @param sampledAt     when the snapshot was taken, in milliseconds since the epoch
+ * @param uptimeSeconds the time since the system booted, in seconds
+ * @param cpu           the processors and their load
+ * @param memory        the physical memory and swap
+ * @param disks         the capacity of the file stores of the configured paths
+ * @param jvm           the threads, file descriptors and heap of the JVM
+ */
+public record SystemInfo(String hostName, long sampledAt, long uptimeSeconds, Cpu cpu, Memory memory,
+        List<Disk> disks, Jvm jvm) {
+
+    /**
+     * Processors and their load.
+     *
+     * @param processors     the number of processors available to the JVM
+     * @param loadAverage1m  the system load average over the last minute
+     * @param loadAverage5m  the system load average over the last 5 minutes
+     * @param loadAverage15m the system load average over the last 15 minutes
+     * @param systemUsage    the CPU usage of the whole system since the previous sample, between 0 and 1
+     * @param processUsage   the CPU usage of the JVM since the previous sample, between 0 and 1
+     */
+    public record Cpu(int processors, double loadAverage1m, double loadAverage5m, double loadAverage15m,
+            double systemUsage, double processUsage) {
+    }
+
+    /**
+     * Physical memory and swap, in bytes.
+     *
+     * @param totalBytes     the physical memory
+     * @param availableBytes the memory available to new processes without swapping
+     * @param swapTotalBytes the swap space
+     * @param swapFreeBytes  the unused swap space
+     */
+    public record Memory(long totalBytes, long availableBytes, long swapTotalBytes, long swapFreeBytes) {
+    }
+
+    /**
+     * Capacity of the file store holding a path, in bytes.
+     *
+     * @param path        the configured path
+     * @param store       the name of the file store
+     * @param totalBytes  the size of the file store
+     * @param usableBytes the space available to the JVM
+     */
+    public record Disk(String path, String store, long totalBytes, long usableBytes) {
+    }
+
+    /**
+     * Threads, file descriptors and heap of the JVM.
+     *
+     * @param threads             the live threads
+     * @param daemonThreads       the live daemon threads
+     * @param peakThreads         the peak number of live threads since the JVM started
+     * @param openFileDescriptors the open file descriptors
+     * @param maxFileDescriptors  the maximum number of open file descriptors
+     * @param heapUsedBytes       the heap in use
+     * @param heapCommittedBytes  the heap committed by the JVM
+     * @param heapMaxBytes        the maximum heap size
+     * @param uptimeMillis        the time since the JVM started, in milliseconds
+     */
+    public record Jvm(int threads, int daemonThreads, int peakThreads, long openFileDescriptors,
+            long maxFileDescriptors, long heapUsedBytes, long heapCommittedBytes, long heapMaxBytes,
+            long uptimeMillis) {
+    }
+}
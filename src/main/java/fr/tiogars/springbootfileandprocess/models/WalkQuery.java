@@ -0,0 +1,141 @@
+package fr.tiogars.springbootfileandprocess.models;
+
+/**
+ * Represents a request for a recursive walk of a directory tree.
+ */
+public class WalkQuery {
+
+    /**
+     * The root directory of the walk.
+     */
+    private String directory;
+
+    /**
+     * The maximum depth of the reported entries, the children of the root
+     * being at depth 1.
+     */
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * The glob the paths relative to the root must match to be reported, or
+     * null for all entries.
+     */
+    private String include;
+
+    /**
+     * The glob of the paths relative to the root that are neither reported
+     * nor walked into, or null to exclude nothing.
+     */
+    private String exclude;
+
+    /**
+     * How symbolic links are handled.
+     */
+    private SymlinkPolicy symlinks = SymlinkPolicy.LIST;
+
+    /**
+     * Default constructor.
+     */
+    public WalkQuery() {
+        // Default constructor
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param directoryParam the root directory of the walk
+     */
+    public WalkQuery(final String directoryParam) {
+        this.directory = directoryParam;
+    }
+
+    /**
+     * Gets the root directory of the walk.
+     *
+     * @return the root directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the root directory of the walk.
+     *
+     * @param directoryParam the root directory
+     */
+    public void setDirectory(final String directoryParam) {
+        this.directory = directoryParam;
+    }
+
+    /**
+     * Gets the maximum depth of the reported entries.
+     *
+     * @return the maximum depth, the children of the root being at depth 1
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum depth of the reported entries.
+     *
+     * @param maxDepthParam the maximum depth, the children of the root being at depth 1
+     */
+    public void setMaxDepth(final int maxDepthParam) {
+        this.maxDepth = maxDepthParam;
+    }
+
+    /**
+     * Gets the glob of the reported paths.
+     *
+     * @return the include glob, or null for all entries
+     */
+    public String getInclude() {
+        return include;
+    }
+
+    /**
+     * Sets the glob of the reported paths.
+     *
+     * @param includeParam the include glob, or null for all entries
+     */
+    public void setInclude(final String includeParam) {
+        this.include = includeParam;
+    }
+
+    /**
+     * Gets the glob of the excluded paths.
+     *
+     * @return the exclude glob, or null to exclude nothing
+     */
+    public String getExclude() {
+        return exclude;
+    }
+
+    /**
+     * Sets the glob of the excluded paths.
+     *
+     * @param excludeParam the exclude glob, or null to exclude nothing
+     */
+    public void setExclude(final String excludeParam) {
+        this.exclude = excludeParam;
+    }
+
+    /**
+     * Gets how symbolic links are handled.
+     *
+     * @return the symbolic link policy
+     */
+    public SymlinkPolicy getSymlinks() {
+        return symlinks;
+    }
+
+    /**
+     * Sets how symbolic links are handled.
+     *
+     * @param symlinksParam the symbolic link policy
+     */
+    public void setSymlinks(final SymlinkPolicy symlinksParam) {
+        this.symlinks = symlinksParam;
+    }
+}
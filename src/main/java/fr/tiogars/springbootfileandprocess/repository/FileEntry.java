@@ -0,0 +1,14 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A directory entry with its attributes, read in a single call.
+ *
+ * @param path       the path of the entry
+ * @param attributes the attributes of the entry
+ * @param hidden     whether the entry is hidden
+ */
+public record FileEntry(Path path, BasicFileAttributes attributes, boolean hidden) {
+}
@@ -0,0 +1,27 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.IOException;
+
+/**
+ * Repository interface for persisting the file metadata index.
+ */
+public interface FileIndexRepository {
+
+    /**
+     * Loads a persisted index segment.
+     *
+     * @param location the file the segment was saved to
+     * @return the segment
+     * @throws IOException if the file does not exist, cannot be read or is not an index
+     */
+    IndexSegment load(String location) throws IOException;
+
+    /**
+     * Saves an index segment, replacing the previous one atomically.
+     *
+     * @param segment  the segment
+     * @param location the file to save the segment to
+     * @throws IOException if the file cannot be written
+     */
+    void save(IndexSegment segment, String location) throws IOException;
+}
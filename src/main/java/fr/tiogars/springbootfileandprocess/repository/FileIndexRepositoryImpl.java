@@ -0,0 +1,101 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Implementation of {@link FileIndexRepository} storing a segment in a
+ * compact binary file: the directory table, then each entry as the index
+ * of its directory, its name, size, modification time and flags.
+ */
+@Component
+public class FileIndexRepositoryImpl implements FileIndexRepository {
+
+    /**
+     * Magic number opening an index file.
+     */
+    private static final int MAGIC = 0x46494458;
+
+    /**
+     * Version of the index file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of the I/O buffers, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Default constructor.
+     */
+    public FileIndexRepositoryImpl() {
+        // Default constructor
+    }
+
+    /**
+     * Loads a persisted index segment.
+     */
+    @Override
+    public IndexSegment load(final String location) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Path.of(location)), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new StreamCorruptedException("Not an index file: " + location);
+            }
+            String[] directories = new String[input.readInt()];
+            for (int i = 0; i < directories.length; i++) {
+                directories[i] = input.readUTF();
+            }
+            int count = input.readInt();
+            IndexSegment.Builder builder = IndexSegment.builder();
+            for (int i = 0; i < count; i++) {
+                builder.add(directories[input.readInt()], input.readUTF(), input.readLong(), input.readLong(),
+                        input.readByte());
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Saves an index segment to a temporary file, then moves it over the
+     * previous one.
+     */
+    @Override
+    public void save(final IndexSegment segment, final String location) throws IOException {
+        Path target = Path.of(location).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(segment.directoryCount());
+                for (int i = 0; i < segment.directoryCount(); i++) {
+                    output.writeUTF(segment.directory(i));
+                }
+                output.writeInt(segment.size());
+                for (int i = 0; i < segment.size(); i++) {
+                    output.writeInt(segment.parentId(i));
+                    output.writeUTF(segment.name(i));
+                    output.writeLong(segment.sizeOf(i));
+                    output.writeLong(segment.lastModifiedOf(i));
+                    output.writeByte(segment.flagsOf(i));
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
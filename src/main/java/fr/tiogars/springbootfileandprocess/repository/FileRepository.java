@@ -1,7 +1,10 @@
 package fr.tiogars.springbootfileandprocess.repository;
 
-import java.io.File;
-import java.util.List;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.stream.Stream;
+
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
 
 /**
  * Repository interface for file operations.
@@ -9,10 +12,71 @@ import java.util.List;
 public interface FileRepository {
 
     /**
-     * List all files in a directory.
+     * Lists the entries of a directory with their attributes. The returned
+     * stream holds the directory open and must be closed.
+     *
+     * @param directory The directory to list files from.
+     * @return A lazily populated stream of the directory entries.
+     * @throws IOException if the directory cannot be opened
+     */
+    default Stream<FileEntry> listFiles(String directory) throws IOException {
+        return listFiles(directory, null);
+    }
+
+    /**
+     * Lists the entries of a directory whose name matches a glob, with their
+     * attributes. Entries are filtered before their attributes are read. The
+     * returned stream holds the directory open and must be closed.
      *
      * @param directory The directory to list files from.
-     * @return A list of files.
+     * @param glob      The glob the names must match, or null for all entries.
+     * @return A lazily populated stream of the matching directory entries.
+     * @throws IOException if the directory cannot be opened
+     * @throws java.util.regex.PatternSyntaxException if the glob is invalid
+     */
+    Stream<FileEntry> listFiles(String directory, String glob) throws IOException;
+
+    /**
+     * Lists the entries of a directory with their attributes, those of
+     * symbolic links being read from the links themselves rather than their
+     * targets. The returned stream holds the directory open and must be
+     * closed.
+     *
+     * @param directory The directory to list files from.
+     * @return A lazily populated stream of the directory entries.
+     * @throws IOException if the directory cannot be opened
+     */
+    Stream<FileEntry> listLinks(String directory) throws IOException;
+
+    /**
+     * Reads the attributes of a single entry, those of the link itself if it
+     * is a broken symbolic link.
+     *
+     * @param path the path of the entry
+     * @return the entry
+     * @throws IOException if the entry does not exist or cannot be read
+     */
+    FileEntry readEntry(String path) throws IOException;
+
+    /**
+     * Walks a directory tree, reading directories in parallel. Entries come
+     * in no particular order and unreadable subdirectories are skipped. The
+     * returned stream must be closed, which cancels the walk if it is still
+     * running.
+     *
+     * @param query the root, depth, filters and link policy of the walk
+     * @return a lazily populated stream of the entries of the tree
+     * @throws IOException if the root cannot be read or is not a directory
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    Stream<FileEntry> walk(WalkQuery query) throws IOException;
+
+    /**
+     * Opens the content of a file for reading.
+     *
+     * @param path the path of the file
+     * @return a channel positioned at the start of the file, to be closed
+     * @throws IOException if the file does not exist or cannot be read
      */
-    List<File> listFiles(String directory);
+    FileChannel openContent(String path) throws IOException;
 }
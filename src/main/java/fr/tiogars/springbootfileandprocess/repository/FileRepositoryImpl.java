@@ -1,30 +1,242 @@
 package fr.tiogars.springbootfileandprocess.repository;
 
-import java.io.File;
-import java.util.Arrays;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+
 /**
  * Implementation of {@link FileRepository} for file operations.
+ * <p>
+ * Directories are read with a {@link DirectoryStream} and the attributes of
+ * each entry are fetched with a single {@code stat}, relative to the open
+ * directory where the platform supports it. On DOS file systems the hidden
+ * flag comes with the same read; on POSIX ones it follows the dot-file
+ * convention, as {@link Files#isHidden(Path)} does.
+ * </p>
  */
 @Component
 public class FileRepositoryImpl implements FileRepository {
 
     /**
-     * Default constructor.
+     * Settings of recursive walks.
+     */
+    private final FileProperties.Walk walkSettings;
+
+    /**
+     * Constructor for FileRepositoryImpl, with the default file configuration.
      */
     public FileRepositoryImpl() {
-        // Default constructor
+        this(new FileProperties());
+    }
+
+    /**
+     * Constructor for FileRepositoryImpl.
+     *
+     * @param filePropertiesParam the file configuration
+     */
+    @Autowired
+    public FileRepositoryImpl(final FileProperties filePropertiesParam) {
+        this.walkSettings = filePropertiesParam.getWalk();
+    }
+
+    /**
+     * Lists the entries of a directory matching a glob, with their
+     * attributes. Entries removed while the directory is read are skipped;
+     * broken symbolic links are reported with the attributes of the link
+     * itself.
+     */
+    @Override
+    public Stream<FileEntry> listFiles(String directory, String glob) throws IOException {
+        Path dir = Path.of(directory);
+        boolean dos = isDos(dir);
+        DirectoryStream<Path> entries = glob == null || glob.isEmpty()
+                ? Files.newDirectoryStream(dir)
+                : Files.newDirectoryStream(dir, glob);
+        return StreamSupport.stream(entries.spliterator(), false)
+                .map(path -> toEntry(entries, path, dos))
+                .filter(Objects::nonNull)
+                .onClose(() -> close(entries));
+    }
+
+    /**
+     * Lists the entries of a directory with the attributes of symbolic links
+     * themselves. Entries removed while the directory is read are skipped.
+     */
+    @Override
+    public Stream<FileEntry> listLinks(final String directory) throws IOException {
+        Path dir = Path.of(directory);
+        boolean dos = isDos(dir);
+        DirectoryStream<Path> entries = Files.newDirectoryStream(dir);
+        return StreamSupport.stream(entries.spliterator(), false)
+                .map(path -> toLinkEntry(entries, path, dos))
+                .filter(Objects::nonNull)
+                .onClose(() -> close(entries));
+    }
+
+    /**
+     * Reads the attributes of a single entry.
+     */
+    @Override
+    public FileEntry readEntry(final String path) throws IOException {
+        Path file = Path.of(path);
+        boolean dos = isDos(file);
+        BasicFileAttributes attributes;
+        try {
+            attributes = readAttributes(null, file, dos);
+        } catch (NoSuchFileException e) {
+            attributes = readAttributes(null, file, dos, LinkOption.NOFOLLOW_LINKS);
+        }
+        return new FileEntry(file, attributes, isHidden(file, attributes));
+    }
+
+    /**
+     * Walks a directory tree, reading directories in parallel.
+     */
+    @Override
+    public Stream<FileEntry> walk(final WalkQuery query) throws IOException {
+        Path root = Path.of(query.getDirectory());
+        BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            throw new NotDirectoryException(query.getDirectory());
+        }
+        ParallelWalk walk = new ParallelWalk(root, query, isDos(root), walkSettings.getParallelism(),
+                walkSettings.getBufferSize());
+        walk.start(attributes);
+        return StreamSupport.stream(walk, false).onClose(walk::close);
     }
 
     /**
-     * Lists all files in a directory.
+     * Opens the content of a file for reading.
      */
     @Override
-    public List<File> listFiles(String directory) {
-        File dir = new File(directory);
-        return Arrays.asList(dir.listFiles());
+    public FileChannel openContent(final String path) throws IOException {
+        return FileChannel.open(Path.of(path), StandardOpenOption.READ);
+    }
+
+    /**
+     * Tells whether the hidden flag of a file system comes from DOS
+     * attributes rather than the dot-file convention.
+     *
+     * @param path a path of the file system
+     * @return true on DOS file systems
+     */
+    private static boolean isDos(final Path path) {
+        Set<String> views = path.getFileSystem().supportedFileAttributeViews();
+        return views.contains("dos") && !views.contains("posix");
+    }
+
+    /**
+     * Reads the attributes of a directory entry.
+     *
+     * @param entries the open directory
+     * @param path    the path of the entry
+     * @param dos     whether the file system has DOS attributes
+     * @return the entry, or null if it no longer exists
+     */
+    private static FileEntry toEntry(final DirectoryStream<Path> entries, final Path path, final boolean dos) {
+        try {
+            BasicFileAttributes attributes;
+            try {
+                attributes = readAttributes(entries, path, dos);
+            } catch (NoSuchFileException e) {
+                attributes = readAttributes(entries, path, dos, LinkOption.NOFOLLOW_LINKS);
+            }
+            return new FileEntry(path, attributes, isHidden(path, attributes));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the attributes of a directory entry without following links.
+     *
+     * @param entries the open directory
+     * @param path    the path of the entry
+     * @param dos     whether the file system has DOS attributes
+     * @return the entry, or null if it no longer exists
+     */
+    private static FileEntry toLinkEntry(final DirectoryStream<Path> entries, final Path path, final boolean dos) {
+        try {
+            BasicFileAttributes attributes = readAttributes(entries, path, dos, LinkOption.NOFOLLOW_LINKS);
+            return new FileEntry(path, attributes, isHidden(path, attributes));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Tells whether an entry is hidden, from its DOS attributes if read,
+     * otherwise from the dot-file convention.
+     *
+     * @param path       the path of the entry
+     * @param attributes the attributes of the entry
+     * @return true if the entry is hidden
+     */
+    private static boolean isHidden(final Path path, final BasicFileAttributes attributes) {
+        if (attributes instanceof DosFileAttributes dosAttributes) {
+            return dosAttributes.isHidden();
+        }
+        Path name = path.getFileName();
+        return name != null && name.toString().startsWith(".");
+    }
+
+    /**
+     * Reads the attributes of a directory entry in a single call.
+     *
+     * @param entries the open directory, or null to read by path
+     * @param path    the path of the entry
+     * @param dos     whether to read the DOS attributes
+     * @param options how symbolic links are handled
+     * @return the attributes of the entry
+     * @throws IOException if the attributes cannot be read
+     */
+    private static BasicFileAttributes readAttributes(final DirectoryStream<Path> entries, final Path path,
+            final boolean dos, final LinkOption... options) throws IOException {
+        if (dos) {
+            return Files.readAttributes(path, DosFileAttributes.class, options);
+        }
+        if (entries instanceof SecureDirectoryStream<Path> secure) {
+            return secure.getFileAttributeView(path.getFileName(), BasicFileAttributeView.class, options)
+                    .readAttributes();
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, options);
+    }
+
+    /**
+     * Closes a directory stream.
+     *
+     * @param entries the directory stream
+     */
+    private static void close(final DirectoryStream<Path> entries) {
+        try {
+            entries.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
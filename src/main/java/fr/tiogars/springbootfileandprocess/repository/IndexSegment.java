@@ -0,0 +1,427 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable set of index entries sorted by name, then by directory.
+ * <p>
+ * Entries are stored column by column in primitive arrays, directories
+ * being stored once in a table the entries refer to, so that millions of
+ * entries fit in a few tens of megabytes and names can be searched by
+ * binary search.
+ * </p>
+ */
+public final class IndexSegment {
+
+    /**
+     * Flag of directory entries.
+     */
+    private static final byte DIRECTORY = 1;
+
+    /**
+     * Flag of regular file entries.
+     */
+    private static final byte REGULAR_FILE = 2;
+
+    /**
+     * Flag of hidden entries.
+     */
+    private static final byte HIDDEN = 4;
+
+    /**
+     * The segment without entries.
+     */
+    private static final IndexSegment EMPTY = new Builder().build();
+
+    /**
+     * The absolute paths of the directories holding the entries.
+     */
+    private final String[] directories;
+
+    /**
+     * The index in {@link #directories} of the directory of each entry.
+     */
+    private final int[] parents;
+
+    /**
+     * The names of the entries, sorted.
+     */
+    private final String[] names;
+
+    /**
+     * The sizes of the entries.
+     */
+    private final long[] sizes;
+
+    /**
+     * The last modification times of the entries.
+     */
+    private final long[] lastModified;
+
+    /**
+     * The type and hidden flags of the entries.
+     */
+    private final byte[] flags;
+
+    /**
+     * The entries grouped by directory, built on first use.
+     */
+    private volatile Children children;
+
+    /**
+     * Constructs a segment from its columns.
+     *
+     * @param directoriesParam  the directory table
+     * @param parentsParam      the directory of each entry
+     * @param namesParam        the sorted names
+     * @param sizesParam        the sizes
+     * @param lastModifiedParam the last modification times
+     * @param flagsParam        the flags
+     */
+    private IndexSegment(final String[] directoriesParam, final int[] parentsParam, final String[] namesParam,
+            final long[] sizesParam, final long[] lastModifiedParam, final byte[] flagsParam) {
+        this.directories = directoriesParam;
+        this.parents = parentsParam;
+        this.names = namesParam;
+        this.sizes = sizesParam;
+        this.lastModified = lastModifiedParam;
+        this.flags = flagsParam;
+    }
+
+    /**
+     * Gets the segment without entries.
+     *
+     * @return the empty segment
+     */
+    public static IndexSegment empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a builder of segment.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the number of directories of the directory table.
+     *
+     * @return the number of directories
+     */
+    public int directoryCount() {
+        return directories.length;
+    }
+
+    /**
+     * Gets a directory of the directory table.
+     *
+     * @param id the index of the directory in the table
+     * @return the absolute path of the directory
+     */
+    public String directory(final int id) {
+        return directories[id];
+    }
+
+    /**
+     * Gets the index in the directory table of the directory of an entry.
+     *
+     * @param index the index of the entry
+     * @return the index of its directory
+     */
+    public int parentId(final int index) {
+        return parents[index];
+    }
+
+    /**
+     * Gets the directory of an entry.
+     *
+     * @param index the index of the entry
+     * @return the absolute path of its directory
+     */
+    public String parent(final int index) {
+        return directories[parents[index]];
+    }
+
+    /**
+     * Gets the name of an entry.
+     *
+     * @param index the index of the entry
+     * @return its name
+     */
+    public String name(final int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the size of an entry.
+     *
+     * @param index the index of the entry
+     * @return its size in bytes
+     */
+    public long sizeOf(final int index) {
+        return sizes[index];
+    }
+
+    /**
+     * Gets the last modification time of an entry.
+     *
+     * @param index the index of the entry
+     * @return its last modification time, in milliseconds since the epoch
+     */
+    public long lastModifiedOf(final int index) {
+        return lastModified[index];
+    }
+
+    /**
+     * Gets the type and hidden flags of an entry, as stored.
+     *
+     * @param index the index of the entry
+     * @return its flags
+     */
+    public byte flagsOf(final int index) {
+        return flags[index];
+    }
+
+    /**
+     * Gets an entry.
+     *
+     * @param index the index of the entry
+     * @return the entry
+     */
+    public IndexedEntry get(final int index) {
+        return entryOf(parent(index), names[index], sizes[index], lastModified[index], flags[index]);
+    }
+
+    /**
+     * Creates an entry from its stored columns.
+     *
+     * @param parent       the directory of the entry
+     * @param name         the name of the entry
+     * @param size         the size of the entry
+     * @param lastModified the last modification time of the entry
+     * @param flags        the type and hidden flags of the entry
+     * @return the entry
+     */
+    private static IndexedEntry entryOf(final String parent, final String name, final long size,
+            final long lastModified, final byte flags) {
+        return new IndexedEntry(parent, name, size, lastModified, (flags & DIRECTORY) != 0,
+                (flags & REGULAR_FILE) != 0, (flags & HIDDEN) != 0);
+    }
+
+    /**
+     * Finds the first entry whose name is not before a prefix.
+     *
+     * @param prefix the prefix
+     * @return the index of the first entry whose name sorts at or after the prefix
+     */
+    public int lowerBound(final String prefix) {
+        int low = 0;
+        int high = names.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (names[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Visits the entries lying in a tree, without going through the entries
+     * of the other directories.
+     *
+     * @param tree     the absolute path of the root of the tree
+     * @param consumer the consumer of the index of each entry below the root
+     */
+    public void forEachEntryUnder(final String tree, final IntConsumer consumer) {
+        Children table = children;
+        if (table == null) {
+            table = groupByDirectory();
+            children = table;
+        }
+        String from = tree.endsWith(File.separator) ? tree : tree + File.separator;
+        String to = from.substring(0, from.length() - 1) + (char) (from.charAt(from.length() - 1) + 1);
+        int first = table.lowerBound(directories, tree);
+        if (first < table.sortedDirectories().length && directories[table.sortedDirectories()[first]].equals(tree)
+                && !from.equals(tree)) {
+            table.forEachEntryOf(table.sortedDirectories()[first], consumer);
+        }
+        int end = table.lowerBound(directories, to);
+        for (int i = table.lowerBound(directories, from); i < end; i++) {
+            table.forEachEntryOf(table.sortedDirectories()[i], consumer);
+        }
+    }
+
+    /**
+     * Groups the entries by directory and sorts the directory table by path.
+     *
+     * @return the entries grouped by directory
+     */
+    private Children groupByDirectory() {
+        int[] sortedDirectories = IntStream.range(0, directories.length).boxed()
+                .sorted(Comparator.comparing(id -> directories[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] offsets = new int[directories.length + 1];
+        for (int parent : parents) {
+            offsets[parent + 1]++;
+        }
+        for (int i = 0; i < directories.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, directories.length);
+        int[] entries = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            entries[next[parents[i]]++] = i;
+        }
+        return new Children(sortedDirectories, offsets, entries);
+    }
+
+    /**
+     * The entries of a segment grouped by directory.
+     *
+     * @param sortedDirectories the indexes of the directory table, sorted by path
+     * @param offsets           the start in {@code entries} of the entries of each directory, then their count
+     * @param entries           the indexes of the entries, directory by directory
+     */
+    private record Children(int[] sortedDirectories, int[] offsets, int[] entries) {
+
+        /**
+         * Finds the first directory whose path is not before a key.
+         *
+         * @param directories the directory table
+         * @param key         the key
+         * @return the position in {@code sortedDirectories} of the first path sorting at or after the key
+         */
+        int lowerBound(final String[] directories, final String key) {
+            int low = 0;
+            int high = sortedDirectories.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (directories[sortedDirectories[middle]].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Visits the entries of a directory.
+         *
+         * @param id       the index of the directory in the table
+         * @param consumer the consumer of the index of each entry
+         */
+        void forEachEntryOf(final int id, final IntConsumer consumer) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                consumer.accept(entries[i]);
+            }
+        }
+    }
+
+    /**
+     * Builder of segment, accepting entries in any order.
+     */
+    public static final class Builder {
+
+        /**
+         * The directory table.
+         */
+        private final List<String> directories = new ArrayList<>();
+
+        /**
+         * The index of each directory in the table.
+         */
+        private final Map<String, Integer> directoryIds = new HashMap<>();
+
+        /**
+         * The entries added so far.
+         */
+        private final List<IndexedEntry> entries = new ArrayList<>();
+
+        /**
+         * Constructs an empty builder.
+         */
+        private Builder() {
+            // Use IndexSegment.builder()
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param entry the entry
+         * @return this builder
+         */
+        public Builder add(final IndexedEntry entry) {
+            entries.add(entry);
+            return this;
+        }
+
+        /**
+         * Adds an entry from its stored columns.
+         *
+         * @param parent       the directory of the entry
+         * @param name         the name of the entry
+         * @param size         the size of the entry
+         * @param lastModified the last modification time of the entry
+         * @param flags        the type and hidden flags of the entry, as returned by {@link IndexSegment#flagsOf}
+         * @return this builder
+         */
+        public Builder add(final String parent, final String name, final long size, final long lastModified,
+                final byte flags) {
+            return add(entryOf(parent, name, size, lastModified, flags));
+        }
+
+        /**
+         * Sorts the entries and builds the segment.
+         *
+         * @return the segment
+         */
+        public IndexSegment build() {
+            IndexedEntry[] sorted = entries.toArray(IndexedEntry[]::new);
+            Arrays.sort(sorted, Comparator.comparing(IndexedEntry::name).thenComparing(IndexedEntry::parent));
+            int count = sorted.length;
+            int[] parents = new int[count];
+            String[] names = new String[count];
+            long[] sizes = new long[count];
+            long[] lastModified = new long[count];
+            byte[] flags = new byte[count];
+            for (int i = 0; i < count; i++) {
+                IndexedEntry entry = sorted[i];
+                parents[i] = directoryIds.computeIfAbsent(entry.parent(), directory -> {
+                    directories.add(directory);
+                    return directories.size() - 1;
+                });
+                names[i] = entry.name();
+                sizes[i] = entry.size();
+                lastModified[i] = entry.lastModified();
+                flags[i] = (byte) ((entry.directory() ? DIRECTORY : 0) | (entry.regularFile() ? REGULAR_FILE : 0)
+                        | (entry.hidden() ? HIDDEN : 0));
+            }
+            return new IndexSegment(directories.toArray(String[]::new), parents, names, sizes, lastModified, flags);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * An entry of the file metadata index.
+ *
+ * @param parent       the absolute path of the directory holding the entry
+ * @param name         the name of the entry
+ * @param size         the size of the entry, in bytes
+ * @param lastModified the last modification time of the entry, in milliseconds since the epoch
+ * @param directory    whether the entry is a directory
+ * @param regularFile  whether the entry is a regular file
+ * @param hidden       whether the entry is hidden
+ */
+public record IndexedEntry(String parent, String name, long size, long lastModified, boolean directory,
+        boolean regularFile, boolean hidden) {
+
+    /**
+     * Creates the index entry of a directory entry.
+     *
+     * @param entry the directory entry
+     * @return the index entry
+     */
+    public static IndexedEntry of(final FileEntry entry) {
+        BasicFileAttributes attributes = entry.attributes();
+        return new IndexedEntry(entry.path().getParent().toString(), entry.path().getFileName().toString(),
+                attributes.size(), attributes.lastModifiedTime().toMillis(), attributes.isDirectory(),
+                attributes.isRegularFile(), entry.hidden());
+    }
+
+    /**
+     * Gets the absolute path of the entry.
+     *
+     * @return the path
+     */
+    public String path() {
+        return Path.of(parent).resolve(name).toString();
+    }
+}
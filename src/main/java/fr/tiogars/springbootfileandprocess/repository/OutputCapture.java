@@ -0,0 +1,246 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+
+/**
+ * Captures the output of a process within a fixed memory budget.
+ * <p>
+ * The first {@code headLines} lines are kept as they arrive and the last
+ * {@code tailLines} lines are kept in a ring buffer; lines in between are
+ * only counted. Lines longer than {@code maxLineLength} characters are cut,
+ * the remainder being skipped without ever being buffered. Total line and
+ * byte counts are always tracked, and the capture is flagged as truncated
+ * as soon as anything was dropped.
+ * </p>
+ */
+public class OutputCapture {
+
+    /**
+     * Size of the read buffer, in characters.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum number of lines kept from the start of the output.
+     */
+    private final int headLimit;
+
+    /**
+     * Maximum number of characters kept per line.
+     */
+    private final int maxLineLength;
+
+    /**
+     * The first lines of the output.
+     */
+    private final List<String> head;
+
+    /**
+     * Ring buffer holding the last lines of the output.
+     */
+    private final String[] tail;
+
+    /**
+     * Index of the oldest line in the ring buffer.
+     */
+    private int tailStart;
+
+    /**
+     * Number of lines in the ring buffer.
+     */
+    private int tailSize;
+
+    /**
+     * Total number of lines read.
+     */
+    private long totalLines;
+
+    /**
+     * Total number of bytes read.
+     */
+    private long totalBytes;
+
+    /**
+     * Whether lines or characters were dropped.
+     */
+    private boolean truncated;
+
+    /**
+     * Constructs a bounded capture.
+     *
+     * @param headLinesParam     the number of lines kept from the start
+     * @param tailLinesParam     the number of lines kept from the end
+     * @param maxLineLengthParam the maximum number of characters kept per line
+     */
+    public OutputCapture(final int headLinesParam, final int tailLinesParam, final int maxLineLengthParam) {
+        this.headLimit = headLinesParam;
+        this.maxLineLength = maxLineLengthParam;
+        this.head = new ArrayList<>(Math.min(headLinesParam, 1024));
+        this.tail = new String[tailLinesParam];
+    }
+
+    /**
+     * Creates a capture keeping the whole output.
+     *
+     * @return an unbounded capture
+     */
+    public static OutputCapture unbounded() {
+        return new OutputCapture(Integer.MAX_VALUE, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the given stream to its end, then closes it.
+     *
+     * @param inputStreamParam the stream to read
+     * @throws IOException if an I/O error occurs
+     */
+    public void read(final InputStream inputStreamParam) throws IOException {
+        try (Reader reader = new InputStreamReader(new CountingInputStream(inputStreamParam))) {
+            char[] buffer = new char[BUFFER_SIZE];
+            StringBuilder line = new StringBuilder();
+            boolean pendingLine = false;
+            boolean afterCarriageReturn = false;
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char c = buffer[i];
+                    if (c == '\n' && afterCarriageReturn) {
+                        afterCarriageReturn = false;
+                        continue;
+                    }
+                    afterCarriageReturn = c == '\r';
+                    if (c == '\n' || c == '\r') {
+                        addLine(line.toString());
+                        line.setLength(0);
+                        pendingLine = false;
+                    } else if (line.length() < maxLineLength) {
+                        line.append(c);
+                        pendingLine = true;
+                    } else {
+                        truncated = true;
+                    }
+                }
+            }
+            if (pendingLine) {
+                addLine(line.toString());
+            }
+        }
+    }
+
+    /**
+     * Records one line of output.
+     *
+     * @param lineParam the line, without its terminator
+     */
+    public void addLine(final String lineParam) {
+        totalLines++;
+        if (head.size() < headLimit) {
+            head.add(lineParam);
+            return;
+        }
+        truncated = true;
+        if (tail.length == 0) {
+            return;
+        }
+        if (tailSize < tail.length) {
+            tail[(tailStart + tailSize) % tail.length] = lineParam;
+            tailSize++;
+        } else {
+            tail[tailStart] = lineParam;
+            tailStart = (tailStart + 1) % tail.length;
+        }
+    }
+
+    /**
+     * Gets the retained lines: the head followed by the tail.
+     *
+     * @return the retained lines
+     */
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>(head.size() + tailSize);
+        lines.addAll(head);
+        for (int i = 0; i < tailSize; i++) {
+            lines.add(tail[(tailStart + i) % tail.length]);
+        }
+        return lines;
+    }
+
+    /**
+     * Gets the total number of lines read.
+     *
+     * @return the total number of lines
+     */
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    /**
+     * Gets the total number of bytes read.
+     *
+     * @return the total number of bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Tells whether lines or characters were dropped.
+     *
+     * @return true if the retained lines are not the whole output
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Builds the command result from the captured output.
+     *
+     * @param exitCodeParam the exit code of the command
+     * @param timedOutParam whether the command was killed on timeout
+     * @return the command result
+     */
+    public CommandResult toResult(final int exitCodeParam, final boolean timedOutParam) {
+        return new CommandResult(exitCodeParam, getLines(), totalLines, totalBytes, truncated, timedOutParam);
+    }
+
+    /**
+     * Input stream counting the bytes read through it.
+     */
+    private final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * Constructs a counting stream.
+         *
+         * @param inputStreamParam the stream to count
+         */
+        CountingInputStream(final InputStream inputStreamParam) {
+            super(inputStreamParam);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                totalBytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] bufferParam, final int offsetParam, final int lengthParam) throws IOException {
+            int read = super.read(bufferParam, offsetParam, lengthParam);
+            if (read > 0) {
+                totalBytes += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import fr.tiogars.springbootfileandprocess.models.SymlinkPolicy;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+
+/**
+ * A recursive directory walk reading directories in parallel.
+ * <p>
+ * Each directory is read on its own virtual thread and its subdirectories
+ * are forked as new tasks, while a semaphore bounds how many directories
+ * are read at once. Entries are handed over to the consumer through a
+ * bounded queue, so a slow consumer slows the walk down instead of letting
+ * results pile up in memory. Entries come in no particular order.
+ * Directories that cannot be read are skipped. Closing the walk cancels it.
+ * </p>
+ */
+final class ParallelWalk extends Spliterators.AbstractSpliterator<FileEntry> implements AutoCloseable {
+
+    /**
+     * Marker queued once every directory has been read.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * How long a blocked producer waits before checking for cancellation.
+     */
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Logger for ParallelWalk.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            ParallelWalk.class);
+
+    /**
+     * The root of the walk.
+     */
+    private final Path root;
+
+    /**
+     * The maximum depth of the reported entries.
+     */
+    private final int maxDepth;
+
+    /**
+     * The matcher of the reported paths, or null for all.
+     */
+    private final PathMatcher include;
+
+    /**
+     * The matcher of the excluded paths, or null for none.
+     */
+    private final PathMatcher exclude;
+
+    /**
+     * How symbolic links are handled.
+     */
+    private final SymlinkPolicy symlinks;
+
+    /**
+     * Whether the hidden flag comes from DOS attributes.
+     */
+    private final boolean dos;
+
+    /**
+     * The entries found and not yet consumed, then {@link #END}.
+     */
+    private final BlockingQueue<Object> queue;
+
+    /**
+     * Permits bounding the number of directories read at once.
+     */
+    private final Semaphore readers;
+
+    /**
+     * The keys of the directories walked into, when links are followed.
+     */
+    private final Set<Object> visited = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of directories forked and not fully read yet.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * The executor reading the directories.
+     */
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("file-walk-", 0).factory());
+
+    /**
+     * Whether the walk was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Whether the consumer reached the end of the walk.
+     */
+    private boolean done;
+
+    /**
+     * Constructs a walk.
+     *
+     * @param rootParam        the root directory of the walk
+     * @param queryParam       the depth, filters and link policy of the walk
+     * @param dosParam         whether the hidden flag comes from DOS attributes
+     * @param parallelismParam the maximum number of directories read at once
+     * @param bufferSizeParam  the maximum number of entries waiting for the consumer
+     */
+    ParallelWalk(final Path rootParam, final WalkQuery queryParam, final boolean dosParam,
+            final int parallelismParam, final int bufferSizeParam) {
+        super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT);
+        FileSystem fileSystem = rootParam.getFileSystem();
+        this.root = rootParam;
+        this.maxDepth = queryParam.getMaxDepth();
+        this.include = matcherOf(fileSystem, queryParam.getInclude());
+        this.exclude = matcherOf(fileSystem, queryParam.getExclude());
+        this.symlinks = queryParam.getSymlinks() == null ? SymlinkPolicy.LIST : queryParam.getSymlinks();
+        this.dos = dosParam;
+        this.queue = new ArrayBlockingQueue<>(bufferSizeParam);
+        this.readers = new Semaphore(parallelismParam);
+    }
+
+    /**
+     * Starts walking from the root.
+     *
+     * @param rootAttributesParam the attributes of the root
+     */
+    void start(final BasicFileAttributes rootAttributesParam) {
+        if (symlinks == SymlinkPolicy.FOLLOW && rootAttributesParam.fileKey() != null) {
+            visited.add(rootAttributesParam.fileKey());
+        }
+        fork(root, 0);
+    }
+
+    /**
+     * Hands the next entry to the consumer, waiting for it if needed.
+     */
+    @Override
+    public boolean tryAdvance(final Consumer<? super FileEntry> actionParam) {
+        if (done) {
+            return false;
+        }
+        Object next;
+        try {
+            next = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            return false;
+        }
+        if (next == END) {
+            done = true;
+            return false;
+        }
+        actionParam.accept((FileEntry) next);
+        return true;
+    }
+
+    /**
+     * Cancels the walk and stops the directory readers.
+     */
+    @Override
+    public void close() {
+        cancelled = true;
+        executor.shutdownNow();
+        queue.clear();
+    }
+
+    /**
+     * Schedules the reading of a directory.
+     *
+     * @param directory the directory
+     * @param depth     the depth of the directory, the root being at depth 0
+     */
+    private void fork(final Path directory, final int depth) {
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> visit(directory, depth));
+        } catch (RejectedExecutionException e) {
+            // the walk was closed meanwhile
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reads a directory, reports its matching entries and forks its
+     * subdirectories.
+     *
+     * @param directory the directory
+     * @param depth     the depth of the directory, the root being at depth 0
+     */
+    private void visit(final Path directory, final int depth) {
+        try {
+            List<Path> subdirectories = new ArrayList<>();
+            readers.acquire();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path path : entries) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (accept(path) && depth + 1 < maxDepth) {
+                        subdirectories.add(path);
+                    }
+                }
+            } finally {
+                readers.release();
+            }
+            for (Path subdirectory : subdirectories) {
+                fork(subdirectory, depth + 1);
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            logger.debug("Skipping unreadable directory {}: {}", directory, e.getMessage());
+        } catch (InterruptedException e) {
+            cancelled = true;
+        } finally {
+            if (pending.decrementAndGet() == 0) {
+                offer(END);
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Reports an entry if it matches and tells whether to walk into it.
+     *
+     * @param path the entry
+     * @return true if the entry is a directory to walk into
+     */
+    private boolean accept(final Path path) {
+        Path relative = root.relativize(path);
+        if (exclude != null && exclude.matches(relative)) {
+            return false;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = readAttributes(path, LinkOption.NOFOLLOW_LINKS);
+            if (attributes.isSymbolicLink()) {
+                if (symlinks == SymlinkPolicy.SKIP) {
+                    return false;
+                }
+                if (symlinks == SymlinkPolicy.FOLLOW) {
+                    attributes = readTarget(path, attributes);
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        if (include == null || include.matches(relative)) {
+            boolean hidden = attributes instanceof DosFileAttributes dosAttributes
+                    ? dosAttributes.isHidden()
+                    : path.getFileName().toString().startsWith(".");
+            offer(new FileEntry(path, attributes, hidden));
+        }
+        return attributes.isDirectory()
+                && (symlinks != SymlinkPolicy.FOLLOW || attributes.fileKey() == null
+                        || visited.add(attributes.fileKey()));
+    }
+
+    /**
+     * Reads the attributes of the target of a link.
+     *
+     * @param path           the link
+     * @param linkAttributes the attributes of the link itself
+     * @return the attributes of the target, or those of the link if it is broken
+     */
+    private BasicFileAttributes readTarget(final Path path, final BasicFileAttributes linkAttributes) {
+        try {
+            return readAttributes(path);
+        } catch (IOException e) {
+            return linkAttributes;
+        }
+    }
+
+    /**
+     * Reads the attributes of an entry in a single call.
+     *
+     * @param path    the entry
+     * @param options how symbolic links are handled
+     * @return the attributes of the entry
+     * @throws IOException if the attributes cannot be read
+     */
+    private BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+        if (dos) {
+            return Files.readAttributes(path, DosFileAttributes.class, options);
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, options);
+    }
+
+    /**
+     * Queues an element for the consumer, waiting while the queue is full.
+     *
+     * @param element the element
+     * @return false if the walk was cancelled meanwhile
+     */
+    private boolean offer(final Object element) {
+        try {
+            while (!cancelled) {
+                if (queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates the matcher of a glob.
+     *
+     * @param fileSystem the file system of the walk
+     * @param glob       the glob, or null
+     * @return the matcher, or null if there is no glob
+     */
+    private static PathMatcher matcherOf(final FileSystem fileSystem, final String glob) {
+        return glob == null || glob.isEmpty() ? null : fileSystem.getPathMatcher("glob:" + glob);
+    }
+}
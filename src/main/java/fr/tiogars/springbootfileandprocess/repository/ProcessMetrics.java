@@ -0,0 +1,434 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the lifecycle of child processes: spawn latency, time to first
+ * output, runtime, output size, exit codes and processes in flight.
+ * <p>
+ * Every meter is tagged with the {@code command}, the file name of the
+ * executable. To bound the number of time series, only the configured
+ * commands, or else the first {@code maxCommandTags} commands seen, are
+ * tagged by name; the others share the {@code other} tag. Exit codes beyond
+ * 255 are tagged {@code other} as well. Meters are created once per command
+ * and reused, so recording costs no registry lookup.
+ * </p>
+ */
+public class ProcessMetrics {
+
+    /**
+     * The tag value of commands and exit codes beyond the cardinality limits.
+     */
+    static final String OTHER = "other";
+
+    /**
+     * The outcome of executions that timed out.
+     */
+    static final String TIMEOUT = "timeout";
+
+    /**
+     * The outcome of executions interrupted while running.
+     */
+    static final String INTERRUPTED = "interrupted";
+
+    /**
+     * The outcome of executions that could not be started or whose output
+     * could not be read.
+     */
+    static final String ERROR = "error";
+
+    /**
+     * The highest exit code tagged by value.
+     */
+    private static final int MAX_EXIT_CODE = 255;
+
+    /**
+     * The registry the meters are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The settings of the metrics.
+     */
+    private final ProcessProperties.Metrics settings;
+
+    /**
+     * The commands tagged by name, empty to tag the first ones seen.
+     */
+    private final Set<String> commands;
+
+    /**
+     * The meters of each command tagged by name.
+     */
+    private final Map<String, CommandMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * The meters shared by the commands beyond the cardinality limit.
+     */
+    private final CommandMeters otherMeters;
+
+    /**
+     * Constructor for ProcessMetrics.
+     *
+     * @param processPropertiesParam the process configuration
+     * @param meterRegistryParam     the registry publishing the metrics
+     */
+    public ProcessMetrics(final ProcessProperties processPropertiesParam, final MeterRegistry meterRegistryParam) {
+        this.meterRegistry = meterRegistryParam;
+        this.settings = processPropertiesParam.getMetrics();
+        this.commands = new HashSet<>(settings.getCommands());
+        this.otherMeters = new CommandMeters(OTHER);
+    }
+
+    /**
+     * Starts measuring an execution, before its process is spawned. The
+     * returned execution must be closed once the process has exited and its
+     * output was read, or once starting it failed.
+     *
+     * @param commandParam the command executed
+     * @return the measured execution
+     */
+    public Execution start(final String commandParam) {
+        return new Execution(metersOf(tagOf(commandParam)));
+    }
+
+    /**
+     * Gets the tag of a command: the file name of its executable when it is
+     * within the cardinality limits, {@code other} otherwise.
+     *
+     * @param commandParam the command
+     * @return the tag value
+     */
+    String tagOf(final String commandParam) {
+        String name = commandParam == null ? "" : commandParam;
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        if (name.isEmpty() || !commands.isEmpty() && !commands.contains(name)) {
+            return OTHER;
+        }
+        return name;
+    }
+
+    /**
+     * Gets the meters of a command tag, creating them unless the maximum
+     * number of tagged commands is reached.
+     *
+     * @param tagParam the command tag
+     * @return the meters of the command, or the shared ones
+     */
+    private CommandMeters metersOf(final String tagParam) {
+        CommandMeters commandMeters = meters.get(tagParam);
+        if (commandMeters != null) {
+            return commandMeters;
+        }
+        if (OTHER.equals(tagParam)) {
+            return otherMeters;
+        }
+        synchronized (meters) {
+            commandMeters = meters.get(tagParam);
+            if (commandMeters == null) {
+                if (meters.size() >= settings.getMaxCommandTags()) {
+                    return otherMeters;
+                }
+                commandMeters = new CommandMeters(tagParam);
+                meters.put(tagParam, commandMeters);
+            }
+            return commandMeters;
+        }
+    }
+
+    /**
+     * Gets the tag of an exit code.
+     *
+     * @param exitCodeParam the exit code
+     * @return the exit code, or {@code other} beyond 255
+     */
+    private static String exitCodeTag(final int exitCodeParam) {
+        if (exitCodeParam < 0 || exitCodeParam > MAX_EXIT_CODE) {
+            return OTHER;
+        }
+        return Integer.toString(exitCodeParam);
+    }
+
+    /**
+     * The meters of one command tag.
+     */
+    private final class CommandMeters {
+
+        /**
+         * The command tag.
+         */
+        private final String command;
+
+        /**
+         * Time taken to spawn the process.
+         */
+        private final Timer spawn;
+
+        /**
+         * Time between the spawn and the first byte of output.
+         */
+        private final Timer firstOutput;
+
+        /**
+         * Time between the spawn and the end of the output.
+         */
+        private final Timer duration;
+
+        /**
+         * Bytes of output per execution.
+         */
+        private final DistributionSummary outputBytes;
+
+        /**
+         * Lines of output per execution.
+         */
+        private final DistributionSummary outputLines;
+
+        /**
+         * Number of processes running.
+         */
+        private final AtomicInteger active = new AtomicInteger();
+
+        /**
+         * Counters of finished executions by outcome.
+         */
+        private final Map<String, Counter> exits = new ConcurrentHashMap<>();
+
+        /**
+         * Registers the meters of a command.
+         *
+         * @param commandParam the command tag
+         */
+        CommandMeters(final String commandParam) {
+            this.command = commandParam;
+            boolean histograms = settings.isHistograms();
+            this.spawn = Timer.builder("process.spawn")
+                    .description("Time taken to spawn a process")
+                    .tag("command", commandParam)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+            this.firstOutput = Timer.builder("process.first.output")
+                    .description("Time between the spawn of a process and its first byte of output")
+                    .tag("command", commandParam)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+            this.duration = Timer.builder("process.duration")
+                    .description("Time between the spawn of a process and the end of its output")
+                    .tag("command", commandParam)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+            this.outputBytes = DistributionSummary.builder("process.output.bytes")
+                    .description("Bytes of output of a process")
+                    .baseUnit("bytes")
+                    .tag("command", commandParam)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+            this.outputLines = DistributionSummary.builder("process.output.lines")
+                    .description("Lines of output of a process")
+                    .tag("command", commandParam)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+            Gauge.builder("process.active", active, AtomicInteger::get)
+                    .description("Processes running")
+                    .tag("command", commandParam)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Counts a finished execution.
+         *
+         * @param exitCodeParam the exit code tag, or the outcome
+         */
+        void exited(final String exitCodeParam) {
+            exits.computeIfAbsent(exitCodeParam, exitCode -> Counter.builder("process.exits")
+                    .description("Finished executions by exit code or outcome")
+                    .tag("command", command)
+                    .tag("exit.code", exitCode)
+                    .register(meterRegistry)).increment();
+        }
+    }
+
+    /**
+     * The measurement of one execution. It is used by the thread running the
+     * execution, except for the streams returned by {@link #monitor}, which
+     * may be read by other threads.
+     */
+    public final class Execution implements AutoCloseable {
+
+        /**
+         * The meters of the command.
+         */
+        private final CommandMeters commandMeters;
+
+        /**
+         * Whether the process was spawned.
+         */
+        private boolean spawned;
+
+        /**
+         * When the process was spawned.
+         */
+        private long spawnedNanos;
+
+        /**
+         * Whether the first byte of output was seen.
+         */
+        private final AtomicBoolean outputStarted = new AtomicBoolean();
+
+        /**
+         * Bytes of output read.
+         */
+        private final LongAdder bytes = new LongAdder();
+
+        /**
+         * The exit code tag or outcome, {@code error} until the process exits.
+         */
+        private String outcome = ERROR;
+
+        /**
+         * Lines of output, -1 until the process exits.
+         */
+        private long lines = -1;
+
+        /**
+         * Whether the execution was closed.
+         */
+        private boolean closed;
+
+        /**
+         * Constructor for Execution.
+         *
+         * @param commandMetersParam the meters of the command
+         */
+        private Execution(final CommandMeters commandMetersParam) {
+            this.commandMeters = commandMetersParam;
+        }
+
+        /**
+         * Records that the process was spawned.
+         *
+         * @param spawnNanosParam the time taken to spawn it, in nanoseconds
+         */
+        public void spawned(final long spawnNanosParam) {
+            spawned = true;
+            spawnedNanos = System.nanoTime();
+            commandMeters.spawn.record(spawnNanosParam, TimeUnit.NANOSECONDS);
+            commandMeters.active.incrementAndGet();
+        }
+
+        /**
+         * Wraps a process output stream to measure the time to first output
+         * and the output size.
+         *
+         * @param inputStreamParam the process output stream
+         * @return the measured stream
+         */
+        public InputStream monitor(final InputStream inputStreamParam) {
+            return new MonitoredInputStream(inputStreamParam);
+        }
+
+        /**
+         * Records that the process exited.
+         *
+         * @param exitCodeParam the exit code
+         * @param timedOutParam whether the process was killed on timeout
+         * @param linesParam    the lines of output
+         */
+        public void exited(final int exitCodeParam, final boolean timedOutParam, final long linesParam) {
+            this.outcome = timedOutParam ? TIMEOUT : exitCodeTag(exitCodeParam);
+            this.lines = linesParam;
+        }
+
+        /**
+         * Records that the execution was interrupted.
+         */
+        public void interrupted() {
+            this.outcome = INTERRUPTED;
+        }
+
+        /**
+         * Ends the measurement, counting the outcome and, if the process was
+         * spawned, its runtime and output.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            commandMeters.exited(outcome);
+            if (!spawned) {
+                return;
+            }
+            commandMeters.active.decrementAndGet();
+            commandMeters.duration.record(System.nanoTime() - spawnedNanos, TimeUnit.NANOSECONDS);
+            commandMeters.outputBytes.record(bytes.sum());
+            if (lines >= 0) {
+                commandMeters.outputLines.record(lines);
+            }
+        }
+
+        /**
+         * Records bytes of output.
+         *
+         * @param countParam the number of bytes read
+         */
+        private void output(final int countParam) {
+            bytes.add(countParam);
+            if (!outputStarted.get() && outputStarted.compareAndSet(false, true)) {
+                commandMeters.firstOutput.record(System.nanoTime() - spawnedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Input stream recording the output read through it.
+         */
+        private final class MonitoredInputStream extends FilterInputStream {
+
+            /**
+             * Constructs a monitored stream.
+             *
+             * @param inputStreamParam the stream to monitor
+             */
+            MonitoredInputStream(final InputStream inputStreamParam) {
+                super(inputStreamParam);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    output(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(final byte[] bufferParam, final int offsetParam, final int lengthParam)
+                    throws IOException {
+                int read = super.read(bufferParam, offsetParam, lengthParam);
+                if (read > 0) {
+                    output(read);
+                }
+                return read;
+            }
+        }
+    }
+}
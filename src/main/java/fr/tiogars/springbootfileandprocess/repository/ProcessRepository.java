@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessOutputHandler;
 
 /**
  * Repository interface for managing Process entities.
@@ -19,4 +20,16 @@ public interface ProcessRepository {
      * @throws InterruptedException if the process is interrupted
      */
     CommandResult executeAndWaitForResponse(ExecutableCommand executableCommandParam) throws IOException, InterruptedException;
+
+    /**
+     * Executes the given command and forwards its output as it is produced.
+     *
+     * @param executableCommandParam the command to execute
+     * @param outputHandlerParam     the handler receiving the output lines
+     * @return the exit code of the command
+     * @throws IOException if an I/O error occurs, including in the handler
+     * @throws InterruptedException if the process is interrupted
+     */
+    int executeAndStream(ExecutableCommand executableCommandParam, ProcessOutputHandler outputHandlerParam)
+            throws IOException, InterruptedException;
 }
@@ -4,17 +4,33 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessOutputHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Implementation of {@link ProcessRepository} for process management.
@@ -34,10 +50,93 @@ public class ProcessRepositoryImpl implements ProcessRepository {
             ProcessRepositoryImpl.class);
 
     /**
-     * Default constructor.
+     * Executor running the output pumps, so that the calling thread only
+     * waits on the process and can be interrupted.
+     */
+    private final ExecutorService outputPumps;
+
+    /**
+     * Timer checking that the clients of silent streamed commands are still
+     * there.
+     */
+    private final ScheduledExecutorService heartbeats;
+
+    /**
+     * Permits limiting the number of live child processes, or null when
+     * unlimited.
+     */
+    private final Semaphore processPermits;
+
+    /**
+     * Settings of the output capture.
+     */
+    private final ProcessProperties.Capture captureSettings;
+
+    /**
+     * Timeout applied to commands that do not set their own.
+     */
+    private final Duration defaultTimeout;
+
+    /**
+     * How long a streamed command may stay silent before its client is
+     * checked.
+     */
+    private final Duration streamHeartbeat;
+
+    /**
+     * Metrics of the executions.
+     */
+    private final ProcessMetrics processMetrics;
+
+    /**
+     * Default constructor, using the default configuration.
      */
     public ProcessRepositoryImpl() {
-        // Default constructor
+        this(new ProcessProperties());
+    }
+
+    /**
+     * Constructor for ProcessRepositoryImpl, with metrics kept in memory only.
+     *
+     * @param processPropertiesParam the process configuration
+     */
+    public ProcessRepositoryImpl(final ProcessProperties processPropertiesParam) {
+        this(processPropertiesParam, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Constructor for ProcessRepositoryImpl.
+     *
+     * @param processPropertiesParam the process configuration
+     * @param meterRegistryParam     the registry publishing the execution metrics
+     */
+    @Autowired
+    public ProcessRepositoryImpl(final ProcessProperties processPropertiesParam,
+            final MeterRegistry meterRegistryParam) {
+        this.captureSettings = processPropertiesParam.getCapture();
+        this.processMetrics = new ProcessMetrics(processPropertiesParam, meterRegistryParam);
+
+        ProcessProperties.Execution execution = processPropertiesParam.getExecution();
+        this.defaultTimeout = execution.getDefaultTimeout();
+        this.streamHeartbeat = execution.getStreamHeartbeat();
+        if (execution.isVirtualThreads()) {
+            this.outputPumps = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("process-output-", 0).factory());
+        } else {
+            this.outputPumps = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "process-output");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "process-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.processPermits = execution.getMaxConcurrentProcesses() > 0
+                ? new Semaphore(execution.getMaxConcurrentProcesses(), true)
+                : null;
     }
 
     /**
@@ -48,52 +147,223 @@ public class ProcessRepositoryImpl implements ProcessRepository {
      * @throws IOException          if an I/O error occurs
      * @throws InterruptedException if the process is interrupted
      */
+    @Override
     public CommandResult executeAndWaitForResponse(final ExecutableCommand executableCommandParam)
             throws IOException, InterruptedException {
-        try {
+        try (ProcessMetrics.Execution execution = processMetrics.start(executableCommandParam.getCommand())) {
 
             logger.debug("Starting SystemRepository.getJavaVersion()");
 
             CommandResult result = new CommandResult(0, List.of(NO_RESULT_RESPONSE));
 
-            String[] command = {
-                    executableCommandParam.getCommand()
-            };
+            boolean separateStreams = executableCommandParam.isSeparateStreams();
+            Process process = startProcess(executableCommandParam, !separateStreams, execution);
+            long startNanos = System.nanoTime();
 
-            String[] args = executableCommandParam.getArguments();
+            OutputCapture capture = null;
+            StreamCapture stdout = null;
+            StreamCapture stderr = null;
+            List<Future<?>> pumps = new ArrayList<>(2);
+            if (separateStreams) {
+                stdout = new StreamCapture("stdout", startNanos, captureSettings.getMaxStreamBytes().toBytes());
+                stderr = new StreamCapture("stderr", startNanos, captureSettings.getMaxStreamBytes().toBytes());
+                pumps.add(pump(stdout::read, execution.monitor(process.getInputStream())));
+                pumps.add(pump(stderr::read, execution.monitor(process.getErrorStream())));
+            } else {
+                capture = newCapture();
+                pumps.add(pump(capture::read, execution.monitor(process.getInputStream())));
+            }
 
-            String[] allStrings = getAllStrings(command, args);
+            long timeoutMillis = getTimeoutMillis(executableCommandParam);
+            boolean timedOut = false;
+            int exitValue;
+            try {
+                if (timeoutMillis > 0 && !process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Timed out after {} ms, destroying process {}", timeoutMillis, process.pid());
+                    timedOut = true;
+                    destroyProcessTree(process);
+                }
+                exitValue = process.waitFor();
+                for (Future<?> pump : pumps) {
+                    awaitOutput(pump);
+                }
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted, destroying process {}", process.pid());
+                execution.interrupted();
+                destroyProcessTree(process);
+                throw e;
+            }
 
-            ProcessBuilder processBuilder = new ProcessBuilder(allStrings);
+            if (separateStreams) {
+                result = new CommandResult(exitValue, stdout.getChunks(), stderr.getChunks(),
+                        stdout.getTotalLines() + stderr.getTotalLines(),
+                        stdout.getTotalBytes() + stderr.getTotalBytes(),
+                        stdout.isTruncated() || stderr.isTruncated(), timedOut);
+            } else if (result.getOutput().size() > 0) {
+                result = capture.toResult(exitValue, timedOut);
+            }
+            execution.exited(exitValue, timedOut, result.getTotalLines());
 
-            processBuilder.redirectErrorStream(true);
+            logger.info("Exit code {}, {} lines, {} bytes{}{}", result.getExitCode(), result.getTotalLines(),
+                    result.getTotalBytes(), result.isTruncated() ? " (truncated)" : "",
+                    result.isTimedOut() ? " (timed out)" : "");
+            logger.debug("Output {}", result.getOutput());
 
-            if (executableCommandParam.getWorkingDirectory() != null && !executableCommandParam.getWorkingDirectory().isEmpty()) {
-                processBuilder.directory(new java.io.File(executableCommandParam.getWorkingDirectory()));
-            }
+            return result;
+        } catch (IOException | InterruptedException e) {
+            logger.error("Error executing command: {}", e.getMessage());
+            throw e;
+        } finally {
+            logger.debug("Ending SystemRepository.getJavaVersion()");
+        }
+    }
+
+    /**
+     * Executes the given command and forwards its output line by line.
+     * <p>
+     * Lines are read on the calling thread and handed to the handler as they
+     * arrive, so memory use does not depend on the output size. The handler
+     * is flushed whenever the process has no further output immediately
+     * available. If the handler fails (typically because the client went
+     * away) or the thread is interrupted, the process is destroyed. While the
+     * command is silent, the handler is sent heartbeats, so that a client
+     * gone during a long silence is noticed too.
+     * </p>
+     *
+     * @param executableCommandParam the command to execute
+     * @param outputHandlerParam     the handler receiving the output
+     * @return the exit code of the command
+     * @throws IOException          if an I/O error occurs
+     * @throws InterruptedException if the process is interrupted
+     */
+    @Override
+    public int executeAndStream(final ExecutableCommand executableCommandParam,
+            final ProcessOutputHandler outputHandlerParam) throws IOException, InterruptedException {
+        try (ProcessMetrics.Execution execution = processMetrics.start(executableCommandParam.getCommand())) {
+            return stream(executableCommandParam, outputHandlerParam, execution);
+        }
+    }
+
+    /**
+     * Executes the given command and forwards its output line by line,
+     * recording the execution metrics.
+     *
+     * @param executableCommandParam the command to execute
+     * @param outputHandlerParam     the handler receiving the output
+     * @param executionParam         the metrics of the execution
+     * @return the exit code of the command
+     * @throws IOException          if an I/O error occurs
+     * @throws InterruptedException if the process is interrupted
+     */
+    private int stream(final ExecutableCommand executableCommandParam,
+            final ProcessOutputHandler outputHandlerParam, final ProcessMetrics.Execution executionParam)
+            throws IOException, InterruptedException {
+        Process process = startProcess(executableCommandParam, true, executionParam);
 
-            Process process = processBuilder.start();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        long timeoutMillis = getTimeoutMillis(executableCommandParam);
+        if (timeoutMillis > 0) {
+            process.onExit().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).exceptionally(e -> {
+                logger.warn("Timed out after {} ms, destroying process {}", timeoutMillis, process.pid());
+                timedOut.set(true);
+                destroyProcessTree(process);
+                return process;
+            });
+        }
 
-            List<String> results = readOutput(process.getInputStream());
+        try (HeartbeatHandler handler = new HeartbeatHandler(outputHandlerParam, process);
+                BufferedReader output = new BufferedReader(
+                        new InputStreamReader(executionParam.monitor(process.getInputStream())))) {
+            long lines = 0;
+            String line;
+            while ((line = output.readLine()) != null) {
+                lines++;
+                handler.onLine(line);
+                if (!output.ready()) {
+                    handler.flush();
+                }
+            }
 
             int exitValue = process.waitFor();
+            if (timedOut.get()) {
+                handler.onTimeout();
+            }
+            handler.flush();
+            executionParam.exited(exitValue, timedOut.get(), lines);
 
-            if (result.getOutput().size() > 0) {
-                result = new CommandResult(exitValue, results);
+            logger.info("Exit code {}{}", exitValue, timedOut.get() ? " (timed out)" : "");
+            return exitValue;
+        } catch (IOException | InterruptedException e) {
+            logger.error("Error streaming command: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                executionParam.interrupted();
             }
+            destroyProcessTree(process);
+            throw e;
+        }
+    }
 
-            logger.info("Exit code {}", result.getExitCode());
-            logger.info("Output {}", result.getOutput());
+    /**
+     * Starts the process described by the given command, once a process
+     * permit is available. The permit is given back when the process exits.
+     *
+     * @param executableCommandParam the command to execute
+     * @param mergeErrorStreamParam  whether stderr is merged into stdout
+     * @param executionParam         the metrics of the execution
+     * @return the started process
+     * @throws IOException          if the process cannot be started
+     * @throws InterruptedException if interrupted while waiting for a permit
+     */
+    private Process startProcess(final ExecutableCommand executableCommandParam, final boolean mergeErrorStreamParam,
+            final ProcessMetrics.Execution executionParam) throws IOException, InterruptedException {
+        if (processPermits == null) {
+            return createProcess(executableCommandParam, mergeErrorStreamParam, executionParam);
+        }
 
-            return result;
-        } catch (IOException | InterruptedException e) {
-            logger.error("Error executing command: {}", e.getMessage());
+        processPermits.acquire();
+        try {
+            Process process = createProcess(executableCommandParam, mergeErrorStreamParam, executionParam);
+            process.onExit().thenRun(processPermits::release);
+            return process;
+        } catch (IOException | RuntimeException e) {
+            processPermits.release();
             throw e;
-        } finally {
-            logger.debug("Ending SystemRepository.getJavaVersion()");
         }
     }
 
+    /**
+     * Creates the process described by the given command.
+     *
+     * @param executableCommandParam the command to execute
+     * @param mergeErrorStreamParam  whether stderr is merged into stdout
+     * @param executionParam         the metrics of the execution
+     * @return the started process
+     * @throws IOException if the process cannot be started
+     */
+    private Process createProcess(final ExecutableCommand executableCommandParam,
+            final boolean mergeErrorStreamParam, final ProcessMetrics.Execution executionParam) throws IOException {
+        String[] command = {
+                executableCommandParam.getCommand()
+        };
+
+        String[] args = executableCommandParam.getArguments();
+
+        String[] allStrings = getAllStrings(command, args);
+
+        ProcessBuilder processBuilder = new ProcessBuilder(allStrings);
+
+        processBuilder.redirectErrorStream(mergeErrorStreamParam);
+
+        if (executableCommandParam.getWorkingDirectory() != null && !executableCommandParam.getWorkingDirectory().isEmpty()) {
+            processBuilder.directory(new java.io.File(executableCommandParam.getWorkingDirectory()));
+        }
+
+        long spawnStart = System.nanoTime();
+        Process process = processBuilder.start();
+        executionParam.spawned(System.nanoTime() - spawnStart);
+        return process;
+    }
+
     /**
      * Combines the command and arguments into a single array.
      * 
@@ -107,6 +377,80 @@ public class ProcessRepositoryImpl implements ProcessRepository {
         return allStrings;
     }
 
+    /**
+     * Gets the timeout of a command, falling back to the configured default.
+     *
+     * @param executableCommandParam the command to execute
+     * @return the timeout in milliseconds, 0 for none
+     */
+    private long getTimeoutMillis(final ExecutableCommand executableCommandParam) {
+        if (executableCommandParam.getTimeoutMillis() > 0) {
+            return executableCommandParam.getTimeoutMillis();
+        }
+        return defaultTimeout.toMillis();
+    }
+
+    /**
+     * Forcibly destroys a process and all its descendants. Descendants are
+     * collected first, as they can no longer be found once their parent is
+     * gone.
+     *
+     * @param processParam the process to destroy
+     */
+    private void destroyProcessTree(final Process processParam) {
+        List<ProcessHandle> descendants = processParam.descendants().toList();
+        processParam.destroyForcibly();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+    }
+
+    /**
+     * Creates an output capture honouring the configured bounds.
+     *
+     * @return a new output capture
+     */
+    private OutputCapture newCapture() {
+        if (!captureSettings.isBounded()) {
+            return OutputCapture.unbounded();
+        }
+        return new OutputCapture(captureSettings.getHeadLines(), captureSettings.getTailLines(),
+                captureSettings.getMaxLineLength());
+    }
+
+    /**
+     * Starts a pump draining a process stream on its own thread, so that
+     * stdout and stderr are read concurrently and neither pipe can fill up
+     * and block the process.
+     *
+     * @param readerParam the capture reading the stream
+     * @param streamParam the process stream
+     * @return the pending pump
+     */
+    private Future<?> pump(final StreamReader readerParam, final InputStream streamParam) {
+        return outputPumps.submit(() -> {
+            readerParam.read(streamParam);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for an output pump to drain the process output.
+     *
+     * @param outputParam the pending pump
+     * @throws IOException          if reading the output failed
+     * @throws InterruptedException if the wait is interrupted
+     */
+    private void awaitOutput(final Future<?> outputParam)
+            throws IOException, InterruptedException {
+        try {
+            outputParam.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to read process output", e.getCause());
+        }
+    }
+
     /**
      * Reads the output from the given InputStream.
      * 
@@ -115,12 +459,186 @@ public class ProcessRepositoryImpl implements ProcessRepository {
      * @throws IOException if an I/O error occurs
      */
     public static List<String> readOutput(final InputStream inputStreamParam) throws IOException {
-        Logger logger = LoggerFactory.getLogger(ProcessRepositoryImpl.class);
-        try (BufferedReader output = new BufferedReader(new InputStreamReader(inputStreamParam))) {
-            List<String> lines = output.lines()
-                    .peek(line -> logger.debug("Process output: {}", line))
-                    .collect(Collectors.toList());
-            return lines;
+        OutputCapture capture = OutputCapture.unbounded();
+        capture.read(inputStreamParam);
+        return capture.getLines();
+    }
+
+    /**
+     * Forwards the output of a streamed command, sending heartbeats to the
+     * handler while the command is silent. Once a heartbeat fails, the
+     * process tree is destroyed and the failure is thrown by the next call.
+     * Heartbeats run on the output pumps, so that a stalled client cannot
+     * hold up the timer, and are skipped while the handler is busy.
+     */
+    private final class HeartbeatHandler implements ProcessOutputHandler, AutoCloseable {
+
+        /**
+         * The handler receiving the output.
+         */
+        private final ProcessOutputHandler handler;
+
+        /**
+         * The streamed process.
+         */
+        private final Process process;
+
+        /**
+         * Lock serializing the calls to the handler.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The pending heartbeats, or null when disabled.
+         */
+        private final ScheduledFuture<?> task;
+
+        /**
+         * When the handler was last called, guarded by the lock.
+         */
+        private long lastCallNanos = System.nanoTime();
+
+        /**
+         * The failure of a heartbeat, guarded by the lock.
+         */
+        private IOException failure;
+
+        /**
+         * Whether the stream is over, guarded by the lock.
+         */
+        private boolean closed;
+
+        /**
+         * Constructor for HeartbeatHandler, starting the heartbeats.
+         *
+         * @param handlerParam the handler receiving the output
+         * @param processParam the streamed process
+         */
+        HeartbeatHandler(final ProcessOutputHandler handlerParam, final Process processParam) {
+            this.handler = handlerParam;
+            this.process = processParam;
+            long intervalMillis = streamHeartbeat.toMillis();
+            this.task = intervalMillis > 0
+                    ? heartbeats.scheduleWithFixedDelay(() -> outputPumps.execute(this::beat),
+                            intervalMillis, intervalMillis, TimeUnit.MILLISECONDS)
+                    : null;
+        }
+
+        /**
+         * Forwards an output line.
+         *
+         * @param lineParam the output line
+         * @throws IOException if the line cannot be forwarded or the client is gone
+         */
+        @Override
+        public void onLine(final String lineParam) throws IOException {
+            lock.lock();
+            try {
+                checkClient();
+                handler.onLine(lineParam);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Pushes the buffered lines to the client.
+         *
+         * @throws IOException if the lines cannot be forwarded or the client is gone
+         */
+        @Override
+        public void flush() throws IOException {
+            lock.lock();
+            try {
+                checkClient();
+                handler.flush();
+            } finally {
+                lock.unlock();
+            }
         }
+
+        /**
+         * Forwards a timeout notification.
+         *
+         * @throws IOException if the notification cannot be forwarded or the client is gone
+         */
+        @Override
+        public void onTimeout() throws IOException {
+            lock.lock();
+            try {
+                checkClient();
+                handler.onTimeout();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops the heartbeats; none is sent once this method returned.
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+
+        /**
+         * Sends a heartbeat if the handler was not called for an interval,
+         * destroying the process tree if the client is gone.
+         */
+        private void beat() {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                if (closed || failure != null
+                        || System.nanoTime() - lastCallNanos < streamHeartbeat.toNanos()) {
+                    return;
+                }
+                handler.onIdle();
+                lastCallNanos = System.nanoTime();
+            } catch (IOException e) {
+                logger.warn("Client gone, destroying process {}", process.pid());
+                failure = e;
+                destroyProcessTree(process);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Throws the failure of a heartbeat, and records the call otherwise.
+         * Must be called with the lock held.
+         *
+         * @throws IOException if a heartbeat found the client gone
+         */
+        private void checkClient() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            lastCallNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Reads a process stream to its end.
+     */
+    @FunctionalInterface
+    private interface StreamReader {
+
+        /**
+         * Reads the given stream to its end.
+         *
+         * @param inputStreamParam the stream to read
+         * @throws IOException if an I/O error occurs
+         */
+        void read(InputStream inputStreamParam) throws IOException;
     }
 }
@@ -0,0 +1,189 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.OutputChunk;
+
+/**
+ * Captures one stream of a process as timestamped chunks.
+ * <p>
+ * The stream is read in large blocks rather than line by line, each block
+ * becoming one chunk tagged with the stream name and the monotonic time it
+ * was read at. Bytes of a character split across two blocks are carried
+ * over to the next one, and counted against the budget with the block they
+ * are decoded in. Once a chunk does not fit in {@code maxBytes}, further
+ * output is only counted and the capture is flagged as truncated.
+ * </p>
+ */
+public class StreamCapture {
+
+    /**
+     * Size of the read buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * The name of the captured stream.
+     */
+    private final String streamName;
+
+    /**
+     * The {@link System#nanoTime()} value timestamps are relative to.
+     */
+    private final long originNanos;
+
+    /**
+     * Maximum number of bytes kept.
+     */
+    private final long maxBytes;
+
+    /**
+     * The chunks read so far.
+     */
+    private final List<OutputChunk> chunks = new ArrayList<>();
+
+    /**
+     * Number of bytes kept in chunks.
+     */
+    private long keptBytes;
+
+    /**
+     * Total number of bytes read.
+     */
+    private long totalBytes;
+
+    /**
+     * Total number of line feeds read.
+     */
+    private long totalLines;
+
+    /**
+     * Whether output was dropped.
+     */
+    private boolean truncated;
+
+    /**
+     * Constructs a StreamCapture.
+     *
+     * @param streamNameParam  the name of the captured stream
+     * @param originNanosParam the {@link System#nanoTime()} value timestamps are relative to
+     * @param maxBytesParam    the maximum number of bytes kept
+     */
+    public StreamCapture(final String streamNameParam, final long originNanosParam, final long maxBytesParam) {
+        this.streamName = streamNameParam;
+        this.originNanos = originNanosParam;
+        this.maxBytes = maxBytesParam;
+    }
+
+    /**
+     * Reads the given stream to its end, then closes it.
+     *
+     * @param inputStreamParam the stream to read
+     * @throws IOException if an I/O error occurs
+     */
+    public void read(final InputStream inputStreamParam) throws IOException {
+        CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        try (InputStream input = inputStreamParam) {
+            int read;
+            while ((read = input.read(bytes.array(), bytes.position(), bytes.remaining())) != -1) {
+                long timestamp = System.nanoTime() - originNanos;
+                count(bytes.array(), bytes.position(), read);
+                bytes.position(bytes.position() + read);
+                bytes.flip();
+                decoder.decode(bytes, chars, false);
+                int decoded = bytes.position();
+                bytes.compact();
+                emit(chars, decoded, timestamp);
+            }
+            bytes.flip();
+            int carriedOver = bytes.remaining();
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            emit(chars, carriedOver, System.nanoTime() - originNanos);
+        }
+    }
+
+    /**
+     * Counts the bytes and line feeds of a block.
+     *
+     * @param bufferParam the buffer holding the block
+     * @param offsetParam the offset of the block
+     * @param lengthParam the length of the block
+     */
+    private void count(final byte[] bufferParam, final int offsetParam, final int lengthParam) {
+        totalBytes += lengthParam;
+        for (int i = offsetParam; i < offsetParam + lengthParam; i++) {
+            if (bufferParam[i] == '\n') {
+                totalLines++;
+            }
+        }
+    }
+
+    /**
+     * Turns the decoded characters into a chunk, within the byte budget.
+     *
+     * @param charsParam     the decoded characters, cleared afterwards
+     * @param byteCountParam the number of bytes the characters were decoded from
+     * @param timestampParam the read time of the bytes
+     */
+    private void emit(final CharBuffer charsParam, final int byteCountParam, final long timestampParam) {
+        charsParam.flip();
+        if (charsParam.hasRemaining()) {
+            if (!truncated && keptBytes + byteCountParam <= maxBytes) {
+                chunks.add(new OutputChunk(streamName, timestampParam, charsParam.toString()));
+                keptBytes += byteCountParam;
+            } else {
+                truncated = true;
+            }
+        }
+        charsParam.clear();
+    }
+
+    /**
+     * Gets the chunks read, in order.
+     *
+     * @return the chunks
+     */
+    public List<OutputChunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets the total number of bytes read.
+     *
+     * @return the total number of bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the total number of line feeds read.
+     *
+     * @return the total number of lines
+     */
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    /**
+     * Tells whether output was dropped.
+     *
+     * @return true if some output was not kept
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -1,5 +1,9 @@
 package fr.tiogars.springbootfileandprocess.repository;
 
+import java.nio.file.Path;
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
 
 /**
  * Repository interface for system information access.
@@ -11,4 +15,13 @@ public interface SystemRepository {
      * @return The computer name as a String.
      */
     String getComputerName();
+
+    /**
+     * Samples the state of the system and of the JVM, without starting any
+     * process.
+     *
+     * @param diskPathsParam the paths whose file store capacity is reported
+     * @return the snapshot
+     */
+    SystemInfo readSystemInfo(List<Path> diskPathsParam);
 }
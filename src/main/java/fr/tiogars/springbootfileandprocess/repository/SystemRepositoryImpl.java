@@ -1,28 +1,240 @@
 package fr.tiogars.springbootfileandprocess.repository;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
+
 /**
  * Implementation of {@link SystemRepository} for accessing system environment
- * variables.
+ * variables, the {@code /proc} file system and the platform MXBeans.
+ * <p>
+ * The load average, memory and uptime are read from {@code /proc}, as
+ * {@code uptime} and {@code free} do, falling back to the operating system
+ * MXBean where {@code /proc} is not mounted. CPU usage, threads, file
+ * descriptors and heap come from the MXBeans, and disk capacity from the
+ * file store of each path, as {@code df} does.
+ * </p>
  */
 @Component
 public class SystemRepositoryImpl implements SystemRepository {
 
+    /**
+     * Logger for system information.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            SystemRepositoryImpl.class);
+
+    /**
+     * The root of the proc file system.
+     */
+    private final Path procRoot;
+
+    /**
+     * The operating system MXBean.
+     */
+    private final OperatingSystemMXBean operatingSystem = ManagementFactory.getPlatformMXBean(
+            OperatingSystemMXBean.class);
+
+    /**
+     * The thread MXBean.
+     */
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
     /**
      * Default constructor.
      */
     public SystemRepositoryImpl() {
-        // Default constructor
+        this(Path.of("/proc"));
     }
 
     /**
-     * Gets the computer name from the environment variable.
+     * Constructs a repository reading another proc file system.
      *
-     * @return The computer name as a String.
+     * @param procRootParam the root of the proc file system
+     */
+    SystemRepositoryImpl(final Path procRootParam) {
+        this.procRoot = procRootParam;
+    }
+
+    /**
+     * Gets the computer name from the environment variables, falling back to
+     * the kernel host name, then to the name of the local host.
+     *
+     * @return The computer name as a String, null if it cannot be found.
      */
     @Override
     public String getComputerName() {
-        return System.getenv("COMPUTERNAME");
+        String name = System.getenv("COMPUTERNAME");
+        if (name == null) {
+            name = System.getenv("HOSTNAME");
+        }
+        if (name == null) {
+            name = readFirstLine(procRoot.resolve("sys/kernel/hostname"));
+        }
+        if (name == null) {
+            try {
+                name = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                logger.debug("Cannot resolve the local host name: {}", e.getMessage());
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Samples the state of the system and of the JVM.
+     *
+     * @param diskPathsParam the paths whose file store capacity is reported
+     * @return the snapshot
+     */
+    @Override
+    public SystemInfo readSystemInfo(final List<Path> diskPathsParam) {
+        return new SystemInfo(getComputerName(), System.currentTimeMillis(), readUptimeSeconds(), readCpu(),
+                readMemory(), readDisks(diskPathsParam), readJvm());
+    }
+
+    /**
+     * Reads the time since the system booted from {@code /proc/uptime}.
+     *
+     * @return the uptime in seconds, -1 if unknown
+     */
+    private long readUptimeSeconds() {
+        String[] fields = readFields(procRoot.resolve("uptime"));
+        return fields.length > 0 ? (long) Double.parseDouble(fields[0]) : -1;
+    }
+
+    /**
+     * Reads the load averages from {@code /proc/loadavg} and the CPU usage
+     * from the operating system MXBean, which computes it since its previous
+     * call, so since the previous sample.
+     *
+     * @return the processors and their load
+     */
+    private SystemInfo.Cpu readCpu() {
+        String[] fields = readFields(procRoot.resolve("loadavg"));
+        double load1 = fields.length >= 3 ? Double.parseDouble(fields[0]) : operatingSystem.getSystemLoadAverage();
+        double load5 = fields.length >= 3 ? Double.parseDouble(fields[1]) : -1;
+        double load15 = fields.length >= 3 ? Double.parseDouble(fields[2]) : -1;
+        return new SystemInfo.Cpu(operatingSystem.getAvailableProcessors(), load1, load5, load15,
+                operatingSystem.getCpuLoad(), operatingSystem.getProcessCpuLoad());
+    }
+
+    /**
+     * Reads the memory from {@code /proc/meminfo}, whose available memory
+     * accounts for reclaimable caches, unlike the free memory of the MXBean.
+     *
+     * @return the physical memory and swap
+     */
+    private SystemInfo.Memory readMemory() {
+        Map<String, Long> meminfo = new HashMap<>();
+        Path file = procRoot.resolve("meminfo");
+        if (Files.isReadable(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        String[] value = line.substring(colon + 1).trim().split("\\s+");
+                        long kilobytes = Long.parseLong(value[0]);
+                        meminfo.put(line.substring(0, colon), value.length > 1 ? kilobytes * 1024 : kilobytes);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.debug("Cannot read {}: {}", file, e.getMessage());
+            }
+        }
+        return new SystemInfo.Memory(
+                meminfo.getOrDefault("MemTotal", operatingSystem.getTotalMemorySize()),
+                meminfo.getOrDefault("MemAvailable", operatingSystem.getFreeMemorySize()),
+                meminfo.getOrDefault("SwapTotal", operatingSystem.getTotalSwapSpaceSize()),
+                meminfo.getOrDefault("SwapFree", operatingSystem.getFreeSwapSpaceSize()));
+    }
+
+    /**
+     * Reads the capacity of the file store of each path; paths that cannot
+     * be read are left out.
+     *
+     * @param diskPathsParam the paths
+     * @return the capacity of their file stores
+     */
+    private List<SystemInfo.Disk> readDisks(final List<Path> diskPathsParam) {
+        List<SystemInfo.Disk> disks = new ArrayList<>(diskPathsParam.size());
+        for (Path path : diskPathsParam) {
+            try {
+                FileStore store = Files.getFileStore(path);
+                disks.add(new SystemInfo.Disk(path.toString(), store.name(), store.getTotalSpace(),
+                        store.getUsableSpace()));
+            } catch (IOException e) {
+                logger.debug("Cannot read the file store of {}: {}", path, e.getMessage());
+            }
+        }
+        return List.copyOf(disks);
+    }
+
+    /**
+     * Reads the threads, file descriptors and heap of the JVM from the
+     * MXBeans.
+     *
+     * @return the JVM state
+     */
+    private SystemInfo.Jvm readJvm() {
+        long openFileDescriptors = -1;
+        long maxFileDescriptors = -1;
+        if (operatingSystem instanceof UnixOperatingSystemMXBean unix) {
+            openFileDescriptors = unix.getOpenFileDescriptorCount();
+            maxFileDescriptors = unix.getMaxFileDescriptorCount();
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new SystemInfo.Jvm(threads.getThreadCount(), threads.getDaemonThreadCount(),
+                threads.getPeakThreadCount(), openFileDescriptors, maxFileDescriptors, heap.getUsed(),
+                heap.getCommitted(), heap.getMax(), ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * Reads the first line of a file.
+     *
+     * @param fileParam the file
+     * @return the trimmed line, null if the file cannot be read or is blank
+     */
+    private String readFirstLine(final Path fileParam) {
+        if (!Files.isReadable(fileParam)) {
+            return null;
+        }
+        try (Stream<String> lines = Files.lines(fileParam, StandardCharsets.US_ASCII)) {
+            return lines.findFirst().map(String::trim).filter(line -> !line.isEmpty()).orElse(null);
+        } catch (IOException e) {
+            logger.debug("Cannot read {}: {}", fileParam, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the whitespace separated fields of the first line of a file.
+     *
+     * @param fileParam the file
+     * @return the fields, empty if the file cannot be read
+     */
+    private String[] readFields(final Path fileParam) {
+        String line = readFirstLine(fileParam);
+        return line == null ? new String[0] : line.split("\\s+");
     }
 }
@@ -0,0 +1,38 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.Arrays;
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+
+/**
+ * Identity of an execution: two commands with equal keys produce the same
+ * result when run against an unchanged working directory. The timeout is
+ * part of the key, since it decides whether a slow command completes.
+ *
+ * @param command          the command
+ * @param commandPath      the command path
+ * @param arguments        the arguments
+ * @param workingDirectory the working directory
+ * @param separateStreams  whether streams are captured separately
+ * @param timeoutMillis    the timeout of the command, 0 for the configured default
+ * @param fingerprint      a fingerprint of the working directory, or 0
+ */
+public record CommandKey(String command, String commandPath, List<String> arguments, String workingDirectory,
+        boolean separateStreams, long timeoutMillis, long fingerprint) {
+
+    /**
+     * Builds the key of a command.
+     *
+     * @param executableCommandParam the command
+     * @param fingerprintParam       a fingerprint of the working directory, or 0
+     * @return the key of the command
+     */
+    public static CommandKey of(final ExecutableCommand executableCommandParam, final long fingerprintParam) {
+        String[] arguments = executableCommandParam.getArguments();
+        return new CommandKey(executableCommandParam.getCommand(), executableCommandParam.getCommandPath(),
+                arguments == null ? List.of() : Arrays.asList(arguments.clone()),
+                executableCommandParam.getWorkingDirectory(), executableCommandParam.isSeparateStreams(),
+                executableCommandParam.getTimeoutMillis(), fingerprintParam);
+    }
+}
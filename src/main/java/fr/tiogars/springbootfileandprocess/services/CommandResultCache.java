@@ -0,0 +1,189 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of command results, for commands flagged as cacheable.
+ * <p>
+ * Entries are keyed on the command, its path, arguments and working
+ * directory, optionally with the last modification time of the working
+ * directory so that a change in the directory yields a new key. The key is
+ * built once before the command runs, so that a command changing its own
+ * working directory is still found under it. Entries
+ * expire after the configured time to live, and the least recently used
+ * entry is evicted once the cache is full. Only successful executions are
+ * cached.
+ * </p>
+ */
+@Component
+public class CommandResultCache implements InitializingBean {
+
+    /**
+     * Logger for CommandResultCache.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            CommandResultCache.class);
+
+    /**
+     * Settings of the cache.
+     */
+    private final ProcessProperties.Cache settings;
+
+    /**
+     * The cached entries, in access order.
+     */
+    private final Map<CommandKey, CacheEntry> entries;
+
+    /**
+     * Counter of lookups served from the cache.
+     */
+    private final Counter hits;
+
+    /**
+     * Counter of lookups not served from the cache.
+     */
+    private final Counter misses;
+
+    /**
+     * The registry publishing the cache metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for CommandResultCache.
+     *
+     * @param processPropertiesParam the process configuration
+     * @param meterRegistryParam     the registry publishing the cache metrics
+     */
+    public CommandResultCache(final ProcessProperties processPropertiesParam,
+            final MeterRegistry meterRegistryParam) {
+        this.settings = processPropertiesParam.getCache();
+        int maxEntries = settings.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<CommandKey, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("process.cache.gets").tag("result", "hit")
+                .description("Cacheable executions served from the cache").register(meterRegistryParam);
+        this.misses = Counter.builder("process.cache.gets").tag("result", "miss")
+                .description("Cacheable executions that ran the command").register(meterRegistryParam);
+        this.meterRegistry = meterRegistryParam;
+    }
+
+    /**
+     * Publishes the size of the cache, once the cache is fully constructed.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Gauge.builder("process.cache.size", this, CommandResultCache::size)
+                .description("Number of cached command results").register(meterRegistry);
+    }
+
+    /**
+     * Gets the cached result of a command.
+     *
+     * @param keyParam the cache key of the command
+     * @return the cached result, or null if absent or expired
+     */
+    public CommandResult get(final CommandKey keyParam) {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(keyParam);
+            if (entry != null && entry.isExpired()) {
+                entries.remove(keyParam);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        logger.debug("Cache hit for {}", keyParam.command());
+        return entry.result();
+    }
+
+    /**
+     * Caches the result of a command if it succeeded.
+     *
+     * @param keyParam    the cache key of the command, built before it ran
+     * @param resultParam the result of the command
+     */
+    public void put(final CommandKey keyParam, final CommandResult resultParam) {
+        if (resultParam.getExitCode() != 0 || resultParam.isTimedOut() || settings.getMaxEntries() <= 0) {
+            return;
+        }
+        CacheEntry entry = new CacheEntry(resultParam, System.nanoTime() + settings.getTtl().toNanos());
+        synchronized (entries) {
+            entries.put(keyParam, entry);
+        }
+    }
+
+    /**
+     * Gets the number of cached results, including expired ones not yet
+     * evicted.
+     *
+     * @return the number of cached results
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Builds the cache key of a command, fingerprinting its working
+     * directory as it is now.
+     *
+     * @param executableCommandParam the command
+     * @return the cache key
+     */
+    public CommandKey keyOf(final ExecutableCommand executableCommandParam) {
+        String workingDirectory = executableCommandParam.getWorkingDirectory();
+        long fingerprint = 0;
+        if (settings.isFingerprintWorkingDirectory() && workingDirectory != null && !workingDirectory.isEmpty()) {
+            try {
+                fingerprint = Files.getLastModifiedTime(Path.of(workingDirectory)).toMillis();
+            } catch (IOException e) {
+                logger.debug("Cannot fingerprint {}: {}", workingDirectory, e.getMessage());
+            }
+        }
+        return CommandKey.of(executableCommandParam, fingerprint);
+    }
+
+    /**
+     * A cached result.
+     *
+     * @param result         the command result
+     * @param expiresAtNanos the {@link System#nanoTime()} value the entry expires at
+     */
+    private record CacheEntry(CommandResult result, long expiresAtNanos) {
+
+        /**
+         * Tells whether the entry has expired.
+         *
+         * @return true if the entry has expired
+         */
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of directory listings, kept up to date by a {@link WatchService}.
+ * <p>
+ * A directory is read once and watched from then on: each creation,
+ * modification or deletion reported for it re-reads or removes the single
+ * entry concerned, so repeated listings are served from memory without
+ * rescanning. A directory is only cached if no change was reported while it
+ * was being read, and is dropped when events were lost or it stops being
+ * watchable. Once the cache is full, the least recently listed directory
+ * stops being watched.
+ * </p>
+ * <p>
+ * Reading a directory to cache it stops as soon as it has more than the
+ * configured number of entries; such directories are then listed from the
+ * file system, the glob being applied by the directory stream so that only
+ * matching entries are read, and are not read for caching again until
+ * their modification time changes.
+ * </p>
+ * <p>
+ * Listings are cached by absolute directory, but the paths of the entries
+ * returned are built from the directory as given by the caller, as when
+ * the cache is disabled.
+ * </p>
+ * <p>
+ * Only the entries of the directory itself are watched: the last
+ * modification time of a subdirectory may lag behind changes made inside
+ * it.
+ * </p>
+ */
+@Component
+public class DirectoryListingCache implements InitializingBean, DisposableBean {
+
+    /**
+     * Logger for DirectoryListingCache.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            DirectoryListingCache.class);
+
+    /**
+     * The file repository reading the directories.
+     */
+    private final FileRepository fileRepository;
+
+    /**
+     * Settings of the cache.
+     */
+    private final FileProperties.Cache settings;
+
+    /**
+     * The cached listings by absolute directory, in access order.
+     */
+    private final Map<Path, Listing> listings;
+
+    /**
+     * The modification time of the directories found too large to be
+     * cached, in access order.
+     */
+    private final Map<Path, FileTime> tooLarge;
+
+    /**
+     * Counter of listings served from the cache.
+     */
+    private final Counter hits;
+
+    /**
+     * Counter of listings read from the file system.
+     */
+    private final Counter misses;
+
+    /**
+     * The registry publishing the cache metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The watch service, created on the first cache miss.
+     */
+    private WatchService watchService;
+
+    /**
+     * Constructor for DirectoryListingCache.
+     *
+     * @param fileRepositoryParam the file repository reading the directories
+     * @param filePropertiesParam the file configuration
+     * @param meterRegistryParam  the registry publishing the cache metrics
+     */
+    public DirectoryListingCache(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam,
+            final MeterRegistry meterRegistryParam) {
+        this.fileRepository = fileRepositoryParam;
+        this.settings = filePropertiesParam.getCache();
+        int maxDirectories = settings.getMaxDirectories();
+        this.listings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, Listing> eldest) {
+                if (size() <= maxDirectories) {
+                    return false;
+                }
+                eldest.getValue().key.cancel();
+                return true;
+            }
+        };
+        this.tooLarge = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, FileTime> eldest) {
+                return size() > maxDirectories;
+            }
+        };
+        this.hits = Counter.builder("file.cache.gets").tag("result", "hit")
+                .description("Directory listings served from the cache").register(meterRegistryParam);
+        this.misses = Counter.builder("file.cache.gets").tag("result", "miss")
+                .description("Directory listings read from the file system").register(meterRegistryParam);
+        this.meterRegistry = meterRegistryParam;
+    }
+
+    /**
+     * Publishes the number of cached directories, once the cache is fully
+     * constructed.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Gauge.builder("file.cache.size", this, DirectoryListingCache::size)
+                .description("Number of cached and watched directories").register(meterRegistry);
+    }
+
+    /**
+     * Tells whether listings are cached.
+     *
+     * @return true if listings are cached
+     */
+    public boolean isEnabled() {
+        return settings.isEnabled() && settings.getMaxDirectories() > 0;
+    }
+
+    /**
+     * Lists the entries of a directory whose name matches a glob, from the
+     * cache if the directory is cached, otherwise from the file system,
+     * caching the directory unless it is too large.
+     *
+     * @param directoryParam the directory to list files from
+     * @param globParam      the glob the names must match, or null for all entries
+     * @return the matching entries, to be closed
+     * @throws IOException if the directory cannot be read
+     * @throws IllegalArgumentException if the glob is invalid
+     */
+    public Stream<FileInfo> listFiles(final String directoryParam, final String globParam) throws IOException {
+        Path requested = Path.of(directoryParam);
+        Path directory = requested.toAbsolutePath().normalize();
+        PathMatcher matcher = globParam == null || globParam.isEmpty()
+                ? null
+                : directory.getFileSystem().getPathMatcher("glob:" + globParam);
+        List<FileInfo> snapshot;
+        FileTime largeAt;
+        synchronized (listings) {
+            Listing listing = listings.get(directory);
+            snapshot = listing == null || listing.entries == null ? null : new ArrayList<>(listing.entries.values());
+            largeAt = tooLarge.get(directory);
+        }
+        if (snapshot != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            if (largeAt == null || !largeAt.equals(lastModified(directory))) {
+                snapshot = load(directory);
+            }
+            if (snapshot == null) {
+                return fileRepository.listFiles(directoryParam, globParam).map(FileServiceImpl::toFileInfo);
+            }
+        }
+        return snapshot.stream()
+                .filter(info -> matcher == null || matcher.matches(Path.of(info.getName())))
+                .map(info -> relocate(info, requested));
+    }
+
+    /**
+     * Gets the number of cached directories, including those being read.
+     *
+     * @return the number of cached directories
+     */
+    public int size() {
+        synchronized (listings) {
+            return listings.size();
+        }
+    }
+
+    /**
+     * Stops watching the cached directories.
+     */
+    @Override
+    public void destroy() throws IOException {
+        synchronized (listings) {
+            listings.clear();
+            if (watchService != null) {
+                watchService.close();
+            }
+        }
+    }
+
+    /**
+     * Reads a directory and caches it, unless it changed meanwhile. Reading
+     * stops as soon as the directory has too many entries to be cached.
+     *
+     * @param directory the absolute directory
+     * @return the entries of the directory, or null if it is too large
+     * @throws IOException if the directory cannot be read
+     */
+    private List<FileInfo> load(final Path directory) throws IOException {
+        FileTime modifiedAt = lastModified(directory);
+        WatchKey key = directory.register(watchService(), StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Listing loading = new Listing(key, null);
+        synchronized (listings) {
+            listings.put(directory, loading);
+        }
+
+        Map<String, FileInfo> entries = new HashMap<>();
+        boolean large = false;
+        try (Stream<FileEntry> files = fileRepository.listFiles(directory.toString())) {
+            Iterator<FileEntry> iterator = files.iterator();
+            while (!large && iterator.hasNext()) {
+                FileEntry entry = iterator.next();
+                entries.put(entry.path().getFileName().toString(), FileServiceImpl.toFileInfo(entry));
+                large = entries.size() > settings.getMaxEntries();
+            }
+        } catch (UncheckedIOException e) {
+            discard(directory, loading);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            discard(directory, loading);
+            throw e;
+        }
+
+        synchronized (listings) {
+            if (listings.get(directory) == loading) {
+                if (!large && !loading.dirty && key.isValid()) {
+                    listings.put(directory, new Listing(key, entries));
+                } else {
+                    listings.remove(directory);
+                    key.cancel();
+                }
+            }
+            if (large) {
+                logger.debug("Directory {} has more than {} entries, not caching it", directory,
+                        settings.getMaxEntries());
+                tooLarge.put(directory, modifiedAt);
+            } else {
+                tooLarge.remove(directory);
+            }
+        }
+        return large ? null : new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Reads the modification time of a directory, which changes when
+     * entries are added or removed.
+     *
+     * @param directory the directory
+     * @return the modification time
+     * @throws IOException if the directory cannot be read
+     */
+    private static FileTime lastModified(final Path directory) throws IOException {
+        return Files.getLastModifiedTime(directory);
+    }
+
+    /**
+     * Copies a cached entry, with its path built from the directory as
+     * given by the caller.
+     *
+     * @param info      the cached entry
+     * @param directory the directory as given by the caller
+     * @return the entry to return
+     */
+    private static FileInfo relocate(final FileInfo info, final Path directory) {
+        FileInfo relocated = new FileInfo();
+        relocated.setName(info.getName());
+        relocated.setPath(directory.resolve(info.getName()).toString());
+        relocated.setSize(info.getSize());
+        relocated.setLastModified(info.getLastModified());
+        relocated.setDirectory(info.isDirectory());
+        relocated.setFile(info.isFile());
+        relocated.setHidden(info.isHidden());
+        return relocated;
+    }
+
+    /**
+     * Forgets a directory whose reading failed, unless it was cached again
+     * meanwhile.
+     *
+     * @param directory the absolute directory
+     * @param loading   the listing being read
+     */
+    private void discard(final Path directory, final Listing loading) {
+        synchronized (listings) {
+            if (listings.get(directory) == loading) {
+                listings.remove(directory);
+                loading.key.cancel();
+            }
+        }
+    }
+
+    /**
+     * Gets the watch service, creating it and its watcher thread on first
+     * use.
+     *
+     * @return the watch service
+     * @throws IOException if the watch service cannot be created
+     */
+    private WatchService watchService() throws IOException {
+        synchronized (listings) {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread watcher = new Thread(this::watch, "file-listing-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            return watchService;
+        }
+    }
+
+    /**
+     * Applies the reported changes to the cached listings until the watch
+     * service is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    apply(directory, key, event);
+                }
+                if (!key.reset()) {
+                    logger.debug("Directory {} is no longer watched", directory);
+                    invalidate(directory, key);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Directory listing watcher stopped");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies a change to the listing of a directory.
+     *
+     * @param directory the directory
+     * @param key       the key the change was reported on
+     * @param event     the change
+     */
+    private void apply(final Path directory, final WatchKey key, final WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            logger.debug("Lost changes of {}, dropping its listing", directory);
+            invalidate(directory, key);
+            return;
+        }
+        String name = event.context().toString();
+        FileInfo info = null;
+        if (event.kind() != StandardWatchEventKinds.ENTRY_DELETE) {
+            try {
+                info = FileServiceImpl.toFileInfo(fileRepository.readEntry(directory.resolve(name).toString()));
+            } catch (NoSuchFileException e) {
+                // deleted since, its deletion event follows
+            } catch (IOException e) {
+                logger.debug("Cannot read {} in {}, dropping its listing: {}", name, directory, e.getMessage());
+                invalidate(directory, key);
+                return;
+            }
+        }
+
+        synchronized (listings) {
+            Listing listing = listings.get(directory);
+            if (listing == null || listing.key != key) {
+                return;
+            }
+            if (listing.entries == null) {
+                listing.dirty = true;
+            } else if (info == null) {
+                listing.entries.remove(name);
+            } else if (listing.entries.put(name, info) == null
+                    && listing.entries.size() > settings.getMaxEntries()) {
+                listings.remove(directory);
+                key.cancel();
+            }
+        }
+    }
+
+    /**
+     * Drops the listing of a directory and stops watching it.
+     *
+     * @param directory the directory
+     * @param key       the key of the directory
+     */
+    private void invalidate(final Path directory, final WatchKey key) {
+        synchronized (listings) {
+            Listing listing = listings.get(directory);
+            if (listing != null && listing.key == key) {
+                listings.remove(directory);
+            }
+        }
+        key.cancel();
+    }
+
+    /**
+     * The cached listing of a directory. Guarded by the lock of the listings.
+     */
+    private static final class Listing {
+
+        /**
+         * The watch key of the directory.
+         */
+        private final WatchKey key;
+
+        /**
+         * The entries by name, or null while the directory is being read.
+         */
+        private final Map<String, FileInfo> entries;
+
+        /**
+         * Whether a change was reported while the directory was being read.
+         */
+        private boolean dirty;
+
+        /**
+         * Constructs a listing.
+         *
+         * @param keyParam     the watch key of the directory
+         * @param entriesParam the entries by name, or null while the directory is being read
+         */
+        Listing(final WatchKey keyParam, final Map<String, FileInfo> entriesParam) {
+            this.key = keyParam;
+            this.entries = entriesParam;
+        }
+    }
+}
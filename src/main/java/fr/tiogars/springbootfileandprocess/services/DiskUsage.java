@@ -0,0 +1,79 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+/**
+ * The disk usage of a directory tree.
+ */
+public class DiskUsage {
+
+    /**
+     * The path of the directory.
+     */
+    private final String path;
+
+    /**
+     * The total size of the files of the tree, in bytes.
+     */
+    private final long size;
+
+    /**
+     * The number of files of the tree, symbolic links included.
+     */
+    private final long files;
+
+    /**
+     * The number of subdirectories of the tree.
+     */
+    private final long directories;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param pathParam        the path of the directory
+     * @param sizeParam        the total size of the files of the tree
+     * @param filesParam       the number of files of the tree
+     * @param directoriesParam the number of subdirectories of the tree
+     */
+    public DiskUsage(final String pathParam, final long sizeParam, final long filesParam,
+            final long directoriesParam) {
+        this.path = pathParam;
+        this.size = sizeParam;
+        this.files = filesParam;
+        this.directories = directoriesParam;
+    }
+
+    /**
+     * Gets the path of the directory.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the total size of the files of the tree.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of files of the tree.
+     *
+     * @return the number of files
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets the number of subdirectories of the tree.
+     *
+     * @return the number of subdirectories
+     */
+    public long getDirectories() {
+        return directories;
+    }
+}
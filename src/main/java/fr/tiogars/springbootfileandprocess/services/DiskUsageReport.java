@@ -0,0 +1,81 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.List;
+
+/**
+ * The disk usage of a directory tree, broken down by child directory.
+ */
+public class DiskUsageReport {
+
+    /**
+     * The usage of the whole tree.
+     */
+    private final DiskUsage total;
+
+    /**
+     * The usage of each child directory, largest first.
+     */
+    private final List<DiskUsage> children;
+
+    /**
+     * The number of directories read to compute the report.
+     */
+    private final long scannedDirectories;
+
+    /**
+     * The number of directories whose remembered subtotal was reused.
+     */
+    private final long reusedDirectories;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param totalParam              the usage of the whole tree
+     * @param childrenParam           the usage of each child directory, largest first
+     * @param scannedDirectoriesParam the number of directories read
+     * @param reusedDirectoriesParam  the number of directories whose subtotal was reused
+     */
+    public DiskUsageReport(final DiskUsage totalParam, final List<DiskUsage> childrenParam,
+            final long scannedDirectoriesParam, final long reusedDirectoriesParam) {
+        this.total = totalParam;
+        this.children = childrenParam;
+        this.scannedDirectories = scannedDirectoriesParam;
+        this.reusedDirectories = reusedDirectoriesParam;
+    }
+
+    /**
+     * Gets the usage of the whole tree.
+     *
+     * @return the total usage
+     */
+    public DiskUsage getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the usage of each child directory.
+     *
+     * @return the child usages, largest first
+     */
+    public List<DiskUsage> getChildren() {
+        return children;
+    }
+
+    /**
+     * Gets the number of directories read to compute the report.
+     *
+     * @return the number of directories read
+     */
+    public long getScannedDirectories() {
+        return scannedDirectories;
+    }
+
+    /**
+     * Gets the number of directories whose remembered subtotal was reused.
+     *
+     * @return the number of directories not read again
+     */
+    public long getReusedDirectories() {
+        return reusedDirectories;
+    }
+}
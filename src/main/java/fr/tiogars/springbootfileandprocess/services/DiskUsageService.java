@@ -0,0 +1,20 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+
+/**
+ * Service interface for computing the disk usage of directory trees.
+ */
+public interface DiskUsageService {
+
+    /**
+     * Computes the disk usage of a directory tree, reusing the subtotals of
+     * the directories unchanged since a previous computation.
+     *
+     * @param directoryParam the root directory of the tree
+     * @param refreshParam   true to read every directory again
+     * @return the usage of the tree, broken down by child directory
+     * @throws IOException if the root cannot be read or is not a directory
+     */
+    DiskUsageReport usage(String directoryParam, boolean refreshParam) throws IOException;
+}
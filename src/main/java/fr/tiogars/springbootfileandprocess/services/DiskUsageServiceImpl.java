@@ -0,0 +1,369 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+
+/**
+ * Implementation of the DiskUsageService interface.
+ * <p>
+ * Subdirectories are read in parallel, each on its own virtual thread,
+ * while a semaphore bounds how many directories are read at once. The own
+ * files subtotal and the subdirectory names of each directory read are
+ * remembered along with its last modification time. As creating, deleting
+ * or renaming an entry updates the modification time of its directory, a
+ * later computation only reads the directories whose modification time
+ * changed, and merely checks the others. Changing the content of a file
+ * does not update its directory though, so remembered subtotals are only
+ * trusted for the configured maximum age. Symbolic links are counted as
+ * files and never followed. Subdirectories that cannot be read are
+ * skipped.
+ * </p>
+ */
+@Service
+public class DiskUsageServiceImpl implements DiskUsageService, DisposableBean {
+
+    /**
+     * How recent a modification time must be for the directory not to be
+     * remembered, as a change within the same clock tick would go unnoticed.
+     */
+    private static final long RACY_MILLIS = 1000;
+
+    /**
+     * Logger for DiskUsageServiceImpl.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            DiskUsageServiceImpl.class);
+
+    /**
+     * The file repository reading the directories.
+     */
+    private final FileRepository fileRepository;
+
+    /**
+     * How long a remembered subtotal is trusted, in nanoseconds.
+     */
+    private final long maxAgeNanos;
+
+    /**
+     * Permits bounding the number of directories read at once.
+     */
+    private final Semaphore readers;
+
+    /**
+     * The remembered directories by absolute path, in access order.
+     */
+    private final Map<Path, Node> nodes;
+
+    /**
+     * The executor reading the directories.
+     */
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("file-usage-", 0).factory());
+
+    /**
+     * Constructor for DiskUsageServiceImpl.
+     *
+     * @param fileRepositoryParam the file repository reading the directories
+     * @param filePropertiesParam the file configuration
+     */
+    public DiskUsageServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam) {
+        this.fileRepository = fileRepositoryParam;
+        FileProperties.Usage settings = filePropertiesParam.getUsage();
+        this.maxAgeNanos = settings.getMaxAge().toNanos();
+        this.readers = new Semaphore(settings.getParallelism());
+        int maxDirectories = settings.getMaxDirectories();
+        this.nodes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, Node> eldest) {
+                return size() > maxDirectories;
+            }
+        };
+    }
+
+    /**
+     * Computes the disk usage of a directory tree, reusing the subtotals of
+     * the directories unchanged since a previous computation.
+     *
+     * @param directoryParam the root directory of the tree
+     * @param refreshParam   true to read every directory again
+     * @return the usage of the tree, broken down by child directory
+     * @throws IOException if the root cannot be read or is not a directory
+     */
+    @Override
+    public DiskUsageReport usage(final String directoryParam, final boolean refreshParam) throws IOException {
+        Path root = Path.of(directoryParam).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = fileRepository.readEntry(root.toString()).attributes();
+        if (!attributes.isDirectory()) {
+            throw new NotDirectoryException(directoryParam);
+        }
+
+        Computation computation = new Computation(refreshParam);
+        Map<Path, Subtotal> breakdown = new LinkedHashMap<>();
+        Subtotal total;
+        try {
+            total = scan(root, attributes.lastModifiedTime(), computation, breakdown);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while computing the usage of " + directoryParam, e);
+        }
+
+        List<DiskUsage> children = breakdown.entrySet().stream()
+                .map(child -> child.getValue().toUsage(child.getKey()))
+                .sorted(Comparator.comparingLong(DiskUsage::getSize).reversed()
+                        .thenComparing(DiskUsage::getPath))
+                .toList();
+        logger.debug("Usage of {}: {} directories read, {} reused", root, computation.scanned.sum(),
+                computation.reused.sum());
+        return new DiskUsageReport(total.toUsage(root), children, computation.scanned.sum(),
+                computation.reused.sum());
+    }
+
+    /**
+     * Stops the directory readers.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes the subtotal of a directory tree, reading its subdirectories
+     * in parallel.
+     *
+     * @param directory   the directory
+     * @param modified    the last modification time of the directory, or null if unknown
+     * @param computation the state of the computation
+     * @param breakdown   where to put the subtotal of each subdirectory, or null
+     * @return the subtotal of the tree
+     * @throws IOException if the directory cannot be read
+     * @throws InterruptedException if interrupted while waiting for the subdirectories
+     */
+    private Subtotal scan(final Path directory, final FileTime modified, final Computation computation,
+            final Map<Path, Subtotal> breakdown) throws IOException, InterruptedException {
+        Node node;
+        List<FileTime> subdirectoryTimes = null;
+        readers.acquire();
+        try {
+            FileTime current = modified != null
+                    ? modified
+                    : fileRepository.readEntry(directory.toString()).attributes().lastModifiedTime();
+            node = computation.refresh ? null : recall(directory, current);
+            if (node == null) {
+                subdirectoryTimes = new ArrayList<>();
+                node = read(directory, current, subdirectoryTimes);
+                computation.scanned.increment();
+            } else {
+                computation.reused.increment();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            readers.release();
+        }
+
+        List<String> names = node.subdirectories();
+        List<Future<Subtotal>> subtotals = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            Path subdirectory = directory.resolve(names.get(i));
+            FileTime time = subdirectoryTimes == null ? null : subdirectoryTimes.get(i);
+            subtotals.add(executor.submit(() -> scanSubdirectory(subdirectory, time, computation)));
+        }
+
+        long size = node.size();
+        long files = node.files();
+        long directories = names.size();
+        for (int i = 0; i < names.size(); i++) {
+            Subtotal subtotal = join(subtotals.get(i));
+            size += subtotal.size();
+            files += subtotal.files();
+            directories += subtotal.directories();
+            if (breakdown != null) {
+                breakdown.put(directory.resolve(names.get(i)), subtotal);
+            }
+        }
+        return new Subtotal(size, files, directories);
+    }
+
+    /**
+     * Computes the subtotal of a subdirectory tree, counting it as empty if
+     * it cannot be read.
+     *
+     * @param directory   the subdirectory
+     * @param modified    the last modification time of the subdirectory, or null if unknown
+     * @param computation the state of the computation
+     * @return the subtotal of the tree
+     * @throws InterruptedException if interrupted while waiting for the subdirectories
+     */
+    private Subtotal scanSubdirectory(final Path directory, final FileTime modified,
+            final Computation computation) throws InterruptedException {
+        try {
+            return scan(directory, modified, computation, null);
+        } catch (IOException e) {
+            logger.debug("Skipping unreadable directory {}: {}", directory, e.getMessage());
+            return new Subtotal(0, 0, 0);
+        }
+    }
+
+    /**
+     * Reads a directory, remembering its subtotal unless it was modified too
+     * recently to be trusted.
+     *
+     * @param directory         the directory
+     * @param modified          the last modification time of the directory
+     * @param subdirectoryTimes where to put the modification time of each subdirectory
+     * @return the subtotal of the files of the directory and its subdirectory names
+     * @throws IOException if the directory cannot be read
+     */
+    private Node read(final Path directory, final FileTime modified, final List<FileTime> subdirectoryTimes)
+            throws IOException {
+        long startedMillis = System.currentTimeMillis();
+        long size = 0;
+        long files = 0;
+        List<String> subdirectories = new ArrayList<>();
+        try (Stream<FileEntry> entries = fileRepository.listLinks(directory.toString())) {
+            for (FileEntry entry : (Iterable<FileEntry>) entries::iterator) {
+                BasicFileAttributes attributes = entry.attributes();
+                if (attributes.isDirectory()) {
+                    subdirectories.add(entry.path().getFileName().toString());
+                    subdirectoryTimes.add(attributes.lastModifiedTime());
+                } else {
+                    size += attributes.size();
+                    files++;
+                }
+            }
+        }
+
+        Node node = new Node(modified, size, files, subdirectories, System.nanoTime());
+        if (modified.toMillis() < startedMillis - RACY_MILLIS) {
+            synchronized (nodes) {
+                nodes.put(directory, node);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Recalls the subtotal of a directory if it is unchanged and recent
+     * enough.
+     *
+     * @param directory the directory
+     * @param modified  the current modification time of the directory
+     * @return the remembered subtotal, or null if it must be read again
+     */
+    private Node recall(final Path directory, final FileTime modified) {
+        Node node;
+        synchronized (nodes) {
+            node = nodes.get(directory);
+        }
+        if (node == null || !node.modified().equals(modified) || System.nanoTime() - node.readAtNanos() > maxAgeNanos) {
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Waits for the subtotal of a subdirectory.
+     *
+     * @param future the pending subtotal
+     * @return the subtotal
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static Subtotal join(final Future<Subtotal> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The remembered content of a directory.
+     *
+     * @param modified       the last modification time of the directory when read
+     * @param size           the total size of the files of the directory itself
+     * @param files          the number of files of the directory itself
+     * @param subdirectories the names of the subdirectories
+     * @param readAtNanos    the {@link System#nanoTime()} value the directory was read at
+     */
+    private record Node(FileTime modified, long size, long files, List<String> subdirectories,
+            long readAtNanos) {
+    }
+
+    /**
+     * The usage of a directory tree.
+     *
+     * @param size        the total size of the files of the tree
+     * @param files       the number of files of the tree
+     * @param directories the number of subdirectories of the tree
+     */
+    private record Subtotal(long size, long files, long directories) {
+
+        /**
+         * Converts the subtotal to the usage of a directory.
+         *
+         * @param directory the directory
+         * @return the usage
+         */
+        DiskUsage toUsage(final Path directory) {
+            return new DiskUsage(directory.toString(), size, files, directories);
+        }
+    }
+
+    /**
+     * The state of a computation.
+     */
+    private static final class Computation {
+
+        /**
+         * Whether every directory is read again.
+         */
+        private final boolean refresh;
+
+        /**
+         * The number of directories read.
+         */
+        private final LongAdder scanned = new LongAdder();
+
+        /**
+         * The number of directories whose subtotal was reused.
+         */
+        private final LongAdder reused = new LongAdder();
+
+        /**
+         * Constructs the state of a computation.
+         *
+         * @param refreshParam whether every directory is read again
+         */
+        Computation(final boolean refreshParam) {
+            this.refresh = refreshParam;
+        }
+    }
+}
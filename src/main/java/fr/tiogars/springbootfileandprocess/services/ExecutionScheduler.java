@@ -0,0 +1,317 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control of executions, limiting how many run at once in the
+ * same working directory and with the same command.
+ * <p>
+ * An execution runs once both its working directory and its command are
+ * below their limits. Executions that must wait are queued by working
+ * directory and command: each queue is served in FIFO order, and queues are
+ * served round-robin so that a busy key cannot starve the others. Queue
+ * depth, running executions and wait time are published as metrics.
+ * </p>
+ */
+@Component
+public class ExecutionScheduler implements InitializingBean {
+
+    /**
+     * Logger for ExecutionScheduler.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            ExecutionScheduler.class);
+
+    /**
+     * Settings of the scheduler.
+     */
+    private final ProcessProperties.Scheduling settings;
+
+    /**
+     * The waiting executions by queue, in round-robin order.
+     */
+    private final Map<QueueKey, Deque<Ticket>> queues = new LinkedHashMap<>();
+
+    /**
+     * Number of running executions by working directory.
+     */
+    private final Map<String, Integer> runningByDirectory = new HashMap<>();
+
+    /**
+     * Number of running executions by command.
+     */
+    private final Map<String, Integer> runningByCommand = new HashMap<>();
+
+    /**
+     * Number of waiting executions.
+     */
+    private int queued;
+
+    /**
+     * Number of running executions subject to a limit.
+     */
+    private int running;
+
+    /**
+     * Timer of the time spent waiting for admission.
+     */
+    private final Timer waitTimer;
+
+    /**
+     * The registry publishing the scheduler metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for ExecutionScheduler.
+     *
+     * @param processPropertiesParam the process configuration
+     * @param meterRegistryParam     the registry publishing the scheduler metrics
+     */
+    public ExecutionScheduler(final ProcessProperties processPropertiesParam,
+            final MeterRegistry meterRegistryParam) {
+        this.settings = processPropertiesParam.getScheduling();
+        this.waitTimer = Timer.builder("process.scheduler.wait")
+                .description("Time spent waiting for a working directory or command slot")
+                .register(meterRegistryParam);
+        this.meterRegistry = meterRegistryParam;
+    }
+
+    /**
+     * Publishes the number of queued and running executions, once the
+     * scheduler is fully constructed.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Gauge.builder("process.scheduler.queued", this, ExecutionScheduler::getQueued)
+                .description("Executions waiting for a working directory or command slot")
+                .register(meterRegistry);
+        Gauge.builder("process.scheduler.running", this, ExecutionScheduler::getRunning)
+                .description("Running executions subject to a concurrency limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits until the command may run, then reserves its slots.
+     *
+     * @param executableCommandParam the command to run
+     * @return the permit to close once the command has finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(final ExecutableCommand executableCommandParam) throws InterruptedException {
+        String command = executableCommandParam.getCommand();
+        int directoryLimit = settings.getMaxPerWorkingDirectory();
+        int commandLimit = settings.getCommandLimits().getOrDefault(command, settings.getMaxPerCommand());
+        if (directoryLimit <= 0 && commandLimit <= 0) {
+            return () -> { };
+        }
+
+        Ticket ticket = new Ticket(new QueueKey(directoryOf(executableCommandParam), command),
+                directoryLimit, commandLimit);
+        long start = System.nanoTime();
+        synchronized (this) {
+            queues.computeIfAbsent(ticket.key, key -> new ArrayDeque<>()).add(ticket);
+            queued++;
+            dispatch();
+        }
+        if (!ticket.granted.isDone()) {
+            logger.debug("Queued {} in {}", command, ticket.key.directory());
+        }
+
+        try {
+            ticket.granted.get();
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                if (!ticket.granted.isDone()) {
+                    ticket.granted.cancel(false);
+                    Deque<Ticket> queue = queues.get(ticket.key);
+                    queue.remove(ticket);
+                    queued--;
+                    if (queue.isEmpty()) {
+                        queues.remove(ticket.key);
+                    }
+                    throw e;
+                }
+            }
+            release(ticket);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return () -> release(ticket);
+    }
+
+    /**
+     * Gets the number of waiting executions.
+     *
+     * @return the queue depth
+     */
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Gets the number of running executions subject to a limit.
+     *
+     * @return the number of running executions
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Frees the slots of a finished execution and admits waiting ones.
+     *
+     * @param ticket the ticket of the finished execution
+     */
+    private synchronized void release(final Ticket ticket) {
+        running--;
+        runningByDirectory.merge(ticket.key.directory(), -1, Integer::sum);
+        runningByDirectory.remove(ticket.key.directory(), 0);
+        runningByCommand.merge(ticket.key.command(), -1, Integer::sum);
+        runningByCommand.remove(ticket.key.command(), 0);
+        dispatch();
+    }
+
+    /**
+     * Admits the head of each queue in round-robin order for as long as
+     * their slots are free. A queue that was served moves to the end of the
+     * rotation.
+     */
+    private void dispatch() {
+        boolean admitted = true;
+        while (admitted && !queues.isEmpty()) {
+            admitted = false;
+            Iterator<Map.Entry<QueueKey, Deque<Ticket>>> iterator = queues.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<QueueKey, Deque<Ticket>> entry = iterator.next();
+                Deque<Ticket> queue = entry.getValue();
+                Ticket head = queue.peek();
+                if (!fits(head)) {
+                    continue;
+                }
+                queue.poll();
+                queued--;
+                running++;
+                runningByDirectory.merge(head.key.directory(), 1, Integer::sum);
+                runningByCommand.merge(head.key.command(), 1, Integer::sum);
+                head.granted.complete(null);
+                iterator.remove();
+                if (!queue.isEmpty()) {
+                    queues.put(entry.getKey(), queue);
+                }
+                admitted = true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the slots needed by a ticket are free.
+     *
+     * @param ticket the waiting ticket
+     * @return true if both its working directory and command are below their limits
+     */
+    private boolean fits(final Ticket ticket) {
+        return (ticket.directoryLimit <= 0
+                || runningByDirectory.getOrDefault(ticket.key.directory(), 0) < ticket.directoryLimit)
+                && (ticket.commandLimit <= 0
+                        || runningByCommand.getOrDefault(ticket.key.command(), 0) < ticket.commandLimit);
+    }
+
+    /**
+     * Gets the normalized working directory of a command.
+     *
+     * @param executableCommandParam the command
+     * @return the absolute, normalized working directory
+     */
+    private static String directoryOf(final ExecutableCommand executableCommandParam) {
+        String workingDirectory = executableCommandParam.getWorkingDirectory();
+        if (workingDirectory == null || workingDirectory.isEmpty()) {
+            workingDirectory = ".";
+        }
+        return Path.of(workingDirectory).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Reservation of the slots of a running command, released on close.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        /**
+         * Releases the slots of the command.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Key of a queue of waiting executions.
+     *
+     * @param directory the normalized working directory
+     * @param command   the command
+     */
+    private record QueueKey(String directory, String command) {
+    }
+
+    /**
+     * An execution waiting for, or holding, its slots.
+     */
+    private static final class Ticket {
+
+        /**
+         * The queue of the execution.
+         */
+        private final QueueKey key;
+
+        /**
+         * The limit of the working directory, 0 for none.
+         */
+        private final int directoryLimit;
+
+        /**
+         * The limit of the command, 0 for none.
+         */
+        private final int commandLimit;
+
+        /**
+         * Completed once the execution is admitted.
+         */
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+
+        /**
+         * Constructs a ticket.
+         *
+         * @param keyParam            the queue of the execution
+         * @param directoryLimitParam the limit of the working directory
+         * @param commandLimitParam   the limit of the command
+         */
+        Ticket(final QueueKey keyParam, final int directoryLimitParam, final int commandLimitParam) {
+            this.key = keyParam;
+            this.directoryLimit = directoryLimitParam;
+            this.commandLimit = commandLimitParam;
+        }
+    }
+}
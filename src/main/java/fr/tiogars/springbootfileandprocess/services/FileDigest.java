@@ -0,0 +1,95 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+/**
+ * The digest of the content of a file.
+ */
+public class FileDigest {
+
+    /**
+     * The path of the file.
+     */
+    private final String path;
+
+    /**
+     * The size of the file, in bytes.
+     */
+    private final long size;
+
+    /**
+     * The name of the algorithm, such as {@code sha-256}.
+     */
+    private final String algorithm;
+
+    /**
+     * The digest in lower-case hexadecimal, null if the file could not be read.
+     */
+    private final String digest;
+
+    /**
+     * Why the file could not be read, null if the digest was computed.
+     */
+    private final String error;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param pathParam      the path of the file
+     * @param sizeParam      the size of the file, in bytes
+     * @param algorithmParam the name of the algorithm
+     * @param digestParam    the digest in hexadecimal, null if the file could not be read
+     * @param errorParam     why the file could not be read, null if the digest was computed
+     */
+    public FileDigest(final String pathParam, final long sizeParam, final String algorithmParam,
+            final String digestParam, final String errorParam) {
+        this.path = pathParam;
+        this.size = sizeParam;
+        this.algorithm = algorithmParam;
+        this.digest = digestParam;
+        this.error = errorParam;
+    }
+
+    /**
+     * Gets the path of the file.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the size of the file.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the name of the algorithm.
+     *
+     * @return the algorithm, such as {@code sha-256}
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the digest of the content.
+     *
+     * @return the digest in lower-case hexadecimal, null if the file could not be read
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Gets why the file could not be read.
+     *
+     * @return the error, null if the digest was computed
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,39 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import fr.tiogars.springbootfileandprocess.models.HashAlgorithm;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+
+/**
+ * Service interface for computing digests of file contents.
+ */
+public interface FileHashService {
+
+    /**
+     * Computes the digest of a file.
+     *
+     * @param path      the path of the file
+     * @param algorithm the algorithm
+     * @return the digest of the file
+     * @throws IOException if the file does not exist or cannot be read
+     * @throws IllegalArgumentException if the path is not a regular file
+     */
+    FileDigest hash(String path, HashAlgorithm algorithm) throws IOException;
+
+    /**
+     * Computes the digests of the regular files of a directory tree, in
+     * parallel. Digests come in the order they are computed; files that
+     * cannot be read are reported with an error instead of a digest. The
+     * returned stream must be closed, which cancels the computation if it is
+     * still running.
+     *
+     * @param query     the root, depth and filters of the walk; symbolic links are not followed
+     * @param algorithm the algorithm
+     * @return a lazily populated stream of digests
+     * @throws IOException if the root cannot be read or is not a directory
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    Stream<FileDigest> manifest(WalkQuery query, HashAlgorithm algorithm) throws IOException;
+}
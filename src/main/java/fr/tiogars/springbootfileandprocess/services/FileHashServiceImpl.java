@@ -0,0 +1,494 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.HashAlgorithm;
+import fr.tiogars.springbootfileandprocess.models.SymlinkPolicy;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of the FileHashService interface.
+ * <p>
+ * Files are hashed by a fixed pool of threads shared by all requests, so
+ * that concurrent requests cannot use more processors than configured.
+ * Each thread reads files through its own large buffer. Digests are
+ * remembered by path, size, modification time and algorithm: a file is only
+ * read again once one of them changed. Files modified within the last
+ * second are not remembered, as a change within the same clock tick would
+ * go unnoticed.
+ * </p>
+ * <p>
+ * Manifests walk the tree while its files are being hashed, keeping a
+ * bounded number of files in flight, and hand over each digest as soon as
+ * it is computed.
+ * </p>
+ */
+@Service
+public class FileHashServiceImpl implements FileHashService, InitializingBean, DisposableBean {
+
+    /**
+     * How recent a modification time must be for the digest not to be
+     * remembered.
+     */
+    private static final long RACY_MILLIS = 1000;
+
+    /**
+     * Marker of the end of a manifest.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Logger for FileHashServiceImpl.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            FileHashServiceImpl.class);
+
+    /**
+     * The file repository reading the files.
+     */
+    private final FileRepository fileRepository;
+
+    /**
+     * The maximum number of files in flight per manifest.
+     */
+    private final int window;
+
+    /**
+     * The threads hashing the files.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The read buffer of each hashing thread.
+     */
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    /**
+     * The remembered digests, in access order.
+     */
+    private final Map<Key, String> digests;
+
+    /**
+     * Counter of digests served from the cache.
+     */
+    private final Counter hits;
+
+    /**
+     * Counter of digests computed.
+     */
+    private final Counter misses;
+
+    /**
+     * The registry publishing the cache metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for FileHashServiceImpl.
+     *
+     * @param fileRepositoryParam the file repository reading the files
+     * @param filePropertiesParam the file configuration
+     * @param meterRegistryParam  the registry publishing the cache metrics
+     */
+    public FileHashServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam,
+            final MeterRegistry meterRegistryParam) {
+        this.fileRepository = fileRepositoryParam;
+        FileProperties.Hash settings = filePropertiesParam.getHash();
+        int parallelism = Math.max(1, settings.getParallelism());
+        this.window = parallelism * 2;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("file-hash-", 0).daemon().factory());
+        int bufferSize = settings.getBufferSize();
+        this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferSize));
+        int cacheSize = settings.getCacheSize();
+        this.digests = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.hits = Counter.builder("file.hash.cache.gets").tag("result", "hit")
+                .description("File digests served from the cache").register(meterRegistryParam);
+        this.misses = Counter.builder("file.hash.cache.gets").tag("result", "miss")
+                .description("File digests computed").register(meterRegistryParam);
+        this.meterRegistry = meterRegistryParam;
+    }
+
+    /**
+     * Publishes the number of remembered digests, once the service is
+     * fully constructed.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Gauge.builder("file.hash.cache.size", this, FileHashServiceImpl::size)
+                .description("Number of remembered file digests").register(meterRegistry);
+    }
+
+    /**
+     * Stops the hashing threads.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes the digest of a file.
+     *
+     * @param path      the path of the file
+     * @param algorithm the algorithm
+     * @return the digest of the file
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    @Override
+    public FileDigest hash(final String path, final HashAlgorithm algorithm) throws IOException {
+        FileEntry entry = fileRepository.readEntry(path);
+        if (!entry.attributes().isRegularFile()) {
+            throw new IllegalArgumentException("Not a regular file: " + path);
+        }
+        String cached = cached(keyOf(entry, algorithm));
+        if (cached != null) {
+            return digestOf(entry, algorithm, cached);
+        }
+        try {
+            return executor.submit(() -> digest(entry, algorithm)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing " + path, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Cannot hash " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Computes the digests of the regular files of a directory tree, in
+     * parallel.
+     *
+     * @param query     the root, depth and filters of the walk
+     * @param algorithm the algorithm
+     * @return a lazily populated stream of digests
+     * @throws IOException if the root cannot be read or is not a directory
+     */
+    @Override
+    public Stream<FileDigest> manifest(final WalkQuery query, final HashAlgorithm algorithm) throws IOException {
+        query.setSymlinks(SymlinkPolicy.LIST);
+        Manifest manifest = new Manifest(fileRepository.walk(query), algorithm);
+        manifest.start();
+        return StreamSupport.stream(manifest, false).onClose(manifest::close);
+    }
+
+    /**
+     * Gets the number of remembered digests.
+     *
+     * @return the number of cached digests
+     */
+    public int size() {
+        synchronized (digests) {
+            return digests.size();
+        }
+    }
+
+    /**
+     * Computes the digest of a file, unless it is remembered.
+     *
+     * @param entry     the file
+     * @param algorithm the algorithm
+     * @return the digest of the file
+     * @throws IOException if the file cannot be read
+     */
+    private FileDigest digest(final FileEntry entry, final HashAlgorithm algorithm) throws IOException {
+        Key key = keyOf(entry, algorithm);
+        String digest = cached(key);
+        if (digest != null) {
+            return digestOf(entry, algorithm, digest);
+        }
+        misses.increment();
+        digest = compute(entry.path().toString(), algorithm);
+        if (System.currentTimeMillis() - entry.attributes().lastModifiedTime().toMillis() >= RACY_MILLIS) {
+            synchronized (digests) {
+                digests.put(key, digest);
+            }
+        }
+        return digestOf(entry, algorithm, digest);
+    }
+
+    /**
+     * Reads a file and computes its digest.
+     *
+     * @param path      the path of the file
+     * @param algorithm the algorithm
+     * @return the digest in lower-case hexadecimal
+     * @throws IOException if the file cannot be read
+     */
+    private String compute(final String path, final HashAlgorithm algorithm) throws IOException {
+        ByteBuffer buffer = buffers.get();
+        try (FileChannel channel = fileRepository.openContent(path)) {
+            if (algorithm.getMessageDigest() == null) {
+                CRC32C checksum = new CRC32C();
+                while (read(channel, buffer) >= 0) {
+                    checksum.update(buffer.array(), 0, buffer.position());
+                }
+                return HexFormat.of().toHexDigits((int) checksum.getValue());
+            }
+            MessageDigest messageDigest = MessageDigest.getInstance(algorithm.getMessageDigest());
+            while (read(channel, buffer) >= 0) {
+                messageDigest.update(buffer.array(), 0, buffer.position());
+            }
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unsupported hash algorithm " + algorithm, e);
+        }
+    }
+
+    /**
+     * Reads the next bytes of a file into a cleared buffer.
+     *
+     * @param channel the file
+     * @param buffer  the buffer
+     * @return the number of bytes read, -1 at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static int read(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        return channel.read(buffer);
+    }
+
+    /**
+     * Gets a remembered digest, counting the hit.
+     *
+     * @param key the file and algorithm
+     * @return the digest, or null if it is not remembered
+     */
+    private String cached(final Key key) {
+        String digest;
+        synchronized (digests) {
+            digest = digests.get(key);
+        }
+        if (digest != null) {
+            hits.increment();
+        }
+        return digest;
+    }
+
+    /**
+     * Builds the cache key of a file.
+     *
+     * @param entry     the file
+     * @param algorithm the algorithm
+     * @return the key
+     */
+    private static Key keyOf(final FileEntry entry, final HashAlgorithm algorithm) {
+        BasicFileAttributes attributes = entry.attributes();
+        return new Key(entry.path().toAbsolutePath().toString(), attributes.size(), attributes.lastModifiedTime(),
+                algorithm);
+    }
+
+    /**
+     * Builds the digest of a file.
+     *
+     * @param entry     the file
+     * @param algorithm the algorithm
+     * @param digest    the digest in hexadecimal
+     * @return the digest of the file
+     */
+    private static FileDigest digestOf(final FileEntry entry, final HashAlgorithm algorithm, final String digest) {
+        return new FileDigest(entry.path().toString(), entry.attributes().size(), algorithm.getValue(), digest,
+                null);
+    }
+
+    /**
+     * The cache key of a digest.
+     *
+     * @param path         the absolute path of the file
+     * @param size         the size of the file
+     * @param lastModified the last modification time of the file
+     * @param algorithm    the algorithm
+     */
+    private record Key(String path, long size, FileTime lastModified, HashAlgorithm algorithm) {
+    }
+
+    /**
+     * The digests of a directory tree, handed over as they are computed.
+     */
+    private final class Manifest extends Spliterators.AbstractSpliterator<FileDigest> implements AutoCloseable {
+
+        /**
+         * The entries of the tree.
+         */
+        private final Stream<FileEntry> entries;
+
+        /**
+         * The algorithm.
+         */
+        private final HashAlgorithm algorithm;
+
+        /**
+         * Permits bounding the number of files hashed or waiting to be
+         * handed over.
+         */
+        private final Semaphore inFlight = new Semaphore(window);
+
+        /**
+         * The computed digests, then {@link #END} or the error ending the walk.
+         */
+        private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+        /**
+         * Whether the manifest was closed.
+         */
+        private volatile boolean closed;
+
+        /**
+         * Whether the end of the manifest was handed over.
+         */
+        private boolean done;
+
+        /**
+         * The thread walking the tree.
+         */
+        private Thread walker;
+
+        /**
+         * Constructs a manifest.
+         *
+         * @param entriesParam   the entries of the tree
+         * @param algorithmParam the algorithm
+         */
+        Manifest(final Stream<FileEntry> entriesParam, final HashAlgorithm algorithmParam) {
+            super(Long.MAX_VALUE, NONNULL);
+            this.entries = entriesParam;
+            this.algorithm = algorithmParam;
+        }
+
+        /**
+         * Starts walking the tree.
+         */
+        void start() {
+            walker = Thread.ofVirtual().name("file-hash-walker").start(this::walk);
+        }
+
+        /**
+         * Walks the tree, scheduling the hashing of each regular file.
+         */
+        private void walk() {
+            try (entries) {
+                Iterator<FileEntry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    FileEntry entry = iterator.next();
+                    if (!entry.attributes().isRegularFile()) {
+                        continue;
+                    }
+                    inFlight.acquire();
+                    if (closed) {
+                        return;
+                    }
+                    executor.execute(() -> hash(entry));
+                }
+                inFlight.acquire(window);
+                results.add(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                results.add(new IllegalStateException("File hashing stopped", e));
+            } catch (RuntimeException e) {
+                results.add(e);
+            }
+        }
+
+        /**
+         * Hashes a file of the tree, reporting an error if it cannot be read.
+         *
+         * @param entry the file
+         */
+        private void hash(final FileEntry entry) {
+            if (closed) {
+                return;
+            }
+            try {
+                results.add(digest(entry, algorithm));
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Cannot hash {}: {}", entry.path(), e.getMessage());
+                results.add(new FileDigest(entry.path().toString(), entry.attributes().size(), algorithm.getValue(),
+                        null, String.valueOf(e.getMessage())));
+            }
+        }
+
+        /**
+         * Hands the next digest to the consumer, waiting for it if needed.
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super FileDigest> actionParam) {
+            if (done) {
+                return false;
+            }
+            Object next;
+            try {
+                next = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            }
+            if (next == END) {
+                done = true;
+                return false;
+            }
+            if (next instanceof RuntimeException error) {
+                done = true;
+                throw error;
+            }
+            inFlight.release();
+            actionParam.accept((FileDigest) next);
+            return true;
+        }
+
+        /**
+         * Cancels the manifest and stops walking the tree.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            if (walker != null) {
+                walker.interrupt();
+            }
+            entries.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import fr.tiogars.springbootfileandprocess.models.FileSearchQuery;
+
+/**
+ * Service interface for searching files through a metadata index of the
+ * configured directory trees.
+ */
+public interface FileIndexService {
+
+    /**
+     * Tells whether directory trees are configured to be indexed.
+     *
+     * @return true if the index is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Searches the index.
+     *
+     * @param query the search criteria
+     * @return the matching entries, sorted by name then path
+     * @throws IllegalArgumentException if the name glob is invalid
+     */
+    FileSearchResult search(FileSearchQuery query);
+}
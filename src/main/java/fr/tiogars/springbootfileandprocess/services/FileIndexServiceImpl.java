@@ -0,0 +1,703 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileSearchQuery;
+import fr.tiogars.springbootfileandprocess.models.SymlinkPolicy;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileIndexRepository;
+import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+import fr.tiogars.springbootfileandprocess.repository.IndexSegment;
+import fr.tiogars.springbootfileandprocess.repository.IndexedEntry;
+
+/**
+ * Implementation of the FileIndexService interface.
+ * <p>
+ * The index is an immutable segment sorted by name, overlaid with the
+ * changes reported by a {@link WatchService} since it was built. A
+ * background crawler walks the configured trees at startup and then
+ * periodically, or as soon as changes were lost, and replaces the segment
+ * with the result. Once the changes exceed the configured threshold, they
+ * are merged into a new segment. Each new segment is persisted, so that a
+ * restarted server answers searches from the previous index while it
+ * crawls again.
+ * </p>
+ * <p>
+ * Searches by name prefix, or by a glob starting with literal characters,
+ * only visit the matching range of the segment. Only the configured number
+ * of directories are watched: changes in other directories are picked up by
+ * the next crawl. Symbolic links are indexed but not followed.
+ * </p>
+ */
+@Service
+public class FileIndexServiceImpl implements FileIndexService, InitializingBean, DisposableBean {
+
+    /**
+     * Logger for FileIndexServiceImpl.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            FileIndexServiceImpl.class);
+
+    /**
+     * The file repository crawling the trees.
+     */
+    private final FileRepository fileRepository;
+
+    /**
+     * The repository persisting the index.
+     */
+    private final FileIndexRepository fileIndexRepository;
+
+    /**
+     * Settings of the index.
+     */
+    private final FileProperties.Index settings;
+
+    /**
+     * The indexed trees.
+     */
+    private final List<Path> roots;
+
+    /**
+     * Lock serializing the updates of the index; searches do not take it.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Monitor the crawler waits on between crawls.
+     */
+    private final Object crawlSignal = new Object();
+
+    /**
+     * The directories watched for changes.
+     */
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The current segment and the changes since it was built.
+     */
+    private volatile State state = new State(IndexSegment.empty());
+
+    /**
+     * Whether the index holds a complete crawl, current or persisted.
+     */
+    private volatile boolean ready;
+
+    /**
+     * Whether a crawl was requested before the next scheduled one.
+     */
+    private boolean crawlRequested;
+
+    /**
+     * The watch service, null while the index is disabled.
+     */
+    private WatchService watchService;
+
+    /**
+     * The thread crawling the trees.
+     */
+    private Thread crawler;
+
+    /**
+     * Constructor for FileIndexServiceImpl.
+     *
+     * @param fileRepositoryParam      the file repository crawling the trees
+     * @param fileIndexRepositoryParam the repository persisting the index
+     * @param filePropertiesParam      the file configuration
+     */
+    public FileIndexServiceImpl(final FileRepository fileRepositoryParam,
+            final FileIndexRepository fileIndexRepositoryParam, final FileProperties filePropertiesParam) {
+        this.fileRepository = fileRepositoryParam;
+        this.fileIndexRepository = fileIndexRepositoryParam;
+        this.settings = filePropertiesParam.getIndex();
+        this.roots = settings.getRoots().stream()
+                .map(root -> Path.of(root).toAbsolutePath().normalize())
+                .toList();
+    }
+
+    /**
+     * Loads the persisted index and starts crawling and watching the trees.
+     *
+     * @throws IOException if the watch service cannot be created
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            state = new State(fileIndexRepository.load(settings.getLocation()));
+            ready = true;
+            logger.info("Loaded {} indexed entries from {}", state.base.size(), settings.getLocation());
+        } catch (NoSuchFileException e) {
+            logger.debug("No persisted index at {}", settings.getLocation());
+        } catch (IOException e) {
+            logger.warn("Cannot load the persisted index {}: {}", settings.getLocation(), e.getMessage());
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        Thread watcher = new Thread(this::watch, "file-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        crawler = new Thread(this::crawlPeriodically, "file-index-crawler");
+        crawler.setDaemon(true);
+        crawler.start();
+    }
+
+    /**
+     * Stops crawling and watching the trees.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void destroy() throws IOException {
+        if (crawler != null) {
+            crawler.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Tells whether directory trees are configured to be indexed.
+     *
+     * @return true if the index is enabled
+     */
+    @Override
+    public boolean isEnabled() {
+        return !roots.isEmpty();
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query the search criteria
+     * @return the matching entries, sorted by name then path
+     * @throws IllegalArgumentException if the name glob is invalid
+     */
+    @Override
+    public FileSearchResult search(final FileSearchQuery query) {
+        int limit = query.getLimit() <= 0 ? settings.getMaxResults() : Math.min(query.getLimit(),
+                settings.getMaxResults());
+        String glob = query.getName();
+        PathMatcher matcher = glob == null || glob.isEmpty()
+                ? null
+                : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        String from = rangeOf(query.getPrefix(), glob);
+        if (from == null) {
+            return new FileSearchResult(List.of(), false, ready);
+        }
+        String under = query.getUnder() == null || query.getUnder().isEmpty()
+                ? null
+                : Path.of(query.getUnder()).toAbsolutePath().normalize().toString();
+
+        State current = state;
+        IndexSegment base = current.base;
+        boolean[] inScope = under == null ? null : directoriesUnder(base, under);
+        List<IndexedEntry> matches = new ArrayList<>();
+        for (int i = base.lowerBound(from); i < base.size() && matches.size() <= limit; i++) {
+            String name = base.name(i);
+            if (!name.startsWith(from)) {
+                break;
+            }
+            if ((inScope == null || inScope[base.parentId(i)])
+                    && matches(query, base.sizeOf(i), base.lastModifiedOf(i))
+                    && (matcher == null || matcher.matches(Path.of(name)))
+                    && !current.supersedes(name, base.parent(i))) {
+                matches.add(base.get(i));
+            }
+        }
+        current.changes.forEach((name, changes) -> {
+            if (!name.startsWith(from) || (matcher != null && !matcher.matches(Path.of(name)))) {
+                return;
+            }
+            for (Change change : changes.values()) {
+                IndexedEntry entry = change.entry();
+                if (entry != null && (under == null || isUnder(entry.parent(), under))
+                        && matches(query, entry.size(), entry.lastModified())) {
+                    matches.add(entry);
+                }
+            }
+        });
+
+        matches.sort(Comparator.comparing(IndexedEntry::name).thenComparing(IndexedEntry::parent));
+        boolean truncated = matches.size() > limit;
+        List<FileInfo> entries = matches.stream().limit(limit).map(FileIndexServiceImpl::toFileInfo).toList();
+        return new FileSearchResult(entries, truncated, ready);
+    }
+
+    /**
+     * Crawls the trees, then again at the configured interval or when
+     * requested, until interrupted.
+     */
+    private void crawlPeriodically() {
+        long intervalMillis = settings.getRescanInterval().toMillis();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                crawl();
+                synchronized (crawlSignal) {
+                    if (!crawlRequested) {
+                        crawlSignal.wait(intervalMillis);
+                    }
+                    crawlRequested = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requests a crawl without waiting for the next scheduled one.
+     */
+    private void requestCrawl() {
+        synchronized (crawlSignal) {
+            crawlRequested = true;
+            crawlSignal.notifyAll();
+        }
+    }
+
+    /**
+     * Crawls the trees into a new segment and replaces the index with it,
+     * keeping the changes reported meanwhile.
+     */
+    private void crawl() {
+        long startedAt = System.nanoTime();
+        IndexSegment.Builder builder = IndexSegment.builder();
+        for (Path root : roots) {
+            watch(root);
+            crawl(root, builder::add);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        IndexSegment segment = builder.build();
+
+        synchronized (lock) {
+            State crawled = new State(segment);
+            state.changes.forEach((name, changes) -> changes.forEach((parent, change) -> {
+                if (change.atNanos() - startedAt >= 0) {
+                    crawled.record(name, parent, change);
+                }
+            }));
+            state = crawled;
+        }
+        ready = true;
+        logger.info("Indexed {} entries in {} ms, watching {} directories", segment.size(),
+                (System.nanoTime() - startedAt) / 1_000_000, watchedDirectories.size());
+        save(segment);
+    }
+
+    /**
+     * Walks a tree, watching its directories.
+     *
+     * @param root     the root of the tree
+     * @param consumer the consumer of the entries of the tree
+     */
+    private void crawl(final Path root, final Consumer<IndexedEntry> consumer) {
+        WalkQuery query = new WalkQuery(root.toString());
+        query.setSymlinks(SymlinkPolicy.LIST);
+        try (Stream<FileEntry> entries = fileRepository.walk(query)) {
+            entries.forEach(entry -> {
+                if (entry.attributes().isDirectory()) {
+                    watch(entry.path());
+                }
+                consumer.accept(IndexedEntry.of(entry));
+            });
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Cannot index {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * Watches a directory for changes, unless enough directories are
+     * watched already.
+     *
+     * @param directory the directory
+     */
+    private void watch(final Path directory) {
+        if (watchedDirectories.size() >= settings.getMaxWatchedDirectories() || !watchedDirectories.add(directory)) {
+            return;
+        }
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | ClosedWatchServiceException e) {
+            watchedDirectories.remove(directory);
+            logger.debug("Cannot watch {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the reported changes to the index until the watch service is
+     * closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        logger.debug("Lost changes of {}, crawling again", directory);
+                        requestCrawl();
+                    } else {
+                        apply(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                }
+                compactIfNeeded();
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("File index watcher stopped");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies a change of an entry, re-reading it from the file system.
+     *
+     * @param path the entry
+     */
+    private void apply(final Path path) {
+        FileEntry entry;
+        try {
+            entry = fileRepository.readEntry(path.toString());
+        } catch (NoSuchFileException e) {
+            remove(path);
+            return;
+        } catch (IOException e) {
+            logger.debug("Cannot index {}: {}", path, e.getMessage());
+            return;
+        }
+
+        IndexedEntry indexed = IndexedEntry.of(entry);
+        boolean known = isKnownDirectory(path);
+        put(indexed);
+        if (indexed.directory() && !known) {
+            crawl(path, this::put);
+        }
+    }
+
+    /**
+     * Records an entry as present.
+     *
+     * @param entry the entry
+     */
+    private void put(final IndexedEntry entry) {
+        synchronized (lock) {
+            state.record(entry.name(), entry.parent(), new Change(entry, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Records an entry as removed and, if it is a known directory,
+     * everything below it.
+     *
+     * @param path the entry
+     */
+    private void remove(final Path path) {
+        long now = System.nanoTime();
+        String tree = path.toString();
+        synchronized (lock) {
+            State current = state;
+            boolean directory = isKnownDirectory(path);
+            current.record(path.getFileName().toString(), path.getParent().toString(), new Change(null, now));
+            if (!directory) {
+                return;
+            }
+            IndexSegment base = current.base;
+            base.forEachEntryUnder(tree, i -> current.record(base.name(i), base.parent(i), new Change(null, now)));
+            for (IndexedEntry entry : current.presentUnder(tree)) {
+                current.record(entry.name(), entry.parent(), new Change(null, now));
+            }
+        }
+    }
+
+    /**
+     * Tells whether a directory is already indexed with its content.
+     *
+     * @param path the directory
+     * @return true if entries of the directory are indexed
+     */
+    private boolean isKnownDirectory(final Path path) {
+        State current = state;
+        Map<String, Change> changes = current.changes.get(path.getFileName().toString());
+        Change change = changes == null ? null : changes.get(path.getParent().toString());
+        if (change != null) {
+            return change.entry() != null && change.entry().directory();
+        }
+        IndexSegment base = current.base;
+        String name = path.getFileName().toString();
+        String parent = path.getParent().toString();
+        for (int i = base.lowerBound(name); i < base.size() && base.name(i).equals(name); i++) {
+            if (base.parent(i).equals(parent)) {
+                return base.get(i).directory();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the changes into a new segment once they exceed the configured
+     * threshold, and persists it.
+     */
+    private void compactIfNeeded() {
+        IndexSegment segment;
+        synchronized (lock) {
+            State current = state;
+            if (current.count < settings.getCompactThreshold()) {
+                return;
+            }
+            IndexSegment.Builder builder = IndexSegment.builder();
+            IndexSegment base = current.base;
+            for (int i = 0; i < base.size(); i++) {
+                if (!current.supersedes(base.name(i), base.parent(i))) {
+                    builder.add(base.get(i));
+                }
+            }
+            current.changes.values().forEach(changes -> changes.values().stream()
+                    .map(Change::entry)
+                    .filter(entry -> entry != null)
+                    .forEach(builder::add));
+            segment = builder.build();
+            state = new State(segment);
+        }
+        logger.debug("Merged changes into an index of {} entries", segment.size());
+        save(segment);
+    }
+
+    /**
+     * Persists a segment.
+     *
+     * @param segment the segment
+     */
+    private void save(final IndexSegment segment) {
+        try {
+            fileIndexRepository.save(segment, settings.getLocation());
+        } catch (IOException e) {
+            logger.warn("Cannot persist the index to {}: {}", settings.getLocation(), e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the start of the range of names to visit.
+     *
+     * @param prefix the prefix the names must start with, or null
+     * @param glob   the glob the names must match, or null
+     * @return the prefix all matching names start with, or null if no name can match
+     */
+    private static String rangeOf(final String prefix, final String glob) {
+        String literal = "";
+        if (glob != null) {
+            int end = 0;
+            while (end < glob.length() && "*?[{\\".indexOf(glob.charAt(end)) < 0) {
+                end++;
+            }
+            literal = glob.substring(0, end);
+        }
+        String start = prefix == null ? "" : prefix;
+        if (literal.startsWith(start)) {
+            return literal;
+        }
+        return start.startsWith(literal) ? start : null;
+    }
+
+    /**
+     * Flags the directories of a segment lying in a tree.
+     *
+     * @param segment the segment
+     * @param tree    the root of the tree
+     * @return whether each directory of the segment table lies in the tree
+     */
+    private static boolean[] directoriesUnder(final IndexSegment segment, final String tree) {
+        boolean[] flags = new boolean[segment.directoryCount()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = isUnder(segment.directory(i), tree);
+        }
+        return flags;
+    }
+
+    /**
+     * Tells whether a directory lies in a tree.
+     *
+     * @param directory the directory
+     * @param tree      the root of the tree
+     * @return true if the directory is the root or below it
+     */
+    private static boolean isUnder(final String directory, final String tree) {
+        return directory.startsWith(tree) && (directory.length() == tree.length()
+                || directory.charAt(tree.length()) == File.separatorChar || tree.endsWith(File.separator));
+    }
+
+    /**
+     * Tells whether an entry matches the size and time criteria of a search.
+     *
+     * @param query        the search
+     * @param size         the size of the entry
+     * @param lastModified the last modification time of the entry
+     * @return true if the entry matches
+     */
+    private static boolean matches(final FileSearchQuery query, final long size, final long lastModified) {
+        return (query.getMinSize() == null || size >= query.getMinSize())
+                && (query.getMaxSize() == null || size <= query.getMaxSize())
+                && (query.getModifiedAfter() == null || lastModified >= query.getModifiedAfter())
+                && (query.getModifiedBefore() == null || lastModified < query.getModifiedBefore());
+    }
+
+    /**
+     * Converts an index entry to a FileInfo object.
+     *
+     * @param entry the entry
+     * @return the corresponding FileInfo object
+     */
+    private static FileInfo toFileInfo(final IndexedEntry entry) {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setName(entry.name());
+        fileInfo.setPath(entry.path());
+        fileInfo.setSize(entry.size());
+        fileInfo.setLastModified(entry.lastModified());
+        fileInfo.setDirectory(entry.directory());
+        fileInfo.setFile(entry.regularFile());
+        fileInfo.setHidden(entry.hidden());
+        return fileInfo;
+    }
+
+    /**
+     * A change of an entry.
+     *
+     * @param entry   the entry as read after the change, or null if it was removed
+     * @param atNanos the {@link System#nanoTime()} value the change was recorded at
+     */
+    private record Change(IndexedEntry entry, long atNanos) {
+    }
+
+    /**
+     * A segment and the changes recorded since it was built. The changes are
+     * only modified under the update lock, and their inner maps are replaced
+     * rather than modified, so that searches can read them concurrently.
+     */
+    private static final class State {
+
+        /**
+         * The segment.
+         */
+        private final IndexSegment base;
+
+        /**
+         * The changes by entry name, then by directory.
+         */
+        private final Map<String, Map<String, Change>> changes = new ConcurrentHashMap<>();
+
+        /**
+         * The names of the entries recorded as present, by directory; only
+         * used under the update lock.
+         */
+        private final NavigableMap<String, Set<String>> namesByParent = new TreeMap<>();
+
+        /**
+         * The number of changes.
+         */
+        private int count;
+
+        /**
+         * Constructs the state of a segment without changes.
+         *
+         * @param baseParam the segment
+         */
+        State(final IndexSegment baseParam) {
+            this.base = baseParam;
+        }
+
+        /**
+         * Records a change.
+         *
+         * @param name   the name of the entry
+         * @param parent the directory of the entry
+         * @param change the change
+         */
+        void record(final String name, final String parent, final Change change) {
+            changes.compute(name, (key, previous) -> {
+                Map<String, Change> updated = previous == null ? new HashMap<>(2) : new HashMap<>(previous);
+                if (updated.put(parent, change) == null) {
+                    count++;
+                }
+                return updated;
+            });
+            if (change.entry() != null) {
+                namesByParent.computeIfAbsent(parent, key -> new HashSet<>()).add(name);
+            } else {
+                Set<String> names = namesByParent.get(parent);
+                if (names != null && names.remove(name) && names.isEmpty()) {
+                    namesByParent.remove(parent);
+                }
+            }
+        }
+
+        /**
+         * Lists the entries recorded as present in a tree, only visiting the
+         * directories whose path starts with the root.
+         *
+         * @param tree the root of the tree
+         * @return the entries below the root
+         */
+        List<IndexedEntry> presentUnder(final String tree) {
+            String from = tree.endsWith(File.separator) ? tree : tree + File.separator;
+            String to = from.substring(0, from.length() - 1) + (char) (from.charAt(from.length() - 1) + 1);
+            List<IndexedEntry> present = new ArrayList<>();
+            namesByParent.subMap(tree, true, to, false).forEach((parent, names) -> {
+                if (isUnder(parent, tree)) {
+                    names.forEach(name -> present.add(changes.get(name).get(parent).entry()));
+                }
+            });
+            return present;
+        }
+
+        /**
+         * Tells whether the segment entry of a name and directory was changed.
+         *
+         * @param name   the name of the entry
+         * @param parent the directory of the entry
+         * @return true if the entry of the segment is outdated
+         */
+        boolean supersedes(final String name, final String parent) {
+            Map<String, Change> byParent = changes.get(name);
+            return byParent != null && byParent.containsKey(parent);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.List;
+
+/**
+ * A page of a directory listing.
+ */
+public class FileListPage {
+
+    /**
+     * The entries of the page.
+     */
+    private final List<FileInfo> entries;
+
+    /**
+     * The continuation token of the next page, or null on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param entriesParam    the entries of the page
+     * @param nextCursorParam the continuation token of the next page, or null
+     */
+    public FileListPage(final List<FileInfo> entriesParam, final String nextCursorParam) {
+        this.entries = entriesParam;
+        this.nextCursor = nextCursorParam;
+    }
+
+    /**
+     * Gets the entries of the page.
+     *
+     * @return the entries
+     */
+    public List<FileInfo> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the continuation token of the next page.
+     *
+     * @return the cursor of the next page, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,183 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of directory listings: latency by directory size, entries and
+ * response bytes per listing, and a log of slow listings.
+ * <p>
+ * The latency timer is tagged with the decade of the number of entries read,
+ * such as {@code <1000}, so that the cost of a listing can be followed as
+ * directories grow without a time series per directory. Listings returned
+ * whole ({@code mode=list}) and streamed listings ({@code mode=stream}),
+ * whose duration includes writing them to the client, are timed apart.
+ * </p>
+ */
+@Component
+public class FileListingMetrics {
+
+    /**
+     * The mode of listings read whole before being returned.
+     */
+    private static final String LIST = "list";
+
+    /**
+     * The mode of listings streamed to the client as they are read.
+     */
+    private static final String STREAM = "stream";
+
+    /**
+     * The upper bounds of the entry count buckets, in increasing order.
+     */
+    private static final long[] BUCKET_BOUNDS = {10, 100, 1_000, 10_000, 100_000};
+
+    /**
+     * The tags of the entry count buckets, the last one having no bound.
+     */
+    private static final String[] BUCKETS = {"<10", "<100", "<1000", "<10000", "<100000", ">=100000"};
+
+    /**
+     * Logger for FileListingMetrics.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            FileListingMetrics.class);
+
+    /**
+     * The latency timers of whole listings, by entry count bucket.
+     */
+    private final Timer[] listTimers = new Timer[BUCKETS.length];
+
+    /**
+     * The latency timers of streamed listings, by entry count bucket.
+     */
+    private final Timer[] streamTimers = new Timer[BUCKETS.length];
+
+    /**
+     * Entries read per listing.
+     */
+    private final DistributionSummary entries;
+
+    /**
+     * Bytes of the response per listing.
+     */
+    private final DistributionSummary responseBytes;
+
+    /**
+     * Duration beyond which a whole listing is logged, in nanoseconds, 0 to
+     * never log.
+     */
+    private final long slowThresholdNanos;
+
+    /**
+     * Constructor for FileListingMetrics.
+     *
+     * @param filePropertiesParam the file configuration
+     * @param meterRegistryParam  the registry publishing the listing metrics
+     */
+    public FileListingMetrics(final FileProperties filePropertiesParam, final MeterRegistry meterRegistryParam) {
+        Duration slowThreshold = filePropertiesParam.getListing().getSlowThreshold();
+        this.slowThresholdNanos = slowThreshold == null ? 0 : slowThreshold.toNanos();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            listTimers[i] = timer(LIST, BUCKETS[i], meterRegistryParam);
+            streamTimers[i] = timer(STREAM, BUCKETS[i], meterRegistryParam);
+        }
+        this.entries = DistributionSummary.builder("file.list.entries")
+                .description("Entries read per directory listing")
+                .publishPercentileHistogram()
+                .register(meterRegistryParam);
+        this.responseBytes = DistributionSummary.builder("file.list.response.bytes")
+                .description("Bytes of the response per directory listing")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistryParam);
+    }
+
+    /**
+     * Records a listing read whole, logging it if it was slow.
+     *
+     * @param directoryParam the directory listed
+     * @param nanosParam     the duration of the listing, in nanoseconds
+     * @param entriesParam   the number of entries read
+     */
+    public void record(final String directoryParam, final long nanosParam, final long entriesParam) {
+        listTimers[bucketOf(entriesParam)].record(nanosParam, TimeUnit.NANOSECONDS);
+        entries.record(entriesParam);
+        if (slowThresholdNanos > 0 && nanosParam >= slowThresholdNanos) {
+            logger.warn("Slow listing of {}: {} entries in {} ms", directoryParam, entriesParam,
+                    TimeUnit.NANOSECONDS.toMillis(nanosParam));
+        }
+    }
+
+    /**
+     * Measures a streamed listing: its entries are counted as they are
+     * consumed, and the listing is recorded when the stream is closed.
+     * Streamed listings are not logged as slow, as their duration depends on
+     * the client.
+     *
+     * @param <T>         the type of the listed entries
+     * @param streamParam the listing
+     * @return the measured listing
+     */
+    public <T> Stream<T> monitor(final Stream<T> streamParam) {
+        long start = System.nanoTime();
+        LongAdder count = new LongAdder();
+        return streamParam.peek(entry -> count.increment()).onClose(() -> {
+            long read = count.sum();
+            streamTimers[bucketOf(read)].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            entries.record(read);
+        });
+    }
+
+    /**
+     * Records the size of a listing response.
+     *
+     * @param bytesParam the bytes of the response body
+     */
+    public void recordResponse(final long bytesParam) {
+        responseBytes.record(bytesParam);
+    }
+
+    /**
+     * Gets the bucket of an entry count.
+     *
+     * @param entriesParam the number of entries
+     * @return the index of the bucket
+     */
+    static int bucketOf(final long entriesParam) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && entriesParam >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Registers the latency timer of a mode and bucket.
+     *
+     * @param modeParam          the listing mode
+     * @param bucketParam        the entry count bucket
+     * @param meterRegistryParam the registry
+     * @return the timer
+     */
+    private static Timer timer(final String modeParam, final String bucketParam,
+            final MeterRegistry meterRegistryParam) {
+        return Timer.builder("file.list")
+                .description("Latency of directory listings, by number of entries")
+                .tag("mode", modeParam)
+                .tag("entries", bucketParam)
+                .publishPercentileHistogram()
+                .register(meterRegistryParam);
+    }
+}
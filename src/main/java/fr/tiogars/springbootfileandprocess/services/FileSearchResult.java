@@ -0,0 +1,66 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.List;
+
+/**
+ * The results of a search of the file metadata index.
+ */
+public class FileSearchResult {
+
+    /**
+     * The matching entries, sorted by name then path.
+     */
+    private final List<FileInfo> entries;
+
+    /**
+     * Whether more entries matched than were returned.
+     */
+    private final boolean truncated;
+
+    /**
+     * Whether the indexed trees were crawled at least once.
+     */
+    private final boolean ready;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param entriesParam   the matching entries, sorted by name then path
+     * @param truncatedParam whether more entries matched than were returned
+     * @param readyParam     whether the indexed trees were crawled at least once
+     */
+    public FileSearchResult(final List<FileInfo> entriesParam, final boolean truncatedParam,
+            final boolean readyParam) {
+        this.entries = entriesParam;
+        this.truncated = truncatedParam;
+        this.ready = readyParam;
+    }
+
+    /**
+     * Gets the matching entries.
+     *
+     * @return the entries, sorted by name then path
+     */
+    public List<FileInfo> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Tells whether more entries matched than were returned.
+     *
+     * @return true if the results were cut at the limit
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Tells whether the indexed trees were crawled at least once, results
+     * being incomplete until then.
+     *
+     * @return true once the index is complete
+     */
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -1,6 +1,12 @@
 package fr.tiogars.springbootfileandprocess.services;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.stream.Stream;
+
+import fr.tiogars.springbootfileandprocess.models.FileListQuery;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
 
 /**
  * Service interface for managing files.
@@ -11,6 +17,62 @@ public interface FileService {
      * Lists files in a directory.
      * @param directory the directory to list files from
      * @return a list of file information objects
+     * @throws IOException if the directory cannot be read
+     */
+    List<FileInfo> listFiles(String directory) throws IOException;
+
+    /**
+     * Lists a page of the entries of a directory. When a limit is set the
+     * entries are sorted, by name unless another sort is requested, and
+     * memory use is bounded by the limit rather than the directory size.
+     *
+     * @param query the directory, filters, sort and page to list
+     * @return the page, with the cursor of the next page if any
+     * @throws IOException if the directory cannot be read
+     * @throws IllegalArgumentException if the glob or the cursor is invalid
+     */
+    FileListPage listFiles(FileListQuery query) throws IOException;
+
+    /**
+     * Streams the entries of a directory in their natural order, as the
+     * directory is read. The returned stream holds the directory open and
+     * must be closed.
+     *
+     * @param directory the directory to list files from
+     * @param glob      the glob the names must match, or null for all entries
+     * @return a lazily populated stream of file information objects
+     * @throws IOException if the directory cannot be opened
+     * @throws IllegalArgumentException if the path or the glob is invalid
+     */
+    Stream<FileInfo> streamFiles(String directory, String glob) throws IOException;
+
+    /**
+     * Walks a directory tree, reading directories in parallel. Entries come
+     * in no particular order. The returned stream must be closed, which
+     * cancels the walk if it is still running.
+     *
+     * @param query the root, depth, filters and link policy of the walk
+     * @return a lazily populated stream of file information objects
+     * @throws IOException if the root cannot be read or is not a directory
+     * @throws IllegalArgumentException if the path or a glob is invalid
+     */
+    Stream<FileInfo> walk(WalkQuery query) throws IOException;
+
+    /**
+     * Describes a single file or directory.
+     *
+     * @param path the path of the entry
+     * @return the file information object of the entry
+     * @throws IOException if the entry does not exist or cannot be read
+     */
+    FileInfo getFile(String path) throws IOException;
+
+    /**
+     * Opens the content of a file for reading.
+     *
+     * @param path the path of the file
+     * @return a channel positioned at the start of the file, to be closed
+     * @throws IOException if the file does not exist or cannot be read
      */
-    List<FileInfo> listFiles(String directory);
+    FileChannel openContent(String path) throws IOException;
 }
@@ -1,12 +1,29 @@
 package fr.tiogars.springbootfileandprocess.services;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileListQuery;
+import fr.tiogars.springbootfileandprocess.models.FileSort;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
 import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Implementation of the FileService interface.
@@ -21,19 +38,68 @@ public class FileServiceImpl implements FileService {
     private FileRepository fileRepository;
 
     /**
-     * Default constructor.
+     * Maximum number of entries per page.
      */
-    public FileServiceImpl() {
-        // Default constructor
+    private int maxLimit;
+
+    /**
+     * The cache of directory listings, or null to always read directories.
+     */
+    private DirectoryListingCache listingCache;
+
+    /**
+     * The metrics of directory listings.
+     */
+    private FileListingMetrics listingMetrics;
+
+    /**
+     * Constructor for FileServiceImpl, with the default file configuration.
+     *
+     * @param fileRepositoryParam the file repository to use
+     */
+    public FileServiceImpl(final FileRepository fileRepositoryParam) {
+        this(fileRepositoryParam, new FileProperties());
+    }
+
+    /**
+     * Constructor for FileServiceImpl, without listing cache.
+     *
+     * @param fileRepositoryParam the file repository to use
+     * @param filePropertiesParam the file configuration
+     */
+    public FileServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam) {
+        this(fileRepositoryParam, filePropertiesParam, null);
+    }
+
+    /**
+     * Constructor for FileServiceImpl, with listing metrics kept in memory
+     * only.
+     *
+     * @param fileRepositoryParam the file repository to use
+     * @param filePropertiesParam the file configuration
+     * @param listingCacheParam   the cache of directory listings, or null
+     */
+    public FileServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam,
+            final DirectoryListingCache listingCacheParam) {
+        this(fileRepositoryParam, filePropertiesParam, listingCacheParam,
+                new FileListingMetrics(filePropertiesParam, new SimpleMeterRegistry()));
     }
 
     /**
      * Constructor for FileServiceImpl.
      *
      * @param fileRepositoryParam the file repository to use
+     * @param filePropertiesParam the file configuration
+     * @param listingCacheParam   the cache of directory listings, or null
+     * @param listingMetricsParam the metrics of directory listings
      */
-    public FileServiceImpl(final FileRepository fileRepositoryParam) {
+    @Autowired
+    public FileServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam,
+            final DirectoryListingCache listingCacheParam, final FileListingMetrics listingMetricsParam) {
         this.fileRepository = fileRepositoryParam;
+        this.maxLimit = filePropertiesParam.getListing().getMaxLimit();
+        this.listingCache = listingCacheParam;
+        this.listingMetrics = listingMetricsParam;
     }
 
     /**
@@ -41,31 +107,215 @@ public class FileServiceImpl implements FileService {
      *
      * @param directoryParam the directory to list files from
      * @return a list of file information objects
+     * @throws IOException if the directory cannot be read
+     */
+    @Override
+    public List<FileInfo> listFiles(final String directoryParam) throws IOException {
+        long start = System.nanoTime();
+        try (Stream<FileInfo> infos = open(directoryParam, null)) {
+            List<FileInfo> files = infos.collect(Collectors.toList());
+            listingMetrics.record(directoryParam, System.nanoTime() - start, files.size());
+            return files;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lists a page of the entries of a directory. When a limit is set, only
+     * the first {@code limit + 1} entries after the cursor are kept while the
+     * directory is read, in a heap ordered by the sort. The listing is
+     * measured by the number of entries read, not returned.
+     *
+     * @param query the directory, filters, sort and page to list
+     * @return the page, with the cursor of the next page if any
+     * @throws IOException if the directory cannot be read
+     * @throws IllegalArgumentException if the glob or the cursor is invalid
+     */
+    @Override
+    public FileListPage listFiles(final FileListQuery query) throws IOException {
+        int limit = Math.min(query.getLimit(), maxLimit);
+        FileSort sort = query.getSort() == null && limit > 0 ? FileSort.NAME : query.getSort();
+        Comparator<FileInfo> order = sort == null ? null : comparatorOf(sort, query.isDescending());
+        FileInfo after = query.getCursor() == null || query.getCursor().isEmpty()
+                ? null
+                : decodeCursor(query.getCursor(), sort, query.isDescending());
+
+        long start = System.nanoTime();
+        long[] read = new long[1];
+        try (Stream<FileInfo> listing = open(query.getDirectory(), query.getGlob())) {
+            Stream<FileInfo> infos = listing.peek(info -> read[0]++);
+            if (after != null) {
+                infos = infos.filter(info -> order.compare(info, after) > 0);
+            }
+            if (limit <= 0) {
+                List<FileInfo> files = order == null ? infos.toList() : infos.sorted(order).toList();
+                listingMetrics.record(query.getDirectory(), System.nanoTime() - start, read[0]);
+                return new FileListPage(files, null);
+            }
+
+            PriorityQueue<FileInfo> first = new PriorityQueue<>(limit + 2, order.reversed());
+            infos.forEach(info -> {
+                first.add(info);
+                if (first.size() > limit + 1) {
+                    first.poll();
+                }
+            });
+            listingMetrics.record(query.getDirectory(), System.nanoTime() - start, read[0]);
+            List<FileInfo> page = new ArrayList<>(first);
+            page.sort(order);
+            if (page.size() <= limit) {
+                return new FileListPage(page, null);
+            }
+            page.remove(limit);
+            return new FileListPage(page, encodeCursor(page.get(limit - 1), sort, query.isDescending()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Streams the entries of a directory in their natural order, as the
+     * directory is read. The listing is measured when the stream is closed.
+     *
+     * @param directoryParam the directory to list files from
+     * @param globParam      the glob the names must match, or null for all entries
+     * @return a lazily populated stream of file information objects
+     * @throws IOException if the directory cannot be opened
+     */
+    @Override
+    public Stream<FileInfo> streamFiles(final String directoryParam, final String globParam) throws IOException {
+        return listingMetrics.monitor(fileRepository.listFiles(directoryParam, globParam)
+                .map(FileServiceImpl::toFileInfo));
+    }
+
+    /**
+     * Walks a directory tree, reading directories in parallel.
+     *
+     * @param query the root, depth, filters and link policy of the walk
+     * @return a lazily populated stream of file information objects
+     * @throws IOException if the root cannot be read or is not a directory
+     */
+    @Override
+    public Stream<FileInfo> walk(final WalkQuery query) throws IOException {
+        return fileRepository.walk(query).map(FileServiceImpl::toFileInfo);
+    }
+
+    /**
+     * Describes a single file or directory.
+     *
+     * @param path the path of the entry
+     * @return the file information object of the entry
+     * @throws IOException if the entry does not exist or cannot be read
+     */
+    @Override
+    public FileInfo getFile(final String path) throws IOException {
+        return toFileInfo(fileRepository.readEntry(path));
+    }
+
+    /**
+     * Opens the content of a file for reading.
+     *
+     * @param path the path of the file
+     * @return a channel positioned at the start of the file, to be closed
+     * @throws IOException if the file does not exist or cannot be read
      */
     @Override
-    public List<FileInfo> listFiles(final String directoryParam) {
-        List<File> files = fileRepository.listFiles(directoryParam);
-        return files.stream().map(file -> {
-            FileInfo fileInfo = toFileInfo(file);
-            return fileInfo;
-        }).collect(Collectors.toList());
+    public FileChannel openContent(final String path) throws IOException {
+        return fileRepository.openContent(path);
+    }
+
+    /**
+     * Opens the listing of a directory, from the listing cache when enabled.
+     *
+     * @param directory the directory to list files from
+     * @param glob      the glob the names must match, or null for all entries
+     * @return the entries of the directory, to be closed
+     * @throws IOException if the directory cannot be read
+     */
+    private Stream<FileInfo> open(final String directory, final String glob) throws IOException {
+        if (listingCache != null && listingCache.isEnabled()) {
+            return listingCache.listFiles(directory, glob);
+        }
+        return fileRepository.listFiles(directory, glob).map(FileServiceImpl::toFileInfo);
+    }
+
+    /**
+     * Builds the order of a sort, ties being broken by name.
+     *
+     * @param sort       the sort key
+     * @param descending whether the sort is descending
+     * @return the comparator
+     */
+    private static Comparator<FileInfo> comparatorOf(final FileSort sort, final boolean descending) {
+        Comparator<FileInfo> byName = Comparator.comparing(FileInfo::getName);
+        Comparator<FileInfo> order = switch (sort) {
+            case NAME -> byName;
+            case SIZE -> Comparator.comparingLong(FileInfo::getSize).thenComparing(byName);
+            case LAST_MODIFIED -> Comparator.comparingLong(FileInfo::getLastModified).thenComparing(byName);
+        };
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * Encodes the position of the last entry of a page as an opaque token.
+     *
+     * @param last       the last entry of the page
+     * @param sort       the sort key
+     * @param descending whether the sort is descending
+     * @return the cursor of the next page
+     */
+    private static String encodeCursor(final FileInfo last, final FileSort sort, final boolean descending) {
+        long value = switch (sort) {
+            case NAME -> 0;
+            case SIZE -> last.getSize();
+            case LAST_MODIFIED -> last.getLastModified();
+        };
+        String position = sort.name() + (descending ? "-" : "+") + "/" + value + "/" + last.getName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into a probe entry positioned where the next page
+     * starts.
+     *
+     * @param cursor     the cursor of the previous page
+     * @param sort       the sort key of the query
+     * @param descending whether the sort of the query is descending
+     * @return the probe entry
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    private static FileInfo decodeCursor(final String cursor, final FileSort sort, final boolean descending) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("/", 3);
+        if (sort == null || parts.length != 3 || !parts[0].equals(sort.name() + (descending ? "-" : "+"))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        long value = Long.parseLong(parts[1]);
+        FileInfo probe = new FileInfo();
+        probe.setName(parts[2]);
+        probe.setSize(value);
+        probe.setLastModified(value);
+        return probe;
     }
 
     /**
-     * Converts a File object to a FileInfo object.
+     * Converts a directory entry to a FileInfo object. A root has no file
+     * name, so it is named after its whole path.
      *
-     * @param file the file to convert
+     * @param entry the entry to convert
      * @return the corresponding FileInfo object
      */
-    private FileInfo toFileInfo(File file) {
+    static FileInfo toFileInfo(final FileEntry entry) {
+        BasicFileAttributes attributes = entry.attributes();
+        Path fileName = entry.path().getFileName();
         FileInfo fileInfo = new FileInfo();
-        fileInfo.setName(file.getName());
-        fileInfo.setPath(file.getPath());
-        fileInfo.setSize(file.length());
-        fileInfo.setLastModified(file.lastModified());
-        fileInfo.setDirectory(file.isDirectory());
-        fileInfo.setFile(file.isFile());
-        fileInfo.setHidden(file.isHidden());
+        fileInfo.setName(fileName == null ? entry.path().toString() : fileName.toString());
+        fileInfo.setPath(entry.path().toString());
+        fileInfo.setSize(attributes.size());
+        fileInfo.setLastModified(attributes.lastModifiedTime().toMillis());
+        fileInfo.setDirectory(attributes.isDirectory());
+        fileInfo.setFile(attributes.isRegularFile());
+        fileInfo.setHidden(entry.hidden());
         return fileInfo;
     }
 }
@@ -0,0 +1,46 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.FileTailHandler;
+
+/**
+ * Service interface for reading the end of files, such as logs.
+ */
+public interface FileTailService {
+
+    /**
+     * Reads the last lines of a file.
+     *
+     * @param path  the path of the file
+     * @param lines the number of lines, at most the configured maximum
+     * @return the last lines, without their line terminators
+     * @throws IOException if the file does not exist or cannot be read
+     * @throws IllegalArgumentException if the number of lines is negative
+     */
+    List<String> tail(String path, int lines) throws IOException;
+
+    /**
+     * Passes the last lines of a file to a handler, then the lines appended
+     * to it until the handler fails, the thread is interrupted or the
+     * configured maximum duration elapses. A rotated or truncated file is
+     * followed from the start of its new content.
+     *
+     * @param path    the path of the file
+     * @param lines   the number of lines read before following, at most the configured maximum
+     * @param handler the handler of the lines
+     * @throws IOException if the file cannot be read, or the handler fails
+     * @throws InterruptedException if the thread is interrupted while waiting for lines
+     * @throws IllegalArgumentException if the number of lines is negative
+     */
+    void follow(String path, int lines, FileTailHandler handler) throws IOException, InterruptedException;
+
+    /**
+     * Gets the maximum duration of a follow.
+     *
+     * @return the configured maximum follow duration
+     */
+    Duration getMaxFollow();
+}
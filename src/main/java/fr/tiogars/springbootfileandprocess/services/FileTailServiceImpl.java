@@ -0,0 +1,396 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileTailHandler;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepository;
+
+/**
+ * Implementation of the FileTailService interface.
+ * <p>
+ * The last lines are found by reading the file backwards from its end, one
+ * block at a time with positional reads, until enough line terminators were
+ * seen, so the cost depends on the length of the lines returned rather than
+ * on the size of the file. Followed files are polled: their size tells
+ * whether lines were appended or the file was truncated, and the identity
+ * of the file at the followed path tells whether it was rotated, in which
+ * case the new file is followed from its start. Lines are decoded as UTF-8.
+ * </p>
+ */
+@Service
+public class FileTailServiceImpl implements FileTailService {
+
+    /**
+     * Size of the blocks read from the file, in bytes.
+     */
+    private static final int BLOCK_SIZE = 8192;
+
+    /**
+     * How long a follow may stay idle before the handler is notified.
+     */
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    /**
+     * The file repository reading the files.
+     */
+    private final FileRepository fileRepository;
+
+    /**
+     * Settings of file tails.
+     */
+    private final FileProperties.Tail settings;
+
+    /**
+     * Constructor for FileTailServiceImpl.
+     *
+     * @param fileRepositoryParam the file repository reading the files
+     * @param filePropertiesParam the file configuration
+     */
+    public FileTailServiceImpl(final FileRepository fileRepositoryParam, final FileProperties filePropertiesParam) {
+        this.fileRepository = fileRepositoryParam;
+        this.settings = filePropertiesParam.getTail();
+    }
+
+    /**
+     * Reads the last lines of a file.
+     *
+     * @param path  the path of the file
+     * @param lines the number of lines, at most the configured maximum
+     * @return the last lines, without their line terminators
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    @Override
+    public List<String> tail(final String path, final int lines) throws IOException {
+        int count = countOf(lines);
+        regularFile(path);
+        List<String> result = new ArrayList<>();
+        try (FileChannel channel = fileRepository.openContent(path)) {
+            long end = channel.size();
+            LineSplitter splitter = new LineSplitter(settings.getMaxLineLength(), result::add);
+            read(channel, startOfLastLines(channel, end, count), end, splitter);
+            splitter.finish();
+        }
+        return result.size() > count ? List.copyOf(result.subList(result.size() - count, result.size())) : result;
+    }
+
+    /**
+     * Passes the last lines of a file to a handler, then the lines appended
+     * to it.
+     *
+     * @param path    the path of the file
+     * @param lines   the number of lines read before following, at most the configured maximum
+     * @param handler the handler of the lines
+     * @throws IOException if the file cannot be read, or the handler fails
+     * @throws InterruptedException if the thread is interrupted while waiting for lines
+     */
+    @Override
+    public void follow(final String path, final int lines, final FileTailHandler handler)
+            throws IOException, InterruptedException {
+        int count = countOf(lines);
+        Object identity = identityOf(regularFile(path).attributes());
+        FileChannel channel = fileRepository.openContent(path);
+        try {
+            LineSplitter splitter = new LineSplitter(settings.getMaxLineLength(), handler::onLine);
+            long size = channel.size();
+            long position = read(channel, startOfLastLines(channel, size, count), size, splitter);
+            handler.flush();
+
+            long pollMillis = Math.max(1, settings.getPollInterval().toMillis());
+            long deadline = System.nanoTime() + settings.getMaxFollow().toNanos();
+            long idleSince = System.nanoTime();
+            while (System.nanoTime() - deadline < 0) {
+                size = channel.size();
+                if (size > position) {
+                    position = read(channel, position, size, splitter);
+                    handler.flush();
+                    idleSince = System.nanoTime();
+                    continue;
+                }
+                if (size < position) {
+                    splitter.finish();
+                    handler.onRotated();
+                    position = 0;
+                    continue;
+                }
+                FileEntry current = readEntryIfExists(path);
+                if (current != null && current.attributes().isRegularFile()
+                        && !Objects.equals(identityOf(current.attributes()), identity)) {
+                    FileChannel rotated = fileRepository.openContent(path);
+                    channel.close();
+                    channel = rotated;
+                    identity = identityOf(current.attributes());
+                    splitter.finish();
+                    handler.onRotated();
+                    position = 0;
+                    continue;
+                }
+                if (System.nanoTime() - idleSince >= IDLE_NANOS) {
+                    handler.onIdle();
+                    idleSince = System.nanoTime();
+                }
+                Thread.sleep(pollMillis);
+            }
+            splitter.finish();
+            handler.onTimeout();
+            handler.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Gets the maximum duration of a follow.
+     *
+     * @return the configured maximum follow duration
+     */
+    @Override
+    public Duration getMaxFollow() {
+        return settings.getMaxFollow();
+    }
+
+    /**
+     * Checks a requested number of lines.
+     *
+     * @param lines the requested number of lines
+     * @return the number of lines, at most the configured maximum
+     */
+    private int countOf(final int lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("Negative number of lines: " + lines);
+        }
+        return Math.min(lines, settings.getMaxLines());
+    }
+
+    /**
+     * Reads the entry of a file, checking it is a regular file.
+     *
+     * @param path the path of the file
+     * @return the entry of the file
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    private FileEntry regularFile(final String path) throws IOException {
+        FileEntry entry = fileRepository.readEntry(path);
+        if (!entry.attributes().isRegularFile()) {
+            throw new IllegalArgumentException("Not a regular file: " + path);
+        }
+        return entry;
+    }
+
+    /**
+     * Reads the entry of a file which may be missing, as while it is
+     * rotated.
+     *
+     * @param path the path of the file
+     * @return the entry of the file, or null if it does not exist
+     * @throws IOException if the file cannot be read
+     */
+    private FileEntry readEntryIfExists(final String path) throws IOException {
+        try {
+            return fileRepository.readEntry(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the start of the last lines of a file, reading it backwards.
+     * The line terminator ending the file does not start a line. At most the
+     * maximum length of the lines is read per line, so that the first line
+     * may start within a longer line.
+     *
+     * @param channel the file
+     * @param end     the size of the file
+     * @param count   the number of lines
+     * @return the position of the first byte of the last lines
+     * @throws IOException if the file cannot be read
+     */
+    private long startOfLastLines(final FileChannel channel, final long end, final int count) throws IOException {
+        if (count == 0) {
+            return end;
+        }
+        long floor = Math.max(0, end - (long) (count + 1) * settings.getMaxLineLength());
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        long position = end;
+        int terminators = 0;
+        while (position > floor) {
+            int size = (int) Math.min(BLOCK_SIZE, position - floor);
+            position -= size;
+            buffer.clear().limit(size);
+            readFully(channel, buffer, position);
+            for (int i = size - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n' && position + i != end - 1 && ++terminators == count) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Reads a range of a file into a line splitter.
+     *
+     * @param channel  the file
+     * @param from     the first byte to read
+     * @param to       the byte after the last one to read
+     * @param splitter the line splitter
+     * @return the position after the last byte read
+     * @throws IOException if the file cannot be read, or a line cannot be handled
+     */
+    private static long read(final FileChannel channel, final long from, final long to,
+            final LineSplitter splitter) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(BLOCK_SIZE, to - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+            buffer.flip();
+            splitter.accept(buffer);
+        }
+        return position;
+    }
+
+    /**
+     * Fills a buffer from a position of a file.
+     *
+     * @param channel  the file
+     * @param buffer   the buffer
+     * @param position the position of the first byte to read
+     * @throws IOException if the file cannot be read or ends before the buffer is full
+     */
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("File truncated while being read");
+            }
+        }
+    }
+
+    /**
+     * Gets what identifies a file across renames.
+     *
+     * @param attributes the attributes of the file
+     * @return its file key where supported, its creation time otherwise
+     */
+    private static Object identityOf(final BasicFileAttributes attributes) {
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    /**
+     * Consumer of the lines split by a {@link LineSplitter}.
+     */
+    @FunctionalInterface
+    private interface LineConsumer {
+
+        /**
+         * Accepts a line.
+         *
+         * @param line the line, without its terminator
+         * @throws IOException if the line cannot be handled
+         */
+        void accept(String line) throws IOException;
+    }
+
+    /**
+     * Splits bytes into lines terminated by {@code \n} or {@code \r\n}.
+     * Lines longer than the maximum length are split at that length.
+     */
+    private static final class LineSplitter {
+
+        /**
+         * The maximum length of a line, in bytes.
+         */
+        private final int maxLength;
+
+        /**
+         * The consumer of the lines.
+         */
+        private final LineConsumer consumer;
+
+        /**
+         * The bytes of the current line.
+         */
+        private byte[] line = new byte[256];
+
+        /**
+         * The number of bytes of the current line.
+         */
+        private int length;
+
+        /**
+         * Constructs a line splitter.
+         *
+         * @param maxLengthParam the maximum length of a line, in bytes
+         * @param consumerParam  the consumer of the lines
+         */
+        LineSplitter(final int maxLengthParam, final LineConsumer consumerParam) {
+            this.maxLength = Math.max(1, maxLengthParam);
+            this.consumer = consumerParam;
+        }
+
+        /**
+         * Splits the remaining bytes of a buffer, keeping the last line until
+         * it is terminated.
+         *
+         * @param buffer the bytes
+         * @throws IOException if a line cannot be handled
+         */
+        void accept(final ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    emit(length > 0 && line[length - 1] == '\r' ? length - 1 : length);
+                    continue;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, Math.min(line.length * 2, maxLength));
+                }
+                line[length++] = b;
+                if (length == maxLength) {
+                    emit(length);
+                }
+            }
+        }
+
+        /**
+         * Passes the unterminated last line, if any, to the consumer.
+         *
+         * @throws IOException if the line cannot be handled
+         */
+        void finish() throws IOException {
+            if (length > 0) {
+                emit(length);
+            }
+        }
+
+        /**
+         * Passes the current line to the consumer and starts a new one.
+         *
+         * @param size the number of bytes of the line
+         * @throws IOException if the line cannot be handled
+         */
+        private void emit(final int size) throws IOException {
+            length = 0;
+            consumer.accept(new String(line, 0, size, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces identical concurrent executions (single flight).
+ * <p>
+ * The first caller for a key runs the execution; callers arriving with the
+ * same key while it is in flight wait for it and receive the same result,
+ * or the same failure, instead of starting another process. Only the
+ * interruption of the first caller is not shared: it concerns that caller
+ * alone, so a waiting caller runs the execution again.
+ * </p>
+ */
+@Component
+public class InFlightExecutions {
+
+    /**
+     * Logger for InFlightExecutions.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            InFlightExecutions.class);
+
+    /**
+     * The executions in flight by key.
+     */
+    private final Map<CommandKey, CompletableFuture<CommandResult>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Counter of callers that joined an execution in flight.
+     */
+    private final Counter coalesced;
+
+    /**
+     * Constructor for InFlightExecutions.
+     *
+     * @param meterRegistryParam the registry publishing the coalescing metrics
+     */
+    public InFlightExecutions(final MeterRegistry meterRegistryParam) {
+        this.coalesced = Counter.builder("process.coalesced")
+                .description("Executions served by joining an identical execution in flight")
+                .register(meterRegistryParam);
+    }
+
+    /**
+     * Runs the execution, or joins the identical one already in flight. If
+     * the caller running the execution is interrupted, a caller waiting for
+     * it runs it instead.
+     *
+     * @param keyParam       the key of the execution
+     * @param executionParam the execution to run if none is in flight
+     * @return the result of the execution
+     * @throws IOException          if the execution failed
+     * @throws InterruptedException if interrupted while running or waiting
+     */
+    public CommandResult execute(final CommandKey keyParam, final Execution executionParam)
+            throws IOException, InterruptedException {
+        while (true) {
+            CompletableFuture<CommandResult> own = new CompletableFuture<>();
+            CompletableFuture<CommandResult> existing = inFlight.putIfAbsent(keyParam, own);
+            if (existing == null) {
+                return run(keyParam, own, executionParam);
+            }
+            coalesced.increment();
+            logger.debug("Joining execution in flight of {}", keyParam.command());
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedException) {
+                    logger.debug("Execution in flight of {} was interrupted, taking over", keyParam.command());
+                    inFlight.remove(keyParam, existing);
+                    continue;
+                }
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException("Shared execution did not complete", cause);
+            }
+        }
+    }
+
+    /**
+     * Runs an execution and shares its outcome with the callers joining it.
+     *
+     * @param keyParam       the key of the execution
+     * @param ownParam       the future the joining callers wait for
+     * @param executionParam the execution
+     * @return the result of the execution
+     * @throws IOException          if the execution failed
+     * @throws InterruptedException if interrupted while running
+     */
+    private CommandResult run(final CommandKey keyParam, final CompletableFuture<CommandResult> ownParam,
+            final Execution executionParam) throws IOException, InterruptedException {
+        try {
+            CommandResult result = executionParam.execute();
+            ownParam.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            ownParam.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keyParam, ownParam);
+        }
+    }
+
+    /**
+     * An execution producing a command result.
+     */
+    @FunctionalInterface
+    public interface Execution {
+
+        /**
+         * Runs the execution.
+         *
+         * @return the result of the execution
+         * @throws IOException          if an I/O error occurs
+         * @throws InterruptedException if the execution is interrupted
+         */
+        CommandResult execute() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,25 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.List;
+
+import fr.tiogars.springbootfileandprocess.models.BatchCommand;
+import fr.tiogars.springbootfileandprocess.models.BatchResult;
+
+/**
+ * Service interface for executing batches of interdependent commands.
+ */
+public interface ProcessBatchService {
+
+    /**
+     * Executes a batch of commands, running independent commands in parallel
+     * and each command once all its dependencies succeeded.
+     *
+     * @param commandsParam the commands of the batch
+     * @return the outcome of each command, in request order
+     * @throws IllegalArgumentException if identifiers are missing or duplicated,
+     *                                  a dependency is unknown, the dependencies
+     *                                  form a cycle, or the batch is too large
+     * @throws InterruptedException     if interrupted while waiting for the batch
+     */
+    BatchResult execute(List<BatchCommand> commandsParam) throws InterruptedException;
+}
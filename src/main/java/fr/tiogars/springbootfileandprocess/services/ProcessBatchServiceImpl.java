@@ -0,0 +1,331 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.BatchCommand;
+import fr.tiogars.springbootfileandprocess.models.BatchCommandResult;
+import fr.tiogars.springbootfileandprocess.models.BatchResult;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.JobStatus;
+
+/**
+ * Implementation of the ProcessBatchService interface.
+ * <p>
+ * Commands are chained in dependency order: each one is handed to a
+ * fixed-size pool as soon as all its dependencies are done, so a batch
+ * finishes in the time of its critical path, bounded by the pool size. A
+ * command whose dependency did not succeed is skipped. When the caller is
+ * interrupted, the running commands of its batch are interrupted, which
+ * kills their processes, and the pending ones are not started.
+ * </p>
+ */
+@Service
+public class ProcessBatchServiceImpl implements ProcessBatchService, DisposableBean {
+
+    /**
+     * Logger for ProcessBatchServiceImpl.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            ProcessBatchServiceImpl.class);
+
+    /**
+     * The process service running the commands.
+     */
+    private final ProcessService processService;
+
+    /**
+     * The executor running the commands of all batches.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Maximum number of commands per batch.
+     */
+    private final int maxCommands;
+
+    /**
+     * Constructor for ProcessBatchServiceImpl.
+     *
+     * @param processServiceParam    the process service running the commands
+     * @param processPropertiesParam the process configuration
+     */
+    public ProcessBatchServiceImpl(final ProcessService processServiceParam,
+            final ProcessProperties processPropertiesParam) {
+        this.processService = processServiceParam;
+        ProcessProperties.Batch settings = processPropertiesParam.getBatch();
+        this.maxCommands = settings.getMaxCommands();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(settings.getParallelism(), settings.getParallelism(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "process-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Executes a batch of commands, running independent commands in parallel
+     * and each command once all its dependencies succeeded.
+     *
+     * @param commandsParam the commands of the batch
+     * @return the outcome of each command, in request order
+     * @throws IllegalArgumentException if the batch or one of its commands is
+     *                                  missing, identifiers are missing or
+     *                                  duplicated, a dependency is unknown, the
+     *                                  dependencies form a cycle, or the batch
+     *                                  is too large
+     * @throws InterruptedException     if interrupted while waiting for the batch
+     */
+    @Override
+    public BatchResult execute(final List<BatchCommand> commandsParam) throws InterruptedException {
+        if (commandsParam == null) {
+            throw invalid("A batch needs a list of commands");
+        }
+        if (commandsParam.size() > maxCommands) {
+            throw invalid("Batch of " + commandsParam.size() + " commands exceeds the limit of " + maxCommands);
+        }
+        List<BatchCommand> order = sortByDependencies(commandsParam);
+
+        long batchStart = System.nanoTime();
+        Submissions submissions = new Submissions();
+        Map<String, CompletableFuture<BatchCommandResult>> futures = new HashMap<>();
+        for (BatchCommand command : order) {
+            List<CompletableFuture<BatchCommandResult>> dependencies = dependenciesOf(command).stream()
+                    .map(futures::get)
+                    .toList();
+            CompletableFuture<BatchCommandResult> future = new CompletableFuture<>();
+            CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                    .thenRun(() -> submissions.submit(future, () -> run(command, dependencies, batchStart)));
+            futures.put(command.getId(), future);
+        }
+
+        List<BatchCommandResult> results = new ArrayList<>(commandsParam.size());
+        try {
+            for (BatchCommand command : commandsParam) {
+                results.add(futures.get(command.getId()).get());
+            }
+        } catch (InterruptedException e) {
+            submissions.cancel();
+            futures.values().forEach(future -> future.cancel(false));
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch execution failed", e.getCause());
+        }
+
+        long durationMillis = (System.nanoTime() - batchStart) / 1_000_000;
+        logger.debug("Batch of {} commands finished in {} ms", commandsParam.size(), durationMillis);
+        return new BatchResult(durationMillis, results);
+    }
+
+    /**
+     * Shuts the executor down, interrupting running commands.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs one command of a batch once its dependencies are done, or skips it
+     * if one of them did not succeed.
+     *
+     * @param command      the command to run
+     * @param dependencies the outcomes of its dependencies, all completed
+     * @param batchStart   the start of the batch, from {@link System#nanoTime()}
+     * @return the outcome of the command
+     */
+    private BatchCommandResult run(final BatchCommand command,
+            final List<CompletableFuture<BatchCommandResult>> dependencies, final long batchStart) {
+        for (CompletableFuture<BatchCommandResult> dependency : dependencies) {
+            BatchCommandResult outcome = dependency.join();
+            if (!outcome.isSucceeded()) {
+                return new BatchCommandResult(command.getId(), JobStatus.CANCELLED, null, 0, 0, null,
+                        "Dependency " + outcome.getId() + " did not succeed");
+            }
+        }
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        JobStatus status;
+        CommandResult result = null;
+        String error = null;
+        try {
+            result = processService.executeAndWaitForResponse(command.getCommand());
+            status = result.isTimedOut() ? JobStatus.TIMED_OUT : JobStatus.COMPLETED;
+        } catch (InterruptedException e) {
+            status = JobStatus.CANCELLED;
+            error = "Interrupted";
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Batch command {} failed: {}", command.getId(), e.getMessage());
+            status = JobStatus.FAILED;
+            error = e.getMessage();
+        }
+        long end = System.nanoTime();
+        return new BatchCommandResult(command.getId(), status, startedAt, (start - batchStart) / 1_000_000,
+                (end - start) / 1_000_000, result, error);
+    }
+
+    /**
+     * The commands of a batch handed to the executor, kept to interrupt them
+     * if the batch is abandoned: cancelling a {@link CompletableFuture} does
+     * not interrupt the thread completing it.
+     */
+    private final class Submissions {
+
+        /**
+         * The tasks submitted to the executor.
+         */
+        private final List<Future<?>> tasks = new ArrayList<>();
+
+        /**
+         * Whether the batch was abandoned.
+         */
+        private boolean cancelled;
+
+        /**
+         * Hands a command to the executor, unless the batch was abandoned.
+         *
+         * @param result  the future completed with the outcome of the command
+         * @param command the command
+         */
+        synchronized void submit(final CompletableFuture<BatchCommandResult> result,
+                final Supplier<BatchCommandResult> command) {
+            if (cancelled) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        result.complete(command.get());
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Abandons the batch, interrupting its running commands and
+         * dropping the queued ones.
+         */
+        synchronized void cancel() {
+            cancelled = true;
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    /**
+     * Validates the commands and their dependency graph, and sorts the
+     * commands so that each one comes after all its dependencies.
+     *
+     * @param commands the commands of the batch
+     * @return the commands in dependency order
+     * @throws IllegalArgumentException if a command or the graph is invalid
+     */
+    private List<BatchCommand> sortByDependencies(final List<BatchCommand> commands) {
+        Map<String, BatchCommand> byId = new LinkedHashMap<>();
+        for (BatchCommand command : commands) {
+            if (command == null) {
+                throw invalid("Batch commands cannot be null");
+            }
+            String id = command.getId();
+            if (id == null || id.isBlank()) {
+                throw invalid("Every batch command needs an id");
+            }
+            ExecutableCommand executableCommand = command.getCommand();
+            if (executableCommand == null || executableCommand.getCommand() == null
+                    || executableCommand.getCommand().isBlank()) {
+                throw invalid("Batch command " + id + " needs a command");
+            }
+            if (byId.putIfAbsent(id, command) != null) {
+                throw invalid("Duplicate batch command id " + id);
+            }
+        }
+
+        Map<String, Integer> pendingDependencies = new HashMap<>();
+        Map<String, List<BatchCommand>> dependents = new HashMap<>();
+        Deque<BatchCommand> ready = new ArrayDeque<>();
+        for (BatchCommand command : commands) {
+            List<String> dependencies = dependenciesOf(command);
+            for (String dependency : dependencies) {
+                if (!byId.containsKey(dependency)) {
+                    throw invalid("Batch command " + command.getId() + " depends on unknown command " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(command);
+            }
+            pendingDependencies.put(command.getId(), dependencies.size());
+            if (dependencies.isEmpty()) {
+                ready.add(command);
+            }
+        }
+
+        List<BatchCommand> order = new ArrayList<>(commands.size());
+        while (!ready.isEmpty()) {
+            BatchCommand command = ready.poll();
+            order.add(command);
+            for (BatchCommand dependent : dependents.getOrDefault(command.getId(), List.of())) {
+                if (pendingDependencies.merge(dependent.getId(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < commands.size()) {
+            throw invalid("Batch commands have cyclic dependencies");
+        }
+        return order;
+    }
+
+    /**
+     * Gets the distinct dependencies of a command.
+     *
+     * @param command the batch command
+     * @return the dependency identifiers, possibly empty
+     */
+    private static List<String> dependenciesOf(final BatchCommand command) {
+        if (command.getDependsOn() == null) {
+            return List.of();
+        }
+        return command.getDependsOn().stream().distinct().toList();
+    }
+
+    /**
+     * Logs and builds the exception reporting an invalid batch.
+     *
+     * @param message the reason the batch is invalid
+     * @return the exception to throw
+     */
+    private IllegalArgumentException invalid(final String message) {
+        logger.warn("Rejecting batch: {}", message);
+        return new IllegalArgumentException(message);
+    }
+}
@@ -0,0 +1,38 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessJob;
+
+/**
+ * Service interface for executing commands asynchronously as jobs.
+ */
+public interface ProcessJobService {
+
+    /**
+     * Submits a command for asynchronous execution.
+     *
+     * @param executableCommandParam the command to execute
+     * @return the queued job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    ProcessJob submit(ExecutableCommand executableCommandParam);
+
+    /**
+     * Gets a job by its identifier.
+     *
+     * @param jobIdParam the job identifier
+     * @return the job, or empty if unknown or expired
+     */
+    Optional<ProcessJob> getJob(String jobIdParam);
+
+    /**
+     * Cancels a job, killing its process if it is running.
+     *
+     * @param jobIdParam the job identifier
+     * @return the job in its resulting state, or empty if unknown or expired
+     */
+    Optional<ProcessJob> cancel(String jobIdParam);
+}
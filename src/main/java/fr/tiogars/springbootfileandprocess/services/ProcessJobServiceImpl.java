@@ -0,0 +1,227 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.JobStatus;
+import fr.tiogars.springbootfileandprocess.models.ProcessJob;
+
+/**
+ * Implementation of the ProcessJobService interface.
+ * <p>
+ * Jobs run on a fixed-size pool fed by a bounded queue: once the queue is
+ * full, submissions are rejected instead of piling up.
+ * </p>
+ */
+@Service
+public class ProcessJobServiceImpl implements ProcessJobService, DisposableBean {
+
+    /**
+     * Logger for ProcessJobServiceImpl.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            ProcessJobServiceImpl.class);
+
+    /**
+     * The process service running the commands.
+     */
+    private final ProcessService processService;
+
+    /**
+     * The executor running the jobs.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * How long finished jobs are kept.
+     */
+    private final Duration retention;
+
+    /**
+     * The known jobs by identifier.
+     */
+    private final Map<String, ProcessJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * The pending or running tasks by job identifier.
+     */
+    private final Map<String, Future<?>> futures = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for ProcessJobServiceImpl.
+     *
+     * @param processServiceParam    the process service running the commands
+     * @param processPropertiesParam the process configuration
+     */
+    public ProcessJobServiceImpl(final ProcessService processServiceParam,
+            final ProcessProperties processPropertiesParam) {
+        this.processService = processServiceParam;
+        ProcessProperties.Jobs settings = processPropertiesParam.getJobs();
+        this.retention = settings.getRetention();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(settings.getPoolSize(), settings.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "process-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Submits a command for asynchronous execution.
+     *
+     * @param executableCommandParam the command to execute
+     * @return the queued job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    @Override
+    public ProcessJob submit(final ExecutableCommand executableCommandParam) {
+        purgeExpiredJobs();
+
+        ProcessJob job = new ProcessJob(UUID.randomUUID().toString(), executableCommandParam, Instant.now());
+        jobs.put(job.getId(), job);
+        try {
+            futures.put(job.getId(), executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn("Job queue full, rejecting command {}", executableCommandParam.getCommand());
+            throw e;
+        }
+        if (job.getStatus().isTerminal()) {
+            futures.remove(job.getId());
+        }
+
+        logger.debug("Submitted job {}", job.getId());
+        return job;
+    }
+
+    /**
+     * Gets a job by its identifier.
+     *
+     * @param jobIdParam the job identifier
+     * @return the job, or empty if unknown or expired
+     */
+    @Override
+    public Optional<ProcessJob> getJob(final String jobIdParam) {
+        return Optional.ofNullable(jobs.get(jobIdParam));
+    }
+
+    /**
+     * Cancels a job, killing its process if it is running.
+     *
+     * @param jobIdParam the job identifier
+     * @return the job in its resulting state, or empty if unknown or expired
+     */
+    @Override
+    public Optional<ProcessJob> cancel(final String jobIdParam) {
+        ProcessJob job = jobs.get(jobIdParam);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        if (finish(job, JobStatus.CANCELLED, null, null)) {
+            Future<?> future = futures.remove(jobIdParam);
+            if (future != null) {
+                future.cancel(true);
+                executor.purge();
+            }
+            logger.info("Cancelled job {}", jobIdParam);
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Shuts the executor down, interrupting running jobs.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a job on a worker thread.
+     *
+     * @param job the job to run
+     */
+    private void run(final ProcessJob job) {
+        synchronized (job) {
+            if (job.getStatus() != JobStatus.QUEUED) {
+                return;
+            }
+            job.setStatus(JobStatus.RUNNING);
+            job.setStartedAt(Instant.now());
+        }
+
+        try {
+            CommandResult result = processService.executeAndWaitForResponse(job.getCommand());
+            finish(job, result.isTimedOut() ? JobStatus.TIMED_OUT : JobStatus.COMPLETED, result, null);
+        } catch (InterruptedException e) {
+            finish(job, JobStatus.CANCELLED, null, null);
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Job {} failed: {}", job.getId(), e.getMessage());
+            finish(job, JobStatus.FAILED, null, e.getMessage());
+        } finally {
+            futures.remove(job.getId());
+        }
+    }
+
+    /**
+     * Moves a job to a terminal status unless it already reached one.
+     *
+     * @param job    the job to update
+     * @param status the terminal status
+     * @param result the command result, if any
+     * @param error  the error message, if any
+     * @return true if the job was updated
+     */
+    private boolean finish(final ProcessJob job, final JobStatus status, final CommandResult result,
+            final String error) {
+        synchronized (job) {
+            if (job.getStatus().isTerminal()) {
+                return false;
+            }
+            job.setResult(result);
+            job.setError(error);
+            job.setFinishedAt(Instant.now());
+            job.setStatus(status);
+            return true;
+        }
+    }
+
+    /**
+     * Forgets finished jobs older than the configured retention.
+     */
+    private void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.getFinishedAt();
+            boolean expired = finishedAt != null && finishedAt.isBefore(cutoff);
+            if (expired) {
+                futures.remove(job.getId());
+            }
+            return expired;
+        });
+    }
+}
@@ -1,9 +1,11 @@
 package fr.tiogars.springbootfileandprocess.services;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessOutputHandler;
 
 /**
  * Service interface for executing and managing processes.
@@ -20,4 +22,25 @@ public interface ProcessService {
      */
     CommandResult executeAndWaitForResponse(ExecutableCommand executableCommandParam)
             throws IOException, InterruptedException;
+
+    /**
+     * Executes a command and forwards its output as it is produced.
+     *
+     * @param executableCommandParam the command to execute
+     * @param outputHandlerParam     the handler receiving the output lines
+     * @return the exit code of the command
+     * @throws IOException              if an I/O error occurs
+     * @throws InterruptedException     if the execution is interrupted
+     */
+    int executeAndStream(ExecutableCommand executableCommandParam, ProcessOutputHandler outputHandlerParam)
+            throws IOException, InterruptedException;
+
+    /**
+     * Gets the timeout a command runs with, its own or the configured
+     * default.
+     *
+     * @param executableCommandParam the command
+     * @return the timeout, zero for none
+     */
+    Duration getTimeout(ExecutableCommand executableCommandParam);
 }
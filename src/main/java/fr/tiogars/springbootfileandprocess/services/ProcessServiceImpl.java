@@ -1,11 +1,14 @@
 package fr.tiogars.springbootfileandprocess.services;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import org.springframework.stereotype.Service;
 
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessOutputHandler;
 import fr.tiogars.springbootfileandprocess.repository.ProcessRepository;
 
 /**
@@ -19,25 +22,138 @@ public class ProcessServiceImpl implements ProcessService {
      */
     private ProcessRepository processRepository;
 
+    /**
+     * The cache of results of cacheable commands.
+     */
+    private CommandResultCache commandResultCache;
+
+    /**
+     * The executions in flight, joined by identical concurrent requests.
+     */
+    private InFlightExecutions inFlightExecutions;
+
+    /**
+     * The scheduler enforcing the per working directory and per command limits.
+     */
+    private ExecutionScheduler executionScheduler;
+
+    /**
+     * Whether all identical executions are coalesced, not only cacheable ones.
+     */
+    private boolean coalesceAll;
+
+    /**
+     * Timeout applied to commands that do not set their own.
+     */
+    private Duration defaultTimeout;
+
     /**
      * Constructor for ProcessServiceImpl.
      *
-     * @param processRepositoryParam the process repository
+     * @param processRepositoryParam  the process repository
+     * @param commandResultCacheParam the cache of results of cacheable commands
+     * @param inFlightExecutionsParam the executions in flight
+     * @param executionSchedulerParam the scheduler enforcing the concurrency limits
+     * @param processPropertiesParam  the process configuration
      */
-    public ProcessServiceImpl(final ProcessRepository processRepositoryParam) {
+    public ProcessServiceImpl(final ProcessRepository processRepositoryParam,
+            final CommandResultCache commandResultCacheParam,
+            final InFlightExecutions inFlightExecutionsParam,
+            final ExecutionScheduler executionSchedulerParam,
+            final ProcessProperties processPropertiesParam) {
         this.processRepository = processRepositoryParam;
+        this.commandResultCache = commandResultCacheParam;
+        this.inFlightExecutions = inFlightExecutionsParam;
+        this.executionScheduler = executionSchedulerParam;
+        this.coalesceAll = processPropertiesParam.getExecution().isCoalesceAll();
+        this.defaultTimeout = processPropertiesParam.getExecution().getDefaultTimeout();
     }
 
     /**
-     * Executes a command and waits for the response.
+     * Executes a command and waits for the response. Results of cacheable
+     * commands are served from the cache when available, and concurrent
+     * identical cacheable commands share a single execution.
      *
      * @param executableCommandParam the command to execute
      * @return the result of the command execution
      * @throws IOException          if an I/O error occurs
      * @throws InterruptedException if the execution is interrupted
      */
+    @Override
     public CommandResult executeAndWaitForResponse(final ExecutableCommand executableCommandParam)
             throws IOException, InterruptedException {
-        return processRepository.executeAndWaitForResponse(executableCommandParam);
+        boolean cacheable = executableCommandParam.isCacheable();
+        if (!cacheable && !coalesceAll) {
+            return execute(executableCommandParam);
+        }
+
+        // Keyed before running, as the command may change its working directory
+        CommandKey cacheKey = cacheable ? commandResultCache.keyOf(executableCommandParam) : null;
+        if (cacheKey != null) {
+            CommandResult cached = commandResultCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return inFlightExecutions.execute(CommandKey.of(executableCommandParam, 0), () -> {
+            CommandResult result = execute(executableCommandParam);
+            if (cacheKey != null) {
+                commandResultCache.put(cacheKey, result);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Executes a command and forwards its output as it is produced.
+     *
+     * @param executableCommandParam the command to execute
+     * @param outputHandlerParam     the handler receiving the output lines
+     * @return the exit code of the command
+     * @throws IOException          if an I/O error occurs
+     * @throws InterruptedException if the execution is interrupted
+     */
+    @Override
+    public int executeAndStream(final ExecutableCommand executableCommandParam,
+            final ProcessOutputHandler outputHandlerParam) throws IOException, InterruptedException {
+        ExecutionScheduler.Permit permit = executionScheduler.acquire(executableCommandParam);
+        try {
+            return processRepository.executeAndStream(executableCommandParam, outputHandlerParam);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Gets the timeout a command runs with, its own or the configured
+     * default.
+     *
+     * @param executableCommandParam the command
+     * @return the timeout, zero for none
+     */
+    @Override
+    public Duration getTimeout(final ExecutableCommand executableCommandParam) {
+        if (executableCommandParam.getTimeoutMillis() > 0) {
+            return Duration.ofMillis(executableCommandParam.getTimeoutMillis());
+        }
+        return defaultTimeout;
+    }
+
+    /**
+     * Executes a command once admitted by the scheduler.
+     *
+     * @param executableCommandParam the command to execute
+     * @return the result of the command execution
+     * @throws IOException          if an I/O error occurs
+     * @throws InterruptedException if interrupted while waiting or executing
+     */
+    private CommandResult execute(final ExecutableCommand executableCommandParam)
+            throws IOException, InterruptedException {
+        ExecutionScheduler.Permit permit = executionScheduler.acquire(executableCommandParam);
+        try {
+            return processRepository.executeAndWaitForResponse(executableCommandParam);
+        } finally {
+            permit.close();
+        }
     }
 }
@@ -1,5 +1,6 @@
 package fr.tiogars.springbootfileandprocess.services;
 
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
 
 /**
  * Service interface for system operations.
@@ -12,4 +13,10 @@ public interface SystemService {
      */
     String getComputerName();
 
+    /**
+     * Gets the latest snapshot of the state of the system and of the JVM.
+     *
+     * @return the system information
+     */
+    SystemInfo getInfo();
 }
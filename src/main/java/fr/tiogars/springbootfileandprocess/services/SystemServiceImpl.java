@@ -1,28 +1,105 @@
 package fr.tiogars.springbootfileandprocess.services;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
+import fr.tiogars.springbootfileandprocess.config.SystemProperties;
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
 import fr.tiogars.springbootfileandprocess.repository.SystemRepository;
 
 
 /**
  * Implementation of {@link SystemService} for system operations.
+ * <p>
+ * The system information is sampled by a background thread at the
+ * configured interval into an immutable snapshot, so that serving it is a
+ * read of a volatile field, however many clients poll it. With a zero
+ * interval, the system is sampled on each request instead.
+ * </p>
  */
 @Service
-public class SystemServiceImpl implements SystemService {
+public class SystemServiceImpl implements SystemService, InitializingBean, DisposableBean {
+
+    /**
+     * Logger for system information.
+     */
+    private final Logger logger = LoggerFactory.getLogger(
+            SystemServiceImpl.class);
 
     /**
      * Repository for system information.
      */
     private final SystemRepository systemRepository;
 
+    /**
+     * Interval between two samplings, zero to sample on each request.
+     */
+    private final Duration refreshInterval;
+
+    /**
+     * The paths whose file store capacity is reported.
+     */
+    private final List<Path> diskPaths;
+
+    /**
+     * The latest snapshot, null until sampled in the background.
+     */
+    private volatile SystemInfo snapshot;
+
+    /**
+     * The thread sampling the system, null while not started.
+     */
+    private ScheduledExecutorService sampler;
+
     /**
      * Constructor for SystemServiceImpl.
      *
      * @param systemRepositoryParam The system repository interface.
+     * @param systemPropertiesParam The system configuration.
      */
-    public SystemServiceImpl(final SystemRepository systemRepositoryParam) {
+    public SystemServiceImpl(final SystemRepository systemRepositoryParam,
+            final SystemProperties systemPropertiesParam) {
         this.systemRepository = systemRepositoryParam;
+        this.refreshInterval = systemPropertiesParam.getInfo().getRefreshInterval();
+        this.diskPaths = systemPropertiesParam.getInfo().getDiskPaths().stream()
+                .map(Path::of)
+                .toList();
+    }
+
+    /**
+     * Takes the first snapshot and starts sampling the system in the
+     * background.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return;
+        }
+        snapshot = systemRepository.readSystemInfo(diskPaths);
+        sampler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("system-info-sampler").daemon().factory());
+        long intervalMillis = refreshInterval.toMillis();
+        sampler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling the system.
+     */
+    @Override
+    public void destroy() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
     }
 
     /**
@@ -34,4 +111,28 @@ public class SystemServiceImpl implements SystemService {
     public String getComputerName() {
         return systemRepository.getComputerName();
     }
+
+    /**
+     * Gets the latest snapshot, sampling the system if none was taken in the
+     * background.
+     *
+     * @return the system information
+     */
+    @Override
+    public SystemInfo getInfo() {
+        SystemInfo current = snapshot;
+        return current != null ? current : systemRepository.readSystemInfo(diskPaths);
+    }
+
+    /**
+     * Replaces the snapshot by a new sample, keeping the previous one if
+     * sampling fails.
+     */
+    private void refresh() {
+        try {
+            snapshot = systemRepository.readSystemInfo(diskPaths);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot sample the system information: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package fr.tiogars.springbootfileandprocess.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+import fr.tiogars.springbootfileandprocess.services.DirectoryListingCache;
+import fr.tiogars.springbootfileandprocess.services.FileInfo;
+import fr.tiogars.springbootfileandprocess.services.FileServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares the directory listing with the {@link File} based listing it
+ * replaced, which issued one {@code stat} per attribute and per entry, and
+ * with the listing served from the listing cache. The repository listing
+ * alone gives the cost of reading the directory, the difference with the
+ * service listing being the mapping of entries to {@link FileInfo}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileListingBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int entries;
+
+    private Path directory;
+
+    private FileRepositoryImpl fileRepository;
+
+    private FileServiceImpl fileService;
+
+    private DirectoryListingCache listingCache;
+
+    private FileServiceImpl cachedFileService;
+
+    /**
+     * Creates a directory holding the requested number of empty files.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-listing-benchmark");
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(directory.resolve("entry-" + i + ".txt"));
+        }
+        fileRepository = new FileRepositoryImpl();
+        fileService = new FileServiceImpl(fileRepository);
+        FileProperties properties = new FileProperties();
+        properties.getCache().setMaxEntries(Integer.MAX_VALUE);
+        listingCache = new DirectoryListingCache(new FileRepositoryImpl(), properties, new SimpleMeterRegistry());
+        cachedFileService = new FileServiceImpl(new FileRepositoryImpl(), properties, listingCache);
+    }
+
+    /**
+     * Deletes the directory.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        listingCache.destroy();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Lists with a directory stream and one attribute read per entry.
+     */
+    @Benchmark
+    public List<FileInfo> directoryStream() throws IOException {
+        return fileService.listFiles(directory.toString());
+    }
+
+    /**
+     * Reads the directory entries and their attributes, without mapping them.
+     */
+    @Benchmark
+    public List<FileEntry> repositoryListing() throws IOException {
+        try (Stream<FileEntry> files = fileRepository.listFiles(directory.toString())) {
+            return files.toList();
+        }
+    }
+
+    /**
+     * Lists from the listing cache, the directory being read once.
+     */
+    @Benchmark
+    public List<FileInfo> cachedListing() throws IOException {
+        return cachedFileService.listFiles(directory.toString());
+    }
+
+    /**
+     * Lists with {@link File#listFiles()} and one call per attribute.
+     */
+    @Benchmark
+    public List<FileInfo> fileListFiles() {
+        File[] files = directory.toFile().listFiles();
+        List<FileInfo> infos = new ArrayList<>(files.length);
+        for (File file : files) {
+            FileInfo fileInfo = new FileInfo();
+            fileInfo.setName(file.getName());
+            fileInfo.setPath(file.getPath());
+            fileInfo.setSize(file.length());
+            fileInfo.setLastModified(file.lastModified());
+            fileInfo.setDirectory(file.isDirectory());
+            fileInfo.setFile(file.isFile());
+            fileInfo.setHidden(file.isHidden());
+            infos.add(fileInfo);
+        }
+        return infos;
+    }
+}
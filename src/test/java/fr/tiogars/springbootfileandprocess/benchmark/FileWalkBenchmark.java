@@ -0,0 +1,114 @@
+package fr.tiogars.springbootfileandprocess.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+
+/**
+ * Compares the parallel recursive walk with a sequential {@link Files#walk}
+ * reading the attributes of every entry, on a tree of 4 subdirectories per
+ * directory holding a few files each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileWalkBenchmark {
+
+    private static final int FAN_OUT = 4;
+
+    private static final int FILES_PER_DIRECTORY = 8;
+
+    @Param({ "4", "6" })
+    private int depth;
+
+    private Path directory;
+
+    private FileRepositoryImpl fileRepository;
+
+    /**
+     * Creates the tree.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-walk-benchmark");
+        populate(directory, depth);
+        fileRepository = new FileRepositoryImpl();
+    }
+
+    /**
+     * Deletes the tree.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Walks with directories read in parallel.
+     */
+    @Benchmark
+    public long parallelWalk() throws IOException {
+        try (Stream<FileEntry> entries = fileRepository.walk(new WalkQuery(directory.toString()))) {
+            return entries.count();
+        }
+    }
+
+    /**
+     * Walks sequentially, reading the attributes of each entry.
+     */
+    @Benchmark
+    public long filesWalk() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.skip(1).map(FileWalkBenchmark::readAttributes).count();
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void populate(final Path parent, final int levels) throws IOException {
+        for (int i = 0; i < FILES_PER_DIRECTORY; i++) {
+            Files.createFile(parent.resolve("file-" + i + ".txt"));
+        }
+        if (levels == 0) {
+            return;
+        }
+        for (int i = 0; i < FAN_OUT; i++) {
+            populate(Files.createDirectory(parent.resolve("dir-" + i)), levels - 1);
+        }
+    }
+}
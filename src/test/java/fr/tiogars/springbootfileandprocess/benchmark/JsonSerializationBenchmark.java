@@ -0,0 +1,105 @@
+package fr.tiogars.springbootfileandprocess.benchmark;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.services.FileInfo;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Measures the JSON serialization of the largest responses: a command result
+ * holding its whole output, and a directory listing written as an array, as
+ * by {@code GET /file/list}, or as newline-delimited JSON, as by its streamed
+ * form. Output is discarded, so that only serialization is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    private JsonMapper jsonMapper;
+
+    private ObjectWriter lineWriter;
+
+    private CommandResult commandResult;
+
+    private List<FileInfo> files;
+
+    /**
+     * Builds a command result of {@code size} lines and a listing of
+     * {@code size} entries.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        lineWriter = jsonMapper.writerFor(FileInfo.class)
+                .withRootValueSeparator("\n")
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+
+        List<String> output = new ArrayList<>(size);
+        files = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            output.add("[INFO] Compiling source " + i + " of the synthetic module to target");
+            FileInfo file = new FileInfo();
+            file.setName("entry-" + i + ".txt");
+            file.setPath("/var/lib/synthetic/directory/entry-" + i + ".txt");
+            file.setSize(i * 31L);
+            file.setLastModified(now - i);
+            file.setFile(true);
+            files.add(file);
+        }
+        commandResult = new CommandResult(0, output, size, size * 60L, false, false);
+    }
+
+    /**
+     * Serializes the command result.
+     */
+    @Benchmark
+    public void commandResult() {
+        jsonMapper.writeValue(OutputStream.nullOutputStream(), commandResult);
+    }
+
+    /**
+     * Serializes the listing as a JSON array.
+     */
+    @Benchmark
+    public void fileInfoArray() {
+        jsonMapper.writeValue(OutputStream.nullOutputStream(), files);
+    }
+
+    /**
+     * Serializes the listing as newline-delimited JSON.
+     */
+    @Benchmark
+    public void fileInfoLines() {
+        try (SequenceWriter lines = lineWriter.writeValues(OutputStream.nullOutputStream())) {
+            files.forEach(lines::write);
+        }
+    }
+}
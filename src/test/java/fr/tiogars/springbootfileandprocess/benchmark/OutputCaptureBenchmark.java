@@ -0,0 +1,95 @@
+package fr.tiogars.springbootfileandprocess.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.tiogars.springbootfileandprocess.models.OutputChunk;
+import fr.tiogars.springbootfileandprocess.repository.OutputCapture;
+import fr.tiogars.springbootfileandprocess.repository.ProcessRepositoryImpl;
+import fr.tiogars.springbootfileandprocess.repository.StreamCapture;
+
+/**
+ * Measures the capture of process output read from memory, so that only the
+ * decoding and retention of lines is timed: the whole output, the bounded
+ * head and tail capture, and the chunked capture of separate streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputCaptureBenchmark {
+
+    private static final int HEAD_LINES = 1000;
+
+    private static final int TAIL_LINES = 1000;
+
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private static final long MAX_STREAM_BYTES = 16L * 1024 * 1024;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int lines;
+
+    private byte[] output;
+
+    /**
+     * Builds an output of lines of about 60 bytes, as printed by a build
+     * tool.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(lines * 64);
+        for (int i = 0; i < lines; i++) {
+            buffer.writeBytes(("[INFO] Compiling source " + i + " of the synthetic module to target\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        output = buffer.toByteArray();
+    }
+
+    /**
+     * Captures the whole output.
+     */
+    @Benchmark
+    public List<String> readOutput() throws IOException {
+        return ProcessRepositoryImpl.readOutput(new ByteArrayInputStream(output));
+    }
+
+    /**
+     * Captures the first and last lines of the output.
+     */
+    @Benchmark
+    public List<String> boundedCapture() throws IOException {
+        OutputCapture capture = new OutputCapture(HEAD_LINES, TAIL_LINES, MAX_LINE_LENGTH);
+        capture.read(new ByteArrayInputStream(output));
+        return capture.getLines();
+    }
+
+    /**
+     * Captures the output as timestamped chunks, as for separate streams.
+     */
+    @Benchmark
+    public List<OutputChunk> streamCapture() throws IOException {
+        StreamCapture capture = new StreamCapture("stdout", System.nanoTime(), MAX_STREAM_BYTES);
+        capture.read(new ByteArrayInputStream(output));
+        return capture.getChunks();
+    }
+}
@@ -0,0 +1,167 @@
+package fr.tiogars.springbootfileandprocess.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Tests event streams run on their own threads, so that long follows and
+ * process streams neither hold up the other streamed responses nor queue
+ * without limit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "stream.events.max-concurrent=10", "file.tail.max-follow=1m",
+        "process.execution.stream-heartbeat=200ms" })
+public class EventStreamExecutorTest {
+
+    /**
+     * Threads of the executor shared by the other streamed responses.
+     */
+    private static final int SHARED_THREADS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @TempDir
+    private Path directory;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    /**
+     * Test downloads are served while more follows are open than the shared
+     * executor has threads, and follows beyond the limit are refused.
+     */
+    @Test
+    public void testFollowsDoNotHoldUpOtherStreams() throws IOException, InterruptedException {
+        // Arrange
+        Path file = directory.resolve("app.log");
+        Files.writeString(file, "first\n");
+        String path = URLEncoder.encode(file.toString(), StandardCharsets.UTF_8);
+        HttpRequest follow = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                + "/file/tail?follow=true&pathParam=" + path)).timeout(Duration.ofSeconds(10)).build();
+        List<InputStream> follows = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                HttpResponse<InputStream> response = httpClient.send(follow,
+                        HttpResponse.BodyHandlers.ofInputStream());
+                follows.add(response.body());
+                assertEquals(200, response.statusCode(), "Follow " + i + " should be accepted");
+                assertTrue(readUntil(response.body(), "data: first"), "Follow " + i + " should send the last line");
+            }
+
+            // Act
+            HttpResponse<String> content = httpClient.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/file/content?pathParam=" + path))
+                    .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<Void> refused = httpClient.send(follow,
+                    HttpResponse.BodyHandlers.discarding());
+
+            // Assert
+            assertTrue(follows.size() > SHARED_THREADS, "More follows should be open than shared threads");
+            assertEquals(200, content.statusCode(), "Download should be served while follows are open");
+            assertEquals("first\n", content.body(), "Download should return the content");
+            assertEquals(429, refused.statusCode(), "Follows beyond the limit should be refused");
+            assertTrue(refused.headers().firstValue("Retry-After").isPresent(), "Refusal should tell when to retry");
+        } finally {
+            for (InputStream stream : follows) {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Test a command is streamed through the event stream executor, up to
+     * its exit code.
+     */
+    @Test
+    public void testProcessStream() throws IOException, InterruptedException {
+        // Arrange
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/process/stream"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"command\":\"echo\",\"arguments\":[\"hello\"],\"timeoutMillis\":10000}"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        // Act
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, response.statusCode(), "Stream should be accepted");
+        assertEquals("text/event-stream", response.headers().firstValue("Content-Type").orElse("")
+                .split(";")[0], "Stream should be a Server-Sent Events stream");
+        assertEquals("event: output\ndata: hello\n\nevent: exit\ndata: 0\n\n", response.body(),
+                "Stream should send the output then the exit code");
+    }
+
+    /**
+     * Test a silent command is destroyed once the client of its stream
+     * disconnected, found by a heartbeat.
+     */
+    @Test
+    public void testSilentProcessStreamEndsWithClient() throws IOException, InterruptedException {
+        // Arrange
+        String duration = "47.5";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/process/stream"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"command\":\"sleep\",\"arguments\":[\"" + duration + "\"]}"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertTrue(waitForSleep(duration, true), "The command should be running");
+
+        // Act
+        response.body().close();
+
+        // Assert
+        assertEquals(200, response.statusCode(), "Stream should be accepted");
+        assertTrue(waitForSleep(duration, false), "The command should be destroyed once the client is gone");
+    }
+
+    private static boolean waitForSleep(final String duration, final boolean running) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            boolean found = ProcessHandle.current().descendants()
+                    .anyMatch(process -> process.info().arguments()
+                            .map(arguments -> arguments.length == 1 && arguments[0].equals(duration))
+                            .orElse(false));
+            if (found == running) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private static boolean readUntil(final InputStream stream, final String expected) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package fr.tiogars.springbootfileandprocess.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Tests the file endpoints refuse to read or follow a root directory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class FileControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    /**
+     * The content of the root directory is a bad request.
+     */
+    @Test
+    public void testContentRejectsRoot() throws IOException, InterruptedException {
+        // Act
+        HttpResponse<String> response = get("/file/content?pathParam=/");
+
+        // Assert
+        assertEquals(400, response.statusCode(), "The root should not be readable as a file");
+    }
+
+    /**
+     * Following the root directory is a bad request.
+     */
+    @Test
+    public void testFollowRejectsRoot() throws IOException, InterruptedException {
+        // Act
+        HttpResponse<String> response = get("/file/tail?pathParam=/&follow=true");
+
+        // Assert
+        assertEquals(400, response.statusCode(), "The root should not be followed as a file");
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,107 @@
+package fr.tiogars.springbootfileandprocess.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.DurationStyle;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * End-to-end load test of the REST endpoints of an application started
+ * separately, reporting throughput and latency percentiles by endpoint.
+ * Run with {@code mvn test -P load-http}, after starting the application;
+ * the test is skipped when the application cannot be reached.
+ * <p>
+ * The load is configured with system properties:
+ * </p>
+ * <ul>
+ * <li>{@code load.target} - base URL of the application, {@code http://localhost:8181} by default</li>
+ * <li>{@code load.concurrency} - requests in flight, 16 by default</li>
+ * <li>{@code load.warmup} and {@code load.duration} - unrecorded and recorded periods, 5s and 30s by default</li>
+ * <li>{@code load.mix} - weights of the scenarios, {@code execute=2,sleep=1,list=2,hostname=2} by default</li>
+ * <li>{@code load.list-entries} - entries of the listed directory, 1000 by default</li>
+ * <li>{@code load.report} - JSON report file, {@code target/load-report.json} by default</li>
+ * </ul>
+ */
+@Tag("load-http")
+public class EndpointLoadTest {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Test the endpoints sustain the configured load without errors, and
+     * report their throughput and latency.
+     */
+    @Test
+    public void testEndpointLoad() throws IOException, InterruptedException {
+        // Arrange
+        URI target = URI.create(System.getProperty("load.target", "http://localhost:8181") + "/");
+        assumeTrue(isUp(target), "Application should be running at " + target);
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "5s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+        Map<String, Integer> mix = parseMix(System.getProperty("load.mix", "execute=2,sleep=1,list=2,hostname=2"));
+        for (int i = 0; i < Integer.getInteger("load.list-entries", 1000); i++) {
+            Files.createFile(directory.resolve("entry-" + i + ".txt"));
+        }
+
+        LoadGenerator generator = new LoadGenerator()
+                .add(LoadGenerator.Scenario.postJson("execute", target.resolve("process/execute"),
+                        "{\"command\":\"echo\",\"arguments\":[\"load\"]}"), mix.getOrDefault("execute", 0))
+                .add(LoadGenerator.Scenario.postJson("sleep", target.resolve("process/execute"),
+                        "{\"command\":\"sleep\",\"arguments\":[\"0.1\"]}"), mix.getOrDefault("sleep", 0))
+                .add(LoadGenerator.Scenario.get("list", target.resolve("file/list?directoryParam="
+                        + URLEncoder.encode(directory.toString(), StandardCharsets.UTF_8))),
+                        mix.getOrDefault("list", 0))
+                .add(LoadGenerator.Scenario.get("hostname", target.resolve("system/hostname")),
+                        mix.getOrDefault("hostname", 0));
+
+        // Act
+        LoadGenerator.Report report = generator.run(concurrency, warmup, duration);
+
+        // Assert
+        System.out.print(report.toTable());
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        assertEquals(0, report.getErrors(), "No request should fail");
+    }
+
+    private static boolean isUp(final URI target) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(target.resolve("actuator/health"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, Integer> parseMix(final String mix) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            weights.put(nameAndWeight[0].trim(), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,355 @@
+package fr.tiogars.springbootfileandprocess.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator: a fixed number of virtual threads each
+ * send a request, wait for its response, and send the next one, picking the
+ * scenario at random according to the weights of the mix.
+ * <p>
+ * Latencies are recorded per scenario after a warmup period, and reduced to
+ * percentiles once the run is over. As each thread waits for its response,
+ * a slow server lowers the offered load: the latencies do not include the
+ * time requests would have waited at a fixed arrival rate.
+ * </p>
+ */
+public class LoadGenerator {
+
+    /**
+     * The HTTP client shared by all the workers.
+     */
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * The scenarios and their weights, in declaration order.
+     */
+    private final Map<Scenario, Integer> mix = new LinkedHashMap<>();
+
+    /**
+     * Adds a scenario to the mix.
+     *
+     * @param scenarioParam the scenario
+     * @param weightParam   its weight relative to the other scenarios, 0 to leave it out
+     * @return this generator
+     */
+    public LoadGenerator add(final Scenario scenarioParam, final int weightParam) {
+        if (weightParam > 0) {
+            mix.put(scenarioParam, weightParam);
+        }
+        return this;
+    }
+
+    /**
+     * Runs the load.
+     *
+     * @param concurrencyParam the number of requests in flight
+     * @param warmupParam      how long the load runs before latencies are recorded
+     * @param durationParam    how long latencies are recorded
+     * @return the report of the recorded period
+     * @throws InterruptedException if interrupted while running
+     */
+    public Report run(final int concurrencyParam, final Duration warmupParam, final Duration durationParam)
+            throws InterruptedException {
+        List<Scenario> scenarios = new ArrayList<>(mix.keySet());
+        int[] cumulativeWeights = new int[scenarios.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            totalWeight += mix.get(scenarios.get(i));
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weightSum = totalWeight;
+
+        long recordFrom = System.nanoTime() + warmupParam.toNanos();
+        long stopAt = recordFrom + durationParam.toNanos();
+        List<Worker> workers = new ArrayList<>(concurrencyParam);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencyParam; i++) {
+                Worker worker = new Worker(scenarios.size());
+                workers.add(worker);
+                threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < stopAt && !Thread.currentThread().isInterrupted()) {
+                        int pick = random.nextInt(weightSum);
+                        int index = 0;
+                        while (cumulativeWeights[index] <= pick) {
+                            index++;
+                        }
+                        boolean ok = send(scenarios.get(index));
+                        long end = System.nanoTime();
+                        if (now >= recordFrom && end <= stopAt) {
+                            worker.record(index, end - now, ok);
+                        }
+                    }
+                });
+            }
+        }
+
+        Report report = new Report(concurrencyParam, durationParam);
+        for (int i = 0; i < scenarios.size(); i++) {
+            Samples merged = new Samples();
+            long errors = 0;
+            for (Worker worker : workers) {
+                merged.addAll(worker.latencies[i]);
+                errors += worker.errors[i];
+            }
+            report.add(new ScenarioReport(scenarios.get(i).name(), merged.sorted(), errors, durationParam));
+        }
+        return report;
+    }
+
+    /**
+     * Sends the request of a scenario and reads its response.
+     *
+     * @param scenarioParam the scenario
+     * @return true if the response status was 2xx
+     */
+    private boolean send(final Scenario scenarioParam) {
+        try {
+            HttpResponse<Void> response = httpClient.send(scenarioParam.request(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A named request sent repeatedly.
+     *
+     * @param name    the name of the scenario in the report
+     * @param request the request, reused by every send
+     */
+    public record Scenario(String name, HttpRequest request) {
+
+        /**
+         * Creates a GET scenario.
+         *
+         * @param nameParam the name of the scenario
+         * @param uriParam  the URI requested
+         * @return the scenario
+         */
+        public static Scenario get(final String nameParam, final URI uriParam) {
+            return new Scenario(nameParam, HttpRequest.newBuilder(uriParam).GET().build());
+        }
+
+        /**
+         * Creates a scenario posting a JSON body.
+         *
+         * @param nameParam the name of the scenario
+         * @param uriParam  the URI requested
+         * @param jsonParam the JSON body
+         * @return the scenario
+         */
+        public static Scenario postJson(final String nameParam, final URI uriParam, final String jsonParam) {
+            return new Scenario(nameParam, HttpRequest.newBuilder(uriParam)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonParam))
+                    .build());
+        }
+    }
+
+    /**
+     * The latencies and errors recorded by one worker thread.
+     */
+    private static final class Worker {
+
+        private final Samples[] latencies;
+
+        private final long[] errors;
+
+        Worker(final int scenariosParam) {
+            latencies = new Samples[scenariosParam];
+            for (int i = 0; i < scenariosParam; i++) {
+                latencies[i] = new Samples();
+            }
+            errors = new long[scenariosParam];
+        }
+
+        void record(final int scenarioParam, final long nanosParam, final boolean okParam) {
+            latencies[scenarioParam].add(nanosParam);
+            if (!okParam) {
+                errors[scenarioParam]++;
+            }
+        }
+    }
+
+    /**
+     * A growable array of latencies, in nanoseconds.
+     */
+    private static final class Samples {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        void add(final long valueParam) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = valueParam;
+        }
+
+        void addAll(final Samples samplesParam) {
+            for (int i = 0; i < samplesParam.size; i++) {
+                add(samplesParam.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * The results of one scenario.
+     *
+     * @param name       the name of the scenario
+     * @param requests   the number of requests completed during the recorded period
+     * @param errors     the number of requests that failed or got a non-2xx status
+     * @param throughput the requests per second
+     * @param p50Millis  the median latency, in milliseconds
+     * @param p99Millis  the 99th percentile latency, in milliseconds
+     * @param p999Millis the 99.9th percentile latency, in milliseconds
+     * @param maxMillis  the maximum latency, in milliseconds
+     */
+    public record ScenarioReport(String name, long requests, long errors, double throughput, double p50Millis,
+            double p99Millis, double p999Millis, double maxMillis) {
+
+        /**
+         * Reduces sorted latencies to a report.
+         *
+         * @param nameParam     the name of the scenario
+         * @param sortedParam   the latencies in nanoseconds, in increasing order
+         * @param errorsParam   the number of failed requests
+         * @param durationParam the recorded period
+         */
+        ScenarioReport(final String nameParam, final long[] sortedParam, final long errorsParam,
+                final Duration durationParam) {
+            this(nameParam, sortedParam.length, errorsParam,
+                    sortedParam.length / (durationParam.toNanos() / 1e9),
+                    percentile(sortedParam, 0.50), percentile(sortedParam, 0.99), percentile(sortedParam, 0.999),
+                    sortedParam.length == 0 ? 0 : sortedParam[sortedParam.length - 1] / 1e6);
+        }
+
+        /**
+         * Gets a percentile of sorted latencies, by the nearest-rank method.
+         *
+         * @param sortedParam   the latencies in nanoseconds, in increasing order
+         * @param quantileParam the quantile, between 0 and 1
+         * @return the percentile in milliseconds, 0 without latencies
+         */
+        static double percentile(final long[] sortedParam, final double quantileParam) {
+            if (sortedParam.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantileParam * sortedParam.length);
+            return sortedParam[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+
+    /**
+     * The results of a run.
+     */
+    public static final class Report {
+
+        private final int concurrency;
+
+        private final double durationSeconds;
+
+        private final List<ScenarioReport> scenarios = new ArrayList<>();
+
+        Report(final int concurrencyParam, final Duration durationParam) {
+            this.concurrency = concurrencyParam;
+            this.durationSeconds = durationParam.toMillis() / 1000.0;
+        }
+
+        void add(final ScenarioReport scenarioParam) {
+            scenarios.add(scenarioParam);
+        }
+
+        /**
+         * Gets the number of requests in flight.
+         *
+         * @return the concurrency
+         */
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        /**
+         * Gets the length of the recorded period.
+         *
+         * @return the duration in seconds
+         */
+        public double getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        /**
+         * Gets the results by scenario.
+         *
+         * @return the scenario reports
+         */
+        public List<ScenarioReport> getScenarios() {
+            return scenarios;
+        }
+
+        /**
+         * Gets the total number of failed requests.
+         *
+         * @return the number of errors
+         */
+        public long getErrors() {
+            return scenarios.stream().mapToLong(ScenarioReport::errors).sum();
+        }
+
+        /**
+         * Gets the total number of requests per second.
+         *
+         * @return the throughput of all scenarios
+         */
+        public double getThroughput() {
+            return scenarios.stream().mapToDouble(ScenarioReport::throughput).sum();
+        }
+
+        /**
+         * Formats the report as a table.
+         *
+         * @return the table
+         */
+        public String toTable() {
+            StringBuilder table = new StringBuilder(String.format("%-16s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (ScenarioReport scenario : scenarios) {
+                table.append(String.format("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", scenario.name(),
+                        scenario.requests(), scenario.errors(), scenario.throughput(), scenario.p50Millis(),
+                        scenario.p99Millis(), scenario.p999Millis(), scenario.maxMillis()));
+            }
+            table.append(String.format("%d requests in flight, %.1f req/s in total over %.0f s, %d errors%n",
+                    concurrency, getThroughput(), durationSeconds, getErrors()));
+            return table.toString();
+        }
+    }
+}
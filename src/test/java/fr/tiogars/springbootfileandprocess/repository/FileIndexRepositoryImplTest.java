@@ -0,0 +1,97 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for FileIndexRepositoryImpl class.
+ */
+public class FileIndexRepositoryImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private FileIndexRepositoryImpl fileIndexRepository;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        fileIndexRepository = new FileIndexRepositoryImpl();
+    }
+
+    /**
+     * Test a saved segment is loaded back with the same entries, in order.
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        // Arrange
+        IndexSegment segment = IndexSegment.builder()
+                .add(new IndexedEntry("/data/b", "report.pdf", 2048, 1_700_000_000_000L, false, true, false))
+                .add(new IndexedEntry("/data", "b", 4096, 1_700_000_001_000L, true, false, false))
+                .add(new IndexedEntry("/data/a", "report.pdf", 1024, 1_700_000_002_000L, false, true, false))
+                .add(new IndexedEntry("/data", ".hidden", 0, 1_700_000_003_000L, false, true, true))
+                .build();
+        String location = directory.resolve("nested/index.bin").toString();
+
+        // Act
+        fileIndexRepository.save(segment, location);
+        IndexSegment loaded = fileIndexRepository.load(location);
+
+        // Assert
+        assertEquals(entries(segment), entries(loaded), "Loaded entries should match saved entries");
+        assertEquals("/data/a", loaded.parent(2), "Entries should be sorted by name then directory");
+        assertEquals(List.of("index.bin"), names(directory.resolve("nested")), "Temporary file should be moved");
+    }
+
+    /**
+     * Test a missing index file is reported.
+     */
+    @Test
+    public void testLoadMissing() {
+        // Act & Assert
+        assertThrows(NoSuchFileException.class,
+                () -> fileIndexRepository.load(directory.resolve("missing.bin").toString()),
+                "Missing index should be reported");
+    }
+
+    /**
+     * Test a file which is not an index is rejected.
+     */
+    @Test
+    public void testLoadCorrupted() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("index.bin"), "not an index");
+
+        // Act & Assert
+        assertThrows(StreamCorruptedException.class, () -> fileIndexRepository.load(file.toString()),
+                "Foreign file should be rejected");
+    }
+
+    private static List<IndexedEntry> entries(final IndexSegment segment) {
+        List<IndexedEntry> entries = new ArrayList<>();
+        for (int i = 0; i < segment.size(); i++) {
+            entries.add(segment.get(i));
+        }
+        return entries;
+    }
+
+    private static List<String> names(final Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).toList();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.SymlinkPolicy;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+
+/**
+ * Unit tests for FileRepositoryImpl class.
+ */
+public class FileRepositoryImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private FileRepositoryImpl fileRepository;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        fileRepository = new FileRepositoryImpl();
+    }
+
+    /**
+     * Test entries are listed with their attributes.
+     */
+    @Test
+    public void testListFiles() throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("file.txt"), "hello");
+        Files.createDirectory(directory.resolve("sub"));
+
+        // Act
+        Map<String, FileEntry> entries = list();
+
+        // Assert
+        assertEquals(2, entries.size(), "Both entries should be listed");
+        FileEntry file = entries.get("file.txt");
+        assertEquals(directory.resolve("file.txt"), file.path(), "Path should be resolved against the directory");
+        assertEquals(5, file.attributes().size(), "Size should match");
+        assertTrue(file.attributes().isRegularFile(), "Should be a regular file");
+        assertTrue(entries.get("sub").attributes().isDirectory(), "Should be a directory");
+    }
+
+    /**
+     * Test dot files are reported as hidden.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testListFilesHidden() throws IOException {
+        // Arrange
+        Files.createFile(directory.resolve(".hidden"));
+        Files.createFile(directory.resolve("visible"));
+
+        // Act
+        Map<String, FileEntry> entries = list();
+
+        // Assert
+        assertTrue(entries.get(".hidden").hidden(), "Dot file should be hidden");
+        assertFalse(entries.get("visible").hidden(), "Other file should not be hidden");
+    }
+
+    /**
+     * Test a broken symbolic link is listed with the attributes of the link.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testListFilesBrokenLink() throws IOException {
+        // Arrange
+        Files.createSymbolicLink(directory.resolve("link"), directory.resolve("missing"));
+
+        // Act
+        Map<String, FileEntry> entries = list();
+
+        // Assert
+        assertTrue(entries.get("link").attributes().isSymbolicLink(), "Broken link should be listed as a link");
+    }
+
+    /**
+     * Test a missing directory is reported.
+     */
+    @Test
+    public void testListFilesMissingDirectory() {
+        // Act & Assert
+        assertThrows(NoSuchFileException.class,
+                () -> fileRepository.listFiles(directory.resolve("missing").toString()),
+                "Missing directory should be reported");
+    }
+
+    /**
+     * Test a walk reports the entries of the whole tree, up to the maximum depth.
+     */
+    @Test
+    public void testWalk() throws IOException {
+        // Arrange
+        Files.createDirectories(directory.resolve("a/b/c"));
+        Files.writeString(directory.resolve("a/b/file.txt"), "hello");
+        WalkQuery query = new WalkQuery(directory.toString());
+
+        // Act
+        Set<String> all = walk(query).keySet();
+        query.setMaxDepth(2);
+        Set<String> shallow = walk(query).keySet();
+
+        // Assert
+        assertEquals(Set.of("a", "a/b", "a/b/c", "a/b/file.txt"), all, "Whole tree should be walked");
+        assertEquals(Set.of("a", "a/b"), shallow, "Entries deeper than the maximum depth should be skipped");
+    }
+
+    /**
+     * Test include globs filter reported entries and exclude globs prune directories.
+     */
+    @Test
+    public void testWalkIncludeExclude() throws IOException {
+        // Arrange
+        Files.createDirectories(directory.resolve("src/main"));
+        Files.createDirectories(directory.resolve("target/classes"));
+        Files.createFile(directory.resolve("src/main/App.java"));
+        Files.createFile(directory.resolve("src/main/notes.txt"));
+        Files.createFile(directory.resolve("target/classes/App.java"));
+        WalkQuery query = new WalkQuery(directory.toString());
+        query.setInclude("**.java");
+        query.setExclude("target");
+
+        // Act
+        Set<String> entries = walk(query).keySet();
+
+        // Assert
+        assertEquals(Set.of("src/main/App.java"), entries, "Only included entries outside excluded trees should be reported");
+    }
+
+    /**
+     * Test how symbolic links to directories are handled by each policy.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testWalkSymlinks() throws IOException {
+        // Arrange
+        Files.createDirectories(directory.resolve("real"));
+        Files.createFile(directory.resolve("real/file"));
+        Files.createSymbolicLink(directory.resolve("link"), directory.resolve("real"));
+        Files.createSymbolicLink(directory.resolve("real/loop"), directory);
+        WalkQuery query = new WalkQuery(directory.toString());
+
+        // Act
+        query.setSymlinks(SymlinkPolicy.SKIP);
+        Set<String> skipped = walk(query).keySet();
+        query.setSymlinks(SymlinkPolicy.LIST);
+        Map<String, FileEntry> listed = walk(query);
+        query.setSymlinks(SymlinkPolicy.FOLLOW);
+        Map<String, FileEntry> followed = walk(query);
+
+        // Assert
+        assertEquals(Set.of("real", "real/file"), skipped, "Links should be skipped");
+        assertEquals(Set.of("real", "real/file", "real/loop", "link"), listed.keySet(), "Links should be listed, not walked into");
+        assertTrue(listed.get("link").attributes().isSymbolicLink(), "Listed link should keep its own attributes");
+        assertTrue(followed.get("link").attributes().isDirectory(), "Followed link should report its target");
+        assertEquals(Set.of("real", "real/file", "real/loop", "link"), followed.keySet(),
+                "Each directory should be walked into once, whatever the links leading to it");
+    }
+
+    /**
+     * Test a walk from a missing or non-directory root is reported.
+     */
+    @Test
+    public void testWalkInvalidRoot() throws IOException {
+        // Arrange
+        Files.createFile(directory.resolve("file"));
+
+        // Act & Assert
+        assertThrows(NoSuchFileException.class,
+                () -> fileRepository.walk(new WalkQuery(directory.resolve("missing").toString())),
+                "Missing root should be reported");
+        assertThrows(NotDirectoryException.class,
+                () -> fileRepository.walk(new WalkQuery(directory.resolve("file").toString())),
+                "File root should be reported");
+    }
+
+    /**
+     * Test closing a walk early stops it.
+     */
+    @Test
+    public void testWalkClosedEarly() throws IOException {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            Files.createDirectories(directory.resolve("d" + i + "/sub"));
+        }
+        FileRepositoryImpl smallBuffer = new FileRepositoryImpl(withWalkBuffer(4));
+
+        // Act
+        long read;
+        try (Stream<FileEntry> entries = smallBuffer.walk(new WalkQuery(directory.toString()))) {
+            read = entries.limit(3).count();
+        }
+
+        // Assert
+        assertEquals(3, read, "Walk should hand over entries before the tree is fully read");
+    }
+
+    private static FileProperties withWalkBuffer(final int bufferSize) {
+        FileProperties properties = new FileProperties();
+        properties.getWalk().setBufferSize(bufferSize);
+        return properties;
+    }
+
+    private Map<String, FileEntry> walk(final WalkQuery query) throws IOException {
+        try (Stream<FileEntry> entries = fileRepository.walk(query)) {
+            return entries.collect(Collectors.toMap(
+                    entry -> directory.relativize(entry.path()).toString().replace('\\', '/'),
+                    Function.identity()));
+        }
+    }
+
+    private Map<String, FileEntry> list() throws IOException {
+        try (Stream<FileEntry> entries = fileRepository.listFiles(directory.toString())) {
+            return entries.collect(Collectors.toMap(entry -> entry.path().getFileName().toString(),
+                    Function.identity()));
+        }
+    }
+}
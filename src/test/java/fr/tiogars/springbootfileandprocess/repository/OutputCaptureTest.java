@@ -0,0 +1,98 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+
+/**
+ * Unit tests for OutputCapture class.
+ */
+public class OutputCaptureTest {
+
+    /**
+     * Test an unbounded capture keeps every line and counts bytes.
+     */
+    @Test
+    public void testUnboundedKeepsEverything() throws IOException {
+        // Arrange
+        OutputCapture capture = OutputCapture.unbounded();
+
+        // Act
+        capture.read(stream("one\r\ntwo\rthree\n\nfour"));
+
+        // Assert
+        assertEquals(List.of("one", "two", "three", "", "four"), capture.getLines(), "Lines should match");
+        assertEquals(5, capture.getTotalLines(), "Should count 5 lines");
+        assertEquals(20, capture.getTotalBytes(), "Should count every byte");
+        assertFalse(capture.isTruncated(), "Should not be truncated");
+    }
+
+    /**
+     * Test a bounded capture keeps the head and the tail in order.
+     */
+    @Test
+    public void testBoundedKeepsHeadAndTail() throws IOException {
+        // Arrange
+        OutputCapture capture = new OutputCapture(2, 3, 100);
+        StringBuilder output = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            output.append("line").append(i).append('\n');
+        }
+
+        // Act
+        capture.read(stream(output.toString()));
+        CommandResult result = capture.toResult(0, false);
+
+        // Assert
+        assertEquals(List.of("line1", "line2", "line8", "line9", "line10"), result.getOutput(),
+                "Should keep the first 2 and last 3 lines");
+        assertEquals(10, result.getTotalLines(), "Should count every line");
+        assertEquals(output.length(), result.getTotalBytes(), "Should count every byte");
+        assertTrue(result.isTruncated(), "Should be truncated");
+    }
+
+    /**
+     * Test long lines are cut to the maximum length.
+     */
+    @Test
+    public void testLongLinesAreCut() throws IOException {
+        // Arrange
+        OutputCapture capture = new OutputCapture(10, 0, 4);
+
+        // Act
+        capture.read(stream("abcdefgh\nxy\n"));
+
+        // Assert
+        assertEquals(List.of("abcd", "xy"), capture.getLines(), "Long line should be cut");
+        assertTrue(capture.isTruncated(), "Should be truncated");
+    }
+
+    /**
+     * Test output fitting in the head is not reported as truncated.
+     */
+    @Test
+    public void testShortOutputNotTruncated() throws IOException {
+        // Arrange
+        OutputCapture capture = new OutputCapture(2, 2, 100);
+
+        // Act
+        capture.read(stream("a\nb\n"));
+
+        // Assert
+        assertEquals(List.of("a", "b"), capture.getLines(), "Lines should match");
+        assertFalse(capture.isTruncated(), "Should not be truncated");
+    }
+
+    private static ByteArrayInputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
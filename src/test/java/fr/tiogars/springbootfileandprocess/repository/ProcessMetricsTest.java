@@ -0,0 +1,104 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for ProcessMetrics class.
+ */
+public class ProcessMetricsTest {
+
+    private ProcessProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        properties = new ProcessProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Test commands beyond the maximum number of tags share the other tag.
+     */
+    @Test
+    public void testMaxCommandTags() {
+        // Arrange
+        properties.getMetrics().setMaxCommandTags(2);
+        ProcessMetrics processMetrics = new ProcessMetrics(properties, meterRegistry);
+
+        // Act
+        for (String command : List.of("/usr/bin/ls", "ls", "echo", "cat", "grep")) {
+            try (ProcessMetrics.Execution execution = processMetrics.start(command)) {
+                execution.spawned(1000);
+                execution.exited(0, false, 0);
+            }
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("process.exits").tag("command", "ls").counter().count(),
+                "Paths should be tagged by file name");
+        assertEquals(1, meterRegistry.get("process.exits").tag("command", "echo").counter().count(),
+                "Second command should be tagged by name");
+        assertEquals(2, meterRegistry.get("process.exits").tag("command", "other").counter().count(),
+                "Further commands should share the other tag");
+        assertEquals(3, meterRegistry.get("process.spawn").timers().size(),
+                "Only two commands and other should be tagged");
+    }
+
+    /**
+     * Test only the configured commands are tagged by name.
+     */
+    @Test
+    public void testCommands() {
+        // Arrange
+        properties.getMetrics().setCommands(List.of("git"));
+        ProcessMetrics processMetrics = new ProcessMetrics(properties, meterRegistry);
+
+        // Act & Assert
+        assertEquals("git", processMetrics.tagOf("/usr/bin/git"), "Configured command should be tagged");
+        assertEquals("other", processMetrics.tagOf("ls"), "Other commands should share the other tag");
+        assertEquals("other", processMetrics.tagOf(null), "Missing command should be tagged other");
+    }
+
+    /**
+     * Test outcomes are tagged by exit code, timeout or error.
+     */
+    @Test
+    public void testOutcomes() {
+        // Arrange
+        ProcessMetrics processMetrics = new ProcessMetrics(properties, meterRegistry);
+
+        // Act
+        try (ProcessMetrics.Execution execution = processMetrics.start("sh")) {
+            execution.spawned(1000);
+            execution.exited(137, true, 0);
+        }
+        try (ProcessMetrics.Execution execution = processMetrics.start("sh")) {
+            execution.spawned(1000);
+            execution.exited(-1, false, 0);
+        }
+        // Spawn failed
+        processMetrics.start("sh").close();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("process.exits").tag("exit.code", "timeout").counter().count(),
+                "Timed out execution should be tagged timeout");
+        assertEquals(1, meterRegistry.get("process.exits").tag("exit.code", "other").counter().count(),
+                "Unusual exit code should be tagged other");
+        assertEquals(1, meterRegistry.get("process.exits").tag("exit.code", "error").counter().count(),
+                "Failed spawn should be tagged error");
+        assertEquals(2, meterRegistry.get("process.duration").timer().count(),
+                "Failed spawn should have no runtime");
+    }
+}
@@ -1,6 +1,7 @@
 package fr.tiogars.springbootfileandprocess.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -12,7 +13,13 @@ import static org.mockito.Mockito.when;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,8 +27,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
 import fr.tiogars.springbootfileandprocess.models.CommandResult;
 import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.ProcessOutputHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 /**
@@ -271,4 +281,302 @@ public class ProcessRepositoryImplTest {
             processRepository.executeAndWaitForResponse(command);
         }, "Should throw NullPointerException for null arguments");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test interrupting the caller destroys the running process.
+     */
+    @Test
+    public void testExecuteAndWaitForResponseInterrupted() throws InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("sleep", "", "", new String[] { "30" });
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                processRepository.executeAndWaitForResponse(command);
+            } catch (IOException | InterruptedException e) {
+                thrown.set(e);
+            }
+        });
+
+        // Act
+        caller.start();
+        Thread.sleep(200);
+        caller.interrupt();
+        caller.join(5000);
+
+        // Assert
+        assertFalse(caller.isAlive(), "Caller should return promptly once interrupted");
+        assertTrue(thrown.get() instanceof InterruptedException, "Should throw InterruptedException");
+    }
+
+    /**
+     * Test executeAndStream forwards every line and flushes.
+     */
+    @Test
+    public void testExecuteAndStream() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("printf", "", "", new String[] { "a\\nb\\nc\\n" });
+        List<String> lines = new ArrayList<>();
+        AtomicInteger flushes = new AtomicInteger();
+
+        // Act
+        int exitCode = processRepository.executeAndStream(command, new ProcessOutputHandler() {
+            @Override
+            public void onLine(final String line) {
+                lines.add(line);
+            }
+
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        });
+
+        // Assert
+        assertEquals(0, exitCode, "Exit code should be 0 for successful execution");
+        assertEquals(List.of("a", "b", "c"), lines, "All lines should be forwarded in order");
+        assertTrue(flushes.get() > 0, "Handler should be flushed");
+    }
+
+    /**
+     * Test executeAndStream destroys the process when the handler fails.
+     */
+    @Test
+    public void testExecuteAndStreamHandlerFailure() {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("yes", "", "", new String[] {});
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> {
+            processRepository.executeAndStream(command, new ProcessOutputHandler() {
+                @Override
+                public void onLine(final String line) throws IOException {
+                    throw new IOException("Client gone");
+                }
+
+                @Override
+                public void flush() {
+                    // Nothing buffered
+                }
+            });
+        }, "Handler failure should be propagated");
+    }
+
+    /**
+     * Test the process limit serializes concurrent executions.
+     */
+    @Test
+    public void testMaxConcurrentProcesses() throws Exception {
+        // Arrange
+        ProcessProperties properties = new ProcessProperties();
+        properties.getExecution().setMaxConcurrentProcesses(1);
+        properties.getExecution().setVirtualThreads(true);
+        ProcessRepositoryImpl limitedRepository = new ProcessRepositoryImpl(properties);
+        ExecutableCommand command = new ExecutableCommand("sleep", "", "", new String[] { "0.2" });
+
+        // Act
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 3; i++) {
+                callers.submit(() -> limitedRepository.executeAndWaitForResponse(command));
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMillis >= 600, "Processes should run one at a time");
+    }
+
+    /**
+     * Test a command exceeding its timeout is killed with its children.
+     */
+    @Test
+    public void testExecuteAndWaitForResponseTimeout() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("sh", "", "",
+                new String[] { "-c", "echo started; sleep 30 & sleep 30" });
+        command.setTimeoutMillis(300);
+
+        // Act
+        long start = System.nanoTime();
+        CommandResult result = processRepository.executeAndWaitForResponse(command);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(result.isTimedOut(), "Result should be flagged as timed out");
+        assertEquals(List.of("started"), result.getOutput(), "Output before the timeout should be kept");
+        assertTrue(elapsedMillis < 5000, "Background child should be killed too");
+    }
+
+    /**
+     * Test a command finishing within its timeout is not flagged.
+     */
+    @Test
+    public void testExecuteAndWaitForResponseWithinTimeout() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("echo", "", "", new String[] { "fast" });
+        command.setTimeoutMillis(5000);
+
+        // Act
+        CommandResult result = processRepository.executeAndWaitForResponse(command);
+
+        // Assert
+        assertFalse(result.isTimedOut(), "Result should not be flagged as timed out");
+        assertEquals(0, result.getExitCode(), "Exit code should be 0 for successful execution");
+    }
+
+    /**
+     * Test executeAndStream reports a timeout to the handler.
+     */
+    @Test
+    public void testExecuteAndStreamTimeout() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("sleep", "", "", new String[] { "30" });
+        command.setTimeoutMillis(300);
+        AtomicInteger timeouts = new AtomicInteger();
+
+        // Act
+        processRepository.executeAndStream(command, new ProcessOutputHandler() {
+            @Override
+            public void onLine(final String line) {
+                // No output expected
+            }
+
+            @Override
+            public void flush() {
+                // Nothing buffered
+            }
+
+            @Override
+            public void onTimeout() {
+                timeouts.incrementAndGet();
+            }
+        });
+
+        // Assert
+        assertEquals(1, timeouts.get(), "Handler should be told about the timeout");
+    }
+
+    /**
+     * Test executeAndStream destroys a silent command once its client is
+     * gone, found by a heartbeat.
+     */
+    @Test
+    public void testExecuteAndStreamHeartbeatFailure() {
+        // Arrange
+        ProcessProperties properties = new ProcessProperties();
+        properties.getExecution().setStreamHeartbeat(Duration.ofMillis(100));
+        ProcessRepositoryImpl heartbeatRepository = new ProcessRepositoryImpl(properties);
+        ExecutableCommand command = new ExecutableCommand("sh", "", "",
+                new String[] { "-c", "sleep 30 & sleep 30" });
+        AtomicInteger heartbeats = new AtomicInteger();
+
+        // Act
+        long start = System.nanoTime();
+        IOException failure = assertThrows(IOException.class, () -> {
+            heartbeatRepository.executeAndStream(command, new ProcessOutputHandler() {
+                @Override
+                public void onLine(final String line) {
+                    // No output expected
+                }
+
+                @Override
+                public void flush() {
+                    // Nothing buffered
+                }
+
+                @Override
+                public void onIdle() throws IOException {
+                    heartbeats.incrementAndGet();
+                    throw new IOException("Client gone");
+                }
+            });
+        }, "Heartbeat failure should be propagated");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals("Client gone", failure.getMessage(), "The heartbeat failure should be thrown");
+        assertEquals(1, heartbeats.get(), "No heartbeat should follow a failed one");
+        assertTrue(elapsedMillis < 5000, "The process tree should be destroyed");
+    }
+
+    /**
+     * Test separate streams are captured apart.
+     */
+    @Test
+    public void testExecuteAndWaitForResponseSeparateStreams() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("sh", "", "",
+                new String[] { "-c", "echo out; echo err >&2" });
+        command.setSeparateStreams(true);
+
+        // Act
+        CommandResult result = processRepository.executeAndWaitForResponse(command);
+
+        // Assert
+        assertEquals(0, result.getExitCode(), "Exit code should be 0 for successful execution");
+        assertEquals("out\n", result.getStdout().get(0).getText(), "Stdout should be captured");
+        assertEquals("err\n", result.getStderr().get(0).getText(), "Stderr should be captured");
+        assertEquals("stderr", result.getStderr().get(0).getStream(), "Chunk should be tagged");
+        assertEquals(2, result.getTotalLines(), "Should count lines of both streams");
+    }
+
+    /**
+     * Test a command filling its stderr pipe does not block.
+     */
+    @Test
+    public void testExecuteAndWaitForResponseSeparateStreamsLargeStderr() throws IOException, InterruptedException {
+        // Arrange
+        ExecutableCommand command = new ExecutableCommand("sh", "", "",
+                new String[] { "-c", "head -c 1000000 /dev/zero >&2; echo done" });
+        command.setSeparateStreams(true);
+        command.setTimeoutMillis(10000);
+
+        // Act
+        CommandResult result = processRepository.executeAndWaitForResponse(command);
+
+        // Assert
+        assertFalse(result.isTimedOut(), "Command should not block on a full pipe");
+        assertEquals(1_000_005, result.getTotalBytes(), "Should count bytes of both streams");
+    }
+
+    /**
+     * Test executions are measured by command and exit code.
+     */
+    @Test
+    public void testMetrics() throws IOException, InterruptedException {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProcessRepositoryImpl meteredRepository = new ProcessRepositoryImpl(new ProcessProperties(), meterRegistry);
+        ExecutableCommand command = new ExecutableCommand("/bin/sh", "", "",
+                new String[] { "-c", "printf 'a\\nb\\n'; exit 3" });
+
+        // Act
+        meteredRepository.executeAndWaitForResponse(command);
+        meteredRepository.executeAndStream(command, new ProcessOutputHandler() {
+            @Override
+            public void onLine(final String lineParam) {
+                // Discarded
+            }
+
+            @Override
+            public void flush() {
+                // Nothing buffered
+            }
+        });
+
+        // Assert
+        assertEquals(2, meterRegistry.get("process.exits").tags("command", "sh", "exit.code", "3").counter().count(),
+                "Exits should be counted by command and exit code");
+        assertEquals(2, meterRegistry.get("process.duration").tag("command", "sh").timer().count(),
+                "Runtimes should be recorded");
+        assertEquals(2, meterRegistry.get("process.first.output").tag("command", "sh").timer().count(),
+                "Times to first output should be recorded");
+        assertEquals(8, meterRegistry.get("process.output.bytes").tag("command", "sh").summary().totalAmount(),
+                "Output bytes should be recorded");
+        assertEquals(4, meterRegistry.get("process.output.lines").tag("command", "sh").summary().totalAmount(),
+                "Output lines should be recorded");
+        assertEquals(0, meterRegistry.get("process.active").tag("command", "sh").gauge().value(),
+                "No process should be left in flight");
+    }
+}
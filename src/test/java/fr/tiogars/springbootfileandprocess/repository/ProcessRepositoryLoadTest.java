@@ -0,0 +1,72 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+
+/**
+ * Load test comparing concurrent execution throughput on platform and
+ * virtual threads. Run with {@code mvn test -P load-test}.
+ */
+@Tag("load")
+public class ProcessRepositoryLoadTest {
+
+    /**
+     * Number of commands executed per run.
+     */
+    private static final int EXECUTIONS = 200;
+
+    /**
+     * Size of the platform request pool, standing in for the servlet
+     * container worker threads.
+     */
+    private static final int PLATFORM_REQUEST_THREADS = 20;
+
+    /**
+     * Test concurrent executions complete on both threading models and
+     * report their throughput.
+     */
+    @Test
+    public void testConcurrentExecutionThroughput() throws Exception {
+        // Act
+        double platform = measure(false, Executors.newFixedThreadPool(PLATFORM_REQUEST_THREADS));
+        double virtual = measure(true, Executors.newVirtualThreadPerTaskExecutor());
+
+        // Assert
+        System.out.printf("%d x 'sleep 0.2': platform threads (%d) %.1f exec/s, virtual threads %.1f exec/s%n",
+                EXECUTIONS, PLATFORM_REQUEST_THREADS, platform, virtual);
+        assertTrue(platform > 0 && virtual > 0, "Both runs should complete");
+    }
+
+    private static double measure(final boolean virtualThreads, final ExecutorService requestThreads)
+            throws Exception {
+        ProcessProperties properties = new ProcessProperties();
+        properties.getExecution().setVirtualThreads(virtualThreads);
+        ProcessRepositoryImpl repository = new ProcessRepositoryImpl(properties);
+        ExecutableCommand command = new ExecutableCommand("sleep", "", "", new String[] { "0.2" });
+
+        long start = System.nanoTime();
+        try (requestThreads) {
+            List<Future<CommandResult>> results = new ArrayList<>();
+            for (int i = 0; i < EXECUTIONS; i++) {
+                results.add(requestThreads.submit(() -> repository.executeAndWaitForResponse(command)));
+            }
+            for (Future<CommandResult> result : results) {
+                assertEquals(0, result.get().getExitCode(), "Exit code should be 0");
+            }
+        }
+        return EXECUTIONS / ((System.nanoTime() - start) / 1e9);
+    }
+}
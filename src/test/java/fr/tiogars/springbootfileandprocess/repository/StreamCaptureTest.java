@@ -0,0 +1,107 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.models.OutputChunk;
+
+/**
+ * Unit tests for StreamCapture class.
+ */
+public class StreamCaptureTest {
+
+    /**
+     * Test chunks are tagged and carry the whole text.
+     */
+    @Test
+    public void testReadTagsChunks() throws IOException {
+        // Arrange
+        StreamCapture capture = new StreamCapture("stderr", System.nanoTime(), 1024);
+
+        // Act
+        capture.read(new ByteArrayInputStream("one\ntwo\n".getBytes(Charset.defaultCharset())));
+
+        // Assert
+        assertEquals("one\ntwo\n", text(capture), "Text should be kept");
+        assertTrue(capture.getChunks().stream().allMatch(chunk -> "stderr".equals(chunk.getStream())),
+                "Chunks should be tagged with the stream");
+        assertTrue(capture.getChunks().get(0).getTimestampNanos() >= 0, "Timestamp should be relative");
+        assertEquals(2, capture.getTotalLines(), "Should count 2 lines");
+        assertEquals(8, capture.getTotalBytes(), "Should count 8 bytes");
+        assertFalse(capture.isTruncated(), "Should not be truncated");
+    }
+
+    /**
+     * Test characters split across reads are decoded whole.
+     */
+    @Test
+    public void testReadKeepsSplitCharacters() throws IOException {
+        // Arrange
+        String content = "héllo €";
+        byte[] bytes = content.getBytes(Charset.defaultCharset());
+        InputStream oneByteAtATime = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(final byte[] buffer, final int offset, final int length) {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        StreamCapture capture = new StreamCapture("stdout", System.nanoTime(), 1024);
+
+        // Act
+        capture.read(oneByteAtATime);
+
+        // Assert
+        assertEquals(content, text(capture), "Text should be decoded whole");
+    }
+
+    /**
+     * Test output beyond the byte budget is dropped.
+     */
+    @Test
+    public void testReadTruncatesBeyondBudget() throws IOException {
+        // Arrange
+        byte[] bytes = new byte[200_000];
+        StreamCapture capture = new StreamCapture("stdout", System.nanoTime(), 70_000);
+
+        // Act
+        capture.read(new ByteArrayInputStream(bytes));
+
+        // Assert
+        assertTrue(text(capture).length() <= 70_000, "Kept text should fit the budget");
+        assertEquals(200_000, capture.getTotalBytes(), "Should count every byte");
+        assertTrue(capture.isTruncated(), "Should be truncated");
+    }
+
+    /**
+     * Test a character cut by the end of the stream counts against the
+     * budget, when the budget ends inside it.
+     */
+    @Test
+    public void testReadTruncatesInsideCharacter() throws IOException {
+        // Arrange
+        byte[] euro = "€".getBytes(Charset.defaultCharset());
+        byte[] bytes = { 'a', 'b', 'c', euro[0] };
+        StreamCapture capture = new StreamCapture("stdout", System.nanoTime(), 3);
+
+        // Act
+        capture.read(new ByteArrayInputStream(bytes));
+
+        // Assert
+        assertEquals("abc", text(capture), "Only the characters within the budget should be kept");
+        assertEquals(4, capture.getTotalBytes(), "Should count every byte");
+        assertTrue(capture.isTruncated(), "Should be truncated");
+    }
+
+    private static String text(final StreamCapture capture) {
+        return capture.getChunks().stream().map(OutputChunk::getText).collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,81 @@
+package fr.tiogars.springbootfileandprocess.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
+
+/**
+ * Unit tests for SystemRepositoryImpl class.
+ */
+public class SystemRepositoryImplTest {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Test the load average, memory and uptime are read from the proc file
+     * system, and the disk and JVM state from the JDK.
+     */
+    @Test
+    public void testReadSystemInfo() throws IOException {
+        // Arrange
+        Path proc = Files.createDirectories(directory.resolve("proc"));
+        Files.writeString(proc.resolve("loadavg"), "0.52 1.25 2.75 3/412 12345\n");
+        Files.writeString(proc.resolve("uptime"), "86400.42 170000.00\n");
+        Files.writeString(proc.resolve("meminfo"), "MemTotal:       16384 kB\n"
+                + "MemFree:         1024 kB\n"
+                + "MemAvailable:    8192 kB\n"
+                + "SwapTotal:       4096 kB\n"
+                + "SwapFree:        2048 kB\n"
+                + "HugePages_Total:    0\n");
+        SystemRepositoryImpl systemRepository = new SystemRepositoryImpl(proc);
+
+        // Act
+        SystemInfo info = systemRepository.readSystemInfo(List.of(directory));
+
+        // Assert
+        assertNotNull(info.hostName(), "Host name should be found");
+        assertEquals(86400, info.uptimeSeconds(), "Uptime should be read from /proc/uptime");
+        assertEquals(0.52, info.cpu().loadAverage1m(), "1 minute load should be read from /proc/loadavg");
+        assertEquals(1.25, info.cpu().loadAverage5m(), "5 minutes load should be read from /proc/loadavg");
+        assertEquals(2.75, info.cpu().loadAverage15m(), "15 minutes load should be read from /proc/loadavg");
+        assertEquals(Runtime.getRuntime().availableProcessors(), info.cpu().processors(),
+                "Processors should be those available to the JVM");
+        assertEquals(new SystemInfo.Memory(16384L * 1024, 8192L * 1024, 4096L * 1024, 2048L * 1024),
+                info.memory(), "Memory should be read from /proc/meminfo in bytes");
+        assertEquals(1, info.disks().size(), "The file store of the path should be reported");
+        assertEquals(directory.toString(), info.disks().get(0).path(), "Disk should name the configured path");
+        assertTrue(info.disks().get(0).totalBytes() > 0, "Disk size should be read");
+        assertTrue(info.jvm().threads() > 0, "Live threads should be counted");
+        assertTrue(info.jvm().heapUsedBytes() > 0, "Heap usage should be read");
+    }
+
+    /**
+     * Test the MXBeans are used where the proc file system is missing, and
+     * unreadable disk paths are left out.
+     */
+    @Test
+    public void testReadSystemInfoWithoutProc() {
+        // Arrange
+        SystemRepositoryImpl systemRepository = new SystemRepositoryImpl(directory.resolve("missing"));
+
+        // Act
+        SystemInfo info = systemRepository.readSystemInfo(List.of(directory.resolve("missing")));
+
+        // Assert
+        assertEquals(-1, info.uptimeSeconds(), "Uptime should be unknown");
+        assertEquals(-1, info.cpu().loadAverage5m(), "5 minutes load should be unknown");
+        assertTrue(info.memory().totalBytes() > 0, "Memory should be read from the MXBean");
+        assertTrue(info.disks().isEmpty(), "A missing path should be left out");
+    }
+}
@@ -0,0 +1,145 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.repository.ProcessRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for CommandResultCache class.
+ */
+public class CommandResultCacheTest {
+
+    private ProcessProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        properties = new ProcessProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Test a cached result is returned for an identical command only.
+     */
+    @Test
+    public void testGetReturnsCachedResult() {
+        // Arrange
+        CommandResultCache cache = new CommandResultCache(properties, meterRegistry);
+        CommandResult result = new CommandResult(0, List.of("1.0"));
+        cache.put(key("git", "rev-parse"), result);
+
+        // Act & Assert
+        assertSame(result, cache.get(key("git", "rev-parse")), "Identical command should hit");
+        assertNull(cache.get(key("git", "status")), "Different arguments should miss");
+        assertEquals(1, meterRegistry.counter("process.cache.gets", "result", "hit").count(), "Should count hits");
+        assertEquals(1, meterRegistry.counter("process.cache.gets", "result", "miss").count(), "Should count misses");
+    }
+
+    /**
+     * Test failed executions are not cached.
+     */
+    @Test
+    public void testPutIgnoresFailures() {
+        // Arrange
+        CommandResultCache cache = new CommandResultCache(properties, meterRegistry);
+
+        // Act
+        cache.put(key("git", "rev-parse"), new CommandResult(128, List.of("fatal")));
+
+        // Assert
+        assertNull(cache.get(key("git", "rev-parse")), "Failed result should not be cached");
+    }
+
+    /**
+     * Test entries expire after their time to live.
+     */
+    @Test
+    public void testGetExpiresEntries() throws InterruptedException {
+        // Arrange
+        properties.getCache().setTtl(Duration.ofMillis(50));
+        CommandResultCache cache = new CommandResultCache(properties, meterRegistry);
+        cache.put(key("java", "-version"), new CommandResult(0, List.of("21")));
+
+        // Act
+        Thread.sleep(100);
+
+        // Assert
+        assertNull(cache.get(key("java", "-version")), "Expired entry should miss");
+        assertEquals(0, cache.size(), "Expired entry should be removed");
+    }
+
+    /**
+     * Test the least recently used entry is evicted when full.
+     */
+    @Test
+    public void testPutEvictsLeastRecentlyUsed() {
+        // Arrange
+        properties.getCache().setMaxEntries(2);
+        CommandResultCache cache = new CommandResultCache(properties, meterRegistry);
+        cache.put(key("a"), new CommandResult(0, List.of()));
+        cache.put(key("b"), new CommandResult(0, List.of()));
+        cache.get(key("a"));
+
+        // Act
+        cache.put(key("c"), new CommandResult(0, List.of()));
+
+        // Assert
+        assertEquals(2, cache.size(), "Cache should stay bounded");
+        assertNull(cache.get(key("b")), "Least recently used entry should be evicted");
+    }
+
+    /**
+     * Test a command creating a file in its working directory is cached
+     * under the directory it ran against, so that the next run sees the
+     * file.
+     */
+    @Test
+    public void testResultKeyedBeforeExecution() throws IOException, InterruptedException {
+        // Arrange
+        Files.setLastModifiedTime(directory, FileTime.fromMillis(0));
+        CommandResultCache cache = new CommandResultCache(properties, meterRegistry);
+        ProcessServiceImpl processService = new ProcessServiceImpl(new ProcessRepositoryImpl(properties), cache,
+                new InFlightExecutions(meterRegistry), new ExecutionScheduler(properties, meterRegistry), properties);
+        ExecutableCommand command = new ExecutableCommand("sh", directory.toString(), "",
+                new String[] { "-c", "ls; touch created" });
+        command.setCacheable(true);
+
+        // Act
+        CommandResult first = processService.executeAndWaitForResponse(command);
+        CommandResult second = processService.executeAndWaitForResponse(command);
+        CommandResult third = processService.executeAndWaitForResponse(command);
+
+        // Assert
+        assertEquals(List.of(), first.getOutput(), "The first run should list an empty directory");
+        assertEquals(List.of("created"), second.getOutput(), "The changed directory should not be served the first result");
+        assertSame(second, third, "The unchanged directory should be served from the cache");
+    }
+
+    private static CommandKey key(final String name, final String... arguments) {
+        return CommandKey.of(new ExecutableCommand(name, "", "", arguments), 0);
+    }
+}
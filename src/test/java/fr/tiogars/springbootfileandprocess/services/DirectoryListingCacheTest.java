@@ -0,0 +1,258 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for DirectoryListingCache class.
+ */
+public class DirectoryListingCacheTest {
+
+    private static final long EVENT_TIMEOUT_MILLIS = 15000;
+
+    @TempDir
+    private Path directory;
+
+    private FileProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DirectoryListingCache cache;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        properties = new FileProperties();
+        cache = newCache();
+    }
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        cache.destroy();
+    }
+
+    /**
+     * Test a listed directory is served from the cache, with the glob applied.
+     */
+    @Test
+    public void testListFilesServedFromCache() throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("a.txt"), "a");
+        Files.writeString(directory.resolve("b.log"), "b");
+
+        // Act
+        Set<String> all = names(list(directory.toString(), null));
+        Set<String> logs = names(list(directory.toString(), "*.log"));
+
+        // Assert
+        assertEquals(Set.of("a.txt", "b.log"), all, "All entries should be listed");
+        assertEquals(Set.of("b.log"), logs, "Glob should filter cached entries");
+        assertEquals(1, meterRegistry.counter("file.cache.gets", "result", "miss").count(), "First listing should miss");
+        assertEquals(1, meterRegistry.counter("file.cache.gets", "result", "hit").count(), "Second listing should hit");
+    }
+
+    /**
+     * Test created, modified and deleted entries are patched into the cached listing.
+     */
+    @Test
+    public void testListFilesPatchedByEvents() throws IOException, InterruptedException {
+        // Arrange
+        Files.writeString(directory.resolve("kept.txt"), "1");
+        Files.writeString(directory.resolve("deleted.txt"), "1");
+        list(directory.toString(), null);
+
+        // Act
+        Files.writeString(directory.resolve("created.txt"), "1");
+        Files.writeString(directory.resolve("kept.txt"), "12345");
+        Files.delete(directory.resolve("deleted.txt"));
+
+        // Assert
+        Map<String, FileInfo> entries = awaitListing(listing -> listing.containsKey("created.txt")
+                && !listing.containsKey("deleted.txt") && listing.get("kept.txt").getSize() == 5);
+        assertEquals(Set.of("created.txt", "kept.txt"), entries.keySet(), "Changes should be applied");
+        assertEquals(1, meterRegistry.counter("file.cache.gets", "result", "miss").count(),
+                "Changes should be patched without reading the directory again");
+    }
+
+    /**
+     * Test the least recently listed directory is dropped once the cache is full.
+     */
+    @Test
+    public void testListFilesEvictsLeastRecentlyListed() throws IOException {
+        // Arrange
+        properties.getCache().setMaxDirectories(2);
+        cache.destroy();
+        cache = newCache();
+        Path first = Files.createDirectory(directory.resolve("first"));
+        Path second = Files.createDirectory(directory.resolve("second"));
+        Path third = Files.createDirectory(directory.resolve("third"));
+
+        // Act
+        list(first.toString(), null);
+        list(second.toString(), null);
+        list(first.toString(), null);
+        list(third.toString(), null);
+        list(first.toString(), null);
+        list(second.toString(), null);
+
+        // Assert
+        assertEquals(2, cache.size(), "Cache should be bounded");
+        assertEquals(2, meterRegistry.get("file.cache.size").gauge().value(), "Gauge should report the size");
+        assertEquals(2, meterRegistry.counter("file.cache.gets", "result", "hit").count(),
+                "Recently listed directory should stay cached");
+        assertEquals(4, meterRegistry.counter("file.cache.gets", "result", "miss").count(),
+                "Evicted directory should be read again");
+    }
+
+    /**
+     * Test directories with too many entries are not cached, are only read
+     * up to the limit once, and are then listed with the glob applied by
+     * the file system.
+     */
+    @Test
+    public void testListFilesSkipsLargeDirectories() throws IOException {
+        // Arrange
+        properties.getCache().setMaxEntries(1);
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger read = new AtomicInteger();
+        cache.destroy();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DirectoryListingCache(new FileRepositoryImpl() {
+            @Override
+            public Stream<FileEntry> listFiles(final String directoryParam, final String globParam)
+                    throws IOException {
+                opened.incrementAndGet();
+                return super.listFiles(directoryParam, globParam).peek(entry -> read.incrementAndGet());
+            }
+        }, properties, meterRegistry);
+        for (String name : List.of("a.txt", "b.txt", "c.txt", "d.log", "e.log")) {
+            Files.createFile(directory.resolve(name));
+        }
+
+        // Act
+        Set<String> all = names(list(directory.toString(), null));
+        int readOnMiss = read.getAndSet(0);
+        Set<String> logs = names(list(directory.toString(), "*.log"));
+
+        // Assert
+        assertEquals(0, cache.size(), "Large directory should not be cached");
+        assertEquals(5, all.size(), "Large directory should be listed entirely");
+        assertEquals(2 + 5, readOnMiss, "Reading for the cache should stop past the limit");
+        assertEquals(Set.of("d.log", "e.log"), logs, "Glob should be applied");
+        assertEquals(2, read.get(), "Only matching entries should be read once the directory is known large");
+        assertEquals(3, opened.get(), "Known large directory should not be read for caching again");
+    }
+
+    /**
+     * Test the entries of a relative directory have the same paths whether
+     * they are served from the cache or not.
+     */
+    @Test
+    public void testListFilesKeepsRelativePaths() throws IOException {
+        // Arrange
+        Path relative = Files.createTempDirectory(Path.of("target"), "listing-");
+        try {
+            Files.createFile(relative.resolve("a.txt"));
+            Files.createDirectory(relative.resolve("sub"));
+            Set<String> expected;
+            try (Stream<FileEntry> entries = new FileRepositoryImpl().listFiles(relative.toString(), null)) {
+                expected = entries.map(entry -> FileServiceImpl.toFileInfo(entry).getPath())
+                        .collect(Collectors.toSet());
+            }
+
+            // Act
+            Set<String> missed = paths(list(relative.toString(), null));
+            Set<String> hit = paths(list(relative.toString(), null));
+
+            // Assert
+            assertEquals(Set.of(relative.resolve("a.txt").toString(), relative.resolve("sub").toString()),
+                    expected, "Uncached paths should be built from the relative directory");
+            assertEquals(expected, missed, "Listing read for the cache should keep the paths");
+            assertEquals(expected, hit, "Cached listing should keep the paths");
+            assertEquals(1, meterRegistry.counter("file.cache.gets", "result", "hit").count(),
+                    "Second listing should hit");
+        } finally {
+            Files.deleteIfExists(relative.resolve("a.txt"));
+            Files.deleteIfExists(relative.resolve("sub"));
+            Files.deleteIfExists(relative);
+        }
+    }
+
+    /**
+     * Test a missing directory is reported and not cached.
+     */
+    @Test
+    public void testListFilesMissingDirectory() {
+        // Act & Assert
+        assertThrows(NoSuchFileException.class,
+                () -> list(directory.resolve("missing").toString(), null),
+                "Missing directory should be reported");
+        assertEquals(0, cache.size(), "Missing directory should not be cached");
+    }
+
+    private DirectoryListingCache newCache() {
+        meterRegistry = new SimpleMeterRegistry();
+        DirectoryListingCache listingCache = new DirectoryListingCache(new FileRepositoryImpl(), properties,
+                meterRegistry);
+        listingCache.afterPropertiesSet();
+        return listingCache;
+    }
+
+    private Map<String, FileInfo> awaitListing(final Predicate<Map<String, FileInfo>> condition)
+            throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        Map<String, FileInfo> entries = listing();
+        while (!condition.test(entries) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            entries = listing();
+        }
+        return entries;
+    }
+
+    private Map<String, FileInfo> listing() throws IOException {
+        return list(directory.toString(), null).stream()
+                .collect(Collectors.toMap(FileInfo::getName, Function.identity()));
+    }
+
+    private List<FileInfo> list(final String path, final String glob) throws IOException {
+        try (Stream<FileInfo> infos = cache.listFiles(path, glob)) {
+            return infos.toList();
+        }
+    }
+
+    private static Set<String> names(final List<FileInfo> infos) {
+        return infos.stream().map(FileInfo::getName).collect(Collectors.toSet());
+    }
+
+    private static Set<String> paths(final List<FileInfo> infos) {
+        return infos.stream().map(FileInfo::getPath).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,153 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+
+/**
+ * Unit tests for DiskUsageServiceImpl class.
+ */
+public class DiskUsageServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private DiskUsageServiceImpl diskUsageService;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        diskUsageService = new DiskUsageServiceImpl(new FileRepositoryImpl(), new FileProperties());
+    }
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        diskUsageService.destroy();
+    }
+
+    /**
+     * Test the usage of a tree is summed and broken down by child directory.
+     */
+    @Test
+    public void testUsage() throws IOException {
+        // Arrange
+        createTree();
+
+        // Act
+        DiskUsageReport report = diskUsageService.usage(directory.toString(), false);
+
+        // Assert
+        assertEquals(35, report.getTotal().getSize(), "Size should be summed over the tree");
+        assertEquals(4, report.getTotal().getFiles(), "Files should be counted over the tree");
+        assertEquals(3, report.getTotal().getDirectories(), "Subdirectories should be counted over the tree");
+        List<DiskUsage> children = report.getChildren();
+        assertEquals(2, children.size(), "Each child directory should be reported");
+        assertEquals(directory.resolve("logs").toString(), children.get(0).getPath(), "Largest child should come first");
+        assertEquals(30, children.get(0).getSize(), "Child size should include its subdirectories");
+        assertEquals(1, children.get(0).getDirectories(), "Child should count its subdirectories");
+        assertEquals(4, report.getScannedDirectories(), "Every directory should be read");
+    }
+
+    /**
+     * Test only the directories changed since the previous computation are read again.
+     */
+    @Test
+    public void testUsageRescansChangedDirectoriesOnly() throws IOException {
+        // Arrange
+        createTree();
+        diskUsageService.usage(directory.toString(), false);
+
+        // Act
+        DiskUsageReport unchanged = diskUsageService.usage(directory.toString(), false);
+        Files.writeString(directory.resolve("logs/archive/new.log"), "1234567");
+        DiskUsageReport changed = diskUsageService.usage(directory.toString(), false);
+        DiskUsageReport refreshed = diskUsageService.usage(directory.toString(), true);
+
+        // Assert
+        assertEquals(0, unchanged.getScannedDirectories(), "Unchanged tree should not be read again");
+        assertEquals(4, unchanged.getReusedDirectories(), "Unchanged tree should be reused");
+        assertEquals(1, changed.getScannedDirectories(), "Only the changed directory should be read again");
+        assertEquals(42, changed.getTotal().getSize(), "New file should be counted");
+        assertEquals(5, changed.getTotal().getFiles(), "New file should be counted");
+        assertEquals(4, refreshed.getScannedDirectories(), "Refresh should read every directory");
+    }
+
+    /**
+     * Test symbolic links are counted as files and not followed.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testUsageDoesNotFollowLinks() throws IOException {
+        // Arrange
+        createTree();
+        Files.createSymbolicLink(directory.resolve("logs/loop"), directory);
+
+        // Act
+        DiskUsageReport report = diskUsageService.usage(directory.toString(), false);
+
+        // Assert
+        assertEquals(5, report.getTotal().getFiles(), "Link should be counted as a file");
+        assertEquals(3, report.getTotal().getDirectories(), "Link should not be walked into");
+    }
+
+    /**
+     * Test a missing or non-directory root is reported.
+     */
+    @Test
+    public void testUsageInvalidRoot() throws IOException {
+        // Arrange
+        Files.createFile(directory.resolve("file"));
+
+        // Act & Assert
+        assertThrows(NoSuchFileException.class,
+                () -> diskUsageService.usage(directory.resolve("missing").toString(), false),
+                "Missing root should be reported");
+        assertThrows(NotDirectoryException.class,
+                () -> diskUsageService.usage(directory.resolve("file").toString(), false),
+                "File root should be reported");
+    }
+
+    /**
+     * Creates a tree of four directories holding 35 bytes in four files, all
+     * modified an hour ago so that they can be remembered.
+     */
+    private void createTree() throws IOException {
+        Files.createDirectories(directory.resolve("logs/archive"));
+        Files.createDirectories(directory.resolve("data"));
+        Files.writeString(directory.resolve("readme.txt"), "12345");
+        Files.writeString(directory.resolve("logs/app.log"), "1234567890");
+        Files.writeString(directory.resolve("logs/archive/old.log"), "12345678901234567890");
+        Files.createFile(directory.resolve("data/empty"));
+        FileTime anHourAgo = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isDirectory).toList()) {
+                Files.setLastModifiedTime(path, anHourAgo);
+            }
+        }
+    }
+}
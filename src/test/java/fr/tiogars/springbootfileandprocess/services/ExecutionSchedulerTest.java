@@ -0,0 +1,151 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for ExecutionScheduler class.
+ */
+public class ExecutionSchedulerTest {
+
+    private ProcessProperties properties;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        properties = new ProcessProperties();
+    }
+
+    /**
+     * Test executions in the same working directory wait for each other
+     * while other directories proceed.
+     */
+    @Test
+    public void testLimitPerWorkingDirectory() throws Exception {
+        // Arrange
+        properties.getScheduling().setMaxPerWorkingDirectory(1);
+        ExecutionScheduler scheduler = new ExecutionScheduler(properties, new SimpleMeterRegistry());
+        ExecutionScheduler.Permit first = scheduler.acquire(newCommand("mvn", "/tmp/a"));
+        CountDownLatch admitted = new CountDownLatch(1);
+
+        // Act
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                ExecutionScheduler.Permit permit = scheduler.acquire(newCommand("mvn", "/tmp/a"));
+                admitted.countDown();
+                permit.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitQueued(scheduler, 1);
+        ExecutionScheduler.Permit other = scheduler.acquire(newCommand("mvn", "/tmp/b"));
+
+        // Assert
+        assertFalse(admitted.await(100, TimeUnit.MILLISECONDS), "Same directory should wait");
+        assertEquals(2, scheduler.getRunning(), "Other directory should run");
+        first.close();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS), "Waiter should run once the slot is free");
+        waiter.join();
+        other.close();
+        assertEquals(0, scheduler.getRunning(), "All slots should be released");
+        assertEquals(0, scheduler.getQueued(), "Queue should be empty");
+    }
+
+    /**
+     * Test waiting executions are served round-robin across queues and FIFO
+     * within a queue.
+     */
+    @Test
+    public void testRoundRobinAcrossQueues() throws Exception {
+        // Arrange
+        properties.getScheduling().getCommandLimits().put("mvn", 1);
+        ExecutionScheduler scheduler = new ExecutionScheduler(properties, new SimpleMeterRegistry());
+        ExecutionScheduler.Permit holder = scheduler.acquire(newCommand("mvn", "/tmp/a"));
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = new CopyOnWriteArrayList<>();
+        String[][] arrivals = { { "/tmp/a", "a1" }, { "/tmp/a", "a2" }, { "/tmp/b", "b1" } };
+
+        // Act
+        for (int i = 0; i < arrivals.length; i++) {
+            String[] arrival = arrivals[i];
+            waiters.add(Thread.ofVirtual().start(() -> {
+                try {
+                    ExecutionScheduler.Permit permit = scheduler.acquire(newCommand("mvn", arrival[0]));
+                    order.add(arrival[1]);
+                    permit.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            awaitQueued(scheduler, i + 1);
+        }
+        holder.close();
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+
+        // Assert
+        assertEquals(List.of("a1", "b1", "a2"), order, "Queues should be served in turn");
+    }
+
+    /**
+     * Test an interrupted waiter leaves the queue.
+     */
+    @Test
+    public void testInterruptedWaiterLeavesQueue() throws Exception {
+        // Arrange
+        properties.getScheduling().setMaxPerCommand(1);
+        ExecutionScheduler scheduler = new ExecutionScheduler(properties, new SimpleMeterRegistry());
+        ExecutionScheduler.Permit holder = scheduler.acquire(newCommand("mvn", "/tmp/a"));
+        AtomicBoolean admitted = new AtomicBoolean();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                ExecutionScheduler.Permit permit = scheduler.acquire(newCommand("mvn", "/tmp/a"));
+                admitted.set(true);
+                permit.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitQueued(scheduler, 1);
+
+        // Act
+        waiter.interrupt();
+        waiter.join();
+        holder.close();
+
+        // Assert
+        assertFalse(admitted.get(), "Interrupted waiter should not run");
+        assertEquals(0, scheduler.getQueued(), "Interrupted waiter should leave the queue");
+        assertEquals(0, scheduler.getRunning(), "No slot should be held");
+    }
+
+    private static void awaitQueued(final ExecutionScheduler scheduler, final int queued)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getQueued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static ExecutableCommand newCommand(final String command, final String workingDirectory) {
+        return new ExecutableCommand(command, workingDirectory, "", new String[0]);
+    }
+}
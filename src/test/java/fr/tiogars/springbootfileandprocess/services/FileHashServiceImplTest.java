@@ -0,0 +1,194 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.HashAlgorithm;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for FileHashServiceImpl class.
+ */
+public class FileHashServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FileHashServiceImpl fileHashService;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        FileProperties properties = new FileProperties();
+        properties.getHash().setParallelism(2);
+        properties.getHash().setBufferSize(4096);
+        meterRegistry = new SimpleMeterRegistry();
+        fileHashService = new FileHashServiceImpl(new FileRepositoryImpl(), properties, meterRegistry);
+    }
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        fileHashService.destroy();
+    }
+
+    /**
+     * Test the digest of a file spanning several buffers matches the JDK one.
+     */
+    @Test
+    public void testHash() throws IOException, NoSuchAlgorithmException {
+        // Arrange
+        byte[] content = "0123456789abcdef".repeat(1000).getBytes(StandardCharsets.US_ASCII);
+        Path file = Files.write(directory.resolve("data.bin"), content);
+
+        // Act
+        FileDigest sha256 = fileHashService.hash(file.toString(), HashAlgorithm.SHA_256);
+        FileDigest md5 = fileHashService.hash(file.toString(), HashAlgorithm.fromValue("MD5"));
+
+        // Assert
+        assertEquals(hex("SHA-256", content), sha256.getDigest(), "SHA-256 digest should match");
+        assertEquals("sha-256", sha256.getAlgorithm(), "Algorithm should be reported");
+        assertEquals(content.length, sha256.getSize(), "Size should be reported");
+        assertNull(sha256.getError(), "No error should be reported");
+        assertEquals(hex("MD5", content), md5.getDigest(), "MD5 digest should match");
+    }
+
+    /**
+     * Test the CRC-32C checksum matches the JDK one.
+     */
+    @Test
+    public void testHashCrc32c() throws IOException {
+        // Arrange
+        byte[] content = "checksum me".getBytes(StandardCharsets.US_ASCII);
+        Path file = Files.write(directory.resolve("data.bin"), content);
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+
+        // Act
+        FileDigest digest = fileHashService.hash(file.toString(), HashAlgorithm.fromValue("crc32c"));
+
+        // Assert
+        assertEquals(HexFormat.of().toHexDigits((int) crc.getValue()), digest.getDigest(),
+                "CRC-32C checksum should match");
+    }
+
+    /**
+     * Test an unchanged file is served from the cache, and a changed one is hashed again.
+     */
+    @Test
+    public void testHashCached() throws IOException, NoSuchAlgorithmException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("data.txt"), "first");
+        FileTime old = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(file, old);
+        fileHashService.hash(file.toString(), HashAlgorithm.SHA_256);
+
+        // Act
+        FileDigest cached = fileHashService.hash(file.toString(), HashAlgorithm.SHA_256);
+        Files.writeString(file, "second");
+        Files.setLastModifiedTime(file, FileTime.from(old.toInstant().plusSeconds(1)));
+        FileDigest changed = fileHashService.hash(file.toString(), HashAlgorithm.SHA_256);
+
+        // Assert
+        assertEquals(hex("SHA-256", "first".getBytes(StandardCharsets.US_ASCII)), cached.getDigest(),
+                "Cached digest should match");
+        assertEquals(1.0, meterRegistry.get("file.hash.cache.gets").tag("result", "hit").counter().count(),
+                "Second hash should be a cache hit");
+        assertEquals(hex("SHA-256", "second".getBytes(StandardCharsets.US_ASCII)), changed.getDigest(),
+                "Changed file should be hashed again");
+        assertEquals(2, fileHashService.size(), "Both versions should be remembered");
+    }
+
+    /**
+     * Test a recently modified file is not remembered.
+     */
+    @Test
+    public void testHashRecentNotCached() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("data.txt"), "fresh");
+
+        // Act
+        fileHashService.hash(file.toString(), HashAlgorithm.SHA_256);
+
+        // Assert
+        assertEquals(0, fileHashService.size(), "Recently modified file should not be remembered");
+    }
+
+    /**
+     * Test invalid requests are rejected.
+     */
+    @Test
+    public void testHashInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> fileHashService.hash(directory.toString(), HashAlgorithm.SHA_256),
+                "Directory should be rejected");
+        assertThrows(NoSuchFileException.class,
+                () -> fileHashService.hash(directory.resolve("missing").toString(), HashAlgorithm.SHA_256),
+                "Missing file should be reported");
+        assertThrows(IllegalArgumentException.class, () -> HashAlgorithm.fromValue("xxhash"),
+                "Unknown algorithm should be rejected");
+    }
+
+    /**
+     * Test a manifest hashes every regular file of the tree.
+     */
+    @Test
+    public void testManifest() throws IOException, NoSuchAlgorithmException {
+        // Arrange
+        Files.createDirectories(directory.resolve("a/b"));
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(directory.resolve(i % 2 == 0 ? "a" : "a/b").resolve("file" + i), "content " + i);
+        }
+        WalkQuery query = new WalkQuery(directory.toString());
+
+        // Act
+        Map<String, String> digests;
+        try (Stream<FileDigest> manifest = fileHashService.manifest(query, HashAlgorithm.SHA_1)) {
+            digests = manifest.collect(Collectors.toMap(FileDigest::getPath, FileDigest::getDigest));
+        }
+
+        // Assert
+        assertEquals(20, digests.size(), "Every file should be hashed");
+        for (int i = 0; i < 20; i++) {
+            Path file = directory.resolve(i % 2 == 0 ? "a" : "a/b").resolve("file" + i);
+            assertEquals(hex("SHA-1", ("content " + i).getBytes(StandardCharsets.US_ASCII)),
+                    digests.get(file.toString()), "Digest of " + file + " should match");
+        }
+    }
+
+    private static String hex(final String algorithm, final byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(content));
+    }
+}
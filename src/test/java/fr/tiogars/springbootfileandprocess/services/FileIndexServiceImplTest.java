@@ -0,0 +1,319 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileSearchQuery;
+import fr.tiogars.springbootfileandprocess.models.WalkQuery;
+import fr.tiogars.springbootfileandprocess.repository.FileEntry;
+import fr.tiogars.springbootfileandprocess.repository.FileIndexRepositoryImpl;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+
+/**
+ * Unit tests for FileIndexServiceImpl class.
+ */
+public class FileIndexServiceImplTest {
+
+    private static final long EVENT_TIMEOUT_MILLIS = 15000;
+
+    @TempDir
+    private Path root;
+
+    @TempDir
+    private Path data;
+
+    private FileProperties properties;
+
+    private FileIndexServiceImpl fileIndexService;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path docs = Files.createDirectory(root.resolve("docs"));
+        Path logs = Files.createDirectory(root.resolve("logs"));
+        Files.writeString(docs.resolve("report-2023.pdf"), "a".repeat(100));
+        Files.writeString(docs.resolve("report-2024.pdf"), "a".repeat(2000));
+        Files.writeString(docs.resolve("notes.txt"), "a");
+        Files.writeString(logs.resolve("app.log"), "a".repeat(500));
+        Files.writeString(logs.resolve("report-2024.pdf"), "a");
+        Files.setLastModifiedTime(docs.resolve("report-2023.pdf"), FileTime.fromMillis(1_000_000_000_000L));
+
+        properties = new FileProperties();
+        properties.getIndex().setRoots(List.of(root.toString()));
+        properties.getIndex().setLocation(data.resolve("index.bin").toString());
+    }
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (fileIndexService != null) {
+            fileIndexService.destroy();
+        }
+    }
+
+    /**
+     * Test searches by glob, prefix and directory.
+     */
+    @Test
+    public void testSearchByName() throws IOException, InterruptedException {
+        // Arrange
+        start();
+
+        // Act
+        List<String> reports = paths(search(query("report-*.pdf", null)));
+        List<String> prefixed = paths(search(query(null, "report-2024")));
+        FileSearchQuery underDocs = query("*.pdf", null);
+        underDocs.setUnder(root.resolve("docs").toString());
+        List<String> docs = paths(search(underDocs));
+        List<String> incompatible = paths(search(query("notes*", "report")));
+
+        // Assert
+        assertEquals(List.of(path("docs/report-2023.pdf"), path("docs/report-2024.pdf"), path("logs/report-2024.pdf")),
+                reports, "Glob should match names, sorted by name then path");
+        assertEquals(List.of(path("docs/report-2024.pdf"), path("logs/report-2024.pdf")), prefixed,
+                "Prefix should match names");
+        assertEquals(List.of(path("docs/report-2023.pdf"), path("docs/report-2024.pdf")), docs,
+                "Search should be limited to the directory");
+        assertTrue(incompatible.isEmpty(), "Incompatible prefix and glob should match nothing");
+    }
+
+    /**
+     * Test searches by size and modification time ranges.
+     */
+    @Test
+    public void testSearchByRanges() throws IOException, InterruptedException {
+        // Arrange
+        start();
+        FileSearchQuery sized = query("*.pdf", null);
+        sized.setMinSize(50L);
+        sized.setMaxSize(1000L);
+        FileSearchQuery old = query(null, null);
+        old.setModifiedBefore(1_000_000_000_001L);
+        FileSearchQuery recent = query("*.pdf", null);
+        recent.setModifiedAfter(1_000_000_000_001L);
+
+        // Act
+        List<String> bySize = paths(search(sized));
+        List<String> byOld = paths(search(old));
+        List<String> byRecent = paths(search(recent));
+
+        // Assert
+        assertEquals(List.of(path("docs/report-2023.pdf")), bySize, "Size range should be applied");
+        assertEquals(List.of(path("docs/report-2023.pdf")), byOld, "Upper time bound should be applied");
+        assertEquals(List.of(path("docs/report-2024.pdf"), path("logs/report-2024.pdf")), byRecent,
+                "Lower time bound should be applied");
+    }
+
+    /**
+     * Test results are cut at the limit.
+     */
+    @Test
+    public void testSearchTruncated() throws IOException, InterruptedException {
+        // Arrange
+        start();
+        FileSearchQuery query = query("*.pdf", null);
+        query.setLimit(2);
+
+        // Act
+        FileSearchResult result = search(query);
+
+        // Assert
+        assertEquals(2, result.getEntries().size(), "Results should be cut at the limit");
+        assertTrue(result.isTruncated(), "Cut results should be flagged");
+    }
+
+    /**
+     * Test an invalid glob is rejected.
+     */
+    @Test
+    public void testSearchInvalidGlob() throws IOException, InterruptedException {
+        // Arrange
+        start();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fileIndexService.search(query("[a", null)),
+                "Invalid glob should be rejected");
+    }
+
+    /**
+     * Test created and deleted entries are applied without crawling again.
+     */
+    @Test
+    public void testSearchAppliesChanges() throws IOException, InterruptedException {
+        // Arrange
+        start();
+
+        // Act
+        Files.writeString(root.resolve("docs/added.txt"), "a");
+        Path nested = Files.createDirectories(root.resolve("logs/nested"));
+        Files.writeString(nested.resolve("added.txt"), "a");
+        Files.delete(root.resolve("docs/notes.txt"));
+
+        // Assert
+        List<String> added = awaitPaths(query("added.txt", null), paths -> paths.size() == 2);
+        assertEquals(List.of(path("docs/added.txt"), path("logs/nested/added.txt")), added,
+                "Created entries should be indexed");
+        List<String> deleted = awaitPaths(query("notes.txt", null), List::isEmpty);
+        assertTrue(deleted.isEmpty(), "Deleted entry should be removed");
+    }
+
+    /**
+     * Test a deleted directory is removed with its content.
+     */
+    @Test
+    public void testSearchAppliesDirectoryDeletion() throws IOException, InterruptedException {
+        // Arrange
+        start();
+
+        // Act
+        Files.delete(root.resolve("logs/app.log"));
+        Files.delete(root.resolve("logs/report-2024.pdf"));
+        Files.delete(root.resolve("logs"));
+
+        // Assert
+        List<String> directories = awaitPaths(query("logs", null), List::isEmpty);
+        List<String> reports = awaitPaths(query("report-*", null), paths -> paths.size() == 2);
+        assertTrue(directories.isEmpty(), "Deleted directory should be removed");
+        assertEquals(List.of(path("docs/report-2023.pdf"), path("docs/report-2024.pdf")), reports,
+                "Entries of the deleted directory should be removed");
+    }
+
+    /**
+     * Test a directory moved out of the trees is removed with its content,
+     * including entries created since the crawl, and nothing else.
+     */
+    @Test
+    public void testSearchAppliesDirectoryMove() throws IOException, InterruptedException {
+        // Arrange
+        Path sibling = Files.createDirectory(root.resolve("logs-old"));
+        Files.writeString(sibling.resolve("old.log"), "a");
+        start();
+        Files.writeString(root.resolve("logs/pending.log"), "a");
+        awaitPaths(query("pending.log", null), paths -> paths.size() == 1);
+
+        // Act
+        Files.move(root.resolve("logs"), data.resolve("logs"));
+
+        // Assert
+        List<String> logs = awaitPaths(query("*.log", null), paths -> paths.size() == 1);
+        List<String> reports = awaitPaths(query("report-*", null), paths -> paths.size() == 2);
+        assertEquals(List.of(path("logs-old/old.log")), logs,
+                "Entries of the moved directory should be removed, but not those of its sibling");
+        assertEquals(List.of(path("docs/report-2023.pdf"), path("docs/report-2024.pdf")), reports,
+                "Indexed entries of the moved directory should be removed");
+    }
+
+    /**
+     * Test the persisted index answers searches before the trees are crawled.
+     */
+    @Test
+    public void testSearchPersisted() throws IOException, InterruptedException {
+        // Arrange
+        start();
+        fileIndexService.destroy();
+        CountDownLatch crawled = new CountDownLatch(1);
+        FileRepositoryImpl slowRepository = new FileRepositoryImpl() {
+            @Override
+            public Stream<FileEntry> walk(final WalkQuery query) throws IOException {
+                try {
+                    crawled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                return super.walk(query);
+            }
+        };
+
+        // Act
+        fileIndexService = new FileIndexServiceImpl(slowRepository, new FileIndexRepositoryImpl(), properties);
+        fileIndexService.afterPropertiesSet();
+        FileSearchResult result = fileIndexService.search(query("*.log", null));
+
+        // Assert
+        assertTrue(result.isReady(), "Loaded index should be ready");
+        assertEquals(List.of(path("logs/app.log")), paths(result), "Persisted entries should be found");
+    }
+
+    /**
+     * Test the index is disabled without roots.
+     */
+    @Test
+    public void testDisabledWithoutRoots() throws IOException {
+        // Arrange
+        properties.getIndex().setRoots(List.of());
+        fileIndexService = new FileIndexServiceImpl(new FileRepositoryImpl(), new FileIndexRepositoryImpl(),
+                properties);
+
+        // Act
+        fileIndexService.afterPropertiesSet();
+        FileSearchResult result = fileIndexService.search(query(null, null));
+
+        // Assert
+        assertFalse(fileIndexService.isEnabled(), "Index should be disabled");
+        assertFalse(result.isReady(), "Disabled index should never be ready");
+        assertFalse(Files.exists(data.resolve("index.bin")), "Disabled index should not be persisted");
+    }
+
+    private void start() throws IOException, InterruptedException {
+        fileIndexService = new FileIndexServiceImpl(new FileRepositoryImpl(), new FileIndexRepositoryImpl(),
+                properties);
+        fileIndexService.afterPropertiesSet();
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        while (!search(query(null, null)).isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private List<String> awaitPaths(final FileSearchQuery query, final Predicate<List<String>> condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        List<String> paths = paths(search(query));
+        while (!condition.test(paths) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            paths = paths(search(query));
+        }
+        return paths;
+    }
+
+    private FileSearchResult search(final FileSearchQuery query) {
+        return fileIndexService.search(query);
+    }
+
+    private String path(final String relative) {
+        return root.resolve(relative).toString();
+    }
+
+    private static FileSearchQuery query(final String name, final String prefix) {
+        FileSearchQuery query = new FileSearchQuery();
+        query.setName(name);
+        query.setPrefix(prefix);
+        return query;
+    }
+
+    private static List<String> paths(final FileSearchResult result) {
+        return result.getEntries().stream().map(FileInfo::getPath).toList();
+    }
+}
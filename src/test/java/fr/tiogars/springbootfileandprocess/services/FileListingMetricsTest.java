@@ -0,0 +1,54 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for FileListingMetrics class.
+ */
+public class FileListingMetricsTest {
+
+    /**
+     * Test entry counts are bucketed by decade.
+     */
+    @Test
+    public void testBucketOf() {
+        // Act & Assert
+        assertEquals(0, FileListingMetrics.bucketOf(0), "Empty directory should be in the first bucket");
+        assertEquals(0, FileListingMetrics.bucketOf(9), "Nine entries should be in the first bucket");
+        assertEquals(1, FileListingMetrics.bucketOf(10), "Ten entries should be in the second bucket");
+        assertEquals(3, FileListingMetrics.bucketOf(9_999), "Bound should be exclusive");
+        assertEquals(5, FileListingMetrics.bucketOf(5_000_000), "Huge directory should be in the last bucket");
+    }
+
+    /**
+     * Test listings and responses are recorded.
+     */
+    @Test
+    public void testRecord() {
+        // Arrange
+        FileProperties properties = new FileProperties();
+        properties.getListing().setSlowThreshold(Duration.ofMillis(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FileListingMetrics listingMetrics = new FileListingMetrics(properties, meterRegistry);
+
+        // Act
+        listingMetrics.record("/big", Duration.ofSeconds(2).toNanos(), 250_000);
+        listingMetrics.recordResponse(4096);
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("file.list").tag("entries", ">=100000").timer()
+                .totalTime(TimeUnit.SECONDS), "Latency should be recorded in its bucket");
+        assertEquals(250_000, meterRegistry.get("file.list.entries").summary().totalAmount(),
+                "Entries should be recorded");
+        assertEquals(4096, meterRegistry.get("file.list.response.bytes").summary().totalAmount(),
+                "Response bytes should be recorded");
+    }
+}
@@ -0,0 +1,211 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileListQuery;
+import fr.tiogars.springbootfileandprocess.models.FileSort;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for FileServiceImpl class.
+ */
+public class FileServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private FileServiceImpl fileService;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        fileService = new FileServiceImpl(new FileRepositoryImpl());
+        for (int i = 0; i < 25; i++) {
+            Files.write(directory.resolve(String.format("file-%02d.txt", i)), new byte[i % 5]);
+        }
+        Files.createFile(directory.resolve("other.log"));
+    }
+
+    /**
+     * Test paging through a directory returns every entry once, in name order.
+     */
+    @Test
+    public void testListFilesPages() throws IOException {
+        // Arrange
+        FileListQuery query = new FileListQuery(directory.toString());
+        query.setLimit(10);
+        List<String> names = new ArrayList<>();
+        int pages = 0;
+
+        // Act
+        FileListPage page;
+        do {
+            page = fileService.listFiles(query);
+            page.getEntries().forEach(info -> names.add(info.getName()));
+            query.setCursor(page.getNextCursor());
+            pages++;
+        } while (page.getNextCursor() != null);
+
+        // Assert
+        assertEquals(3, pages, "26 entries should span 3 pages of 10");
+        assertEquals(fileService.listFiles(directory.toString()).stream().map(FileInfo::getName).sorted().toList(),
+                names, "Pages should cover every entry once, in name order");
+    }
+
+    /**
+     * Test the glob filter and a descending size sort.
+     */
+    @Test
+    public void testListFilesGlobAndSort() throws IOException {
+        // Arrange
+        FileListQuery query = new FileListQuery(directory.toString());
+        query.setGlob("*.txt");
+        query.setSort(FileSort.SIZE);
+        query.setDescending(true);
+        query.setLimit(5);
+
+        // Act
+        FileListPage first = fileService.listFiles(query);
+        query.setCursor(first.getNextCursor());
+        FileListPage second = fileService.listFiles(query);
+
+        // Assert
+        assertNotNull(first.getNextCursor(), "More pages should follow");
+        assertEquals(List.of("file-24.txt", "file-19.txt", "file-14.txt", "file-09.txt", "file-04.txt"),
+                first.getEntries().stream().map(FileInfo::getName).toList(), "Largest files should come first");
+        assertEquals(List.of("file-23.txt", "file-18.txt", "file-13.txt", "file-08.txt", "file-03.txt"),
+                second.getEntries().stream().map(FileInfo::getName).toList(), "Second page should follow the first");
+    }
+
+    /**
+     * Test a listing without limit returns everything without cursor.
+     */
+    @Test
+    public void testListFilesWithoutLimit() throws IOException {
+        // Arrange
+        FileListQuery query = new FileListQuery(directory.toString());
+        query.setGlob("*.log");
+
+        // Act
+        FileListPage page = fileService.listFiles(query);
+
+        // Assert
+        assertEquals(1, page.getEntries().size(), "Only the log file should match");
+        assertNull(page.getNextCursor(), "There should be no next page");
+    }
+
+    /**
+     * Test a cursor issued for another sort is rejected.
+     */
+    @Test
+    public void testListFilesRejectsForeignCursor() throws IOException {
+        // Arrange
+        FileListQuery query = new FileListQuery(directory.toString());
+        query.setLimit(5);
+        String cursor = fileService.listFiles(query).getNextCursor();
+        query.setSort(FileSort.LAST_MODIFIED);
+        query.setCursor(cursor);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fileService.listFiles(query),
+                "Cursor of another sort should be rejected");
+        query.setCursor("not a cursor");
+        assertThrows(IllegalArgumentException.class, () -> fileService.listFiles(query),
+                "Malformed cursor should be rejected");
+        assertEquals(26, fileService.listFiles(directory.toString()).size(),
+                "Plain listing should be unaffected");
+    }
+
+    /**
+     * Test streamed entries match the listing and the stream can be closed.
+     */
+    @Test
+    public void testStreamFiles() throws IOException {
+        // Act
+        List<String> streamed;
+        try (Stream<FileInfo> files = fileService.streamFiles(directory.toString(), "*.txt")) {
+            streamed = files.map(FileInfo::getName).sorted().toList();
+        }
+
+        // Assert
+        assertEquals(25, streamed.size(), "Every text file should be streamed");
+        assertEquals("file-00.txt", streamed.get(0), "Names should match");
+    }
+
+    /**
+     * Test a single entry is described and its content can be read.
+     */
+    @Test
+    public void testGetFileAndOpenContent() throws IOException {
+        // Arrange
+        Path file = directory.resolve("file-04.txt");
+        Files.writeString(file, "content");
+
+        // Act
+        FileInfo info = fileService.getFile(file.toString());
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        try (FileChannel channel = fileService.openContent(file.toString())) {
+            channel.read(buffer, 3);
+        }
+
+        // Assert
+        assertEquals("file-04.txt", info.getName(), "Name should match");
+        assertEquals(7, info.getSize(), "Size should match");
+        assertTrue(info.isFile(), "Entry should be a regular file");
+        assertEquals("tent", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                "Content should be readable from any position");
+        assertThrows(NoSuchFileException.class, () -> fileService.getFile(directory.resolve("missing").toString()),
+                "Missing entry should be reported");
+    }
+
+    /**
+     * Test listings are measured by the number of entries read.
+     */
+    @Test
+    public void testListingMetrics() throws IOException {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FileProperties properties = new FileProperties();
+        FileServiceImpl meteredService = new FileServiceImpl(new FileRepositoryImpl(), properties, null,
+                new FileListingMetrics(properties, meterRegistry));
+        FileListQuery query = new FileListQuery(directory.toString());
+        query.setLimit(5);
+
+        // Act
+        meteredService.listFiles(query);
+        try (Stream<FileInfo> files = meteredService.streamFiles(directory.toString(), null)) {
+            files.forEach(file -> { });
+        }
+
+        // Assert
+        assertEquals(1, meterRegistry.get("file.list").tags("mode", "list", "entries", "<100").timer().count(),
+                "Paged listing should be timed by entries read");
+        assertEquals(1, meterRegistry.get("file.list").tags("mode", "stream", "entries", "<100").timer().count(),
+                "Streamed listing should be timed once closed");
+        assertEquals(52, meterRegistry.get("file.list.entries").summary().totalAmount(),
+                "Entries read should be recorded");
+    }
+}
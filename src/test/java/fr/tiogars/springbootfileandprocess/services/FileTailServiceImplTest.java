@@ -0,0 +1,269 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.FileProperties;
+import fr.tiogars.springbootfileandprocess.models.FileTailHandler;
+import fr.tiogars.springbootfileandprocess.repository.FileRepositoryImpl;
+
+/**
+ * Unit tests for FileTailServiceImpl class.
+ */
+public class FileTailServiceImplTest {
+
+    private static final long EVENT_TIMEOUT_MILLIS = 15000;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    private FileProperties properties;
+
+    private FileTailServiceImpl fileTailService;
+
+    private Thread follower;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        file = directory.resolve("app.log");
+        properties = new FileProperties();
+        properties.getTail().setPollInterval(Duration.ofMillis(10));
+        fileTailService = new FileTailServiceImpl(new FileRepositoryImpl(), properties);
+    }
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (follower != null) {
+            follower.interrupt();
+            follower.join(EVENT_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Test the last lines are returned, whatever the line terminators.
+     */
+    @Test
+    public void testTail() throws IOException {
+        // Arrange
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append("line ").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        Files.writeString(file, content);
+
+        // Act
+        List<String> last = fileTailService.tail(file.toString(), 3);
+        List<String> none = fileTailService.tail(file.toString(), 0);
+
+        // Assert
+        assertEquals(List.of("line 4997", "line 4998", "line 4999"), last, "Last lines should be returned");
+        assertTrue(none.isEmpty(), "No line should be returned");
+    }
+
+    /**
+     * Test an unterminated last line is returned, and short files are returned whole.
+     */
+    @Test
+    public void testTailUnterminated() throws IOException {
+        // Arrange
+        Files.writeString(file, "first\nsecond");
+
+        // Act
+        List<String> lines = fileTailService.tail(file.toString(), 10);
+
+        // Assert
+        assertEquals(List.of("first", "second"), lines, "Whole file should be returned");
+        assertEquals(List.of(), fileTailService.tail(Files.createFile(directory.resolve("empty")).toString(), 5),
+                "Empty file should have no line");
+    }
+
+    /**
+     * Test lines longer than the maximum length are split, and the number of
+     * lines is capped.
+     */
+    @Test
+    public void testTailLimits() throws IOException {
+        // Arrange
+        properties.getTail().setMaxLineLength(4);
+        properties.getTail().setMaxLines(2);
+        Files.writeString(file, "short\nabcdefghij\n");
+
+        // Act
+        List<String> lines = fileTailService.tail(file.toString(), 10);
+
+        // Assert
+        assertEquals(List.of("efgh", "ij"), lines, "Long line should be split and lines capped");
+    }
+
+    /**
+     * Test invalid requests are rejected.
+     */
+    @Test
+    public void testTailInvalid() throws IOException {
+        // Arrange
+        Files.writeString(file, "line\n");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fileTailService.tail(file.toString(), -1),
+                "Negative count should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> fileTailService.tail(directory.toString(), 1),
+                "Directory should be rejected");
+        assertThrows(NoSuchFileException.class,
+                () -> fileTailService.tail(directory.resolve("missing").toString(), 1),
+                "Missing file should be reported");
+    }
+
+    /**
+     * Test appended lines are followed, a partial line only once terminated.
+     */
+    @Test
+    public void testFollowAppended() throws IOException, InterruptedException {
+        // Arrange
+        Files.writeString(file, "old 1\nold 2\n");
+        RecordingHandler handler = follow(1);
+        handler.await(events -> events.contains("old 2"));
+
+        // Act
+        append("new 1\nnew");
+        append(" 2\n");
+
+        // Assert
+        List<String> events = handler.await(recorded -> recorded.contains("new 2"));
+        assertEquals(List.of("old 2", "new 1", "new 2"), events, "Appended lines should follow the last ones");
+    }
+
+    /**
+     * Test a truncated file is followed from its start.
+     */
+    @Test
+    public void testFollowTruncated() throws IOException, InterruptedException {
+        // Arrange
+        Files.writeString(file, "before truncation\n");
+        RecordingHandler handler = follow(1);
+        handler.await(events -> events.contains("before truncation"));
+
+        // Act
+        Files.writeString(file, "after\n");
+
+        // Assert
+        List<String> events = handler.await(recorded -> recorded.contains("after"));
+        assertEquals(List.of("before truncation", "<rotated>", "after"), events,
+                "Truncation should be reported before the new content");
+    }
+
+    /**
+     * Test a rotated file is drained, then the new file is followed from its start.
+     */
+    @Test
+    public void testFollowRotated() throws IOException, InterruptedException {
+        // Arrange
+        Files.writeString(file, "first\n");
+        RecordingHandler handler = follow(1);
+        handler.await(events -> events.contains("first"));
+
+        // Act
+        append("last of old file\n");
+        Files.move(file, directory.resolve("app.log.1"));
+        Files.writeString(file, "first of new file\n");
+
+        // Assert
+        List<String> events = handler.await(recorded -> recorded.contains("first of new file"));
+        assertEquals(List.of("first", "last of old file", "<rotated>", "first of new file"), events,
+                "Rotation should be reported between the old and new content");
+    }
+
+    /**
+     * Test a follow ends after its maximum duration.
+     */
+    @Test
+    public void testFollowTimeout() throws IOException, InterruptedException {
+        // Arrange
+        properties.getTail().setMaxFollow(Duration.ofMillis(100));
+        Files.writeString(file, "line\n");
+
+        // Act
+        RecordingHandler handler = follow(5);
+
+        // Assert
+        List<String> events = handler.await(recorded -> recorded.contains("<timeout>"));
+        assertEquals(List.of("line", "<timeout>"), events, "Follow should end with a timeout");
+    }
+
+    private RecordingHandler follow(final int lines) {
+        RecordingHandler handler = new RecordingHandler();
+        follower = new Thread(() -> {
+            try {
+                fileTailService.follow(file.toString(), lines, handler);
+            } catch (IOException | InterruptedException e) {
+                // Stopped by the test
+            }
+        });
+        follower.start();
+        return handler;
+    }
+
+    private void append(final String content) throws IOException {
+        Files.writeString(file, content, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Handler recording lines and notifications.
+     */
+    private static final class RecordingHandler implements FileTailHandler {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onLine(final String lineParam) {
+            events.add(lineParam);
+        }
+
+        @Override
+        public void onRotated() {
+            events.add("<rotated>");
+        }
+
+        @Override
+        public void onTimeout() {
+            events.add("<timeout>");
+        }
+
+        @Override
+        public void flush() {
+            // Nothing buffered
+        }
+
+        List<String> await(final Predicate<List<String>> condition) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+            while (!condition.test(events) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return new ArrayList<>(events);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for InFlightExecutions class.
+ */
+public class InFlightExecutionsTest {
+
+    private static final CommandKey KEY = CommandKey.of(new ExecutableCommand("mvn", "", "", new String[] { "-v" }), 0);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InFlightExecutions inFlightExecutions;
+
+    /**
+     * Setup method executed before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inFlightExecutions = new InFlightExecutions(meterRegistry);
+    }
+
+    /**
+     * Test concurrent identical executions share a single run.
+     */
+    @Test
+    public void testConcurrentExecutionsShareResult() throws Exception {
+        // Arrange
+        int callers = 10;
+        AtomicInteger runs = new AtomicInteger();
+        CommandResult shared = new CommandResult(0, List.of("Apache Maven"));
+        List<Future<CommandResult>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> inFlightExecutions.execute(KEY, () -> {
+                    runs.incrementAndGet();
+                    while (meterRegistry.counter("process.coalesced").count() < callers - 1) {
+                        Thread.sleep(10);
+                    }
+                    return shared;
+                })));
+            }
+        }
+
+        // Assert
+        assertEquals(1, runs.get(), "Execution should run once");
+        for (Future<CommandResult> result : results) {
+            assertSame(shared, result.get(), "Every caller should get the shared result");
+        }
+    }
+
+    /**
+     * Test a failure is propagated and the key is released afterwards.
+     */
+    @Test
+    public void testFailureReleasesKey() throws Exception {
+        // Act & Assert
+        assertThrows(IOException.class, () -> inFlightExecutions.execute(KEY, () -> {
+            throw new IOException("boom");
+        }), "Failure should be propagated");
+        CommandResult result = new CommandResult(0, List.of());
+        assertSame(result, inFlightExecutions.execute(KEY, () -> result), "Key should be released");
+    }
+
+    /**
+     * Test a caller waiting for an interrupted execution runs it instead of
+     * failing.
+     */
+    @Test
+    public void testInterruptedExecutionIsTakenOver() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CommandResult own = new CommandResult(0, List.of("Apache Maven"));
+        Thread leader = Thread.ofVirtual().start(() -> {
+            try {
+                inFlightExecutions.execute(KEY, () -> {
+                    started.countDown();
+                    Thread.sleep(60_000);
+                    return null;
+                });
+            } catch (IOException | InterruptedException e) {
+                // Interrupted by the test
+            }
+        });
+        started.await();
+
+        // Act
+        CommandResult result;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CommandResult> follower = executor.submit(() -> inFlightExecutions.execute(KEY, () -> own));
+            while (meterRegistry.counter("process.coalesced").count() < 1) {
+                Thread.sleep(10);
+            }
+            leader.interrupt();
+            result = follower.get(10, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertSame(own, result, "Waiting caller should run the execution itself");
+    }
+
+    /**
+     * Test commands with different timeouts are not coalesced.
+     */
+    @Test
+    public void testTimeoutIsPartOfKey() {
+        // Arrange
+        ExecutableCommand bounded = new ExecutableCommand("mvn", "", "", new String[] { "-v" });
+        bounded.setTimeoutMillis(1000);
+
+        // Act
+        CommandKey key = CommandKey.of(bounded, 0);
+
+        // Assert
+        assertNotEquals(KEY, key, "Commands with different timeouts should not share an execution");
+    }
+}
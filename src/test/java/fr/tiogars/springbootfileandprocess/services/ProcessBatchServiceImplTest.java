@@ -0,0 +1,203 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.BatchCommand;
+import fr.tiogars.springbootfileandprocess.models.BatchCommandResult;
+import fr.tiogars.springbootfileandprocess.models.BatchResult;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.JobStatus;
+
+/**
+ * Unit tests for ProcessBatchServiceImpl class.
+ */
+public class ProcessBatchServiceImplTest {
+
+    private ProcessBatchServiceImpl batchService;
+
+    private final Map<String, Long> finishedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Shuts the executor down after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (batchService != null) {
+            batchService.destroy();
+        }
+    }
+
+    /**
+     * Test independent commands run in parallel and dependents run after
+     * their dependencies.
+     */
+    @Test
+    public void testExecuteRunsInDependencyOrder() throws Exception {
+        // Arrange
+        batchService = newService(4, invocation -> {
+            ExecutableCommand command = invocation.getArgument(0);
+            Thread.sleep(200);
+            finishedAt.put(command.getArguments()[0], System.nanoTime());
+            return new CommandResult(0, List.of(command.getArguments()[0]));
+        });
+        List<BatchCommand> commands = List.of(
+                newCommand("c", "a", "b"),
+                newCommand("a"),
+                newCommand("b"));
+
+        // Act
+        BatchResult result = batchService.execute(commands);
+
+        // Assert
+        assertTrue(result.isSucceeded(), "Batch should succeed");
+        assertEquals(List.of("c", "a", "b"), result.getResults().stream().map(BatchCommandResult::getId).toList(),
+                "Results should follow request order");
+        BatchCommandResult dependent = result.getResults().get(0);
+        assertTrue(dependent.getStartOffsetMillis() >= 200, "Dependent should start after its dependencies");
+        assertTrue(finishedAt.get("c") > finishedAt.get("a"), "Dependent should finish after its dependency");
+        assertTrue(result.getDurationMillis() < 580, "Independent commands should run in parallel");
+    }
+
+    /**
+     * Test a failed dependency skips its dependents.
+     */
+    @Test
+    public void testExecuteSkipsDependentsOfFailure() throws Exception {
+        // Arrange
+        batchService = newService(2, invocation -> {
+            ExecutableCommand command = invocation.getArgument(0);
+            return new CommandResult("a".equals(command.getArguments()[0]) ? 1 : 0, List.of());
+        });
+
+        // Act
+        BatchResult result = batchService.execute(List.of(newCommand("a"), newCommand("b", "a"),
+                newCommand("c")));
+
+        // Assert
+        assertFalse(result.isSucceeded(), "Batch should not succeed");
+        assertEquals(JobStatus.COMPLETED, result.getResults().get(0).getStatus(), "Failing command should complete");
+        assertEquals(JobStatus.CANCELLED, result.getResults().get(1).getStatus(), "Dependent should be skipped");
+        assertEquals(JobStatus.COMPLETED, result.getResults().get(2).getStatus(), "Independent command should run");
+    }
+
+    /**
+     * Test invalid dependency graphs are rejected.
+     */
+    @Test
+    public void testExecuteRejectsInvalidGraphs() throws Exception {
+        // Arrange
+        batchService = newService(1, invocation -> new CommandResult(0, List.of()));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.execute(List.of(newCommand("a", "b"), newCommand("b", "a"))),
+                "Cycle should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.execute(List.of(newCommand("a", "missing"))),
+                "Unknown dependency should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.execute(List.of(newCommand("a"), newCommand("a"))),
+                "Duplicate id should be rejected");
+    }
+
+    /**
+     * Test a missing batch, a missing command and a command without
+     * anything to run are rejected.
+     */
+    @Test
+    public void testExecuteRejectsMissingCommands() throws Exception {
+        // Arrange
+        batchService = newService(1, invocation -> new CommandResult(0, List.of()));
+        List<BatchCommand> withNull = new ArrayList<>(List.of(newCommand("a")));
+        withNull.add(null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(null),
+                "Missing batch should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(withNull),
+                "Null command should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.execute(List.of(new BatchCommand("a", null, List.of()))),
+                "Command without anything to run should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.execute(List.of(new BatchCommand("a",
+                        new ExecutableCommand(null, "", "", new String[0]), List.of()))),
+                "Command without a name should be rejected");
+    }
+
+    /**
+     * Test interrupting the caller interrupts the running commands of its
+     * batch and does not start the pending ones.
+     */
+    @Test
+    public void testInterruptCancelsRunningCommands() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean dependentStarted = new AtomicBoolean();
+        batchService = newService(2, invocation -> {
+            ExecutableCommand command = invocation.getArgument(0);
+            if ("b".equals(command.getArguments()[0])) {
+                dependentStarted.set(true);
+                return new CommandResult(0, List.of());
+            }
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return new CommandResult(0, List.of());
+        });
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                batchService.execute(List.of(newCommand("a"), newCommand("b", "a")));
+            } catch (InterruptedException e) {
+                // Interrupted by the test
+            }
+        });
+        started.await();
+
+        // Act
+        caller.interrupt();
+
+        // Assert
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS), "Running command should be interrupted");
+        caller.join(10_000);
+        assertFalse(dependentStarted.get(), "Pending command should not start");
+    }
+
+    private static ProcessBatchServiceImpl newService(final int parallelism,
+            final Answer<CommandResult> execution) throws Exception {
+        ProcessService processService = mock(ProcessService.class);
+        when(processService.executeAndWaitForResponse(any())).thenAnswer(execution);
+        ProcessProperties properties = new ProcessProperties();
+        properties.getBatch().setParallelism(parallelism);
+        return new ProcessBatchServiceImpl(processService, properties);
+    }
+
+    private static BatchCommand newCommand(final String id, final String... dependsOn) {
+        return new BatchCommand(id, new ExecutableCommand("echo", "", "", new String[] { id }), List.of(dependsOn));
+    }
+}
@@ -0,0 +1,161 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import fr.tiogars.springbootfileandprocess.config.ProcessProperties;
+import fr.tiogars.springbootfileandprocess.models.CommandResult;
+import fr.tiogars.springbootfileandprocess.models.ExecutableCommand;
+import fr.tiogars.springbootfileandprocess.models.JobStatus;
+import fr.tiogars.springbootfileandprocess.models.ProcessJob;
+
+/**
+ * Unit tests for ProcessJobServiceImpl class.
+ */
+public class ProcessJobServiceImplTest {
+
+    private ProcessJobServiceImpl jobService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Releases blocked commands and shuts the executor down after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (jobService != null) {
+            jobService.destroy();
+        }
+    }
+
+    /**
+     * Test a submitted job runs to completion and exposes its result.
+     */
+    @Test
+    public void testSubmitCompletes() throws Exception {
+        // Arrange
+        jobService = newService(1, 1, invocation -> new CommandResult(0, List.of("done")));
+
+        // Act
+        ProcessJob job = jobService.submit(newCommand());
+        awaitTerminal(job);
+
+        // Assert
+        assertEquals(JobStatus.COMPLETED, job.getStatus(), "Job should be completed");
+        assertNotNull(job.getResult(), "Result should be set");
+        assertEquals(List.of("done"), job.getResult().getOutput(), "Output should match");
+        assertTrue(jobService.getJob(job.getId()).isPresent(), "Job should be retrievable");
+    }
+
+    /**
+     * Test a failing command marks the job as failed.
+     */
+    @Test
+    public void testSubmitFails() throws Exception {
+        // Arrange
+        jobService = newService(1, 1, invocation -> {
+            throw new IOException("boom");
+        });
+
+        // Act
+        ProcessJob job = jobService.submit(newCommand());
+        awaitTerminal(job);
+
+        // Assert
+        assertEquals(JobStatus.FAILED, job.getStatus(), "Job should be failed");
+        assertEquals("boom", job.getError(), "Error message should be kept");
+    }
+
+    /**
+     * Test submissions are rejected once the queue is full.
+     */
+    @Test
+    public void testSubmitRejectedWhenQueueFull() throws Exception {
+        // Arrange
+        jobService = newService(1, 1, invocation -> blockUntilReleased());
+        jobService.submit(newCommand());
+        jobService.submit(newCommand());
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(newCommand()),
+                "Should reject when the queue is full");
+    }
+
+    /**
+     * Test cancelling a running job interrupts it.
+     */
+    @Test
+    public void testCancelRunningJob() throws Exception {
+        // Arrange
+        jobService = newService(1, 1, invocation -> blockUntilReleased());
+        ProcessJob running = jobService.submit(newCommand());
+        ProcessJob queued = jobService.submit(newCommand());
+        while (running.getStatus() == JobStatus.QUEUED) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        jobService.cancel(running.getId());
+        jobService.cancel(queued.getId());
+
+        // Assert
+        assertEquals(JobStatus.CANCELLED, running.getStatus(), "Running job should be cancelled");
+        assertEquals(JobStatus.CANCELLED, queued.getStatus(), "Queued job should be cancelled");
+        assertNotNull(jobService.submit(newCommand()), "Cancelled jobs should free the queue");
+    }
+
+    /**
+     * Test unknown jobs are reported as absent.
+     */
+    @Test
+    public void testUnknownJob() throws Exception {
+        // Arrange
+        jobService = newService(1, 1, invocation -> new CommandResult(0, List.of()));
+
+        // Act & Assert
+        assertTrue(jobService.getJob("unknown").isEmpty(), "Unknown job should be absent");
+        assertTrue(jobService.cancel("unknown").isEmpty(), "Unknown job should not be cancelled");
+    }
+
+    private CommandResult blockUntilReleased() throws InterruptedException {
+        release.await();
+        return new CommandResult(0, List.of());
+    }
+
+    private static ProcessJobServiceImpl newService(final int poolSize, final int queueCapacity,
+            final Answer<CommandResult> execution) throws Exception {
+        ProcessService processService = mock(ProcessService.class);
+        when(processService.executeAndWaitForResponse(any())).thenAnswer(execution);
+        ProcessProperties properties = new ProcessProperties();
+        properties.getJobs().setPoolSize(poolSize);
+        properties.getJobs().setQueueCapacity(queueCapacity);
+        return new ProcessJobServiceImpl(processService, properties);
+    }
+
+    private static ExecutableCommand newCommand() {
+        return new ExecutableCommand("echo", "", "", new String[] { "test" });
+    }
+
+    private static void awaitTerminal(final ProcessJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.getStatus().isTerminal() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
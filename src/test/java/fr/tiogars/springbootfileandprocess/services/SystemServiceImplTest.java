@@ -0,0 +1,100 @@
+package fr.tiogars.springbootfileandprocess.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.tiogars.springbootfileandprocess.config.SystemProperties;
+import fr.tiogars.springbootfileandprocess.models.SystemInfo;
+import fr.tiogars.springbootfileandprocess.repository.SystemRepositoryImpl;
+
+/**
+ * Unit tests for SystemServiceImpl class.
+ */
+public class SystemServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private SystemServiceImpl systemService;
+
+    /**
+     * Teardown method executed after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (systemService != null) {
+            systemService.destroy();
+        }
+    }
+
+    /**
+     * Test the same snapshot is served until the next sampling.
+     */
+    @Test
+    public void testSnapshotIsCached() {
+        // Arrange
+        systemService = createService(Duration.ofHours(1));
+        systemService.afterPropertiesSet();
+
+        // Act
+        SystemInfo first = systemService.getInfo();
+        SystemInfo second = systemService.getInfo();
+
+        // Assert
+        assertSame(first, second, "Requests should read the same snapshot");
+        assertEquals(1, first.disks().size(), "The configured disk should be reported");
+    }
+
+    /**
+     * Test the snapshot is replaced in the background.
+     */
+    @Test
+    public void testSnapshotIsRefreshed() throws InterruptedException {
+        // Arrange
+        systemService = createService(Duration.ofMillis(20));
+        systemService.afterPropertiesSet();
+        SystemInfo first = systemService.getInfo();
+
+        // Act
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (systemService.getInfo() == first && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertNotSame(first, systemService.getInfo(), "The snapshot should be refreshed");
+    }
+
+    /**
+     * Test the system is sampled on each request with a zero interval.
+     */
+    @Test
+    public void testZeroIntervalSamplesOnEachRequest() {
+        // Arrange
+        systemService = createService(Duration.ZERO);
+        systemService.afterPropertiesSet();
+
+        // Act
+        SystemInfo first = systemService.getInfo();
+        SystemInfo second = systemService.getInfo();
+
+        // Assert
+        assertNotSame(first, second, "Each request should sample the system");
+    }
+
+    private SystemServiceImpl createService(final Duration refreshInterval) {
+        SystemProperties properties = new SystemProperties();
+        properties.getInfo().setRefreshInterval(refreshInterval);
+        properties.getInfo().setDiskPaths(List.of(directory.toString()));
+        return new SystemServiceImpl(new SystemRepositoryImpl(), properties);
+    }
+}